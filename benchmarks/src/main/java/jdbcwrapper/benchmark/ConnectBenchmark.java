@@ -0,0 +1,57 @@
+package jdbcwrapper.benchmark;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jdbcwrapper.WrappingDriver;
+import jdbcwrapper.benchmark.stub.StubDriver;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConnectBenchmark {
+	
+	private static final String RAW_URL = "jdbc:stub:benchmark";
+	
+	private static final String WRAPPED_URL = "jdbc:wrapped:stub:benchmark";
+	
+	private final Properties info = new Properties();
+	
+	private Driver stubDriver;
+	
+	private Driver wrappingDriver;
+	
+	@Setup
+	public void setUp() {
+		this.stubDriver = new StubDriver();
+		this.wrappingDriver = new WrappingDriver();
+	}
+	
+	@Benchmark
+	public Connection connectRaw() throws SQLException {
+		return this.stubDriver.connect(RAW_URL, this.info);
+	}
+	
+	@Benchmark
+	public Connection connectWrapped() throws SQLException {
+		return this.wrappingDriver.connect(WRAPPED_URL, this.info);
+	}
+
+}
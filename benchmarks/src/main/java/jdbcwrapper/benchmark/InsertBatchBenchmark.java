@@ -0,0 +1,95 @@
+package jdbcwrapper.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jdbcwrapper.benchmark.stub.StubMonitoringConnection;
+import jdbcwrapper.util.DriverMetadata;
+import jdbcwrapper.util.ListenerScope;
+
+// Rows per second inserted by batches of single-row inserts against an in-memory H2 database,
+// with and without multi-row insert rewriting. The batch is rolled back after each invocation. H2
+// needs a longer warmup than the stub benchmarks.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InsertBatchBenchmark {
+	
+	private static final String URL = "jdbc:h2:mem:insertbenchmark;DB_CLOSE_DELAY=-1";
+	
+	private static final String INSERT = "insert into batch_insert (id, name, amount) values (?, ?, ?)";
+	
+	private static final int ROWS = 1000;
+	
+	// Maximum number of rows per rewritten insert, 0 for plain batching
+	@Param({"0", "16", "128"})
+	public int chunkSize;
+	
+	private Connection connection;
+	
+	private PreparedStatement statement;
+	
+	@Setup
+	public void setUp() throws SQLException {
+		try (Connection setupConnection = DriverManager.getConnection(URL);
+				Statement setupStatement = setupConnection.createStatement()) {
+			setupStatement.execute("create table if not exists batch_insert (id int, name varchar(100), amount double)");
+		}
+		
+		Map<String, String> properties = new HashMap<>();
+		properties.put("batch.insert.rewrite.size", String.valueOf(this.chunkSize));
+		DriverMetadata metadata = new DriverMetadata("insert-benchmark", null, true, true, Collections.emptyList(), ListenerScope.PER_CONNECTION, properties);
+		
+		this.connection = new StubMonitoringConnection(DriverManager.getConnection(URL), Collections.emptyList(), metadata);
+		this.connection.setAutoCommit(false);
+		this.statement = this.connection.prepareStatement(INSERT);
+	}
+	
+	@TearDown
+	public void tearDown() throws SQLException {
+		this.statement.close();
+		this.connection.close();
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public int[] insertBatch() throws SQLException {
+		PreparedStatement statement = this.statement;
+		
+		for (int id = 0; id < ROWS; id++) {
+			statement.setInt(1, id);
+			statement.setString(2, "name");
+			statement.setDouble(3, id);
+			statement.addBatch();
+		}
+		
+		int[] updateCounts = statement.executeBatch();
+		this.connection.rollback();
+		return updateCounts;
+	}
+
+}
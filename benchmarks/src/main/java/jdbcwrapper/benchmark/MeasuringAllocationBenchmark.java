@@ -0,0 +1,64 @@
+package jdbcwrapper.benchmark;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jdbcwrapper.benchmark.stub.StubConnection;
+import jdbcwrapper.measurement.MeasuringStatement;
+
+// Measures the measuring statements with escape analysis disabled. This simulates call sites where
+// the JIT cannot prove that per-call objects (such as capturing lambdas) do not escape, which is common
+// once the call sites become megamorphic. Any allocation on the timing path shows up in gc.alloc.rate.norm.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:-DoEscapeAnalysis")
+@State(Scope.Thread)
+public class MeasuringAllocationBenchmark {
+	
+	private static final String QUERY = "select id, name from customer where id = 42";
+	
+	private static final String UPDATE = "update customer set name = 'x' where id = 42";
+	
+	private Statement statement;
+	
+	@Setup
+	public void setUp() throws SQLException {
+		this.statement = new MeasuringStatement(new StubConnection().createStatement(), new NoOpMeasuringConnection());
+	}
+	
+	@Benchmark
+	public int intResult() throws SQLException {
+		return this.statement.executeUpdate(UPDATE);
+	}
+	
+	@Benchmark
+	public boolean booleanResult() throws SQLException {
+		return this.statement.execute(QUERY);
+	}
+	
+	@Benchmark
+	public int[] intArrayResult() throws SQLException {
+		return this.statement.executeBatch();
+	}
+	
+	@Benchmark
+	public ResultSet resultSetResult() throws SQLException {
+		return this.statement.executeQuery(QUERY);
+	}
+
+}
@@ -0,0 +1,27 @@
+package jdbcwrapper.benchmark;
+
+import java.sql.Statement;
+
+import jdbcwrapper.measurement.MeasuringConnection;
+import jdbcwrapper.measurement.StatementKind;
+
+// Measuring connection without any recording, isolates the cost of the measuring statements themselves
+public class NoOpMeasuringConnection implements MeasuringConnection {
+
+	@Override
+	public void onStatementStart(final Statement statement) {
+		// Do nothing
+	}
+
+	@Override
+	public void onStatementEnd(final Statement statement, final StatementKind kind, final long durationNanos) {
+		// Do nothing
+	}
+	
+	@Override
+	public void onResultSetEnd(final Statement statement, final long rowCount, final long firstRowNanos, final long fetchNanos,
+			final long fetchCount) {
+		// Do nothing
+	}
+
+}
@@ -0,0 +1,91 @@
+package jdbcwrapper.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PreparedStatementBenchmark {
+	
+	private static final String QUERY = "select id, name from customer where id = ?";
+	
+	private static final String UPDATE = "update customer set name = ?, version = ? where id = ?";
+	
+	@Param
+	public WrapperPath path;
+	
+	private Connection connection;
+	
+	private PreparedStatement query;
+	
+	private PreparedStatement update;
+	
+	private long id;
+	
+	@Setup
+	public void setUp() throws SQLException {
+		this.connection = this.path.openConnection();
+		this.query = this.path.prepareStatement(this.connection, QUERY);
+		this.update = this.path.prepareStatement(this.connection, UPDATE);
+	}
+	
+	@TearDown
+	public void tearDown() throws SQLException {
+		this.query.close();
+		this.update.close();
+		this.connection.close();
+	}
+	
+	@Benchmark
+	public ResultSet executeQuery() throws SQLException {
+		this.query.setLong(1, this.id++);
+		return this.query.executeQuery();
+	}
+	
+	@Benchmark
+	public int executeUpdate() throws SQLException {
+		this.setUpdateParameters();
+		return this.update.executeUpdate();
+	}
+	
+	@Benchmark
+	public int[] executeBatch() throws SQLException {
+		this.setUpdateParameters();
+		this.update.addBatch();
+		this.setUpdateParameters();
+		this.update.addBatch();
+		return this.update.executeBatch();
+	}
+	
+	@Benchmark
+	public void setParameters() throws SQLException {
+		this.setUpdateParameters();
+	}
+	
+	private void setUpdateParameters() throws SQLException {
+		this.update.setString(1, "name");
+		this.update.setInt(2, 1);
+		this.update.setLong(3, this.id++);
+	}
+
+}
@@ -0,0 +1,74 @@
+package jdbcwrapper.benchmark;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StatementBenchmark {
+	
+	private static final String QUERY = "select id, name from customer where id = 42";
+	
+	private static final String UPDATE = "update customer set name = 'x' where id = 42";
+	
+	@Param
+	public WrapperPath path;
+	
+	private Connection connection;
+	
+	private Statement statement;
+	
+	@Setup
+	public void setUp() throws SQLException {
+		this.connection = this.path.openConnection();
+		this.statement = this.path.createStatement(this.connection);
+	}
+	
+	@TearDown
+	public void tearDown() throws SQLException {
+		this.statement.close();
+		this.connection.close();
+	}
+	
+	@Benchmark
+	public ResultSet executeQuery() throws SQLException {
+		return this.statement.executeQuery(QUERY);
+	}
+	
+	@Benchmark
+	public int executeUpdate() throws SQLException {
+		return this.statement.executeUpdate(UPDATE);
+	}
+	
+	@Benchmark
+	public boolean execute() throws SQLException {
+		return this.statement.execute(QUERY);
+	}
+	
+	@Benchmark
+	public int[] executeBatch() throws SQLException {
+		this.statement.addBatch(UPDATE);
+		return this.statement.executeBatch();
+	}
+
+}
@@ -0,0 +1,99 @@
+package jdbcwrapper.benchmark;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jdbcwrapper.benchmark.stub.StubConnection;
+import jdbcwrapper.benchmark.stub.StubMonitoringConnection;
+import jdbcwrapper.txmonitoring.TransactionEvent;
+import jdbcwrapper.txmonitoring.TransactionListener;
+import jdbcwrapper.txmonitoring.TxMonitoringConnection;
+import jdbcwrapper.util.DriverMetadata;
+
+// Overhead of transaction monitoring for a transaction consisting of a single update
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransactionBenchmark {
+	
+	private static final String SQL = "update t set x = 1";
+	
+	private Connection rawConnection;
+	
+	private Connection monitoringConnection;
+	
+	private Statement rawStatement;
+	
+	private Statement monitoringStatement;
+	
+	@Setup
+	public void setUp() throws SQLException {
+		this.rawConnection = new StubConnection();
+		this.rawConnection.setAutoCommit(false);
+		this.rawStatement = this.rawConnection.createStatement();
+		
+		TransactionListener listener = new DurationListener();
+		this.monitoringConnection = new StubMonitoringConnection(new StubConnection(), Collections.singletonList(listener),
+				DriverMetadata.defaults("stub"));
+		this.monitoringConnection.setAutoCommit(false);
+		this.monitoringStatement = this.monitoringConnection.createStatement();
+	}
+	
+	@Benchmark
+	public void transactionRaw() throws SQLException {
+		this.rawStatement.executeUpdate(SQL);
+		this.rawConnection.commit();
+	}
+	
+	@Benchmark
+	public void transactionMonitoring() throws SQLException {
+		this.monitoringStatement.executeUpdate(SQL);
+		this.monitoringConnection.commit();
+	}
+	
+	// Transaction monitoring alone, without the statement measurement
+	@Benchmark
+	public void emptyTransactionMonitoring() throws SQLException {
+		this.monitoringConnection.commit();
+	}
+	
+	private static class DurationListener implements TransactionListener {
+		
+		// Not volatile, the benchmark runs single-threaded per state
+		private long totalDuration;
+		
+		@Override
+		public void onTransactionStart(final TxMonitoringConnection connection) {
+			// Do nothing
+		}
+		
+		@Override
+		public void onTransactionEnd(final TxMonitoringConnection connection, final boolean success) {
+			// Not called, since the event variant is overridden
+		}
+		
+		@Override
+		public void onTransactionEnd(final TransactionEvent event) {
+			this.totalDuration += event.getDuration();
+		}
+		
+	}
+
+}
@@ -0,0 +1,70 @@
+package jdbcwrapper.benchmark;
+
+import java.lang.reflect.Constructor;
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jdbcwrapper.benchmark.stub.StubConnection;
+import jdbcwrapper.benchmark.stub.StubMonitoringConnection;
+import jdbcwrapper.util.ConnectionWrapperFactory;
+import jdbcwrapper.util.DriverMetadata;
+import jdbcwrapper.util.FactoryUtil;
+
+// Compares creating connection wrappers via Constructor.newInstance with the generated factories,
+// with several threads connecting concurrently
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class WrapperFactoryBenchmark {
+	
+	private final Connection connection = new StubConnection();
+	
+	private final List<Object> listeners = Collections.emptyList();
+	
+	private Constructor<?> constructor;
+	
+	private ConnectionWrapperFactory factory;
+	
+	private DriverMetadata metadata;
+	
+	@Setup
+	public void setUp() throws NoSuchMethodException {
+		this.constructor = StubMonitoringConnection.class.getConstructor(Connection.class, List.class, DriverMetadata.class);
+		this.factory = FactoryUtil.createWrapperFactory(this.constructor, true, true);
+		this.metadata = DriverMetadata.defaults("stub");
+	}
+	
+	@Benchmark
+	public Object reflectiveConstructor() throws ReflectiveOperationException {
+		return this.constructor.newInstance(this.connection, this.listeners, this.metadata);
+	}
+	
+	@Benchmark
+	public Object generatedFactory() {
+		return this.factory.create(this.connection, this.listeners, this.metadata);
+	}
+	
+	@Benchmark
+	public Object directConstructor() {
+		return new StubMonitoringConnection(this.connection, Collections.emptyList(), this.metadata);
+	}
+
+}
@@ -0,0 +1,108 @@
+package jdbcwrapper.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import jdbcwrapper.WrappedPreparedStatement;
+import jdbcwrapper.WrappedStatement;
+import jdbcwrapper.benchmark.stub.StubConnection;
+import jdbcwrapper.benchmark.stub.StubMonitoringConnection;
+import jdbcwrapper.measurement.MeasuringPreparedStatement;
+import jdbcwrapper.measurement.MeasuringStatement;
+import jdbcwrapper.util.DriverMetadata;
+import jdbcwrapper.util.ListenerScope;
+
+// The different paths a JDBC call can take through the wrapper, from no wrapping at all to full transaction monitoring
+public enum WrapperPath {
+	
+	RAW {
+		@Override
+		public Statement createStatement(final Connection connection) throws SQLException {
+			return connection.createStatement();
+		}
+		
+		@Override
+		public PreparedStatement prepareStatement(final Connection connection, final String sql) throws SQLException {
+			return connection.prepareStatement(sql);
+		}
+	},
+	WRAPPED {
+		@Override
+		public Statement createStatement(final Connection connection) throws SQLException {
+			return new WrappedStatement(connection.createStatement());
+		}
+		
+		@Override
+		public PreparedStatement prepareStatement(final Connection connection, final String sql) throws SQLException {
+			return new WrappedPreparedStatement(connection.prepareStatement(sql));
+		}
+	},
+	MEASURING {
+		@Override
+		public Statement createStatement(final Connection connection) throws SQLException {
+			return new MeasuringStatement(connection.createStatement(), new NoOpMeasuringConnection());
+		}
+		
+		@Override
+		public PreparedStatement prepareStatement(final Connection connection, final String sql) throws SQLException {
+			return new MeasuringPreparedStatement(connection.prepareStatement(sql), sql, new NoOpMeasuringConnection());
+		}
+	},
+	TX_MONITORING {
+		@Override
+		protected Connection wrapConnection(final Connection connection) {
+			return new StubMonitoringConnection(connection, Collections.emptyList());
+		}
+		
+		@Override
+		public Statement createStatement(final Connection connection) throws SQLException {
+			return connection.createStatement();
+		}
+		
+		@Override
+		public PreparedStatement prepareStatement(final Connection connection, final String sql) throws SQLException {
+			return connection.prepareStatement(sql);
+		}
+	},
+	// Transaction monitoring with the slow query log and parameter capture, but no statement above the threshold
+	TX_MONITORING_CAPTURING {
+		@Override
+		protected Connection wrapConnection(final Connection connection) {
+			Map<String, String> properties = new HashMap<>();
+			properties.put("slow.query.threshold.millis", "60000");
+			properties.put("slow.query.parameters", "true");
+			DriverMetadata metadata = new DriverMetadata("stub-capturing", null, true, true, Collections.emptyList(), ListenerScope.PER_CONNECTION,
+					properties);
+			
+			return new StubMonitoringConnection(connection, Collections.emptyList(), metadata);
+		}
+		
+		@Override
+		public Statement createStatement(final Connection connection) throws SQLException {
+			return connection.createStatement();
+		}
+		
+		@Override
+		public PreparedStatement prepareStatement(final Connection connection, final String sql) throws SQLException {
+			return connection.prepareStatement(sql);
+		}
+	};
+	
+	public Connection openConnection() {
+		return this.wrapConnection(new StubConnection());
+	}
+	
+	protected Connection wrapConnection(final Connection connection) {
+		return connection;
+	}
+	
+	public abstract Statement createStatement(Connection connection) throws SQLException;
+	
+	public abstract PreparedStatement prepareStatement(Connection connection, String sql) throws SQLException;
+
+}
@@ -0,0 +1,66 @@
+package jdbcwrapper.benchmark.stub;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+// In-process driver for "jdbc:stub:" URLs that hands out stub connections
+public class StubDriver implements Driver {
+	
+	public static final String URL_PREFIX = "jdbc:stub:";
+	
+	private static final Logger PARENT_LOGGER = Logger.getLogger("jdbcwrapper.benchmark.stub");
+	
+	static {
+		try {
+			DriverManager.registerDriver(new StubDriver());
+		} catch (SQLException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
+	@Override
+	public Connection connect(final String url, final Properties info) throws SQLException {
+		if (!this.acceptsURL(url)) {
+			return null;
+		}
+		
+		return new StubConnection();
+	}
+
+	@Override
+	public boolean acceptsURL(final String url) throws SQLException {
+		return url.startsWith(URL_PREFIX);
+	}
+
+	@Override
+	public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) throws SQLException {
+		return new DriverPropertyInfo[0];
+	}
+
+	@Override
+	public int getMajorVersion() {
+		return 1;
+	}
+
+	@Override
+	public int getMinorVersion() {
+		return 0;
+	}
+
+	@Override
+	public boolean jdbcCompliant() {
+		return false;
+	}
+
+	@Override
+	public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+		return PARENT_LOGGER;
+	}
+
+}
@@ -0,0 +1,26 @@
+package jdbcwrapper.benchmark.stub;
+
+import java.sql.Connection;
+import java.util.List;
+
+import jdbcwrapper.txmonitoring.AbstractTxMonitoringConnection;
+import jdbcwrapper.txmonitoring.TransactionListener;
+import jdbcwrapper.util.DriverMetadata;
+
+// Transaction-monitoring wrapper for the stub driver, configured for the type "stub"
+public class StubMonitoringConnection extends AbstractTxMonitoringConnection<TransactionListener> {
+
+	public StubMonitoringConnection(final Connection wrappedConnection, final List<TransactionListener> listeners) {
+		super(wrappedConnection, listeners);
+	}
+	
+	public StubMonitoringConnection(final Connection wrappedConnection, final List<TransactionListener> listeners, final DriverMetadata metadata) {
+		super(wrappedConnection, listeners, metadata);
+	}
+
+	@Override
+	public int getTransactionId() {
+		return 0;
+	}
+
+}
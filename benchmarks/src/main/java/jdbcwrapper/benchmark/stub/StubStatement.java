@@ -0,0 +1,237 @@
+package jdbcwrapper.benchmark.stub;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+public class StubStatement implements Statement {
+
+	private static final int[] BATCH_RESULT = new int[] {1, 1, 1, 1};
+	
+	private final Connection connection;
+	
+	private final ResultSet resultSet;
+	
+	private int fetchSize;
+	
+	private int queryTimeout;
+	
+	private boolean closed;
+	
+	public StubStatement(final Connection connection) {
+		this.connection = connection;
+		this.resultSet = new StubResultSet(this);
+	}
+
+	@Override
+	public <T> T unwrap(final Class<T> iface) throws SQLException {
+		throw new SQLException("Not a wrapper for " + iface.getName() + ".");
+	}
+
+	@Override
+	public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public ResultSet executeQuery(final String sql) throws SQLException {
+		return this.resultSet;
+	}
+
+	@Override
+	public int executeUpdate(final String sql) throws SQLException {
+		return 1;
+	}
+
+	@Override
+	public void close() throws SQLException {
+		this.closed = true;
+	}
+
+	@Override
+	public int getMaxFieldSize() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public void setMaxFieldSize(final int max) throws SQLException {
+	}
+
+	@Override
+	public int getMaxRows() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public void setMaxRows(final int max) throws SQLException {
+	}
+
+	@Override
+	public void setEscapeProcessing(final boolean enable) throws SQLException {
+	}
+
+	@Override
+	public int getQueryTimeout() throws SQLException {
+		return this.queryTimeout;
+	}
+
+	@Override
+	public void setQueryTimeout(final int seconds) throws SQLException {
+		this.queryTimeout = seconds;
+	}
+
+	@Override
+	public void cancel() throws SQLException {
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return null;
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException {
+	}
+
+	@Override
+	public void setCursorName(final String name) throws SQLException {
+	}
+
+	@Override
+	public boolean execute(final String sql) throws SQLException {
+		return true;
+	}
+
+	@Override
+	public ResultSet getResultSet() throws SQLException {
+		return this.resultSet;
+	}
+
+	@Override
+	public int getUpdateCount() throws SQLException {
+		return -1;
+	}
+
+	@Override
+	public boolean getMoreResults() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public void setFetchDirection(final int direction) throws SQLException {
+	}
+
+	@Override
+	public int getFetchDirection() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public void setFetchSize(final int rows) throws SQLException {
+		this.fetchSize = rows;
+	}
+
+	@Override
+	public int getFetchSize() throws SQLException {
+		return this.fetchSize;
+	}
+
+	@Override
+	public int getResultSetConcurrency() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public int getResultSetType() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public void addBatch(final String sql) throws SQLException {
+	}
+
+	@Override
+	public void clearBatch() throws SQLException {
+	}
+
+	@Override
+	public int[] executeBatch() throws SQLException {
+		return BATCH_RESULT;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return this.connection;
+	}
+
+	@Override
+	public boolean getMoreResults(final int current) throws SQLException {
+		return false;
+	}
+
+	@Override
+	public ResultSet getGeneratedKeys() throws SQLException {
+		return null;
+	}
+
+	@Override
+	public int executeUpdate(final String sql, final int autoGeneratedKeys) throws SQLException {
+		return 1;
+	}
+
+	@Override
+	public int executeUpdate(final String sql, final int[] columnIndexes) throws SQLException {
+		return 1;
+	}
+
+	@Override
+	public int executeUpdate(final String sql, final String[] columnNames) throws SQLException {
+		return 1;
+	}
+
+	@Override
+	public boolean execute(final String sql, final int autoGeneratedKeys) throws SQLException {
+		return true;
+	}
+
+	@Override
+	public boolean execute(final String sql, final int[] columnIndexes) throws SQLException {
+		return true;
+	}
+
+	@Override
+	public boolean execute(final String sql, final String[] columnNames) throws SQLException {
+		return true;
+	}
+
+	@Override
+	public int getResultSetHoldability() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return this.closed;
+	}
+
+	@Override
+	public void setPoolable(final boolean poolable) throws SQLException {
+	}
+
+	@Override
+	public boolean isPoolable() throws SQLException {
+		return false;
+	}
+
+	@Override
+	public void closeOnCompletion() throws SQLException {
+	}
+
+	@Override
+	public boolean isCloseOnCompletion() throws SQLException {
+		return false;
+	}
+
+}
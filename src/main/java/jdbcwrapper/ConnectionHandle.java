@@ -0,0 +1,88 @@
+package jdbcwrapper;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Handle for a connection that outlives its user, e.g., a pooled connection. Each user gets a new
+// handle, and closing the handle does not close the connection but hands it back (see release).
+// A closed handle fails on every call, so a user who keeps it cannot interfere with the next user
+// of the connection.
+public abstract class ConnectionHandle extends WrappedConnection<Object> {
+	
+	// SQL state for "connection does not exist"
+	protected static final String CLOSED_STATE = "08003";
+	
+	private final AtomicBoolean closed = new AtomicBoolean();
+	
+	protected ConnectionHandle(final Connection connection) {
+		super(connection);
+	}
+	
+	@Override
+	protected Connection getWrappedConnection() throws SQLException {
+		this.checkOpen();
+		return super.getWrappedConnection();
+	}
+	
+	// A closed handle must not reveal the connection, which may already belong to the next user
+	@Override
+	public <T> T unwrap(final Class<T> iface) throws SQLException {
+		this.checkOpen();
+		return super.unwrap(iface);
+	}
+	
+	@Override
+	public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+		this.checkOpen();
+		return super.isWrapperFor(iface);
+	}
+	
+	private void checkOpen() throws SQLException {
+		if (this.closed.get()) {
+			throw new SQLNonTransientConnectionException("The connection is closed.", CLOSED_STATE);
+		}
+	}
+	
+	@Override
+	public void close() throws SQLException {
+		// Releasing twice could hand back the connection of the next user
+		if (this.closed.compareAndSet(false, true)) {
+			this.release();
+		}
+	}
+	
+	// Hands the connection back when the handle is closed
+	protected abstract void release() throws SQLException;
+	
+	@Override
+	public void closeWrappedConnection() throws SQLException {
+		this.close();
+	}
+	
+	@Override
+	public void abort(final Executor executor) throws SQLException {
+		if (this.closed.compareAndSet(false, true)) {
+			this.abortConnection(executor);
+		}
+	}
+	
+	// Aborts the connection, which cannot be handed out again
+	protected void abortConnection(final Executor executor) throws SQLException {
+		super.abort(executor);
+	}
+	
+	// Closes the handle without releasing the connection, e.g., when the owner takes the connection back.
+	// Returns false if the handle was already closed.
+	protected boolean invalidate() {
+		return this.closed.compareAndSet(false, true);
+	}
+	
+	@Override
+	public boolean isClosed() throws SQLException {
+		return (this.closed.get() || super.isClosed());
+	}
+
+}
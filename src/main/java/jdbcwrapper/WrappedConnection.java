@@ -39,58 +39,84 @@ public class WrappedConnection<L> implements Connection {
 
 	@Override
 	public <T> T unwrap(final Class<T> iface) throws SQLException {
+		// Wrappers further down may be asked for as well, e.g., the monitoring connection behind a handle
+		if (iface.isInstance(this)) {
+			return iface.cast(this);
+		}
+		
 		return this.wrappedConnection.unwrap(iface);
 	}
 
 	@Override
 	public boolean isWrapperFor(final Class<?> iface) throws SQLException {
-		return this.wrappedConnection.isWrapperFor(iface);
+		return (iface.isInstance(this) || this.wrappedConnection.isWrapperFor(iface));
 	}
 
 	@Override
 	public Statement createStatement() throws SQLException {
-		return this.wrappedConnection.createStatement();
+		return this.getWrappedConnection().createStatement();
 	}
 
 	@Override
 	public PreparedStatement prepareStatement(final String sql) throws SQLException {
-		return this.wrappedConnection.prepareStatement(sql);
+		return this.getWrappedConnection().prepareStatement(sql);
 	}
 
 	@Override
 	public CallableStatement prepareCall(final String sql) throws SQLException {
-		return this.wrappedConnection.prepareCall(sql);
+		return this.getWrappedConnection().prepareCall(sql);
 	}
 
 	@Override
 	public String nativeSQL(final String sql) throws SQLException {
-		return this.wrappedConnection.nativeSQL(sql);
+		return this.getWrappedConnection().nativeSQL(sql);
 	}
 
 	@Override
 	public void setAutoCommit(final boolean autoCommit) throws SQLException {
-		this.wrappedConnection.setAutoCommit(autoCommit);
+		this.getWrappedConnection().setAutoCommit(autoCommit);
 	}
 
 	@Override
 	public boolean getAutoCommit() throws SQLException {
-		return this.wrappedConnection.getAutoCommit();
+		return this.getWrappedConnection().getAutoCommit();
 	}
 
 	@Override
 	public void commit() throws SQLException {
-		this.wrappedConnection.commit();
+		this.getWrappedConnection().commit();
 	}
 
 	@Override
 	public void rollback() throws SQLException {
-		this.wrappedConnection.rollback();
+		this.getWrappedConnection().rollback();
 	}
 
 	@Override
 	public void close() throws SQLException {
+		this.closeWrappedConnection();
+	}
+	
+	// Closes the wrapped connection, even if this connection belongs to a pool
+	public void closeWrappedConnection() throws SQLException {
 		this.wrappedConnection.close();
 	}
+	
+	// Restores the state of a new connection before a pooled connection is reused. An open transaction
+	// is rolled back, as it would be when the connection is closed.
+	public void resetState() throws SQLException {
+		if (!this.getWrappedConnection().getAutoCommit()) {
+			this.getWrappedConnection().rollback();
+			this.getWrappedConnection().setAutoCommit(true);
+		}
+		
+		this.getWrappedConnection().clearWarnings();
+	}
+	
+	// Returns the connection to delegate to. Handles (see ConnectionHandle) fail here once they are closed.
+	protected Connection getWrappedConnection() throws SQLException {
+		return this.wrappedConnection;
+	}
 
 	@Override
 	public boolean isClosed() throws SQLException {
@@ -99,201 +125,201 @@ public class WrappedConnection<L> implements Connection {
 
 	@Override
 	public DatabaseMetaData getMetaData() throws SQLException {
-		return this.wrappedConnection.getMetaData();
+		return this.getWrappedConnection().getMetaData();
 	}
 
 	@Override
 	public void setReadOnly(final boolean readOnly) throws SQLException {
-		this.wrappedConnection.setReadOnly(readOnly);
+		this.getWrappedConnection().setReadOnly(readOnly);
 	}
 
 	@Override
 	public boolean isReadOnly() throws SQLException {
-		return this.wrappedConnection.isReadOnly();
+		return this.getWrappedConnection().isReadOnly();
 	}
 
 	@Override
 	public void setCatalog(final String catalog) throws SQLException {
-		this.wrappedConnection.setCatalog(catalog);
+		this.getWrappedConnection().setCatalog(catalog);
 	}
 
 	@Override
 	public String getCatalog() throws SQLException {
-		return this.wrappedConnection.getCatalog();
+		return this.getWrappedConnection().getCatalog();
 	}
 
 	@Override
 	public void setTransactionIsolation(final int level) throws SQLException {
-		this.wrappedConnection.setTransactionIsolation(level);
+		this.getWrappedConnection().setTransactionIsolation(level);
 	}
 
 	@Override
 	public int getTransactionIsolation() throws SQLException {
-		return this.wrappedConnection.getTransactionIsolation();
+		return this.getWrappedConnection().getTransactionIsolation();
 	}
 
 	@Override
 	public SQLWarning getWarnings() throws SQLException {
-		return this.wrappedConnection.getWarnings();
+		return this.getWrappedConnection().getWarnings();
 	}
 
 	@Override
 	public void clearWarnings() throws SQLException {
-		this.wrappedConnection.clearWarnings();
+		this.getWrappedConnection().clearWarnings();
 	}
 
 	@Override
 	public Statement createStatement(final int resultSetType, final int resultSetConcurrency) throws SQLException {
-		return this.wrappedConnection.createStatement(resultSetType, resultSetConcurrency);
+		return this.getWrappedConnection().createStatement(resultSetType, resultSetConcurrency);
 	}
 
 	@Override
 	public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency)
 			throws SQLException {
-		return this.wrappedConnection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+		return this.getWrappedConnection().prepareStatement(sql, resultSetType, resultSetConcurrency);
 	}
 
 	@Override
 	public CallableStatement prepareCall(final String sql, final int resultSetType, final int resultSetConcurrency) throws SQLException {
-		return this.wrappedConnection.prepareCall(sql, resultSetType, resultSetConcurrency);
+		return this.getWrappedConnection().prepareCall(sql, resultSetType, resultSetConcurrency);
 	}
 
 	@Override
 	public Map<String, Class<?>> getTypeMap() throws SQLException {
-		return this.wrappedConnection.getTypeMap();
+		return this.getWrappedConnection().getTypeMap();
 	}
 
 	@Override
 	public void setTypeMap(final Map<String, Class<?>> map) throws SQLException {
-		this.wrappedConnection.setTypeMap(map);
+		this.getWrappedConnection().setTypeMap(map);
 	}
 
 	@Override
 	public void setHoldability(final int holdability) throws SQLException {
-		this.wrappedConnection.setHoldability(holdability);
+		this.getWrappedConnection().setHoldability(holdability);
 	}
 
 	@Override
 	public int getHoldability() throws SQLException {
-		return this.wrappedConnection.getHoldability();
+		return this.getWrappedConnection().getHoldability();
 	}
 
 	@Override
 	public Savepoint setSavepoint() throws SQLException {
-		return this.wrappedConnection.setSavepoint();
+		return this.getWrappedConnection().setSavepoint();
 	}
 
 	@Override
 	public Savepoint setSavepoint(final String name) throws SQLException {
-		return this.wrappedConnection.setSavepoint(name);
+		return this.getWrappedConnection().setSavepoint(name);
 	}
 
 	@Override
 	public void rollback(final Savepoint savepoint) throws SQLException {
-		this.wrappedConnection.rollback(savepoint);
+		this.getWrappedConnection().rollback(savepoint);
 	}
 
 	@Override
 	public void releaseSavepoint(final Savepoint savepoint) throws SQLException {
-		this.wrappedConnection.releaseSavepoint(savepoint);
+		this.getWrappedConnection().releaseSavepoint(savepoint);
 	}
 
 	@Override
 	public Statement createStatement(final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability)
 			throws SQLException {
-		return this.wrappedConnection.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
+		return this.getWrappedConnection().createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
 	}
 
 	@Override
 	public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency,
 			final int resultSetHoldability) throws SQLException {
-		return this.wrappedConnection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+		return this.getWrappedConnection().prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
 	}
 
 	@Override
 	public CallableStatement prepareCall(final String sql, final int resultSetType, final int resultSetConcurrency,
 			final int resultSetHoldability) throws SQLException {
-		return this.wrappedConnection.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+		return this.getWrappedConnection().prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
 	}
 
 	@Override
 	public PreparedStatement prepareStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
-		return this.wrappedConnection.prepareStatement(sql, autoGeneratedKeys);
+		return this.getWrappedConnection().prepareStatement(sql, autoGeneratedKeys);
 	}
 
 	@Override
 	public PreparedStatement prepareStatement(final String sql, final int[] columnIndexes) throws SQLException {
-		return this.wrappedConnection.prepareStatement(sql, columnIndexes);
+		return this.getWrappedConnection().prepareStatement(sql, columnIndexes);
 	}
 
 	@Override
 	public PreparedStatement prepareStatement(final String sql, final String[] columnNames) throws SQLException {
-		return this.wrappedConnection.prepareStatement(sql, columnNames);
+		return this.getWrappedConnection().prepareStatement(sql, columnNames);
 	}
 
 	@Override
 	public Clob createClob() throws SQLException {
-		return this.wrappedConnection.createClob();
+		return this.getWrappedConnection().createClob();
 	}
 
 	@Override
 	public Blob createBlob() throws SQLException {
-		return this.wrappedConnection.createBlob();
+		return this.getWrappedConnection().createBlob();
 	}
 
 	@Override
 	public NClob createNClob() throws SQLException {
-		return this.wrappedConnection.createNClob();
+		return this.getWrappedConnection().createNClob();
 	}
 
 	@Override
 	public SQLXML createSQLXML() throws SQLException {
-		return this.wrappedConnection.createSQLXML();
+		return this.getWrappedConnection().createSQLXML();
 	}
 
 	@Override
 	public boolean isValid(final int timeout) throws SQLException {
-		return this.wrappedConnection.isValid(timeout);
+		return this.getWrappedConnection().isValid(timeout);
 	}
 
 	@Override
 	public void setClientInfo(final String name, final String value) throws SQLClientInfoException {
-		this.wrappedConnection.setClientInfo(name, value);
+		this.getClientInfoConnection().setClientInfo(name, value);
 	}
 
 	@Override
 	public void setClientInfo(final Properties properties) throws SQLClientInfoException {
-		this.wrappedConnection.setClientInfo(properties);
+		this.getClientInfoConnection().setClientInfo(properties);
 	}
 
 	@Override
 	public String getClientInfo(final String name) throws SQLException {
-		return this.wrappedConnection.getClientInfo(name);
+		return this.getWrappedConnection().getClientInfo(name);
 	}
 
 	@Override
 	public Properties getClientInfo() throws SQLException {
-		return this.wrappedConnection.getClientInfo();
+		return this.getWrappedConnection().getClientInfo();
 	}
 
 	@Override
 	public Array createArrayOf(final String typeName, final Object[] elements) throws SQLException {
-		return this.wrappedConnection.createArrayOf(typeName, elements);
+		return this.getWrappedConnection().createArrayOf(typeName, elements);
 	}
 
 	@Override
 	public Struct createStruct(final String typeName, final Object[] attributes) throws SQLException {
-		return this.wrappedConnection.createStruct(typeName, attributes);
+		return this.getWrappedConnection().createStruct(typeName, attributes);
 	}
 
 	@Override
 	public void setSchema(final String schema) throws SQLException {
-		this.wrappedConnection.setSchema(schema);
+		this.getWrappedConnection().setSchema(schema);
 	}
 
 	@Override
 	public String getSchema() throws SQLException {
-		return this.wrappedConnection.getSchema();
+		return this.getWrappedConnection().getSchema();
 	}
 
 	@Override
@@ -303,12 +329,24 @@ public class WrappedConnection<L> implements Connection {
 
 	@Override
 	public void setNetworkTimeout(final Executor executor, final int milliseconds) throws SQLException {
-		this.wrappedConnection.setNetworkTimeout(executor, milliseconds);
+		this.getWrappedConnection().setNetworkTimeout(executor, milliseconds);
 	}
 
 	@Override
 	public int getNetworkTimeout() throws SQLException {
-		return this.wrappedConnection.getNetworkTimeout();
+		return this.getWrappedConnection().getNetworkTimeout();
+	}
+	
+	private Connection getClientInfoConnection() throws SQLClientInfoException {
+		try {
+			return this.getWrappedConnection();
+		} catch (SQLException e) {
+			throw new SQLClientInfoException(e.getMessage(), e.getSQLState(), e.getErrorCode(), Collections.emptyMap(), e);
+		}
+	}
+	
+	protected List<L> getConnectionListeners() {
+		return this.listeners;
 	}
 	
 	protected void notifyConnectionListeners(final Consumer<? super L> event) {
@@ -30,281 +30,286 @@ public class WrappedPreparedStatement extends WrappedStatement implements Prepar
 		
 		this.wrappedStatement = statement;
 	}
+	
+	@Override
+	protected PreparedStatement getWrappedStatement() throws SQLException {
+		return this.wrappedStatement;
+	}
 
 	@Override
 	public ResultSet executeQuery() throws SQLException {
-		return this.wrappedStatement.executeQuery();
+		return this.getWrappedStatement().executeQuery();
 	}
 
 	@Override
 	public int executeUpdate() throws SQLException {
-		return this.wrappedStatement.executeUpdate();
+		return this.getWrappedStatement().executeUpdate();
 	}
 
 	@Override
 	public void setNull(final int parameterIndex, final int sqlType) throws SQLException {
-		this.wrappedStatement.setNull(parameterIndex, sqlType);
+		this.getWrappedStatement().setNull(parameterIndex, sqlType);
 	}
 
 	@Override
 	public void setBoolean(final int parameterIndex, final boolean x) throws SQLException {
-		this.wrappedStatement.setBoolean(parameterIndex, x);
+		this.getWrappedStatement().setBoolean(parameterIndex, x);
 	}
 
 	@Override
 	public void setByte(final int parameterIndex, final byte x) throws SQLException {
-		this.wrappedStatement.setByte(parameterIndex, x);
+		this.getWrappedStatement().setByte(parameterIndex, x);
 	}
 
 	@Override
 	public void setShort(final int parameterIndex, final short x) throws SQLException {
-		this.wrappedStatement.setShort(parameterIndex, x);
+		this.getWrappedStatement().setShort(parameterIndex, x);
 	}
 
 	@Override
 	public void setInt(final int parameterIndex, final int x) throws SQLException {
-		this.wrappedStatement.setInt(parameterIndex, x);
+		this.getWrappedStatement().setInt(parameterIndex, x);
 	}
 
 	@Override
 	public void setLong(final int parameterIndex, final long x) throws SQLException {
-		this.wrappedStatement.setLong(parameterIndex, x);
+		this.getWrappedStatement().setLong(parameterIndex, x);
 	}
 
 	@Override
 	public void setFloat(final int parameterIndex, final float x) throws SQLException {
-		this.wrappedStatement.setFloat(parameterIndex, x);
+		this.getWrappedStatement().setFloat(parameterIndex, x);
 	}
 
 	@Override
 	public void setDouble(final int parameterIndex, final double x) throws SQLException {
-		this.wrappedStatement.setDouble(parameterIndex, x);
+		this.getWrappedStatement().setDouble(parameterIndex, x);
 	}
 
 	@Override
 	public void setBigDecimal(final int parameterIndex, final BigDecimal x) throws SQLException {
-		this.wrappedStatement.setBigDecimal(parameterIndex, x);
+		this.getWrappedStatement().setBigDecimal(parameterIndex, x);
 	}
 
 	@Override
 	public void setString(final int parameterIndex, final String x) throws SQLException {
-		this.wrappedStatement.setString(parameterIndex, x);
+		this.getWrappedStatement().setString(parameterIndex, x);
 	}
 
 	@Override
 	public void setBytes(final int parameterIndex, final byte[] x) throws SQLException {
-		this.wrappedStatement.setBytes(parameterIndex, x);
+		this.getWrappedStatement().setBytes(parameterIndex, x);
 	}
 
 	@Override
 	public void setDate(final int parameterIndex, final Date x) throws SQLException {
-		this.wrappedStatement.setDate(parameterIndex, x);
+		this.getWrappedStatement().setDate(parameterIndex, x);
 	}
 
 	@Override
 	public void setTime(final int parameterIndex, final Time x) throws SQLException {
-		this.wrappedStatement.setTime(parameterIndex, x);
+		this.getWrappedStatement().setTime(parameterIndex, x);
 	}
 
 	@Override
 	public void setTimestamp(final int parameterIndex, final Timestamp x) throws SQLException {
-		this.wrappedStatement.setTimestamp(parameterIndex, x);
+		this.getWrappedStatement().setTimestamp(parameterIndex, x);
 	}
 
 	@Override
 	public void setAsciiStream(final int parameterIndex, final InputStream x, final int length) throws SQLException {
-		this.wrappedStatement.setAsciiStream(parameterIndex, x, length);
+		this.getWrappedStatement().setAsciiStream(parameterIndex, x, length);
 	}
 	
 	@Override
 	@SuppressWarnings("deprecation")
 	public void setUnicodeStream(final int parameterIndex, final InputStream x, final int length) throws SQLException {
-		this.wrappedStatement.setUnicodeStream(parameterIndex, x, length);
+		this.getWrappedStatement().setUnicodeStream(parameterIndex, x, length);
 	}
 
 	@Override
 	public void setBinaryStream(final int parameterIndex, final InputStream x, final int length) throws SQLException {
-		this.wrappedStatement.setBinaryStream(parameterIndex, x, length);
+		this.getWrappedStatement().setBinaryStream(parameterIndex, x, length);
 	}
 
 	@Override
 	public void clearParameters() throws SQLException {
-		this.wrappedStatement.clearParameters();
+		this.getWrappedStatement().clearParameters();
 	}
 
 	@Override
 	public void setObject(final int parameterIndex, final Object x, final int targetSqlType) throws SQLException {
-		this.wrappedStatement.setObject(parameterIndex, x, targetSqlType);
+		this.getWrappedStatement().setObject(parameterIndex, x, targetSqlType);
 	}
 
 	@Override
 	public void setObject(final int parameterIndex, final Object x) throws SQLException {
-		this.wrappedStatement.setObject(parameterIndex, x);
+		this.getWrappedStatement().setObject(parameterIndex, x);
 	}
 
 	@Override
 	public boolean execute() throws SQLException {
-		return this.wrappedStatement.execute();
+		return this.getWrappedStatement().execute();
 	}
 
 	@Override
 	public void addBatch() throws SQLException {
-		this.wrappedStatement.addBatch();
+		this.getWrappedStatement().addBatch();
 	}
 
 	@Override
 	public void setCharacterStream(final int parameterIndex, final Reader reader, final int length) throws SQLException {
-		this.wrappedStatement.setCharacterStream(parameterIndex, reader, length);
+		this.getWrappedStatement().setCharacterStream(parameterIndex, reader, length);
 	}
 
 	@Override
 	public void setRef(final int parameterIndex, final Ref x) throws SQLException {
-		this.wrappedStatement.setRef(parameterIndex, x);
+		this.getWrappedStatement().setRef(parameterIndex, x);
 	}
 
 	@Override
 	public void setBlob(final int parameterIndex, final Blob x) throws SQLException {
-		this.wrappedStatement.setBlob(parameterIndex, x);
+		this.getWrappedStatement().setBlob(parameterIndex, x);
 	}
 
 	@Override
 	public void setClob(final int parameterIndex, final Clob x) throws SQLException {
-		this.wrappedStatement.setClob(parameterIndex, x);
+		this.getWrappedStatement().setClob(parameterIndex, x);
 	}
 
 	@Override
 	public void setArray(final int parameterIndex, final Array x) throws SQLException {
-		this.wrappedStatement.setArray(parameterIndex, x);
+		this.getWrappedStatement().setArray(parameterIndex, x);
 	}
 
 	@Override
 	public ResultSetMetaData getMetaData() throws SQLException {
-		return this.wrappedStatement.getMetaData();
+		return this.getWrappedStatement().getMetaData();
 	}
 
 	@Override
 	public void setDate(final int parameterIndex, final Date x, final Calendar cal) throws SQLException {
-		this.wrappedStatement.setDate(parameterIndex, x, cal);
+		this.getWrappedStatement().setDate(parameterIndex, x, cal);
 	}
 
 	@Override
 	public void setTime(final int parameterIndex, final Time x, final Calendar cal) throws SQLException {
-		this.wrappedStatement.setTime(parameterIndex, x, cal);
+		this.getWrappedStatement().setTime(parameterIndex, x, cal);
 	}
 
 	@Override
 	public void setTimestamp(final int parameterIndex, final Timestamp x, final Calendar cal) throws SQLException {
-		this.wrappedStatement.setTimestamp(parameterIndex, x, cal);
+		this.getWrappedStatement().setTimestamp(parameterIndex, x, cal);
 	}
 
 	@Override
 	public void setNull(final int parameterIndex, final int sqlType, final String typeName) throws SQLException {
-		this.wrappedStatement.setNull(parameterIndex, sqlType, typeName);
+		this.getWrappedStatement().setNull(parameterIndex, sqlType, typeName);
 	}
 
 	@Override
 	public void setURL(final int parameterIndex, final URL x) throws SQLException {
-		this.wrappedStatement.setURL(parameterIndex, x);
+		this.getWrappedStatement().setURL(parameterIndex, x);
 	}
 
 	@Override
 	public ParameterMetaData getParameterMetaData() throws SQLException {
-		return this.wrappedStatement.getParameterMetaData();
+		return this.getWrappedStatement().getParameterMetaData();
 	}
 
 	@Override
 	public void setRowId(final int parameterIndex, final RowId x) throws SQLException {
-		this.wrappedStatement.setRowId(parameterIndex, x);
+		this.getWrappedStatement().setRowId(parameterIndex, x);
 	}
 
 	@Override
 	public void setNString(final int parameterIndex, final String value) throws SQLException {
-		this.wrappedStatement.setNString(parameterIndex, value);
+		this.getWrappedStatement().setNString(parameterIndex, value);
 	}
 
 	@Override
 	public void setNCharacterStream(final int parameterIndex, final Reader value, final long length) throws SQLException {
-		this.wrappedStatement.setNCharacterStream(parameterIndex, value, length);
+		this.getWrappedStatement().setNCharacterStream(parameterIndex, value, length);
 	}
 
 	@Override
 	public void setNClob(final int parameterIndex, final NClob value) throws SQLException {
-		this.wrappedStatement.setNClob(parameterIndex, value);
+		this.getWrappedStatement().setNClob(parameterIndex, value);
 	}
 
 	@Override
 	public void setClob(final int parameterIndex, final Reader reader, final long length) throws SQLException {
-		this.wrappedStatement.setClob(parameterIndex, reader, length);
+		this.getWrappedStatement().setClob(parameterIndex, reader, length);
 	}
 
 	@Override
 	public void setBlob(final int parameterIndex, final InputStream inputStream, final long length) throws SQLException {
-		this.wrappedStatement.setBlob(parameterIndex, inputStream, length);
+		this.getWrappedStatement().setBlob(parameterIndex, inputStream, length);
 	}
 
 	@Override
 	public void setNClob(final int parameterIndex, final Reader reader, final long length) throws SQLException {
-		this.wrappedStatement.setNClob(parameterIndex, reader, length);
+		this.getWrappedStatement().setNClob(parameterIndex, reader, length);
 	}
 
 	@Override
 	public void setSQLXML(final int parameterIndex, final SQLXML xmlObject) throws SQLException {
-		this.wrappedStatement.setSQLXML(parameterIndex, xmlObject);
+		this.getWrappedStatement().setSQLXML(parameterIndex, xmlObject);
 	}
 
 	@Override
 	public void setObject(final int parameterIndex, final Object x, final int targetSqlType, final int scaleOrLength) throws SQLException {
-		this.wrappedStatement.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+		this.getWrappedStatement().setObject(parameterIndex, x, targetSqlType, scaleOrLength);
 	}
 
 	@Override
 	public void setAsciiStream(final int parameterIndex, final InputStream x, final long length) throws SQLException {
-		this.wrappedStatement.setAsciiStream(parameterIndex, x, length);
+		this.getWrappedStatement().setAsciiStream(parameterIndex, x, length);
 	}
 
 	@Override
 	public void setBinaryStream(final int parameterIndex, final InputStream x, final long length) throws SQLException {
-		this.wrappedStatement.setBinaryStream(parameterIndex, x, length);
+		this.getWrappedStatement().setBinaryStream(parameterIndex, x, length);
 	}
 
 	@Override
 	public void setCharacterStream(final int parameterIndex, final Reader reader, final long length) throws SQLException {
-		this.wrappedStatement.setCharacterStream(parameterIndex, reader, length);
+		this.getWrappedStatement().setCharacterStream(parameterIndex, reader, length);
 	}
 
 	@Override
 	public void setAsciiStream(final int parameterIndex, final InputStream x) throws SQLException {
-		this.wrappedStatement.setAsciiStream(parameterIndex, x);
+		this.getWrappedStatement().setAsciiStream(parameterIndex, x);
 	}
 
 	@Override
 	public void setBinaryStream(final int parameterIndex, final InputStream x) throws SQLException {
-		this.wrappedStatement.setBinaryStream(parameterIndex, x);
+		this.getWrappedStatement().setBinaryStream(parameterIndex, x);
 	}
 
 	@Override
 	public void setCharacterStream(final int parameterIndex, final Reader reader) throws SQLException {
-		this.wrappedStatement.setCharacterStream(parameterIndex, reader);
+		this.getWrappedStatement().setCharacterStream(parameterIndex, reader);
 	}
 
 	@Override
 	public void setNCharacterStream(final int parameterIndex, final Reader value) throws SQLException {
-		this.wrappedStatement.setNCharacterStream(parameterIndex, value);
+		this.getWrappedStatement().setNCharacterStream(parameterIndex, value);
 	}
 
 	@Override
 	public void setClob(final int parameterIndex, final Reader reader) throws SQLException {
-		this.wrappedStatement.setClob(parameterIndex, reader);
+		this.getWrappedStatement().setClob(parameterIndex, reader);
 	}
 
 	@Override
 	public void setBlob(final int parameterIndex, final InputStream inputStream) throws SQLException {
-		this.wrappedStatement.setBlob(parameterIndex, inputStream);
+		this.getWrappedStatement().setBlob(parameterIndex, inputStream);
 	}
 
 	@Override
 	public void setNClob(final int parameterIndex, final Reader reader) throws SQLException {
-		this.wrappedStatement.setNClob(parameterIndex, reader);
+		this.getWrappedStatement().setNClob(parameterIndex, reader);
 	}
 	
 }
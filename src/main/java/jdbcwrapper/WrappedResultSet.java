@@ -0,0 +1,992 @@
+package jdbcwrapper;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Map;
+
+public class WrappedResultSet implements ResultSet {
+
+	private final ResultSet wrappedResultSet;
+
+	public WrappedResultSet(final ResultSet resultSet) {
+		this.wrappedResultSet = resultSet;
+	}
+	
+	@Override
+	public <T> T unwrap(final Class<T> iface) throws SQLException {
+		return this.wrappedResultSet.unwrap(iface);
+	}
+
+	@Override
+	public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+		return this.wrappedResultSet.isWrapperFor(iface);
+	}
+
+	@Override
+	public boolean next() throws SQLException {
+		return this.wrappedResultSet.next();
+	}
+
+	@Override
+	public void close() throws SQLException {
+		this.wrappedResultSet.close();
+	}
+
+	@Override
+	public boolean wasNull() throws SQLException {
+		return this.wrappedResultSet.wasNull();
+	}
+
+	@Override
+	public String getString(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getString(columnIndex);
+	}
+
+	@Override
+	public boolean getBoolean(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getBoolean(columnIndex);
+	}
+
+	@Override
+	public byte getByte(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getByte(columnIndex);
+	}
+
+	@Override
+	public short getShort(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getShort(columnIndex);
+	}
+
+	@Override
+	public int getInt(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getInt(columnIndex);
+	}
+
+	@Override
+	public long getLong(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getLong(columnIndex);
+	}
+
+	@Override
+	public float getFloat(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getFloat(columnIndex);
+	}
+
+	@Override
+	public double getDouble(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getDouble(columnIndex);
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public BigDecimal getBigDecimal(final int columnIndex, final int scale) throws SQLException {
+		return this.wrappedResultSet.getBigDecimal(columnIndex, scale);
+	}
+
+	@Override
+	public byte[] getBytes(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getBytes(columnIndex);
+	}
+
+	@Override
+	public Date getDate(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getDate(columnIndex);
+	}
+
+	@Override
+	public Time getTime(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getTime(columnIndex);
+	}
+
+	@Override
+	public Timestamp getTimestamp(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getTimestamp(columnIndex);
+	}
+
+	@Override
+	public InputStream getAsciiStream(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getAsciiStream(columnIndex);
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public InputStream getUnicodeStream(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getUnicodeStream(columnIndex);
+	}
+
+	@Override
+	public InputStream getBinaryStream(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getBinaryStream(columnIndex);
+	}
+
+	@Override
+	public String getString(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getString(columnLabel);
+	}
+
+	@Override
+	public boolean getBoolean(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getBoolean(columnLabel);
+	}
+
+	@Override
+	public byte getByte(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getByte(columnLabel);
+	}
+
+	@Override
+	public short getShort(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getShort(columnLabel);
+	}
+
+	@Override
+	public int getInt(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getInt(columnLabel);
+	}
+
+	@Override
+	public long getLong(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getLong(columnLabel);
+	}
+
+	@Override
+	public float getFloat(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getFloat(columnLabel);
+	}
+
+	@Override
+	public double getDouble(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getDouble(columnLabel);
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public BigDecimal getBigDecimal(final String columnLabel, final int scale) throws SQLException {
+		return this.wrappedResultSet.getBigDecimal(columnLabel, scale);
+	}
+
+	@Override
+	public byte[] getBytes(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getBytes(columnLabel);
+	}
+
+	@Override
+	public Date getDate(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getDate(columnLabel);
+	}
+
+	@Override
+	public Time getTime(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getTime(columnLabel);
+	}
+
+	@Override
+	public Timestamp getTimestamp(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getTimestamp(columnLabel);
+	}
+
+	@Override
+	public InputStream getAsciiStream(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getAsciiStream(columnLabel);
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public InputStream getUnicodeStream(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getUnicodeStream(columnLabel);
+	}
+
+	@Override
+	public InputStream getBinaryStream(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getBinaryStream(columnLabel);
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return this.wrappedResultSet.getWarnings();
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException {
+		this.wrappedResultSet.clearWarnings();
+	}
+
+	@Override
+	public String getCursorName() throws SQLException {
+		return this.wrappedResultSet.getCursorName();
+	}
+
+	@Override
+	public ResultSetMetaData getMetaData() throws SQLException {
+		return this.wrappedResultSet.getMetaData();
+	}
+
+	@Override
+	public Object getObject(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getObject(columnIndex);
+	}
+
+	@Override
+	public Object getObject(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getObject(columnLabel);
+	}
+
+	@Override
+	public int findColumn(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.findColumn(columnLabel);
+	}
+
+	@Override
+	public Reader getCharacterStream(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getCharacterStream(columnIndex);
+	}
+
+	@Override
+	public Reader getCharacterStream(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getCharacterStream(columnLabel);
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getBigDecimal(columnIndex);
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getBigDecimal(columnLabel);
+	}
+
+	@Override
+	public boolean isBeforeFirst() throws SQLException {
+		return this.wrappedResultSet.isBeforeFirst();
+	}
+
+	@Override
+	public boolean isAfterLast() throws SQLException {
+		return this.wrappedResultSet.isAfterLast();
+	}
+
+	@Override
+	public boolean isFirst() throws SQLException {
+		return this.wrappedResultSet.isFirst();
+	}
+
+	@Override
+	public boolean isLast() throws SQLException {
+		return this.wrappedResultSet.isLast();
+	}
+
+	@Override
+	public void beforeFirst() throws SQLException {
+		this.wrappedResultSet.beforeFirst();
+	}
+
+	@Override
+	public void afterLast() throws SQLException {
+		this.wrappedResultSet.afterLast();
+	}
+
+	@Override
+	public boolean first() throws SQLException {
+		return this.wrappedResultSet.first();
+	}
+
+	@Override
+	public boolean last() throws SQLException {
+		return this.wrappedResultSet.last();
+	}
+
+	@Override
+	public int getRow() throws SQLException {
+		return this.wrappedResultSet.getRow();
+	}
+
+	@Override
+	public boolean absolute(final int row) throws SQLException {
+		return this.wrappedResultSet.absolute(row);
+	}
+
+	@Override
+	public boolean relative(final int rows) throws SQLException {
+		return this.wrappedResultSet.relative(rows);
+	}
+
+	@Override
+	public boolean previous() throws SQLException {
+		return this.wrappedResultSet.previous();
+	}
+
+	@Override
+	public void setFetchDirection(final int direction) throws SQLException {
+		this.wrappedResultSet.setFetchDirection(direction);
+	}
+
+	@Override
+	public int getFetchDirection() throws SQLException {
+		return this.wrappedResultSet.getFetchDirection();
+	}
+
+	@Override
+	public void setFetchSize(final int rows) throws SQLException {
+		this.wrappedResultSet.setFetchSize(rows);
+	}
+
+	@Override
+	public int getFetchSize() throws SQLException {
+		return this.wrappedResultSet.getFetchSize();
+	}
+
+	@Override
+	public int getType() throws SQLException {
+		return this.wrappedResultSet.getType();
+	}
+
+	@Override
+	public int getConcurrency() throws SQLException {
+		return this.wrappedResultSet.getConcurrency();
+	}
+
+	@Override
+	public boolean rowUpdated() throws SQLException {
+		return this.wrappedResultSet.rowUpdated();
+	}
+
+	@Override
+	public boolean rowInserted() throws SQLException {
+		return this.wrappedResultSet.rowInserted();
+	}
+
+	@Override
+	public boolean rowDeleted() throws SQLException {
+		return this.wrappedResultSet.rowDeleted();
+	}
+
+	@Override
+	public void updateNull(final int columnIndex) throws SQLException {
+		this.wrappedResultSet.updateNull(columnIndex);
+	}
+
+	@Override
+	public void updateBoolean(final int columnIndex, final boolean x) throws SQLException {
+		this.wrappedResultSet.updateBoolean(columnIndex, x);
+	}
+
+	@Override
+	public void updateByte(final int columnIndex, final byte x) throws SQLException {
+		this.wrappedResultSet.updateByte(columnIndex, x);
+	}
+
+	@Override
+	public void updateShort(final int columnIndex, final short x) throws SQLException {
+		this.wrappedResultSet.updateShort(columnIndex, x);
+	}
+
+	@Override
+	public void updateInt(final int columnIndex, final int x) throws SQLException {
+		this.wrappedResultSet.updateInt(columnIndex, x);
+	}
+
+	@Override
+	public void updateLong(final int columnIndex, final long x) throws SQLException {
+		this.wrappedResultSet.updateLong(columnIndex, x);
+	}
+
+	@Override
+	public void updateFloat(final int columnIndex, final float x) throws SQLException {
+		this.wrappedResultSet.updateFloat(columnIndex, x);
+	}
+
+	@Override
+	public void updateDouble(final int columnIndex, final double x) throws SQLException {
+		this.wrappedResultSet.updateDouble(columnIndex, x);
+	}
+
+	@Override
+	public void updateBigDecimal(final int columnIndex, final BigDecimal x) throws SQLException {
+		this.wrappedResultSet.updateBigDecimal(columnIndex, x);
+	}
+
+	@Override
+	public void updateString(final int columnIndex, final String x) throws SQLException {
+		this.wrappedResultSet.updateString(columnIndex, x);
+	}
+
+	@Override
+	public void updateBytes(final int columnIndex, final byte[] x) throws SQLException {
+		this.wrappedResultSet.updateBytes(columnIndex, x);
+	}
+
+	@Override
+	public void updateDate(final int columnIndex, final Date x) throws SQLException {
+		this.wrappedResultSet.updateDate(columnIndex, x);
+	}
+
+	@Override
+	public void updateTime(final int columnIndex, final Time x) throws SQLException {
+		this.wrappedResultSet.updateTime(columnIndex, x);
+	}
+
+	@Override
+	public void updateTimestamp(final int columnIndex, final Timestamp x) throws SQLException {
+		this.wrappedResultSet.updateTimestamp(columnIndex, x);
+	}
+
+	@Override
+	public void updateAsciiStream(final int columnIndex, final InputStream x, final int length) throws SQLException {
+		this.wrappedResultSet.updateAsciiStream(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateBinaryStream(final int columnIndex, final InputStream x, final int length) throws SQLException {
+		this.wrappedResultSet.updateBinaryStream(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateCharacterStream(final int columnIndex, final Reader x, final int length) throws SQLException {
+		this.wrappedResultSet.updateCharacterStream(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateObject(final int columnIndex, final Object x, final int scaleOrLength) throws SQLException {
+		this.wrappedResultSet.updateObject(columnIndex, x, scaleOrLength);
+	}
+
+	@Override
+	public void updateObject(final int columnIndex, final Object x) throws SQLException {
+		this.wrappedResultSet.updateObject(columnIndex, x);
+	}
+
+	@Override
+	public void updateNull(final String columnLabel) throws SQLException {
+		this.wrappedResultSet.updateNull(columnLabel);
+	}
+
+	@Override
+	public void updateBoolean(final String columnLabel, final boolean x) throws SQLException {
+		this.wrappedResultSet.updateBoolean(columnLabel, x);
+	}
+
+	@Override
+	public void updateByte(final String columnLabel, final byte x) throws SQLException {
+		this.wrappedResultSet.updateByte(columnLabel, x);
+	}
+
+	@Override
+	public void updateShort(final String columnLabel, final short x) throws SQLException {
+		this.wrappedResultSet.updateShort(columnLabel, x);
+	}
+
+	@Override
+	public void updateInt(final String columnLabel, final int x) throws SQLException {
+		this.wrappedResultSet.updateInt(columnLabel, x);
+	}
+
+	@Override
+	public void updateLong(final String columnLabel, final long x) throws SQLException {
+		this.wrappedResultSet.updateLong(columnLabel, x);
+	}
+
+	@Override
+	public void updateFloat(final String columnLabel, final float x) throws SQLException {
+		this.wrappedResultSet.updateFloat(columnLabel, x);
+	}
+
+	@Override
+	public void updateDouble(final String columnLabel, final double x) throws SQLException {
+		this.wrappedResultSet.updateDouble(columnLabel, x);
+	}
+
+	@Override
+	public void updateBigDecimal(final String columnLabel, final BigDecimal x) throws SQLException {
+		this.wrappedResultSet.updateBigDecimal(columnLabel, x);
+	}
+
+	@Override
+	public void updateString(final String columnLabel, final String x) throws SQLException {
+		this.wrappedResultSet.updateString(columnLabel, x);
+	}
+
+	@Override
+	public void updateBytes(final String columnLabel, final byte[] x) throws SQLException {
+		this.wrappedResultSet.updateBytes(columnLabel, x);
+	}
+
+	@Override
+	public void updateDate(final String columnLabel, final Date x) throws SQLException {
+		this.wrappedResultSet.updateDate(columnLabel, x);
+	}
+
+	@Override
+	public void updateTime(final String columnLabel, final Time x) throws SQLException {
+		this.wrappedResultSet.updateTime(columnLabel, x);
+	}
+
+	@Override
+	public void updateTimestamp(final String columnLabel, final Timestamp x) throws SQLException {
+		this.wrappedResultSet.updateTimestamp(columnLabel, x);
+	}
+
+	@Override
+	public void updateAsciiStream(final String columnLabel, final InputStream x, final int length) throws SQLException {
+		this.wrappedResultSet.updateAsciiStream(columnLabel, x, length);
+	}
+
+	@Override
+	public void updateBinaryStream(final String columnLabel, final InputStream x, final int length) throws SQLException {
+		this.wrappedResultSet.updateBinaryStream(columnLabel, x, length);
+	}
+
+	@Override
+	public void updateCharacterStream(final String columnLabel, final Reader x, final int length) throws SQLException {
+		this.wrappedResultSet.updateCharacterStream(columnLabel, x, length);
+	}
+
+	@Override
+	public void updateObject(final String columnLabel, final Object x, final int scaleOrLength) throws SQLException {
+		this.wrappedResultSet.updateObject(columnLabel, x, scaleOrLength);
+	}
+
+	@Override
+	public void updateObject(final String columnLabel, final Object x) throws SQLException {
+		this.wrappedResultSet.updateObject(columnLabel, x);
+	}
+
+	@Override
+	public void insertRow() throws SQLException {
+		this.wrappedResultSet.insertRow();
+	}
+
+	@Override
+	public void updateRow() throws SQLException {
+		this.wrappedResultSet.updateRow();
+	}
+
+	@Override
+	public void deleteRow() throws SQLException {
+		this.wrappedResultSet.deleteRow();
+	}
+
+	@Override
+	public void refreshRow() throws SQLException {
+		this.wrappedResultSet.refreshRow();
+	}
+
+	@Override
+	public void cancelRowUpdates() throws SQLException {
+		this.wrappedResultSet.cancelRowUpdates();
+	}
+
+	@Override
+	public void moveToInsertRow() throws SQLException {
+		this.wrappedResultSet.moveToInsertRow();
+	}
+
+	@Override
+	public void moveToCurrentRow() throws SQLException {
+		this.wrappedResultSet.moveToCurrentRow();
+	}
+
+	@Override
+	public Statement getStatement() throws SQLException {
+		return this.wrappedResultSet.getStatement();
+	}
+
+	@Override
+	public Object getObject(final int columnIndex, final Map<String, Class<?>> map) throws SQLException {
+		return this.wrappedResultSet.getObject(columnIndex, map);
+	}
+
+	@Override
+	public Ref getRef(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getRef(columnIndex);
+	}
+
+	@Override
+	public Blob getBlob(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getBlob(columnIndex);
+	}
+
+	@Override
+	public Clob getClob(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getClob(columnIndex);
+	}
+
+	@Override
+	public Array getArray(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getArray(columnIndex);
+	}
+
+	@Override
+	public Object getObject(final String columnLabel, final Map<String, Class<?>> map) throws SQLException {
+		return this.wrappedResultSet.getObject(columnLabel, map);
+	}
+
+	@Override
+	public Ref getRef(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getRef(columnLabel);
+	}
+
+	@Override
+	public Blob getBlob(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getBlob(columnLabel);
+	}
+
+	@Override
+	public Clob getClob(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getClob(columnLabel);
+	}
+
+	@Override
+	public Array getArray(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getArray(columnLabel);
+	}
+
+	@Override
+	public Date getDate(final int columnIndex, final Calendar cal) throws SQLException {
+		return this.wrappedResultSet.getDate(columnIndex, cal);
+	}
+
+	@Override
+	public Date getDate(final String columnLabel, final Calendar cal) throws SQLException {
+		return this.wrappedResultSet.getDate(columnLabel, cal);
+	}
+
+	@Override
+	public Time getTime(final int columnIndex, final Calendar cal) throws SQLException {
+		return this.wrappedResultSet.getTime(columnIndex, cal);
+	}
+
+	@Override
+	public Time getTime(final String columnLabel, final Calendar cal) throws SQLException {
+		return this.wrappedResultSet.getTime(columnLabel, cal);
+	}
+
+	@Override
+	public Timestamp getTimestamp(final int columnIndex, final Calendar cal) throws SQLException {
+		return this.wrappedResultSet.getTimestamp(columnIndex, cal);
+	}
+
+	@Override
+	public Timestamp getTimestamp(final String columnLabel, final Calendar cal) throws SQLException {
+		return this.wrappedResultSet.getTimestamp(columnLabel, cal);
+	}
+
+	@Override
+	public URL getURL(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getURL(columnIndex);
+	}
+
+	@Override
+	public URL getURL(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getURL(columnLabel);
+	}
+
+	@Override
+	public void updateRef(final int columnIndex, final Ref x) throws SQLException {
+		this.wrappedResultSet.updateRef(columnIndex, x);
+	}
+
+	@Override
+	public void updateRef(final String columnLabel, final Ref x) throws SQLException {
+		this.wrappedResultSet.updateRef(columnLabel, x);
+	}
+
+	@Override
+	public void updateBlob(final int columnIndex, final Blob x) throws SQLException {
+		this.wrappedResultSet.updateBlob(columnIndex, x);
+	}
+
+	@Override
+	public void updateBlob(final String columnLabel, final Blob x) throws SQLException {
+		this.wrappedResultSet.updateBlob(columnLabel, x);
+	}
+
+	@Override
+	public void updateClob(final int columnIndex, final Clob x) throws SQLException {
+		this.wrappedResultSet.updateClob(columnIndex, x);
+	}
+
+	@Override
+	public void updateClob(final String columnLabel, final Clob x) throws SQLException {
+		this.wrappedResultSet.updateClob(columnLabel, x);
+	}
+
+	@Override
+	public void updateArray(final int columnIndex, final Array x) throws SQLException {
+		this.wrappedResultSet.updateArray(columnIndex, x);
+	}
+
+	@Override
+	public void updateArray(final String columnLabel, final Array x) throws SQLException {
+		this.wrappedResultSet.updateArray(columnLabel, x);
+	}
+
+	@Override
+	public RowId getRowId(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getRowId(columnIndex);
+	}
+
+	@Override
+	public RowId getRowId(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getRowId(columnLabel);
+	}
+
+	@Override
+	public void updateRowId(final int columnIndex, final RowId x) throws SQLException {
+		this.wrappedResultSet.updateRowId(columnIndex, x);
+	}
+
+	@Override
+	public void updateRowId(final String columnLabel, final RowId x) throws SQLException {
+		this.wrappedResultSet.updateRowId(columnLabel, x);
+	}
+
+	@Override
+	public int getHoldability() throws SQLException {
+		return this.wrappedResultSet.getHoldability();
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return this.wrappedResultSet.isClosed();
+	}
+
+	@Override
+	public void updateNString(final int columnIndex, final String x) throws SQLException {
+		this.wrappedResultSet.updateNString(columnIndex, x);
+	}
+
+	@Override
+	public void updateNString(final String columnLabel, final String x) throws SQLException {
+		this.wrappedResultSet.updateNString(columnLabel, x);
+	}
+
+	@Override
+	public void updateNClob(final int columnIndex, final NClob x) throws SQLException {
+		this.wrappedResultSet.updateNClob(columnIndex, x);
+	}
+
+	@Override
+	public void updateNClob(final String columnLabel, final NClob x) throws SQLException {
+		this.wrappedResultSet.updateNClob(columnLabel, x);
+	}
+
+	@Override
+	public NClob getNClob(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getNClob(columnIndex);
+	}
+
+	@Override
+	public NClob getNClob(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getNClob(columnLabel);
+	}
+
+	@Override
+	public SQLXML getSQLXML(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getSQLXML(columnIndex);
+	}
+
+	@Override
+	public SQLXML getSQLXML(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getSQLXML(columnLabel);
+	}
+
+	@Override
+	public void updateSQLXML(final int columnIndex, final SQLXML x) throws SQLException {
+		this.wrappedResultSet.updateSQLXML(columnIndex, x);
+	}
+
+	@Override
+	public void updateSQLXML(final String columnLabel, final SQLXML x) throws SQLException {
+		this.wrappedResultSet.updateSQLXML(columnLabel, x);
+	}
+
+	@Override
+	public String getNString(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getNString(columnIndex);
+	}
+
+	@Override
+	public String getNString(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getNString(columnLabel);
+	}
+
+	@Override
+	public Reader getNCharacterStream(final int columnIndex) throws SQLException {
+		return this.wrappedResultSet.getNCharacterStream(columnIndex);
+	}
+
+	@Override
+	public Reader getNCharacterStream(final String columnLabel) throws SQLException {
+		return this.wrappedResultSet.getNCharacterStream(columnLabel);
+	}
+
+	@Override
+	public void updateNCharacterStream(final int columnIndex, final Reader x, final long length) throws SQLException {
+		this.wrappedResultSet.updateNCharacterStream(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateNCharacterStream(final String columnLabel, final Reader x, final long length) throws SQLException {
+		this.wrappedResultSet.updateNCharacterStream(columnLabel, x, length);
+	}
+
+	@Override
+	public void updateAsciiStream(final int columnIndex, final InputStream x, final long length) throws SQLException {
+		this.wrappedResultSet.updateAsciiStream(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateBinaryStream(final int columnIndex, final InputStream x, final long length) throws SQLException {
+		this.wrappedResultSet.updateBinaryStream(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateCharacterStream(final int columnIndex, final Reader x, final long length) throws SQLException {
+		this.wrappedResultSet.updateCharacterStream(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateAsciiStream(final String columnLabel, final InputStream x, final long length) throws SQLException {
+		this.wrappedResultSet.updateAsciiStream(columnLabel, x, length);
+	}
+
+	@Override
+	public void updateBinaryStream(final String columnLabel, final InputStream x, final long length) throws SQLException {
+		this.wrappedResultSet.updateBinaryStream(columnLabel, x, length);
+	}
+
+	@Override
+	public void updateCharacterStream(final String columnLabel, final Reader x, final long length) throws SQLException {
+		this.wrappedResultSet.updateCharacterStream(columnLabel, x, length);
+	}
+
+	@Override
+	public void updateBlob(final int columnIndex, final InputStream x, final long length) throws SQLException {
+		this.wrappedResultSet.updateBlob(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateBlob(final String columnLabel, final InputStream x, final long length) throws SQLException {
+		this.wrappedResultSet.updateBlob(columnLabel, x, length);
+	}
+
+	@Override
+	public void updateClob(final int columnIndex, final Reader x, final long length) throws SQLException {
+		this.wrappedResultSet.updateClob(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateClob(final String columnLabel, final Reader x, final long length) throws SQLException {
+		this.wrappedResultSet.updateClob(columnLabel, x, length);
+	}
+
+	@Override
+	public void updateNClob(final int columnIndex, final Reader x, final long length) throws SQLException {
+		this.wrappedResultSet.updateNClob(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateNClob(final String columnLabel, final Reader x, final long length) throws SQLException {
+		this.wrappedResultSet.updateNClob(columnLabel, x, length);
+	}
+
+	@Override
+	public void updateNCharacterStream(final int columnIndex, final Reader x) throws SQLException {
+		this.wrappedResultSet.updateNCharacterStream(columnIndex, x);
+	}
+
+	@Override
+	public void updateNCharacterStream(final String columnLabel, final Reader x) throws SQLException {
+		this.wrappedResultSet.updateNCharacterStream(columnLabel, x);
+	}
+
+	@Override
+	public void updateAsciiStream(final int columnIndex, final InputStream x) throws SQLException {
+		this.wrappedResultSet.updateAsciiStream(columnIndex, x);
+	}
+
+	@Override
+	public void updateBinaryStream(final int columnIndex, final InputStream x) throws SQLException {
+		this.wrappedResultSet.updateBinaryStream(columnIndex, x);
+	}
+
+	@Override
+	public void updateCharacterStream(final int columnIndex, final Reader x) throws SQLException {
+		this.wrappedResultSet.updateCharacterStream(columnIndex, x);
+	}
+
+	@Override
+	public void updateAsciiStream(final String columnLabel, final InputStream x) throws SQLException {
+		this.wrappedResultSet.updateAsciiStream(columnLabel, x);
+	}
+
+	@Override
+	public void updateBinaryStream(final String columnLabel, final InputStream x) throws SQLException {
+		this.wrappedResultSet.updateBinaryStream(columnLabel, x);
+	}
+
+	@Override
+	public void updateCharacterStream(final String columnLabel, final Reader x) throws SQLException {
+		this.wrappedResultSet.updateCharacterStream(columnLabel, x);
+	}
+
+	@Override
+	public void updateBlob(final int columnIndex, final InputStream x) throws SQLException {
+		this.wrappedResultSet.updateBlob(columnIndex, x);
+	}
+
+	@Override
+	public void updateBlob(final String columnLabel, final InputStream x) throws SQLException {
+		this.wrappedResultSet.updateBlob(columnLabel, x);
+	}
+
+	@Override
+	public void updateClob(final int columnIndex, final Reader x) throws SQLException {
+		this.wrappedResultSet.updateClob(columnIndex, x);
+	}
+
+	@Override
+	public void updateClob(final String columnLabel, final Reader x) throws SQLException {
+		this.wrappedResultSet.updateClob(columnLabel, x);
+	}
+
+	@Override
+	public void updateNClob(final int columnIndex, final Reader x) throws SQLException {
+		this.wrappedResultSet.updateNClob(columnIndex, x);
+	}
+
+	@Override
+	public void updateNClob(final String columnLabel, final Reader x) throws SQLException {
+		this.wrappedResultSet.updateNClob(columnLabel, x);
+	}
+
+	@Override
+	public <T> T getObject(final int columnIndex, final Class<T> type) throws SQLException {
+		return this.wrappedResultSet.getObject(columnIndex, type);
+	}
+
+	@Override
+	public <T> T getObject(final String columnLabel, final Class<T> type) throws SQLException {
+		return this.wrappedResultSet.getObject(columnLabel, type);
+	}
+	
+}
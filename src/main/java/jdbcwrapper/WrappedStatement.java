@@ -14,6 +14,12 @@ public class WrappedStatement implements Statement {
 		this.wrappedStatement = statement;
 	}
 	
+	// Returns the statement to delegate to. Statements that outlive their wrapper (see
+	// CachedPreparedStatement) fail here once the wrapper is closed.
+	protected Statement getWrappedStatement() throws SQLException {
+		return this.wrappedStatement;
+	}
+	
 	@Override
 	public <T> T unwrap(final Class<T> iface) throws SQLException {
 		return this.wrappedStatement.unwrap(iface);
@@ -21,7 +27,7 @@ public class WrappedStatement implements Statement {
 
 	@Override
 	public ResultSet executeQuery(final String sql) throws SQLException {
-		return this.wrappedStatement.executeQuery(sql);
+		return this.getWrappedStatement().executeQuery(sql);
 	}
 
 	@Override
@@ -31,7 +37,7 @@ public class WrappedStatement implements Statement {
 
 	@Override
 	public int executeUpdate(final String sql) throws SQLException {
-		return this.wrappedStatement.executeUpdate(sql);
+		return this.getWrappedStatement().executeUpdate(sql);
 	}
 
 	@Override
@@ -41,172 +47,172 @@ public class WrappedStatement implements Statement {
 
 	@Override
 	public int getMaxFieldSize() throws SQLException {
-		return this.wrappedStatement.getMaxFieldSize();
+		return this.getWrappedStatement().getMaxFieldSize();
 	}
 
 	@Override
 	public void setMaxFieldSize(final int max) throws SQLException {
-		this.wrappedStatement.setMaxFieldSize(max);
+		this.getWrappedStatement().setMaxFieldSize(max);
 	}
 
 	@Override
 	public int getMaxRows() throws SQLException {
-		return this.wrappedStatement.getMaxRows();
+		return this.getWrappedStatement().getMaxRows();
 	}
 
 	@Override
 	public void setMaxRows(final int max) throws SQLException {
-		this.wrappedStatement.setMaxRows(max);
+		this.getWrappedStatement().setMaxRows(max);
 	}
 
 	@Override
 	public void setEscapeProcessing(final boolean enable) throws SQLException {
-		this.wrappedStatement.setEscapeProcessing(enable);
+		this.getWrappedStatement().setEscapeProcessing(enable);
 	}
 
 	@Override
 	public int getQueryTimeout() throws SQLException {
-		return this.wrappedStatement.getQueryTimeout();
+		return this.getWrappedStatement().getQueryTimeout();
 	}
 
 	@Override
 	public void setQueryTimeout(final int seconds) throws SQLException {
-		this.wrappedStatement.setQueryTimeout(seconds);
+		this.getWrappedStatement().setQueryTimeout(seconds);
 	}
 
 	@Override
 	public void cancel() throws SQLException {
-		this.wrappedStatement.cancel();
+		this.getWrappedStatement().cancel();
 	}
 
 	@Override
 	public SQLWarning getWarnings() throws SQLException {
-		return this.wrappedStatement.getWarnings();
+		return this.getWrappedStatement().getWarnings();
 	}
 
 	@Override
 	public void clearWarnings() throws SQLException {
-		this.wrappedStatement.clearWarnings();
+		this.getWrappedStatement().clearWarnings();
 	}
 
 	@Override
 	public void setCursorName(final String name) throws SQLException {
-		this.wrappedStatement.setCursorName(name);
+		this.getWrappedStatement().setCursorName(name);
 	}
 
 	@Override
 	public boolean execute(final String sql) throws SQLException {
-		return this.wrappedStatement.execute(sql);
+		return this.getWrappedStatement().execute(sql);
 	}
 
 	@Override
 	public ResultSet getResultSet() throws SQLException {
-		return this.wrappedStatement.getResultSet();
+		return this.getWrappedStatement().getResultSet();
 	}
 
 	@Override
 	public int getUpdateCount() throws SQLException {
-		return this.wrappedStatement.getUpdateCount();
+		return this.getWrappedStatement().getUpdateCount();
 	}
 
 	@Override
 	public boolean getMoreResults() throws SQLException {
-		return this.wrappedStatement.getMoreResults();
+		return this.getWrappedStatement().getMoreResults();
 	}
 
 	@Override
 	public void setFetchDirection(final int direction) throws SQLException {
-		this.wrappedStatement.setFetchDirection(direction);
+		this.getWrappedStatement().setFetchDirection(direction);
 	}
 
 	@Override
 	public int getFetchDirection() throws SQLException {
-		return this.wrappedStatement.getFetchDirection();
+		return this.getWrappedStatement().getFetchDirection();
 	}
 
 	@Override
 	public void setFetchSize(final int rows) throws SQLException {
-		this.wrappedStatement.setFetchSize(rows);
+		this.getWrappedStatement().setFetchSize(rows);
 	}
 
 	@Override
 	public int getFetchSize() throws SQLException {
-		return this.wrappedStatement.getFetchSize();
+		return this.getWrappedStatement().getFetchSize();
 	}
 
 	@Override
 	public int getResultSetConcurrency() throws SQLException {
-		return this.wrappedStatement.getResultSetConcurrency();
+		return this.getWrappedStatement().getResultSetConcurrency();
 	}
 
 	@Override
 	public int getResultSetType() throws SQLException {
-		return this.wrappedStatement.getResultSetType();
+		return this.getWrappedStatement().getResultSetType();
 	}
 
 	@Override
 	public void addBatch(final String sql) throws SQLException {
-		this.wrappedStatement.addBatch(sql);
+		this.getWrappedStatement().addBatch(sql);
 	}
 
 	@Override
 	public void clearBatch() throws SQLException {
-		this.wrappedStatement.clearBatch();
+		this.getWrappedStatement().clearBatch();
 	}
 
 	@Override
 	public int[] executeBatch() throws SQLException {
-		return this.wrappedStatement.executeBatch();
+		return this.getWrappedStatement().executeBatch();
 	}
 
 	@Override
 	public Connection getConnection() throws SQLException {
-		return this.wrappedStatement.getConnection();
+		return this.getWrappedStatement().getConnection();
 	}
 
 	@Override
 	public boolean getMoreResults(final int current) throws SQLException {
-		return this.wrappedStatement.getMoreResults(current);
+		return this.getWrappedStatement().getMoreResults(current);
 	}
 
 	@Override
 	public ResultSet getGeneratedKeys() throws SQLException {
-		return this.wrappedStatement.getGeneratedKeys();
+		return this.getWrappedStatement().getGeneratedKeys();
 	}
 
 	@Override
 	public int executeUpdate(final String sql, final int autoGeneratedKeys) throws SQLException {
-		return this.wrappedStatement.executeUpdate(sql, autoGeneratedKeys);
+		return this.getWrappedStatement().executeUpdate(sql, autoGeneratedKeys);
 	}
 
 	@Override
 	public int executeUpdate(final String sql, final int[] columnIndexes) throws SQLException {
-		return this.wrappedStatement.executeUpdate(sql, columnIndexes);
+		return this.getWrappedStatement().executeUpdate(sql, columnIndexes);
 	}
 
 	@Override
 	public int executeUpdate(final String sql, final String[] columnNames) throws SQLException {
-		return this.wrappedStatement.executeUpdate(sql, columnNames);
+		return this.getWrappedStatement().executeUpdate(sql, columnNames);
 	}
 
 	@Override
 	public boolean execute(final String sql, final int autoGeneratedKeys) throws SQLException {
-		return this.wrappedStatement.execute(sql, autoGeneratedKeys);
+		return this.getWrappedStatement().execute(sql, autoGeneratedKeys);
 	}
 
 	@Override
 	public boolean execute(final String sql, final int[] columnIndexes) throws SQLException {
-		return this.wrappedStatement.execute(sql, columnIndexes);
+		return this.getWrappedStatement().execute(sql, columnIndexes);
 	}
 
 	@Override
 	public boolean execute(final String sql, final String[] columnNames) throws SQLException {
-		return this.wrappedStatement.execute(sql, columnNames);
+		return this.getWrappedStatement().execute(sql, columnNames);
 	}
 
 	@Override
 	public int getResultSetHoldability() throws SQLException {
-		return this.wrappedStatement.getResultSetHoldability();
+		return this.getWrappedStatement().getResultSetHoldability();
 	}
 
 	@Override
@@ -216,22 +222,22 @@ public class WrappedStatement implements Statement {
 
 	@Override
 	public void setPoolable(final boolean poolable) throws SQLException {
-		this.wrappedStatement.setPoolable(poolable);
+		this.getWrappedStatement().setPoolable(poolable);
 	}
 
 	@Override
 	public boolean isPoolable() throws SQLException {
-		return this.wrappedStatement.isPoolable();
+		return this.getWrappedStatement().isPoolable();
 	}
 
 	@Override
 	public void closeOnCompletion() throws SQLException {
-		this.wrappedStatement.closeOnCompletion();
+		this.getWrappedStatement().closeOnCompletion();
 	}
 
 	@Override
 	public boolean isCloseOnCompletion() throws SQLException {
-		return this.wrappedStatement.isCloseOnCompletion();
+		return this.getWrappedStatement().isCloseOnCompletion();
 	}	
 	
 }
@@ -0,0 +1,30 @@
+package jdbcwrapper;
+
+import java.sql.SQLException;
+
+import javax.sql.ConnectionPoolDataSource;
+import javax.sql.PooledConnection;
+
+// Source of physical wrapped connections for connection pools managed by an application server,
+// configured and bound like WrappingDataSource
+public class WrappingConnectionPoolDataSource extends WrappingDataSource implements ConnectionPoolDataSource {
+	
+	public WrappingConnectionPoolDataSource() {
+		super();
+	}
+	
+	public WrappingConnectionPoolDataSource(final String url) {
+		super(url);
+	}
+	
+	@Override
+	public PooledConnection getPooledConnection() throws SQLException {
+		return new WrappingPooledConnection(this.getConnection());
+	}
+	
+	@Override
+	public PooledConnection getPooledConnection(final String user, final String password) throws SQLException {
+		return new WrappingPooledConnection(this.getConnection(user, password));
+	}
+
+}
@@ -0,0 +1,256 @@
+package jdbcwrapper;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import jdbcwrapper.routing.ReplicaSet;
+import jdbcwrapper.util.DriverMetadata;
+
+// Data source for wrapped connections, configured with a wrapped URL like the driver. The delegate
+// driver, the metadata of the type and the URL of the delegate are resolved on the first connection
+// and then bound to the data source, so that connecting involves no DriverManager lookups and no
+// locks. Changing the configuration discards the binding. Connections are not pooled, pooled URLs
+// are not supported (see WrappingConnectionPoolDataSource for container-managed pools).
+public class WrappingDataSource implements DataSource {
+	
+	private volatile String url;
+	
+	private volatile String user;
+	
+	private volatile String password;
+	
+	private volatile Properties connectionProperties = new Properties();
+	
+	// Delegate driver, looked up by URL if not given
+	private volatile Driver delegateDriver;
+	
+	// Metadata of the type, taken from the driver's properties if not given
+	private volatile DriverMetadata metadata;
+	
+	private volatile Binding binding;
+	
+	private volatile PrintWriter logWriter;
+	
+	public WrappingDataSource() {
+		// Configured by the setters
+	}
+	
+	public WrappingDataSource(final String url) {
+		this.url = url;
+	}
+	
+	@Override
+	public Connection getConnection() throws SQLException {
+		return this.connect(this.user, this.password);
+	}
+	
+	@Override
+	public Connection getConnection(final String username, final String password) throws SQLException {
+		return this.connect(username, password);
+	}
+	
+	private Connection connect(final String username, final String password) throws SQLException {
+		Binding currentBinding = this.binding;
+		
+		if (currentBinding == null) {
+			// Concurrent first connections may bind twice, which yields equivalent bindings
+			currentBinding = this.bind();
+			this.binding = currentBinding;
+		}
+		
+		return currentBinding.connect(username, password);
+	}
+	
+	private Binding bind() throws SQLException {
+		String wrappedUrl = this.url;
+		if (wrappedUrl == null || !wrappedUrl.startsWith(WrappingDriver.URL_PREFIX)) {
+			throw new SQLException("Invalid URL '" + wrappedUrl + "', a URL starting with " + WrappingDriver.URL_PREFIX + " is required.");
+		}
+		
+		if (WrappingDriver.isPooledUrl(wrappedUrl)) {
+			throw new SQLException("Pooled URLs are not supported by data sources.");
+		}
+		
+		WrappingDriver wrappingDriver = WrappingDriver.getInstance();
+		String actualUrl = WrappingDriver.rewriteUrl(WrappingDriver.primaryUrl(wrappedUrl));
+		
+		Driver driver = this.delegateDriver;
+		if (driver == null) {
+			driver = DriverManager.getDriver(actualUrl);
+		}
+		
+		DriverMetadata typeMetadata = this.metadata;
+		if (typeMetadata == null) {
+			String type = WrappingDriver.determineType(wrappedUrl);
+			typeMetadata = (type == null) ? null : wrappingDriver.getMetadata(type);
+		}
+		
+		ReplicaSet replicaSet = WrappingDriver.replicaSetFor(wrappedUrl, typeMetadata);
+		return new Binding(wrappingDriver, driver, actualUrl, typeMetadata, replicaSet, this.connectionProperties);
+	}
+	
+	public String getUrl() {
+		return this.url;
+	}
+	
+	public void setUrl(final String url) {
+		this.url = url;
+		this.binding = null;
+	}
+	
+	public String getUser() {
+		return this.user;
+	}
+	
+	public void setUser(final String user) {
+		this.user = user;
+	}
+	
+	public String getPassword() {
+		return this.password;
+	}
+	
+	public void setPassword(final String password) {
+		this.password = password;
+	}
+	
+	public Properties getConnectionProperties() {
+		Properties properties = new Properties();
+		properties.putAll(this.connectionProperties);
+		return properties;
+	}
+	
+	// Additional properties passed to the delegate driver
+	public void setConnectionProperties(final Properties connectionProperties) {
+		Properties properties = new Properties();
+		if (connectionProperties != null) {
+			properties.putAll(connectionProperties);
+		}
+		
+		this.connectionProperties = properties;
+		this.binding = null;
+	}
+	
+	public Driver getDelegateDriver() {
+		return this.delegateDriver;
+	}
+	
+	// Sets the driver of the delegate connections, so that it is not looked up in the DriverManager
+	public void setDelegateDriver(final Driver delegateDriver) {
+		this.delegateDriver = delegateDriver;
+		this.binding = null;
+	}
+	
+	public DriverMetadata getMetadata() {
+		return this.metadata;
+	}
+	
+	// Sets the metadata of the connections, overriding the metadata of the type given in the URL
+	public void setMetadata(final DriverMetadata metadata) {
+		this.metadata = metadata;
+		this.binding = null;
+	}
+	
+	@Override
+	public PrintWriter getLogWriter() throws SQLException {
+		return this.logWriter;
+	}
+	
+	@Override
+	public void setLogWriter(final PrintWriter logWriter) throws SQLException {
+		this.logWriter = logWriter;
+	}
+	
+	// Drivers offer no way to pass a login timeout to connect, so only the default (0) is supported. Use the
+	// timeout property of the delegate driver instead, e.g., "loginTimeout" for PostgreSQL.
+	@Override
+	public void setLoginTimeout(final int seconds) throws SQLException {
+		if (seconds != 0) {
+			throw new SQLFeatureNotSupportedException("Login timeouts are not supported, use the connection properties of the delegate driver.");
+		}
+	}
+	
+	@Override
+	public int getLoginTimeout() throws SQLException {
+		return 0;
+	}
+	
+	@Override
+	public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+		return WrappingDriver.PARENT_LOGGER;
+	}
+	
+	@Override
+	public <T> T unwrap(final Class<T> iface) throws SQLException {
+		if (iface.isInstance(this)) {
+			return iface.cast(this);
+		}
+		
+		throw new SQLException("Not a wrapper for " + iface.getName() + ".");
+	}
+	
+	@Override
+	public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+		return iface.isInstance(this);
+	}
+	
+	// Resolved configuration of the data source
+	private static class Binding {
+		
+		private final WrappingDriver wrappingDriver;
+		
+		private final Driver delegateDriver;
+		
+		private final String actualUrl;
+		
+		// Null if the type is not configured, the connections are not wrapped then
+		private final DriverMetadata metadata;
+		
+		// Null if there are no replicas
+		private final ReplicaSet replicaSet;
+		
+		private final Properties connectionProperties;
+		
+		public Binding(final WrappingDriver wrappingDriver, final Driver delegateDriver, final String actualUrl, final DriverMetadata metadata,
+				final ReplicaSet replicaSet, final Properties connectionProperties) {
+			this.wrappingDriver = wrappingDriver;
+			this.delegateDriver = delegateDriver;
+			this.actualUrl = actualUrl;
+			this.metadata = metadata;
+			this.replicaSet = replicaSet;
+			this.connectionProperties = connectionProperties;
+		}
+		
+		public Connection connect(final String username, final String password) throws SQLException {
+			Properties info = new Properties();
+			info.putAll(this.connectionProperties);
+			
+			if (username != null) {
+				info.setProperty("user", username);
+			}
+			
+			if (password != null) {
+				info.setProperty("password", password);
+			}
+			
+			Connection connection = this.delegateDriver.connect(this.actualUrl, info);
+			if (connection == null) {
+				throw new SQLException("The delegate driver " + this.delegateDriver.getClass().getName() + " does not accept the URL.");
+			}
+			
+			Connection routedConnection = WrappingDriver.routeToReplicas(connection, this.replicaSet, info);
+			return this.wrappingDriver.createWrappedConnection(routedConnection, (this.metadata == null) ? null : this.metadata.typeName,
+					this.metadata);
+		}
+	
+	}
+
+}
@@ -2,8 +2,9 @@ package jdbcwrapper;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
@@ -15,32 +16,57 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+import jdbcwrapper.export.PrometheusExporter;
+import jdbcwrapper.jmx.WrapperMetricsMBean;
+import jdbcwrapper.pool.ConnectionPool;
+import jdbcwrapper.routing.ReplicaSet;
+import jdbcwrapper.routing.RoutingConnection;
+import jdbcwrapper.txmonitoring.TransactionEventDispatcher;
 import jdbcwrapper.util.DriverMetadata;
 import jdbcwrapper.util.DriverMetadataLoader;
+import jdbcwrapper.util.ListenerFactory;
+import jdbcwrapper.watchdog.TimingWheel;
 
 public class WrappingDriver implements java.sql.Driver {
-
+	
 	private static final String PROPERTIES_NAME = "jdbc-wrapper.properties";
 	
-	private static final String URL_PREFIX = "jdbc:wrapped:";
+	static final String URL_PREFIX = "jdbc:wrapped:";
+	
+	private static final String POOLED_URL_PREFIX = URL_PREFIX + "pooled:";
 	
-	private static final String URL_PREFIX_REGEX = "^jdbc:(?<type>.*?):";
+	private static final String REWRITTEN_URL_PREFIX = "jdbc:";
 	
-	private static final Pattern URL_PREFIX_PATTERN = Pattern.compile(URL_PREFIX_REGEX);
+	// Type name for URLs without a type
+	private static final String UNKNOWN_TYPE_NAME = "unknown";
 	
-	private static final Logger PARENT_LOGGER = Logger.getLogger("org.hkn.jdbc.wrapper");
+	static final Logger PARENT_LOGGER = Logger.getLogger("org.hkn.jdbc.wrapper");
 	
 	private static final Logger LOGGER = Logger.getLogger(WrappingDriver.class.getName());
 	
 	private static WrappingDriver registeredInstance;
 	
+	// Instance used by data sources while the driver is deregistered, created on first use
+	private static WrappingDriver unregisteredInstance;
+	
 	private final Map<String, DriverMetadata> typeToMetadataMap;
 	
+	// Resolved delegates by context class loader and URL prefix (see determineUrlPrefix), as the drivers visible
+	// to the driver manager may differ between class loaders. Class loaders are weakly referenced, so that the
+	// cache does not keep, e.g., an undeployed application alive.
+	private final ConcurrentMap<ClassLoaderKey, ConcurrentMap<String, ResolvedDelegate>> delegateCache = new ConcurrentHashMap<>();
+	
+	// Keys of collected class loaders, which are removed from the delegate cache on the next miss
+	private final ReferenceQueue<ClassLoader> collectedClassLoaders = new ReferenceQueue<>();
+	
+	// Connection pools by URL (without "pooled:") and connection properties
+	private final ConcurrentMap<PoolKey, ConnectionPool> pools = new ConcurrentHashMap<>();
+	
 	static {
 		try {
 			register();
@@ -56,6 +82,7 @@ public class WrappingDriver implements java.sql.Driver {
 		
 		WrappingDriver instance = new WrappingDriver();
 		DriverManager.registerDriver(instance);
+		instance.registerMetricsEndpoints();
 		registeredInstance = instance;
 	}
 	
@@ -69,9 +96,27 @@ public class WrappingDriver implements java.sql.Driver {
 		}
 		
 		DriverManager.deregisterDriver(registeredInstance);
+		registeredInstance.releaseResources();
 		registeredInstance = null;
 	}
 	
+	// Releases the resources shared by the connections, e.g., when an application is undeployed, so that
+	// no threads, server sockets or MBeans keep the class loader of the driver alive
+	private void releaseResources() {
+		this.closePools();
+		WrapperMetricsMBean.unregisterAll();
+		PrometheusExporter.stopAll();
+		
+		try {
+			TransactionEventDispatcher.shutdownAll();
+			TimingWheel.getInstance().shutdown();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	// Only the registered instance registers the metrics endpoints (see register), so that further instances
+	// do not claim resources that are never released
 	public WrappingDriver() {
 		this.typeToMetadataMap = this.loadMetadata();
 	}
@@ -87,7 +132,18 @@ public class WrappingDriver implements java.sql.Driver {
 			return Collections.emptyMap();
 		}				
 	}
-		
+	
+	// Registers the metrics MBeans and exporters of the configured types, so that they are visible before
+	// the first connection
+	private void registerMetricsEndpoints() {
+		for (DriverMetadata metadata : this.typeToMetadataMap.values()) {
+			if (metadata != null) {
+				WrapperMetricsMBean.forMetadata(metadata);
+				PrometheusExporter.forMetadata(metadata);
+			}
+		}
+	}
+	
 	@Override
 	public boolean acceptsURL(final String url) throws SQLException {
 		return needsRewriting(url);
@@ -96,69 +152,247 @@ public class WrappingDriver implements java.sql.Driver {
 	private static boolean needsRewriting(final String url) {
 		return url.startsWith(URL_PREFIX);
 	}
-
+	
 	@Override
 	public Connection connect(final String url, final Properties info) throws SQLException {
 		if (!this.acceptsURL(url)) {
 			return null;
 		}
 		
-		// Rewrite the URL if necessary and create the delegate connection
-		String actualUrl = (needsRewriting(url)) ? rewriteUrl(url) : url;
-		Driver delegateDriver = DriverManager.getDriver(actualUrl);		
-		Connection delegateConnection = delegateDriver.connect(actualUrl, info);
+		// Pooled URLs are resolved like the URL without "pooled:"
+		boolean pooledUrl = isPooledUrl(url);
+		String unpooledUrl = (pooledUrl) ? URL_PREFIX + url.substring(POOLED_URL_PREFIX.length()) : url;
+		
+		// Resolve the delegate driver and the type (usually from the cache)
+		ResolvedDelegate delegate = this.resolveDelegate(unpooledUrl);
 		
-		// Determine the type from the URL and instantiate the appropriate wrapper
-		String type = this.determineType(actualUrl);		
-		return this.createWrappedConnection(delegateConnection, type);
+		if (pooledUrl || (delegate.metadata != null && ConnectionPool.isEnabled(delegate.metadata))) {
+			return this.getPool(unpooledUrl, info, delegate).getConnection();
+		}
+		
+		return this.connectUnpooled(unpooledUrl, info, delegate);
 	}
 	
-	private String determineType(final String url) {
-		Matcher matcher = URL_PREFIX_PATTERN.matcher(url);
+	private Connection connectUnpooled(final String url, final Properties info, final ResolvedDelegate resolvedDelegate) throws SQLException {
+		// Create the delegate connection, replica URLs are not passed to the delegate
+		ResolvedDelegate delegate = resolvedDelegate;
+		String actualUrl = delegate.rewriteUrl(primaryUrl(url));
+		Connection delegateConnection = delegate.connect(actualUrl, info);
 		
-		if (matcher.find()) {
-			return matcher.group("type");
-		} else {
-			return null;
+		if (delegateConnection == null) {
+			// The cached driver does not accept the URL (anymore), so resolve again
+			this.delegateCacheForContext().remove(delegate.urlPrefix, delegate);
+			
+			delegate = this.resolveDelegate(url);
+			delegateConnection = delegate.connect(actualUrl, info);
+			
+			if (delegateConnection == null) {
+				throw new SQLException("No suitable driver found for " + actualUrl + ".", "08001");
+			}
 		}
+		
+		// Instantiate the appropriate wrapper for the type
+		Connection routedConnection = routeToReplicas(delegateConnection, replicaSetFor(url, delegate.metadata), info);
+		return this.createWrappedConnection(routedConnection, delegate.typeName, delegate.metadata);
 	}
 	
-	private Connection createWrappedConnection(final Connection connection, final String type) {
-		if (type == null) {
-			// No type provided, use default wrapper
-			return this.createDefaultWrapper(connection);
+	// Returns the URL without the replica URLs, if any
+	static String primaryUrl(final String url) {
+		int separatorIndex = url.indexOf(ReplicaSet.URL_SEPARATOR);
+		return (separatorIndex < 0) ? url : url.substring(0, separatorIndex);
+	}
+	
+	// Returns the replicas given in the URL (separated by "|" from the primary URL) or, if there are
+	// none, those configured for the type. Returns null if there are no replicas.
+	static ReplicaSet replicaSetFor(final String url, final DriverMetadata metadata) {
+		int separatorIndex = url.indexOf(ReplicaSet.URL_SEPARATOR);
+		if (separatorIndex >= 0) {
+			return ReplicaSet.forUrls(url.substring(separatorIndex + 1));
+		}
+		
+		return (metadata == null) ? null : ReplicaSet.forMetadata(metadata);
+	}
+	
+	static Connection routeToReplicas(final Connection connection, final ReplicaSet replicaSet, final Properties info) {
+		if (replicaSet == null) {
+			return connection;
+		}
+		
+		// The properties are copied, as the caller may change them
+		Properties replicaInfo = new Properties();
+		if (info != null) {
+			replicaInfo.putAll(info);
+		}
+		
+		return new RoutingConnection(connection, replicaSet, replicaInfo);
+	}
+	
+	// Returns the pool for the given URL and connection properties, which is created on first use
+	private ConnectionPool getPool(final String url, final Properties info, final ResolvedDelegate delegate) {
+		PoolKey key = new PoolKey(url, info);
+		ConnectionPool pool = this.pools.get(key);
+		
+		if (pool == null) {
+			pool = this.pools.computeIfAbsent(key, poolKey -> this.createPool(poolKey, delegate));
+		}
+		
+		return pool;
+	}
+	
+	private ConnectionPool createPool(final PoolKey key, final ResolvedDelegate delegate) {
+		// Unconfigured types use the defaults under the type name, never the URL, which may contain credentials
+		DriverMetadata actualMetadata = (delegate.metadata != null) ? delegate.metadata :
+				DriverMetadata.defaults((delegate.typeName != null) ? delegate.typeName : UNKNOWN_TYPE_NAME);
+		
+		return ConnectionPool.forMetadata(actualMetadata, () -> {
+			Connection connection = this.connectUnpooled(key.url, key.info, this.resolveDelegate(key.url));
+			
+			// Pooling relies on the wrapper, so unwrapped connections get a plain one
+			return (connection instanceof WrappedConnection) ? (WrappedConnection<?>) connection : new WrappedConnection<>(connection);
+		});
+	}
+	
+	// Closes all connection pools of this driver. Connections in use are closed when they are returned.
+	public void closePools() {
+		for (ConnectionPool pool : this.pools.values()) {
+			pool.close();
+		}
+		
+		this.pools.clear();
+	}
+	
+	// Removes all cached delegate drivers, so that they are looked up again on the next connect. This
+	// is done automatically when drivers are (de)registered via registerDriver and deregisterDriver.
+	public void invalidateDelegateCache() {
+		this.delegateCache.clear();
+	}
+	
+	// Registers a delegate driver with the driver manager and invalidates the delegate cache
+	public static void registerDriver(final Driver driver) throws SQLException {
+		DriverManager.registerDriver(driver);
+		invalidateRegisteredDelegateCache();
+	}
+	
+	// Deregisters a delegate driver from the driver manager and invalidates the delegate cache
+	public static void deregisterDriver(final Driver driver) throws SQLException {
+		DriverManager.deregisterDriver(driver);
+		invalidateRegisteredDelegateCache();
+	}
+	
+	private static void invalidateRegisteredDelegateCache() {
+		WrappingDriver instance = registeredInstance;
+		
+		if (instance != null) {
+			instance.invalidateDelegateCache();
+		}
+	}
+	
+	private ResolvedDelegate resolveDelegate(final String url) throws SQLException {
+		String urlPrefix = determineUrlPrefix(url);
+		if (urlPrefix == null) {
+			// No type in the URL, so there is nothing to cache by
+			return this.resolveDelegateUncached(url, url);
+		}
+		
+		ConcurrentMap<String, ResolvedDelegate> cache = this.delegateCacheForContext();
+		ResolvedDelegate delegate = cache.get(urlPrefix);
+		if (delegate != null && delegate.isValid()) {
+			return delegate;
+		}
+		
+		delegate = this.resolveDelegateUncached(url, urlPrefix);
+		cache.put(urlPrefix, delegate);
+		
+		return delegate;
+	}
+	
+	// Returns the delegate cache of the current thread's context class loader
+	private ConcurrentMap<String, ResolvedDelegate> delegateCacheForContext() {
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		ClassLoader classLoader = (contextClassLoader == null) ? WrappingDriver.class.getClassLoader() : contextClassLoader;
+		
+		// Lock-free lookup, only a miss is synchronized
+		ConcurrentMap<String, ResolvedDelegate> cache = this.delegateCache.get(new ClassLoaderKey(classLoader, null));
+		return (cache != null) ? cache : this.createDelegateCache(classLoader);
+	}
+	
+	private synchronized ConcurrentMap<String, ResolvedDelegate> createDelegateCache(final ClassLoader classLoader) {
+		Reference<? extends ClassLoader> collectedKey;
+		while ((collectedKey = this.collectedClassLoaders.poll()) != null) {
+			this.delegateCache.remove(collectedKey);
+		}
+		
+		return this.delegateCache.computeIfAbsent(new ClassLoaderKey(classLoader, this.collectedClassLoaders), key -> new ConcurrentHashMap<>());
+	}
+	
+	private ResolvedDelegate resolveDelegateUncached(final String url, final String urlPrefix) throws SQLException {
+		String actualUrl = rewriteUrl(url);
+		Driver delegateDriver = DriverManager.getDriver(actualUrl);
+		
+		String type = determineType(url);
+		DriverMetadata metadata = (type == null) ? null : this.typeToMetadataMap.get(type);
+		
+		return new ResolvedDelegate(urlPrefix, delegateDriver, type, metadata);
+	}
+	
+	// Returns the prefix of the URL up to and including the colon after the type, e.g.,
+	// "jdbc:wrapped:postgresql:", or null if the URL does not contain a type
+	private static String determineUrlPrefix(final String url) {
+		int typeEndIndex = url.indexOf(':', URL_PREFIX.length());
+		return (typeEndIndex < 0) ? null : url.substring(0, typeEndIndex + 1);
+	}
+	
+	static String determineType(final String url) {
+		String urlPrefix = determineUrlPrefix(url);
+		return (urlPrefix == null) ? null : urlPrefix.substring(URL_PREFIX.length(), urlPrefix.length() - 1);
+	}
+	
+	// Returns the metadata of the given type, or null if the type is not configured
+	public DriverMetadata getMetadata(final String type) {
+		return this.typeToMetadataMap.get(type);
+	}
+	
+	// Returns the registered driver or, if it was deregistered, a shared unregistered instance
+	static WrappingDriver getInstance() {
+		WrappingDriver instance = registeredInstance;
+		return (instance == null) ? getUnregisteredInstance() : instance;
+	}
+	
+	private static synchronized WrappingDriver getUnregisteredInstance() {
+		if (unregisteredInstance == null) {
+			unregisteredInstance = new WrappingDriver();
 		}
 		
-		DriverMetadata metadata = this.typeToMetadataMap.get(type);
+		return unregisteredInstance;
+	}
+	
+	static boolean isPooledUrl(final String url) {
+		return url.startsWith(POOLED_URL_PREFIX);
+	}
+	
+	Connection createWrappedConnection(final Connection connection, final String type, final DriverMetadata metadata) {
 		if (metadata == null) {
 			// No metadata provided, use default wrapper
 			return this.createDefaultWrapper(connection);
 		}
 		
-		Constructor<?> wrapperConstructor = metadata.connectionWrapperConstructor;
+		// Only create listeners if the wrapper accepts them
+		List<Object> connectionListeners = (metadata.acceptsConnectionListeners) ? this.instantiateConnectionListeners(metadata) : Collections.emptyList();
 		
 		try {
-			if (metadata.acceptsConnectionListeners) {
-				// Create connection listeners, if supported
-				List<Object> connectionListeners = this.instantiateConnectionListeners(metadata);
-				return (Connection) wrapperConstructor.newInstance(connection, connectionListeners);
-			} else {
-				// Invoke non-listener constructor
-				return (Connection) wrapperConstructor.newInstance(connection);
-			}
-		} catch (InstantiationException | IllegalAccessException | IllegalArgumentException
-				| InvocationTargetException e) {
+			return metadata.connectionWrapperFactory.create(connection, connectionListeners, metadata);
+		} catch (RuntimeException e) {
 			LOGGER.log(Level.WARNING, e, () -> "Error instantiating the wrapper for type '" + type + "'.");
 			return this.createDefaultWrapper(connection);
 		}
 	}
 	
 	private List<Object> instantiateConnectionListeners(final DriverMetadata metadata) {
-		List<Constructor<?>> listenerConstructors = metadata.connectionListenerConstructors;
-		List<Object> listeners = new ArrayList<>(listenerConstructors.size());
+		List<ListenerFactory> listenerFactories = metadata.connectionListenerFactories;
+		List<Object> listeners = new ArrayList<>(listenerFactories.size());
 		
-		for (Constructor<?> listenerConstructor : listenerConstructors) {
-			Object listener = this.instantiateListener(listenerConstructor);
+		for (ListenerFactory listenerFactory : listenerFactories) {
+			Object listener = this.instantiateListener(listenerFactory);
 			
 			if (listener != null) {
 				listeners.add(listener);
@@ -168,11 +402,11 @@ public class WrappingDriver implements java.sql.Driver {
 		return listeners;
 	}
 	
-	private Object instantiateListener(final Constructor<?> listenerConstructor) {
+	private Object instantiateListener(final ListenerFactory listenerFactory) {
 		try {
-			return listenerConstructor.newInstance();
-		} catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-			LOGGER.log(Level.WARNING, e, () -> "Error instantiating listener type " + listenerConstructor.getName() + ", skipping.");
+			return listenerFactory.create();
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, e, () -> "Error instantiating listener type " + listenerFactory.getListenerType().getName() + ", skipping.");
 			return null;
 		}
 	}
@@ -182,33 +416,136 @@ public class WrappingDriver implements java.sql.Driver {
 		return connection;
 	}
 	
-	private static String rewriteUrl(final String url) {
-		return url.replaceFirst(URL_PREFIX, "jdbc:");
+	static String rewriteUrl(final String url) {
+		return REWRITTEN_URL_PREFIX + url.substring(URL_PREFIX.length());
 	}
-
+	
 	@Override
 	public int getMajorVersion() {
 		return 1;
 	}
-
+	
 	@Override
 	public int getMinorVersion() {
 		return 0;
 	}
-
+	
 	@Override
 	public Logger getParentLogger() throws SQLFeatureNotSupportedException {
 		return PARENT_LOGGER;
 	}
-
+	
 	@Override
 	public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) throws SQLException {
 		return new DriverPropertyInfo[0];
 	}
-
+	
 	@Override
 	public boolean jdbcCompliant() {
 		return false;
 	}	
+	
+	private static class PoolKey {
+		
+		public final String url;
+		
+		// Copy of the connection properties, including defaults
+		public final Properties info;
+		
+		public PoolKey(final String url, final Properties info) {
+			this.url = url;
+			this.info = new Properties();
+			
+			if (info != null) {
+				for (String name : info.stringPropertyNames()) {
+					this.info.setProperty(name, info.getProperty(name));
+				}
+			}
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * this.url.hashCode() + this.info.hashCode();
+		}
+		
+		@Override
+		public boolean equals(final Object object) {
+			if (!(object instanceof PoolKey)) {
+				return false;
+			}
+			
+			PoolKey key = (PoolKey) object;
+			return (this.url.equals(key.url) && this.info.equals(key.info));
+		}
+	
+	}
+	
+	// Weak reference to a class loader that compares by identity. Cleared keys are only equal to themselves.
+	private static class ClassLoaderKey extends WeakReference<ClassLoader> {
+		
+		private final int hashCode;
+		
+		public ClassLoaderKey(final ClassLoader classLoader, final ReferenceQueue<ClassLoader> queue) {
+			super(classLoader, queue);
+			this.hashCode = System.identityHashCode(classLoader);
+		}
+		
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+		
+		@Override
+		public boolean equals(final Object object) {
+			if (object == this) {
+				return true;
+			}
+			
+			if (!(object instanceof ClassLoaderKey)) {
+				return false;
+			}
+			
+			ClassLoader classLoader = this.get();
+			return (classLoader != null && classLoader == ((ClassLoaderKey) object).get());
+		}
+		
+	}
+	
+	private static class ResolvedDelegate {
+		
+		public final String urlPrefix;
+		
+		// URL prefix to pass to the delegate driver, e.g., "jdbc:postgresql:"
+		private final String actualUrlPrefix;
+		
+		// Weakly referenced, so that a deregistered driver (and its class loader) is not kept alive
+		private final WeakReference<Driver> driverReference;
+		
+		public final String typeName;
+		
+		public final DriverMetadata metadata;
+		
+		public ResolvedDelegate(final String urlPrefix, final Driver driver, final String typeName, final DriverMetadata metadata) {
+			this.urlPrefix = urlPrefix;
+			this.actualUrlPrefix = WrappingDriver.rewriteUrl(urlPrefix);
+			this.driverReference = new WeakReference<>(driver);
+			this.typeName = typeName;
+			this.metadata = metadata;
+		}
+		
+		public boolean isValid() {
+			return (this.driverReference.get() != null);
+		}
+		
+		public String rewriteUrl(final String url) {
+			return this.actualUrlPrefix + url.substring(this.urlPrefix.length());
+		}
+		
+		public Connection connect(final String actualUrl, final Properties info) throws SQLException {
+			Driver driver = this.driverReference.get();
+			return (driver == null) ? null : driver.connect(actualUrl, info);
+		}
+	
+	}
 
 }
@@ -0,0 +1,212 @@
+package jdbcwrapper;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.Savepoint;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.PooledConnection;
+import javax.sql.StatementEventListener;
+
+// Physical connection handed to a container-managed pool. The pool hands out logical connections
+// whose close notifies the pool instead of closing the physical connection. If the physical
+// connection breaks, the pool is notified by a connection error event, so that it discards it.
+public class WrappingPooledConnection implements PooledConnection {
+	
+	private final Connection physicalConnection;
+	
+	private final List<ConnectionEventListener> connectionEventListeners = new CopyOnWriteArrayList<>();
+	
+	private final List<StatementEventListener> statementEventListeners = new CopyOnWriteArrayList<>();
+	
+	// Logical connection currently handed out, null if none
+	private LogicalConnection logicalConnection;
+	
+	public WrappingPooledConnection(final Connection physicalConnection) {
+		this.physicalConnection = physicalConnection;
+	}
+	
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (this.physicalConnection.isClosed()) {
+			throw new SQLException("The pooled connection is closed.");
+		}
+		
+		// As required by JDBC, a previous logical connection is closed
+		if (this.logicalConnection != null) {
+			this.logicalConnection.invalidate();
+		}
+		
+		if (this.physicalConnection instanceof WrappedConnection) {
+			// Restore the state of a new connection, e.g., after a previous user left a transaction open
+			((WrappedConnection<?>) this.physicalConnection).resetState();
+		}
+		
+		this.logicalConnection = new LogicalConnection(this.physicalConnection, this);
+		return this.logicalConnection;
+	}
+	
+	@Override
+	public void close() throws SQLException {
+		if (this.logicalConnection != null) {
+			this.logicalConnection.invalidate();
+			this.logicalConnection = null;
+		}
+		
+		this.physicalConnection.close();
+	}
+	
+	// Called when a logical connection is closed by its user
+	void onLogicalConnectionClosed(final LogicalConnection connection) {
+		if (this.logicalConnection == connection) {
+			this.logicalConnection = null;
+		}
+		
+		ConnectionEvent event = new ConnectionEvent(this);
+		for (ConnectionEventListener listener : this.connectionEventListeners) {
+			listener.connectionClosed(event);
+		}
+	}
+	
+	// Called when the physical connection broke while the given logical connection was in use
+	void onConnectionError(final LogicalConnection connection, final SQLException exception) {
+		if (this.logicalConnection == connection) {
+			this.logicalConnection = null;
+		}
+		
+		ConnectionEvent event = new ConnectionEvent(this, exception);
+		for (ConnectionEventListener listener : this.connectionEventListeners) {
+			listener.connectionErrorOccurred(event);
+		}
+	}
+	
+	public Connection getPhysicalConnection() {
+		return this.physicalConnection;
+	}
+	
+	@Override
+	public void addConnectionEventListener(final ConnectionEventListener listener) {
+		this.connectionEventListeners.add(listener);
+	}
+	
+	@Override
+	public void removeConnectionEventListener(final ConnectionEventListener listener) {
+		this.connectionEventListeners.remove(listener);
+	}
+	
+	// Statement events are not raised, as statements are not pooled by the container
+	@Override
+	public void addStatementEventListener(final StatementEventListener listener) {
+		this.statementEventListeners.add(listener);
+	}
+	
+	@Override
+	public void removeStatementEventListener(final StatementEventListener listener) {
+		this.statementEventListeners.remove(listener);
+	}
+	
+	// Handle for the physical connection, whose close returns the physical connection to the pool.
+	// Errors of the connection's own operations that indicate a broken connection are reported to
+	// the pool immediately, a connection found closed is reported when the handle is closed.
+	static class LogicalConnection extends ConnectionHandle {
+		
+		// SQL state class for connection exceptions
+		private static final String CONNECTION_EXCEPTION_CLASS = "08";
+		
+		private final Connection physicalConnection;
+		
+		private final WrappingPooledConnection pooledConnection;
+		
+		public LogicalConnection(final Connection physicalConnection, final WrappingPooledConnection pooledConnection) {
+			super(physicalConnection);
+			
+			this.physicalConnection = physicalConnection;
+			this.pooledConnection = pooledConnection;
+		}
+		
+		@Override
+		protected void release() throws SQLException {
+			if (this.physicalConnection.isClosed()) {
+				this.pooledConnection.onConnectionError(this, new SQLNonTransientConnectionException("The physical connection is closed.",
+						CLOSED_STATE));
+			} else {
+				this.pooledConnection.onLogicalConnectionClosed(this);
+			}
+		}
+		
+		@Override
+		protected void abortConnection(final Executor executor) throws SQLException {
+			super.abortConnection(executor);
+			this.pooledConnection.onConnectionError(this, new SQLNonTransientConnectionException("The connection was aborted.",
+					CLOSED_STATE));
+		}
+		
+		@Override
+		public void resetState() throws SQLException {
+			// The physical connection is reset by the pooled connection
+		}
+		
+		@Override
+		public void setAutoCommit(final boolean autoCommit) throws SQLException {
+			try {
+				super.setAutoCommit(autoCommit);
+			} catch (SQLException e) {
+				throw this.checkConnectionError(e);
+			}
+		}
+		
+		@Override
+		public void commit() throws SQLException {
+			try {
+				super.commit();
+			} catch (SQLException e) {
+				throw this.checkConnectionError(e);
+			}
+		}
+		
+		@Override
+		public void rollback() throws SQLException {
+			try {
+				super.rollback();
+			} catch (SQLException e) {
+				throw this.checkConnectionError(e);
+			}
+		}
+		
+		@Override
+		public void rollback(final Savepoint savepoint) throws SQLException {
+			try {
+				super.rollback(savepoint);
+			} catch (SQLException e) {
+				throw this.checkConnectionError(e);
+			}
+		}
+		
+		// Reports the given exception to the pool if it indicates that the physical connection is broken.
+		// The handle is unusable afterwards. Returns the exception for rethrowing.
+		private SQLException checkConnectionError(final SQLException exception) {
+			String sqlState = exception.getSQLState();
+			boolean connectionError = (sqlState != null && sqlState.startsWith(CONNECTION_EXCEPTION_CLASS));
+			
+			try {
+				connectionError |= this.physicalConnection.isClosed();
+			} catch (SQLException e) {
+				connectionError = true;
+			}
+			
+			// Only report errors of a handle that is still in use, and only once
+			if (connectionError && this.invalidate()) {
+				this.pooledConnection.onConnectionError(this, exception);
+			}
+			
+			return exception;
+		}
+	
+	}
+
+}
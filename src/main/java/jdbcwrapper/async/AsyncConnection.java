@@ -0,0 +1,130 @@
+package jdbcwrapper.async;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.txmonitoring.AbstractTxMonitoringConnection;
+import jdbcwrapper.util.DriverMetadata;
+
+// Asynchronous facade for a connection. The statements are prepared, executed and closed on the
+// executor of the connection's type, so that the measuring and monitoring wrappers see the same
+// calls as for synchronous use. As a connection must not be used concurrently, the tasks of a
+// connection run one after the other in submission order. The order is kept without locks by
+// chaining each task to the completion of its predecessor.
+public class AsyncConnection {
+	
+	private static final CompletableFuture<Void> COMPLETED = CompletableFuture.completedFuture(null);
+	
+	private final Connection connection;
+	
+	private final AsyncExecutor executor;
+	
+	// Completes when the last submitted task has finished
+	private final AtomicReference<CompletableFuture<Void>> lastTask = new AtomicReference<>(COMPLETED);
+	
+	public AsyncConnection(final Connection connection, final AsyncExecutor executor) {
+		this.connection = connection;
+		this.executor = executor;
+	}
+	
+	// Creates a facade using the executor of the connection's type
+	public static AsyncConnection of(final Connection connection) throws SQLException {
+		// Pooled connections are handles for the monitoring connection
+		DriverMetadata metadata;
+		if (connection.isWrapperFor(AbstractTxMonitoringConnection.class)) {
+			metadata = connection.unwrap(AbstractTxMonitoringConnection.class).getDriverMetadata();
+		} else {
+			metadata = DriverMetadata.defaults(MetricsRegistry.DEFAULT_TYPE);
+		}
+		
+		return new AsyncConnection(connection, AsyncExecutor.forMetadata(metadata));
+	}
+	
+	// Runs the given callback on the connection after all previously submitted tasks
+	public <T> CompletableFuture<T> submit(final ConnectionCallback<T> callback) {
+		CompletableFuture<Void> completion = new CompletableFuture<>();
+		CompletableFuture<Void> predecessor = this.lastTask.getAndSet(completion);
+		
+		CompletableFuture<T> result = this.executor.submitAfter(predecessor, () -> callback.execute(this.connection));
+		
+		// A rejected task completes immediately, so the next task must still wait for the predecessor
+		result.whenComplete((value, exception) -> predecessor.whenComplete((previousValue, previousException) -> completion.complete(null)));
+		return result;
+	}
+	
+	public <T> CompletableFuture<T> executeQueryAsync(final String sql, final ResultSetHandler<T> handler) {
+		return this.executeQueryAsync(sql, null, handler);
+	}
+	
+	public <T> CompletableFuture<T> executeQueryAsync(final String sql, final ParameterBinder binder, final ResultSetHandler<T> handler) {
+		return this.submit(connection -> {
+			try (PreparedStatement statement = connection.prepareStatement(sql)) {
+				if (binder != null) {
+					binder.bind(statement);
+				}
+				
+				try (ResultSet resultSet = statement.executeQuery()) {
+					return handler.handle(resultSet);
+				}
+			}
+		});
+	}
+	
+	public CompletableFuture<Integer> executeUpdateAsync(final String sql) {
+		return this.executeUpdateAsync(sql, null);
+	}
+	
+	public CompletableFuture<Integer> executeUpdateAsync(final String sql, final ParameterBinder binder) {
+		return this.submit(connection -> {
+			try (PreparedStatement statement = connection.prepareStatement(sql)) {
+				if (binder != null) {
+					binder.bind(statement);
+				}
+				
+				return statement.executeUpdate();
+			}
+		});
+	}
+	
+	// Executes the statement as a batch with one entry per binder
+	public CompletableFuture<int[]> executeBatchAsync(final String sql, final List<? extends ParameterBinder> binders) {
+		return this.submit(connection -> {
+			try (PreparedStatement statement = connection.prepareStatement(sql)) {
+				for (ParameterBinder binder : binders) {
+					binder.bind(statement);
+					statement.addBatch();
+				}
+				
+				return statement.executeBatch();
+			}
+		});
+	}
+	
+	// Completes when all tasks submitted so far have finished
+	public CompletableFuture<Void> whenIdle() {
+		return this.lastTask.get();
+	}
+	
+	public Connection getConnection() {
+		return this.connection;
+	}
+	
+	public AsyncExecutor getExecutor() {
+		return this.executor;
+	}
+	
+	// Closes the connection once all submitted tasks have finished
+	public CompletableFuture<Void> closeAsync() {
+		return this.submit(connection -> {
+			connection.close();
+			return null;
+		});
+	}
+
+}
@@ -0,0 +1,176 @@
+package jdbcwrapper.async;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdbcwrapper.util.DriverMetadata;
+
+// Runs blocking JDBC calls of a driver type off the caller's thread. The number of pending tasks
+// is bounded by a semaphore acquired on the submitting thread, so that a slow database pushes back
+// on the callers instead of growing an unbounded queue. A submission waits up to the configured
+// timeout for a permit and fails with a transient exception otherwise. On Java 21 and later, the
+// tasks run on virtual threads (see ExecutorFactory).
+public class AsyncExecutor {
+	
+	private static final String THREADS_PROPERTY = "async.threads";
+	
+	private static final int DEFAULT_THREADS = 10;
+	
+	private static final String MAX_PENDING_PROPERTY = "async.max.pending";
+	
+	private static final int DEFAULT_MAX_PENDING = 1000;
+	
+	private static final String SUBMIT_TIMEOUT_PROPERTY = "async.submit.timeout.millis";
+	
+	private static final long DEFAULT_SUBMIT_TIMEOUT = 0;
+	
+	private static final ConcurrentMap<String, AsyncExecutor> EXECUTORS = new ConcurrentHashMap<>();
+	
+	private final ExecutorService executorService;
+	
+	private final int maxPending;
+	
+	private final Semaphore permits;
+	
+	private final long submitTimeoutNanos;
+	
+	private final LongAdder submittedCount = new LongAdder();
+	
+	private final LongAdder rejectedCount = new LongAdder();
+	
+	public AsyncExecutor(final String name, final int threadCount, final int maxPending, final long submitTimeoutNanos) {
+		this.executorService = ExecutorFactory.createExecutor(name, Math.max(1, threadCount));
+		this.maxPending = Math.max(1, maxPending);
+		this.permits = new Semaphore(this.maxPending);
+		this.submitTimeoutNanos = submitTimeoutNanos;
+	}
+	
+	public static AsyncExecutor forMetadata(final DriverMetadata metadata) {
+		AsyncExecutor executor = EXECUTORS.get(metadata.typeName);
+		
+		if (executor == null) {
+			executor = EXECUTORS.computeIfAbsent(metadata.typeName, type -> createExecutor(metadata));
+		}
+		
+		return executor;
+	}
+	
+	private static AsyncExecutor createExecutor(final DriverMetadata metadata) {
+		int threads = metadata.getIntProperty(THREADS_PROPERTY, DEFAULT_THREADS);
+		int maxPending = metadata.getIntProperty(MAX_PENDING_PROPERTY, DEFAULT_MAX_PENDING);
+		long submitTimeout = metadata.getLongProperty(SUBMIT_TIMEOUT_PROPERTY, DEFAULT_SUBMIT_TIMEOUT);
+		
+		return new AsyncExecutor(metadata.typeName, threads, maxPending, TimeUnit.MILLISECONDS.toNanos(submitTimeout));
+	}
+	
+	public static AsyncExecutor getExecutor(final String type) {
+		return EXECUTORS.get(type);
+	}
+	
+	public static boolean usesVirtualThreads() {
+		return ExecutorFactory.usesVirtualThreads();
+	}
+	
+	// Runs the given task asynchronously. The returned future fails with an SQLTransientException if
+	// no permit becomes available within the submit timeout.
+	public <T> CompletableFuture<T> submit(final SqlSupplier<T> task) {
+		return this.submitAfter(null, task);
+	}
+	
+	// Runs the given task asynchronously once the given predecessor is complete, successfully or not.
+	// The permit is acquired on the calling thread, so that waiting tasks count as pending.
+	public <T> CompletableFuture<T> submitAfter(final CompletableFuture<?> predecessor, final SqlSupplier<T> task) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		
+		if (!this.acquirePermit(future)) {
+			return future;
+		}
+		
+		this.submittedCount.increment();
+		if (predecessor == null) {
+			this.execute(task, future);
+		} else {
+			predecessor.whenComplete((result, exception) -> this.execute(task, future));
+		}
+		
+		return future;
+	}
+	
+	private boolean acquirePermit(final CompletableFuture<?> future) {
+		try {
+			if (this.permits.tryAcquire(this.submitTimeoutNanos, TimeUnit.NANOSECONDS)) {
+				return true;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			future.completeExceptionally(new SQLException("Interrupted while waiting to submit a task.", e));
+			return false;
+		}
+		
+		this.rejectedCount.increment();
+		future.completeExceptionally(new SQLTransientException("Too many pending asynchronous tasks, the limit is " + this.maxPending + "."));
+		return false;
+	}
+	
+	private <T> void execute(final SqlSupplier<T> task, final CompletableFuture<T> future) {
+		try {
+			this.executorService.execute(() -> this.run(task, future));
+		} catch (RejectedExecutionException e) {
+			this.permits.release();
+			this.rejectedCount.increment();
+			future.completeExceptionally(new SQLTransientException("The asynchronous executor does not accept tasks.", e));
+		}
+	}
+	
+	private <T> void run(final SqlSupplier<T> task, final CompletableFuture<T> future) {
+		T result;
+		try {
+			result = task.get();
+		} catch (Throwable e) {
+			this.permits.release();
+			future.completeExceptionally(e);
+			return;
+		}
+		
+		// The permit is released first, so that dependent actions of the future can submit again
+		this.permits.release();
+		future.complete(result);
+	}
+	
+	public int getMaxPending() {
+		return this.maxPending;
+	}
+	
+	public int getPendingCount() {
+		return (this.maxPending - this.permits.availablePermits());
+	}
+	
+	public long getSubmittedCount() {
+		return this.submittedCount.sum();
+	}
+	
+	public long getRejectedCount() {
+		return this.rejectedCount.sum();
+	}
+	
+	public void shutdown() {
+		this.executorService.shutdown();
+	}
+	
+	// Task throwing SQL exceptions
+	@FunctionalInterface
+	public interface SqlSupplier<T> {
+		
+		T get() throws SQLException;
+	
+	}
+
+}
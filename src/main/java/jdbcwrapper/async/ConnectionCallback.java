@@ -0,0 +1,12 @@
+package jdbcwrapper.async;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Work performed asynchronously on a connection
+@FunctionalInterface
+public interface ConnectionCallback<T> {
+	
+	T execute(Connection connection) throws SQLException;
+
+}
@@ -0,0 +1,40 @@
+package jdbcwrapper.async;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Creates the threads of the asynchronous executors. The multi-release jar replaces this class on
+// Java 21 and later with a variant using virtual threads (see src/main/java21).
+final class ExecutorFactory {
+	
+	private static final long KEEP_ALIVE_SECONDS = 60;
+	
+	private ExecutorFactory() {
+		// Not instantiable
+	}
+	
+	static boolean usesVirtualThreads() {
+		return false;
+	}
+	
+	// Creates an executor with the given number of daemon threads. The queue is unbounded, the number
+	// of pending tasks is limited by the caller.
+	static ExecutorService createExecutor(final String name, final int threadCount) {
+		AtomicInteger threadNumber = new AtomicInteger();
+		
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, "jdbc-wrapper-async-" + name + "-" + threadNumber.getAndIncrement());
+					thread.setDaemon(true);
+					return thread;
+				});
+		
+		// Idle threads terminate, so that unused executors do not keep threads alive
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+}
@@ -0,0 +1,12 @@
+package jdbcwrapper.async;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+// Sets the parameters of a prepared statement, called on the executing thread
+@FunctionalInterface
+public interface ParameterBinder {
+	
+	void bind(PreparedStatement statement) throws SQLException;
+
+}
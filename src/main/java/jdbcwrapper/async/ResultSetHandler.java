@@ -0,0 +1,12 @@
+package jdbcwrapper.async;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Reads a result set on the executing thread, the result set is closed afterwards
+@FunctionalInterface
+public interface ResultSetHandler<T> {
+	
+	T handle(ResultSet resultSet) throws SQLException;
+
+}
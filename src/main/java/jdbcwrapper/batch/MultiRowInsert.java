@@ -0,0 +1,196 @@
+package jdbcwrapper.batch;
+
+// Simple INSERT statement with a single VALUES tuple, e.g., "insert into t (a, b) values (?, ?)",
+// that can be rewritten into an insert of several rows. Statements with anything after the tuple
+// (e.g., "on conflict" or "returning"), with comments, or with parameters outside the tuple are not
+// recognized, as rewriting them could change their meaning.
+public class MultiRowInsert {
+	
+	private static final String INSERT_KEYWORD = "insert";
+	
+	private static final String INTO_KEYWORD = "into";
+	
+	private static final String VALUES_KEYWORD = "values";
+	
+	// Statement up to and including the VALUES keyword
+	private final String prefix;
+	
+	// VALUES tuple including the parentheses
+	private final String tuple;
+	
+	private final int parameterCount;
+	
+	private MultiRowInsert(final String prefix, final String tuple, final int parameterCount) {
+		this.prefix = prefix;
+		this.tuple = tuple;
+		this.parameterCount = parameterCount;
+	}
+	
+	// Returns the parsed statement, or null if the statement cannot be rewritten
+	public static MultiRowInsert parse(final String sql) {
+		String statement = sql.trim();
+		
+		int position = skipKeyword(statement, 0, INSERT_KEYWORD);
+		if (position < 0) {
+			return null;
+		}
+		
+		position = skipKeyword(statement, skipWhitespace(statement, position), INTO_KEYWORD);
+		if (position < 0) {
+			return null;
+		}
+		
+		// Find the VALUES keyword outside of quotes and parentheses. Parameters are not allowed before.
+		int depth = 0;
+		int valuesEnd = -1;
+		
+		while (position < statement.length()) {
+			char currentChar = statement.charAt(position);
+			
+			if (currentChar == '\'' || currentChar == '"') {
+				position = skipQuoted(statement, position);
+				if (position < 0) {
+					return null;
+				}
+				
+				continue;
+			}
+			
+			if (currentChar == '?' || isCommentStart(statement, position)) {
+				return null;
+			} else if (currentChar == '(') {
+				depth++;
+			} else if (currentChar == ')') {
+				depth--;
+			} else if (depth == 0 && isIdentifierStart(statement, position)) {
+				int identifierEnd = skipIdentifier(statement, position);
+				if (statement.regionMatches(true, position, VALUES_KEYWORD, 0, identifierEnd - position) &&
+						identifierEnd - position == VALUES_KEYWORD.length()) {
+					valuesEnd = identifierEnd;
+					break;
+				}
+				
+				position = identifierEnd;
+				continue;
+			}
+			
+			position++;
+		}
+		
+		if (valuesEnd < 0) {
+			return null;
+		}
+		
+		// Parse the tuple, which must be the last part of the statement
+		int tupleStart = skipWhitespace(statement, valuesEnd);
+		if (tupleStart >= statement.length() || statement.charAt(tupleStart) != '(') {
+			return null;
+		}
+		
+		int parameterCount = 0;
+		depth = 0;
+		position = tupleStart;
+		
+		while (position < statement.length()) {
+			char currentChar = statement.charAt(position);
+			
+			if (currentChar == '\'' || currentChar == '"') {
+				position = skipQuoted(statement, position);
+				if (position < 0) {
+					return null;
+				}
+				
+				continue;
+			}
+			
+			if (isCommentStart(statement, position)) {
+				return null;
+			} else if (currentChar == '?') {
+				parameterCount++;
+			} else if (currentChar == '(') {
+				depth++;
+			} else if (currentChar == ')') {
+				depth--;
+				
+				if (depth == 0) {
+					break;
+				}
+			}
+			
+			position++;
+		}
+		
+		int tupleEnd = position + 1;
+		if (depth != 0 || skipWhitespace(statement, tupleEnd) != statement.length()) {
+			return null;
+		}
+		
+		return new MultiRowInsert(statement.substring(0, valuesEnd), statement.substring(tupleStart, tupleEnd), parameterCount);
+	}
+	
+	private static int skipKeyword(final String statement, final int position, final String keyword) {
+		int end = position + keyword.length();
+		
+		if (!statement.regionMatches(true, position, keyword, 0, keyword.length()) || end >= statement.length() ||
+				!Character.isWhitespace(statement.charAt(end))) {
+			return -1;
+		}
+		
+		return end;
+	}
+	
+	private static int skipWhitespace(final String statement, final int position) {
+		int currentPosition = position;
+		while (currentPosition < statement.length() && Character.isWhitespace(statement.charAt(currentPosition))) {
+			currentPosition++;
+		}
+		
+		return currentPosition;
+	}
+	
+	// Returns the position after the quoted string or identifier starting at the given position, or -1
+	// if it is not terminated. Doubled quotes are handled as two adjacent quoted parts.
+	private static int skipQuoted(final String statement, final int position) {
+		int end = statement.indexOf(statement.charAt(position), position + 1);
+		return (end < 0) ? -1 : end + 1;
+	}
+	
+	private static boolean isCommentStart(final String statement, final int position) {
+		return (statement.startsWith("--", position) || statement.startsWith("/*", position));
+	}
+	
+	private static boolean isIdentifierStart(final String statement, final int position) {
+		return (Character.isLetter(statement.charAt(position)) &&
+				(position == 0 || !isIdentifierPart(statement.charAt(position - 1))));
+	}
+	
+	private static boolean isIdentifierPart(final char character) {
+		return (Character.isLetterOrDigit(character) || character == '_' || character == '$' || character == '.');
+	}
+	
+	private static int skipIdentifier(final String statement, final int position) {
+		int currentPosition = position;
+		while (currentPosition < statement.length() && isIdentifierPart(statement.charAt(currentPosition))) {
+			currentPosition++;
+		}
+		
+		return currentPosition;
+	}
+	
+	public int getParameterCount() {
+		return this.parameterCount;
+	}
+	
+	// Returns the statement inserting the given number of rows
+	public String getSql(final int rowCount) {
+		StringBuilder builder = new StringBuilder(this.prefix.length() + 1 + rowCount * (this.tuple.length() + 2));
+		builder.append(this.prefix).append(' ').append(this.tuple);
+		
+		for (int row = 1; row < rowCount; row++) {
+			builder.append(", ").append(this.tuple);
+		}
+		
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,622 @@
+package jdbcwrapper.batch;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.BatchUpdateException;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+import jdbcwrapper.WrappedPreparedStatement;
+import jdbcwrapper.util.ParameterBuffer;
+
+// Prepared statement for a simple insert that executes batches as multi-row inserts, i.e., up to
+// chunkSize rows are inserted by a single statement instead of one statement per row. Parameters
+// are recorded and only bound when the statement is executed. If a parameter type is used that
+// cannot be recorded (e.g., streams or LOBs), the recorded rows are replayed onto the wrapped
+// statement and the statement falls back to regular batching.
+public class MultiRowInsertPreparedStatement extends WrappedPreparedStatement {
+	
+	// Maximum number of parameters per statement, as some drivers encode the parameter count as a short
+	private static final int MAX_PARAMETERS = 32767;
+	
+	private final PreparedStatement statement;
+	
+	private final MultiRowInsert insert;
+	
+	private final int chunkSize;
+	
+	private final ParameterBuffer parameters;
+	
+	private final List<ParameterBuffer> batchRows = new ArrayList<>();
+	
+	private final ChunkStatementFactory chunkStatementFactory;
+	
+	// Statement for full chunks, prepared on first use
+	private PreparedStatement chunkStatement;
+	
+	// Set until a parameter is set that cannot be recorded
+	private boolean rewriting = true;
+	
+	public MultiRowInsertPreparedStatement(final PreparedStatement statement, final MultiRowInsert insert, final int chunkSize,
+			final ChunkStatementFactory chunkStatementFactory) {
+		super(statement);
+		
+		int parameterCount = insert.getParameterCount();
+		int maxChunkSize = (parameterCount == 0) ? chunkSize : Math.max(1, MAX_PARAMETERS / parameterCount);
+		
+		this.statement = statement;
+		this.insert = insert;
+		this.chunkSize = Math.min(chunkSize, maxChunkSize);
+		this.parameters = new ParameterBuffer(parameterCount);
+		this.chunkStatementFactory = chunkStatementFactory;
+	}
+	
+	public boolean isRewriting() {
+		return this.rewriting;
+	}
+	
+	public int getChunkSize() {
+		return this.chunkSize;
+	}
+	
+	private int checkParameterIndex(final int parameterIndex) throws SQLException {
+		if (parameterIndex < 1 || parameterIndex > this.insert.getParameterCount()) {
+			throw new SQLException("Invalid parameter index " + parameterIndex + ".");
+		}
+		
+		return parameterIndex;
+	}
+	
+	// Switches to regular batching, moving the recorded rows and parameters to the wrapped statement
+	private void disableRewriting() throws SQLException {
+		if (!this.rewriting) {
+			return;
+		}
+		
+		this.rewriting = false;
+		
+		for (ParameterBuffer row : this.batchRows) {
+			this.bindParameters(row);
+			super.addBatch();
+		}
+		
+		this.batchRows.clear();
+		this.bindParameters(this.parameters);
+		this.parameters.clear();
+	}
+	
+	// Binds the given row to the wrapped statement, replacing parameters bound before
+	private void bindParameters(final ParameterBuffer row) throws SQLException {
+		this.statement.clearParameters();
+		row.applyTo(this.statement, 0);
+	}
+	
+	// Binds the recorded parameters to the wrapped statement for a regular execution
+	private void bindCurrentParameters() throws SQLException {
+		if (this.rewriting) {
+			this.bindParameters(this.parameters);
+		}
+	}
+	
+	@Override
+	public void addBatch() throws SQLException {
+		if (this.rewriting) {
+			this.batchRows.add(this.parameters.copy());
+		} else {
+			super.addBatch();
+		}
+	}
+	
+	@Override
+	public void addBatch(final String sql) throws SQLException {
+		this.disableRewriting();
+		super.addBatch(sql);
+	}
+	
+	@Override
+	public void clearBatch() throws SQLException {
+		this.batchRows.clear();
+		super.clearBatch();
+	}
+	
+	@Override
+	public void clearParameters() throws SQLException {
+		this.parameters.clear();
+		super.clearParameters();
+	}
+	
+	@Override
+	public int[] executeBatch() throws SQLException {
+		if (!this.rewriting || this.batchRows.isEmpty()) {
+			return super.executeBatch();
+		}
+		
+		List<ParameterBuffer> rows = this.batchRows;
+		int rowCount = rows.size();
+		int[] updateCounts = new int[rowCount];
+		int rowIndex = 0;
+		
+		try {
+			while (rowIndex < rowCount) {
+				int chunkRows = Math.min(this.chunkSize, rowCount - rowIndex);
+				int chunkUpdateCount = this.executeChunk(rows, rowIndex, chunkRows);
+				
+				// The update count of a chunk can only be distributed if each row inserted exactly one row
+				int rowUpdateCount = (chunkUpdateCount == chunkRows) ? 1 : Statement.SUCCESS_NO_INFO;
+				Arrays.fill(updateCounts, rowIndex, rowIndex + chunkRows, rowUpdateCount);
+				rowIndex += chunkRows;
+			}
+		} catch (SQLException e) {
+			throw new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(), Arrays.copyOf(updateCounts, rowIndex), e);
+		} finally {
+			rows.clear();
+		}
+		
+		return updateCounts;
+	}
+	
+	private int executeChunk(final List<ParameterBuffer> rows, final int firstRow, final int rowCount) throws SQLException {
+		if (rowCount == 1) {
+			// Single rows are executed using the original statement
+			this.bindParameters(rows.get(firstRow));
+			return super.executeUpdate();
+		}
+		
+		if (rowCount == this.chunkSize) {
+			if (this.chunkStatement == null) {
+				this.chunkStatement = this.prepareChunkStatement(rowCount);
+			}
+			
+			return this.executeChunk(this.chunkStatement, rows, firstRow, rowCount);
+		}
+		
+		// The remainder of the batch uses a temporary statement
+		try (PreparedStatement statement = this.prepareChunkStatement(rowCount)) {
+			return this.executeChunk(statement, rows, firstRow, rowCount);
+		}
+	}
+	
+	private int executeChunk(final PreparedStatement statement, final List<ParameterBuffer> rows, final int firstRow, final int rowCount) throws SQLException {
+		int parameterCount = this.insert.getParameterCount();
+		
+		for (int row = 0; row < rowCount; row++) {
+			rows.get(firstRow + row).applyTo(statement, row * parameterCount);
+		}
+		
+		return statement.executeUpdate();
+	}
+	
+	private PreparedStatement prepareChunkStatement(final int rowCount) throws SQLException {
+		PreparedStatement statement = this.chunkStatementFactory.prepareStatement(this.insert.getSql(rowCount));
+		
+		int queryTimeout = super.getQueryTimeout();
+		if (queryTimeout > 0) {
+			statement.setQueryTimeout(queryTimeout);
+		}
+		
+		return statement;
+	}
+	
+	@Override
+	public void setQueryTimeout(final int seconds) throws SQLException {
+		super.setQueryTimeout(seconds);
+		
+		if (this.chunkStatement != null) {
+			this.chunkStatement.setQueryTimeout(seconds);
+		}
+	}
+	
+	@Override
+	public boolean execute() throws SQLException {
+		this.bindCurrentParameters();
+		return super.execute();
+	}
+	
+	@Override
+	public ResultSet executeQuery() throws SQLException {
+		this.bindCurrentParameters();
+		return super.executeQuery();
+	}
+	
+	@Override
+	public int executeUpdate() throws SQLException {
+		this.bindCurrentParameters();
+		return super.executeUpdate();
+	}
+	
+	@Override
+	public void close() throws SQLException {
+		this.batchRows.clear();
+		this.parameters.clear();
+		
+		try {
+			if (this.chunkStatement != null) {
+				this.chunkStatement.close();
+				this.chunkStatement = null;
+			}
+		} finally {
+			super.close();
+		}
+	}
+	
+	@Override
+	public void setNull(final int parameterIndex, final int sqlType) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setNull(this.checkParameterIndex(parameterIndex), sqlType);
+		} else {
+			super.setNull(parameterIndex, sqlType);
+		}
+	}
+
+	@Override
+	public void setBoolean(final int parameterIndex, final boolean x) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setBoolean(this.checkParameterIndex(parameterIndex), x);
+		} else {
+			super.setBoolean(parameterIndex, x);
+		}
+	}
+
+	@Override
+	public void setByte(final int parameterIndex, final byte x) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setByte(this.checkParameterIndex(parameterIndex), x);
+		} else {
+			super.setByte(parameterIndex, x);
+		}
+	}
+
+	@Override
+	public void setShort(final int parameterIndex, final short x) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setShort(this.checkParameterIndex(parameterIndex), x);
+		} else {
+			super.setShort(parameterIndex, x);
+		}
+	}
+
+	@Override
+	public void setInt(final int parameterIndex, final int x) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setInt(this.checkParameterIndex(parameterIndex), x);
+		} else {
+			super.setInt(parameterIndex, x);
+		}
+	}
+
+	@Override
+	public void setLong(final int parameterIndex, final long x) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setLong(this.checkParameterIndex(parameterIndex), x);
+		} else {
+			super.setLong(parameterIndex, x);
+		}
+	}
+
+	@Override
+	public void setFloat(final int parameterIndex, final float x) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setFloat(this.checkParameterIndex(parameterIndex), x);
+		} else {
+			super.setFloat(parameterIndex, x);
+		}
+	}
+
+	@Override
+	public void setDouble(final int parameterIndex, final double x) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setDouble(this.checkParameterIndex(parameterIndex), x);
+		} else {
+			super.setDouble(parameterIndex, x);
+		}
+	}
+
+	@Override
+	public void setBigDecimal(final int parameterIndex, final BigDecimal x) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setBigDecimal(this.checkParameterIndex(parameterIndex), x);
+		} else {
+			super.setBigDecimal(parameterIndex, x);
+		}
+	}
+
+	@Override
+	public void setString(final int parameterIndex, final String x) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setString(this.checkParameterIndex(parameterIndex), x);
+		} else {
+			super.setString(parameterIndex, x);
+		}
+	}
+
+	@Override
+	public void setBytes(final int parameterIndex, final byte[] x) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setBytes(this.checkParameterIndex(parameterIndex), x);
+		} else {
+			super.setBytes(parameterIndex, x);
+		}
+	}
+
+	@Override
+	public void setDate(final int parameterIndex, final Date x) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setDate(this.checkParameterIndex(parameterIndex), x, null);
+		} else {
+			super.setDate(parameterIndex, x);
+		}
+	}
+
+	@Override
+	public void setTime(final int parameterIndex, final Time x) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setTime(this.checkParameterIndex(parameterIndex), x, null);
+		} else {
+			super.setTime(parameterIndex, x);
+		}
+	}
+
+	@Override
+	public void setTimestamp(final int parameterIndex, final Timestamp x) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setTimestamp(this.checkParameterIndex(parameterIndex), x, null);
+		} else {
+			super.setTimestamp(parameterIndex, x);
+		}
+	}
+
+	@Override
+	public void setAsciiStream(final int parameterIndex, final InputStream x, final int length) throws SQLException {
+		this.disableRewriting();
+		super.setAsciiStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setUnicodeStream(final int parameterIndex, final InputStream x, final int length) throws SQLException {
+		this.disableRewriting();
+		super.setUnicodeStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setBinaryStream(final int parameterIndex, final InputStream x, final int length) throws SQLException {
+		this.disableRewriting();
+		super.setBinaryStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setObject(final int parameterIndex, final Object x, final int targetSqlType) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setObject(this.checkParameterIndex(parameterIndex), x, targetSqlType);
+		} else {
+			super.setObject(parameterIndex, x, targetSqlType);
+		}
+	}
+
+	@Override
+	public void setObject(final int parameterIndex, final Object x) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setObject(this.checkParameterIndex(parameterIndex), x);
+		} else {
+			super.setObject(parameterIndex, x);
+		}
+	}
+
+	@Override
+	public void setCharacterStream(final int parameterIndex, final Reader reader, final int length) throws SQLException {
+		this.disableRewriting();
+		super.setCharacterStream(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setRef(final int parameterIndex, final Ref x) throws SQLException {
+		this.disableRewriting();
+		super.setRef(parameterIndex, x);
+	}
+
+	@Override
+	public void setBlob(final int parameterIndex, final Blob x) throws SQLException {
+		this.disableRewriting();
+		super.setBlob(parameterIndex, x);
+	}
+
+	@Override
+	public void setClob(final int parameterIndex, final Clob x) throws SQLException {
+		this.disableRewriting();
+		super.setClob(parameterIndex, x);
+	}
+
+	@Override
+	public void setArray(final int parameterIndex, final Array x) throws SQLException {
+		this.disableRewriting();
+		super.setArray(parameterIndex, x);
+	}
+
+	@Override
+	public void setDate(final int parameterIndex, final Date x, final Calendar cal) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setDate(this.checkParameterIndex(parameterIndex), x, cal);
+		} else {
+			super.setDate(parameterIndex, x, cal);
+		}
+	}
+
+	@Override
+	public void setTime(final int parameterIndex, final Time x, final Calendar cal) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setTime(this.checkParameterIndex(parameterIndex), x, cal);
+		} else {
+			super.setTime(parameterIndex, x, cal);
+		}
+	}
+
+	@Override
+	public void setTimestamp(final int parameterIndex, final Timestamp x, final Calendar cal) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setTimestamp(this.checkParameterIndex(parameterIndex), x, cal);
+		} else {
+			super.setTimestamp(parameterIndex, x, cal);
+		}
+	}
+
+	@Override
+	public void setNull(final int parameterIndex, final int sqlType, final String typeName) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setNull(this.checkParameterIndex(parameterIndex), sqlType, typeName);
+		} else {
+			super.setNull(parameterIndex, sqlType, typeName);
+		}
+	}
+
+	@Override
+	public void setURL(final int parameterIndex, final URL x) throws SQLException {
+		this.disableRewriting();
+		super.setURL(parameterIndex, x);
+	}
+
+	@Override
+	public void setRowId(final int parameterIndex, final RowId x) throws SQLException {
+		this.disableRewriting();
+		super.setRowId(parameterIndex, x);
+	}
+
+	@Override
+	public void setNString(final int parameterIndex, final String value) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setNString(this.checkParameterIndex(parameterIndex), value);
+		} else {
+			super.setNString(parameterIndex, value);
+		}
+	}
+
+	@Override
+	public void setNCharacterStream(final int parameterIndex, final Reader value, final long length) throws SQLException {
+		this.disableRewriting();
+		super.setNCharacterStream(parameterIndex, value, length);
+	}
+
+	@Override
+	public void setNClob(final int parameterIndex, final NClob value) throws SQLException {
+		this.disableRewriting();
+		super.setNClob(parameterIndex, value);
+	}
+
+	@Override
+	public void setClob(final int parameterIndex, final Reader reader, final long length) throws SQLException {
+		this.disableRewriting();
+		super.setClob(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setBlob(final int parameterIndex, final InputStream inputStream, final long length) throws SQLException {
+		this.disableRewriting();
+		super.setBlob(parameterIndex, inputStream, length);
+	}
+
+	@Override
+	public void setNClob(final int parameterIndex, final Reader reader, final long length) throws SQLException {
+		this.disableRewriting();
+		super.setNClob(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setSQLXML(final int parameterIndex, final SQLXML xmlObject) throws SQLException {
+		this.disableRewriting();
+		super.setSQLXML(parameterIndex, xmlObject);
+	}
+
+	@Override
+	public void setObject(final int parameterIndex, final Object x, final int targetSqlType, final int scaleOrLength) throws SQLException {
+		if (this.rewriting) {
+			this.parameters.setObject(this.checkParameterIndex(parameterIndex), x, targetSqlType, scaleOrLength);
+		} else {
+			super.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+		}
+	}
+
+	@Override
+	public void setAsciiStream(final int parameterIndex, final InputStream x, final long length) throws SQLException {
+		this.disableRewriting();
+		super.setAsciiStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setBinaryStream(final int parameterIndex, final InputStream x, final long length) throws SQLException {
+		this.disableRewriting();
+		super.setBinaryStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setCharacterStream(final int parameterIndex, final Reader reader, final long length) throws SQLException {
+		this.disableRewriting();
+		super.setCharacterStream(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setAsciiStream(final int parameterIndex, final InputStream x) throws SQLException {
+		this.disableRewriting();
+		super.setAsciiStream(parameterIndex, x);
+	}
+
+	@Override
+	public void setBinaryStream(final int parameterIndex, final InputStream x) throws SQLException {
+		this.disableRewriting();
+		super.setBinaryStream(parameterIndex, x);
+	}
+
+	@Override
+	public void setCharacterStream(final int parameterIndex, final Reader reader) throws SQLException {
+		this.disableRewriting();
+		super.setCharacterStream(parameterIndex, reader);
+	}
+
+	@Override
+	public void setNCharacterStream(final int parameterIndex, final Reader value) throws SQLException {
+		this.disableRewriting();
+		super.setNCharacterStream(parameterIndex, value);
+	}
+
+	@Override
+	public void setClob(final int parameterIndex, final Reader reader) throws SQLException {
+		this.disableRewriting();
+		super.setClob(parameterIndex, reader);
+	}
+
+	@Override
+	public void setBlob(final int parameterIndex, final InputStream inputStream) throws SQLException {
+		this.disableRewriting();
+		super.setBlob(parameterIndex, inputStream);
+	}
+
+	@Override
+	public void setNClob(final int parameterIndex, final Reader reader) throws SQLException {
+		this.disableRewriting();
+		super.setNClob(parameterIndex, reader);
+	}
+
+	// Prepares the statements for the chunks, e.g., using the statement cache of the connection
+	@FunctionalInterface
+	public interface ChunkStatementFactory {
+		
+		PreparedStatement prepareStatement(String sql) throws SQLException;
+		
+	}
+
+}
@@ -0,0 +1,147 @@
+package jdbcwrapper.cache;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import jdbcwrapper.WrappedPreparedStatement;
+
+// Wrapper for a statement managed by a PreparedStatementCache. Closing the wrapper resets the
+// statement and returns it to the cache, unless its settings were changed by the user. Since the
+// statement outlives the wrapper, the wrapper fails like a closed statement afterwards.
+public class CachedPreparedStatement extends WrappedPreparedStatement {
+	
+	private static final int NO_FETCH_SIZE = -1;
+	
+	private final PreparedStatement statement;
+	
+	private final StatementCacheKey key;
+	
+	private final PreparedStatementCache cache;
+	
+	private boolean closed;
+	
+	// Set if a setting was changed that cannot be reset, such statements are not cached
+	private boolean modified;
+	
+	// Fetch size before it was first changed, restored when the statement is returned to the cache
+	private int originalFetchSize = NO_FETCH_SIZE;
+	
+	public CachedPreparedStatement(final PreparedStatement statement, final StatementCacheKey key, final PreparedStatementCache cache) {
+		super(statement);
+		
+		this.statement = statement;
+		this.key = key;
+		this.cache = cache;
+	}
+	
+	@Override
+	public void close() throws SQLException {
+		if (this.closed) {
+			return;
+		}
+		
+		this.closed = true;
+		
+		if (this.modified || this.statement.isClosed()) {
+			this.statement.close();
+			return;
+		}
+		
+		try {
+			// The next user of the statement must not see the result set of this one
+			ResultSet resultSet = this.statement.getResultSet();
+			if (resultSet != null) {
+				resultSet.close();
+			}
+			
+			this.statement.clearParameters();
+			this.statement.clearBatch();
+			this.statement.clearWarnings();
+			
+			if (this.originalFetchSize != NO_FETCH_SIZE) {
+				this.statement.setFetchSize(this.originalFetchSize);
+			}
+		} catch (SQLException e) {
+			// The statement cannot be reused
+			PreparedStatementCache.closeQuietly(this.statement);
+			return;
+		}
+		
+		this.cache.checkIn(this.key, this.statement);
+	}
+	
+	@Override
+	protected PreparedStatement getWrappedStatement() throws SQLException {
+		if (this.closed) {
+			throw new SQLException("The statement is closed.");
+		}
+		
+		return super.getWrappedStatement();
+	}
+	
+	@Override
+	public boolean isClosed() throws SQLException {
+		return this.closed || this.statement.isClosed();
+	}
+	
+	@Override
+	public void setMaxFieldSize(final int max) throws SQLException {
+		this.modified = true;
+		super.setMaxFieldSize(max);
+	}
+	
+	@Override
+	public void setMaxRows(final int max) throws SQLException {
+		this.modified = true;
+		super.setMaxRows(max);
+	}
+	
+	@Override
+	public void setEscapeProcessing(final boolean enable) throws SQLException {
+		this.modified = true;
+		super.setEscapeProcessing(enable);
+	}
+	
+	@Override
+	public void setQueryTimeout(final int seconds) throws SQLException {
+		this.modified = true;
+		super.setQueryTimeout(seconds);
+	}
+	
+	@Override
+	public void setCursorName(final String name) throws SQLException {
+		this.modified = true;
+		super.setCursorName(name);
+	}
+	
+	@Override
+	public void setFetchDirection(final int direction) throws SQLException {
+		this.modified = true;
+		super.setFetchDirection(direction);
+	}
+	
+	@Override
+	public void setFetchSize(final int rows) throws SQLException {
+		// The fetch size is restored on check-in, e.g., for adaptive fetch sizes
+		if (this.originalFetchSize == NO_FETCH_SIZE) {
+			this.originalFetchSize = this.statement.getFetchSize();
+		}
+		
+		super.setFetchSize(rows);
+	}
+	
+	@Override
+	public void setPoolable(final boolean poolable) throws SQLException {
+		// Statements marked as not poolable are not returned to the cache
+		this.modified |= !poolable;
+		super.setPoolable(poolable);
+	}
+	
+	@Override
+	public void closeOnCompletion() throws SQLException {
+		this.modified = true;
+		super.closeOnCompletion();
+	}
+
+}
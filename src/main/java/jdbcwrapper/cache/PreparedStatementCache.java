@@ -0,0 +1,109 @@
+package jdbcwrapper.cache;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jdbcwrapper.measurement.StatementCacheMetrics;
+
+// LRU cache of idle prepared statements of a single connection. Statements are removed from the
+// cache while they are in use and returned when the wrapper handed out for them is closed. Like
+// the connection itself, the cache is not meant to be used by several threads at the same time.
+public class PreparedStatementCache {
+	
+	private static final Logger LOGGER = Logger.getLogger(PreparedStatementCache.class.getName());
+	
+	private final int capacity;
+	
+	private final StatementCacheMetrics metrics;
+	
+	private final Map<StatementCacheKey, PreparedStatement> idleStatements;
+	
+	private boolean closed;
+	
+	public PreparedStatementCache(final int capacity, final StatementCacheMetrics metrics) {
+		this.capacity = capacity;
+		this.metrics = metrics;
+		this.idleStatements = new LinkedHashMap<StatementCacheKey, PreparedStatement>(16, 0.75f, true) {
+			
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<StatementCacheKey, PreparedStatement> eldest) {
+				return PreparedStatementCache.this.evictIfFull(eldest.getValue());
+			}
+			
+		};
+	}
+	
+	private boolean evictIfFull(final PreparedStatement eldestStatement) {
+		if (this.idleStatements.size() <= this.capacity) {
+			return false;
+		}
+		
+		this.metrics.recordEviction();
+		closeQuietly(eldestStatement);
+		return true;
+	}
+	
+	// Removes an idle statement for the given key from the cache, returns null if there is none
+	public PreparedStatement checkOut(final StatementCacheKey key) {
+		PreparedStatement statement = this.idleStatements.remove(key);
+		
+		if (statement != null) {
+			this.metrics.recordHit();
+		} else {
+			this.metrics.recordMiss();
+		}
+		
+		return statement;
+	}
+	
+	// Wraps a checked out or newly prepared statement, so that closing the wrapper returns it to the cache
+	public PreparedStatement track(final StatementCacheKey key, final PreparedStatement statement) {
+		return new CachedPreparedStatement(statement, key, this);
+	}
+	
+	// Returns a statement to the cache. The statement must be reset by the caller.
+	void checkIn(final StatementCacheKey key, final PreparedStatement statement) {
+		if (this.closed || this.capacity <= 0 || this.idleStatements.containsKey(key)) {
+			// The same SQL was prepared more than once concurrently, keep only one of the statements
+			closeQuietly(statement);
+			return;
+		}
+		
+		this.idleStatements.put(key, statement);
+	}
+	
+	public int size() {
+		return this.idleStatements.size();
+	}
+	
+	public int getCapacity() {
+		return this.capacity;
+	}
+	
+	// Closes all idle statements. Statements that are in use are closed when they are returned.
+	public void close() {
+		this.closed = true;
+		
+		List<PreparedStatement> statements = new ArrayList<>(this.idleStatements.values());
+		this.idleStatements.clear();
+		
+		statements.forEach(PreparedStatementCache::closeQuietly);
+	}
+	
+	static void closeQuietly(final PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException e) {
+			LOGGER.log(Level.FINE, "Error closing a cached statement.", e);
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+package jdbcwrapper.cache;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+// Identifies a prepared statement by its SQL and the arguments of the prepareStatement overload
+// used to create it
+public class StatementCacheKey {
+	
+	private static final int NONE = -1;
+	
+	private static final int PLAIN = 0;
+	
+	private static final int GENERATED_KEYS = 1;
+	
+	private static final int RESULT_SET_TYPE = 2;
+	
+	private static final int COLUMN_INDEXES = 3;
+	
+	private static final int COLUMN_NAMES = 4;
+	
+	private final String sql;
+	
+	// Overload used to prepare the statement
+	private final int overload;
+	
+	private final int intArgument1;
+	
+	private final int intArgument2;
+	
+	private final int intArgument3;
+	
+	private final int[] columnIndexes;
+	
+	private final String[] columnNames;
+	
+	// Set for statements prepared on a replica (see RoutingConnection), which must not be reused for writes
+	private final boolean replica;
+	
+	private final int hashCode;
+	
+	private StatementCacheKey(final String sql, final int overload, final int intArgument1, final int intArgument2, final int intArgument3,
+			final int[] columnIndexes, final String[] columnNames) {
+		this(sql, overload, intArgument1, intArgument2, intArgument3, columnIndexes, columnNames, false);
+	}
+	
+	private StatementCacheKey(final String sql, final int overload, final int intArgument1, final int intArgument2, final int intArgument3,
+			final int[] columnIndexes, final String[] columnNames, final boolean replica) {
+		this.sql = sql;
+		this.overload = overload;
+		this.intArgument1 = intArgument1;
+		this.intArgument2 = intArgument2;
+		this.intArgument3 = intArgument3;
+		this.columnIndexes = columnIndexes;
+		this.columnNames = columnNames;
+		this.replica = replica;
+		
+		int hashCode = sql.hashCode();
+		hashCode = 31 * hashCode + overload;
+		hashCode = 31 * hashCode + intArgument1;
+		hashCode = 31 * hashCode + intArgument2;
+		hashCode = 31 * hashCode + intArgument3;
+		hashCode = 31 * hashCode + Arrays.hashCode(columnIndexes);
+		hashCode = 31 * hashCode + Arrays.hashCode(columnNames);
+		hashCode = 31 * hashCode + Boolean.hashCode(replica);
+		this.hashCode = hashCode;
+	}
+	
+	public static StatementCacheKey forSql(final String sql) {
+		return new StatementCacheKey(sql, PLAIN, NONE, NONE, NONE, null, null);
+	}
+	
+	public static StatementCacheKey forGeneratedKeys(final String sql, final int autoGeneratedKeys) {
+		return new StatementCacheKey(sql, GENERATED_KEYS, autoGeneratedKeys, NONE, NONE, null, null);
+	}
+	
+	public static StatementCacheKey forResultSetType(final String sql, final int resultSetType, final int resultSetConcurrency) {
+		return new StatementCacheKey(sql, RESULT_SET_TYPE, resultSetType, resultSetConcurrency, NONE, null, null);
+	}
+	
+	public static StatementCacheKey forResultSetType(final String sql, final int resultSetType, final int resultSetConcurrency,
+			final int resultSetHoldability) {
+		return new StatementCacheKey(sql, RESULT_SET_TYPE, resultSetType, resultSetConcurrency, resultSetHoldability, null, null);
+	}
+	
+	public static StatementCacheKey forColumnIndexes(final String sql, final int[] columnIndexes) {
+		// Copy the array, since the caller may modify it later
+		int[] indexes = (columnIndexes == null) ? null : columnIndexes.clone();
+		return new StatementCacheKey(sql, COLUMN_INDEXES, NONE, NONE, NONE, indexes, null);
+	}
+	
+	public static StatementCacheKey forColumnNames(final String sql, final String[] columnNames) {
+		String[] names = (columnNames == null) ? null : columnNames.clone();
+		return new StatementCacheKey(sql, COLUMN_NAMES, NONE, NONE, NONE, null, names);
+	}
+	
+	// Returns the key of the same statement prepared on a replica
+	public StatementCacheKey forReplica() {
+		return (this.replica) ? this :
+				new StatementCacheKey(this.sql, this.overload, this.intArgument1, this.intArgument2, this.intArgument3, this.columnIndexes,
+						this.columnNames, true);
+	}
+	
+	public String getSql() {
+		return this.sql;
+	}
+	
+	@Override
+	public int hashCode() {
+		return this.hashCode;
+	}
+	
+	@Override
+	public boolean equals(final Object object) {
+		if (this == object) {
+			return true;
+		}
+		
+		if (!(object instanceof StatementCacheKey)) {
+			return false;
+		}
+		
+		StatementCacheKey that = (StatementCacheKey) object;
+		return (this.hashCode == that.hashCode) &&
+				(this.overload == that.overload) &&
+				(this.intArgument1 == that.intArgument1) &&
+				(this.intArgument2 == that.intArgument2) &&
+				(this.intArgument3 == that.intArgument3) &&
+				(this.replica == that.replica) &&
+				Objects.equals(this.sql, that.sql) &&
+				Arrays.equals(this.columnIndexes, that.columnIndexes) &&
+				Arrays.equals(this.columnNames, that.columnNames);
+	}
+	
+	@Override
+	public String toString() {
+		return this.sql;
+	}
+
+}
@@ -0,0 +1,157 @@
+package jdbcwrapper.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import jdbcwrapper.util.DriverMetadata;
+
+// Serves the metrics of driver types in the Prometheus text format from an embedded HTTP server.
+// Types configured with the same port share one server. Scrapes are handled one at a time on the
+// server's dispatcher thread and the response is streamed with chunked encoding, so its size does
+// not depend on the number of series.
+public class PrometheusExporter {
+	
+	private static final String PORT_PROPERTY = "metrics.http.port";
+	
+	private static final int DEFAULT_PORT = 0;
+	
+	private static final String HOST_PROPERTY = "metrics.http.host";
+	
+	private static final String PATH = "/metrics";
+	
+	private static final int BUFFER_SIZE = 8192;
+	
+	private static final Logger LOGGER = Logger.getLogger(PrometheusExporter.class.getName());
+	
+	private static final ConcurrentMap<Integer, PrometheusExporter> EXPORTERS = new ConcurrentHashMap<>();
+	
+	private final HttpServer server;
+	
+	// Types whose metrics are exported, sorted so that scrapes are stable
+	private final Set<String> types = new ConcurrentSkipListSet<>();
+	
+	public PrometheusExporter(final InetSocketAddress address) throws IOException {
+		this.server = HttpServer.create(address, 0);
+		this.server.createContext(PATH, this::handleScrape);
+	}
+	
+	// Adds the type of the given metadata to the exporter on the configured port, which is started
+	// if necessary. Returns the exporter, or null if no port is configured or the server cannot be started.
+	public static PrometheusExporter forMetadata(final DriverMetadata metadata) {
+		int port = metadata.getIntProperty(PORT_PROPERTY, DEFAULT_PORT);
+		if (port <= 0) {
+			return null;
+		}
+		
+		PrometheusExporter exporter = EXPORTERS.get(port);
+		
+		if (exporter == null) {
+			exporter = EXPORTERS.computeIfAbsent(port, key -> createExporter(metadata, key));
+		}
+		
+		if (exporter != null) {
+			exporter.addType(metadata.typeName);
+		}
+		
+		return exporter;
+	}
+	
+	private static PrometheusExporter createExporter(final DriverMetadata metadata, final int port) {
+		// The metrics are only exposed on the network if a host (e.g., 0.0.0.0) is configured explicitly
+		String host = metadata.getProperty(HOST_PROPERTY, "");
+		InetSocketAddress address = (host.isEmpty()) ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port) :
+				new InetSocketAddress(host, port);
+		
+		try {
+			PrometheusExporter exporter = new PrometheusExporter(address);
+			exporter.start();
+			return exporter;
+		} catch (IOException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, e, () -> "Error starting the metrics exporter for " + metadata.typeName + " on " + address + ".");
+			return null;
+		}
+	}
+	
+	public static PrometheusExporter getExporter(final int port) {
+		return EXPORTERS.get(port);
+	}
+	
+	// Stops the exporters on all ports, e.g., when the driver is deregistered
+	public static void stopAll() {
+		for (Integer port : EXPORTERS.keySet()) {
+			PrometheusExporter exporter = EXPORTERS.remove(port);
+			
+			if (exporter != null) {
+				exporter.stop();
+			}
+		}
+	}
+	
+	public void addType(final String type) {
+		this.types.add(type);
+	}
+	
+	public Set<String> getTypes() {
+		return this.types;
+	}
+	
+	public InetSocketAddress getAddress() {
+		return this.server.getAddress();
+	}
+	
+	public void start() {
+		// The dispatcher thread inherits the daemon status of the thread starting the server, it must
+		// not keep the application alive
+		Thread starter = new Thread(this.server::start, "jdbc-wrapper-exporter-start");
+		starter.setDaemon(true);
+		starter.start();
+		
+		try {
+			starter.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	public void stop() {
+		this.server.stop(0);
+	}
+	
+	private void handleScrape(final HttpExchange exchange) throws IOException {
+		try {
+			if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+				exchange.sendResponseHeaders(405, -1);
+				return;
+			}
+			
+			exchange.getResponseHeaders().set("Content-Type", PrometheusTextWriter.CONTENT_TYPE);
+			if ("HEAD".equals(exchange.getRequestMethod())) {
+				exchange.sendResponseHeaders(200, -1);
+				return;
+			}
+			
+			// A length of 0 selects chunked encoding
+			exchange.sendResponseHeaders(200, 0);
+			try (Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+				new PrometheusTextWriter(writer).writeMetrics(this.types);
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+}
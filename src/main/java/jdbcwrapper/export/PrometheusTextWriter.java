@@ -0,0 +1,247 @@
+package jdbcwrapper.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import jdbcwrapper.measurement.ConnectionMetrics;
+import jdbcwrapper.measurement.HistogramSnapshot;
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.measurement.QueryStatistics;
+import jdbcwrapper.measurement.QueryStatisticsTable;
+import jdbcwrapper.measurement.StatementKind;
+import jdbcwrapper.measurement.StatementMetrics;
+import jdbcwrapper.measurement.TransactionMetrics;
+import jdbcwrapper.txmonitoring.TransactionEventDispatcher;
+
+// Writes the metrics of driver types in the Prometheus text exposition format (version 0.0.4). All
+// samples of a metric family must be contiguous, so the writer makes one pass over the types (and
+// the query statistics) per family and writes each sample directly to the underlying writer. The
+// metrics are only read, so writing does not block the connections recording them.
+public class PrometheusTextWriter {
+	
+	public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+	
+	private static final String PREFIX = "jdbcwrapper_";
+	
+	private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+	
+	private static final double[] QUANTILES = { 0.5, 0.99, 0.999 };
+	
+	private final Writer writer;
+	
+	public PrometheusTextWriter(final Writer writer) {
+		this.writer = writer;
+	}
+	
+	public void writeMetrics(final Collection<String> types) throws IOException {
+		this.writeCounters("connections_opened_total", "Connections opened", types, type -> connections(type).getOpenedCount());
+		this.writeCounters("connections_closed_total", "Connections closed", types, type -> connections(type).getClosedCount());
+		this.writeGauges("connections_open", "Open connections", types, type -> connections(type).getOpenCount());
+		
+		this.writeCounters("transactions_started_total", "Explicit transactions started", types, type -> transactions(type).getStartedCount());
+		this.writeCounters("transactions_committed_total", "Transactions committed", types, type -> transactions(type).getCommittedCount());
+		this.writeCounters("transactions_rolled_back_total", "Transactions rolled back", types, type -> transactions(type).getRolledBackCount());
+		this.writeCounters("transactions_failed_completions_total", "Commits and rollbacks that failed", types,
+				type -> transactions(type).getFailedCompletionCount());
+		this.writeSummaries("transaction_duration_seconds", "Duration of transactions", types, null,
+				type -> transactions(type).getDurationSnapshot());
+		this.writeSummaries("commit_latency_seconds", "Latency of commits", types, null, type -> transactions(type).getCommitLatencySnapshot());
+		
+		this.writeStatementSummaries(types);
+		this.writeCounters("slow_statements_total", "Statements exceeding the slow query threshold", types,
+				type -> statements(type).getSlowStatementCount());
+		this.writeCounters("statements_cancelled_total", "Statements cancelled for exceeding their execution budget", types,
+				type -> statements(type).getCancelledStatementCount());
+		this.writeCounters("repeated_queries_total", "Queries repeated within a transaction", types,
+				type -> transactions(type).getRepeatedQueryCount());
+		this.writeCounters("listener_errors_total", "Exceptions thrown by listeners", types, PrometheusTextWriter::listenerErrors);
+		
+		this.writeQueryCounters("query_calls_total", "Executions per statement fingerprint", types, QueryStatistics::getCallCount, 1.0);
+		this.writeQueryCounters("query_seconds_total", "Execution time per statement fingerprint", types, QueryStatistics::getTotalTime,
+				NANOS_PER_SECOND);
+		this.writeQueryCounters("query_rows_returned_total", "Rows returned per statement fingerprint", types, QueryStatistics::getRowsReturned,
+				1.0);
+		this.writeQueryCounters("query_rows_affected_total", "Rows affected per statement fingerprint", types, QueryStatistics::getRowsAffected,
+				1.0);
+		
+		this.writer.flush();
+	}
+	
+	private static ConnectionMetrics connections(final String type) {
+		return MetricsRegistry.getConnectionMetrics(type);
+	}
+	
+	private static TransactionMetrics transactions(final String type) {
+		return MetricsRegistry.getTransactionMetrics(type);
+	}
+	
+	private static StatementMetrics statements(final String type) {
+		return MetricsRegistry.getStatementMetrics(type);
+	}
+	
+	private static long listenerErrors(final String type) {
+		long errors = transactions(type).getListenerErrorCount();
+		TransactionEventDispatcher dispatcher = TransactionEventDispatcher.getDispatcher(type);
+		
+		return (dispatcher == null) ? errors : errors + dispatcher.getListenerErrorCount();
+	}
+	
+	private void writeCounters(final String name, final String help, final Collection<String> types, final ToLongFunction<String> value)
+			throws IOException {
+		this.writeHeader(name, help, "counter");
+		for (String type : types) {
+			this.writeSample(name, type, null, null, value.applyAsLong(type));
+		}
+	}
+	
+	private void writeGauges(final String name, final String help, final Collection<String> types, final ToLongFunction<String> value)
+			throws IOException {
+		this.writeHeader(name, help, "gauge");
+		for (String type : types) {
+			this.writeSample(name, type, null, null, value.applyAsLong(type));
+		}
+	}
+	
+	private void writeStatementSummaries(final Collection<String> types) throws IOException {
+		String name = "statement_duration_seconds";
+		this.writeHeader(name, "Execution time of statements by kind", "summary");
+		
+		for (String type : types) {
+			StatementMetrics metrics = statements(type);
+			
+			for (StatementKind kind : StatementKind.values()) {
+				this.writeSummary(name, type, "kind=\"" + kind.name().toLowerCase(Locale.ROOT) + "\"", metrics.snapshot(kind));
+			}
+		}
+	}
+	
+	private void writeSummaries(final String name, final String help, final Collection<String> types, final String labels,
+			final Function<String, HistogramSnapshot> snapshot) throws IOException {
+		this.writeHeader(name, help, "summary");
+		for (String type : types) {
+			this.writeSummary(name, type, labels, snapshot.apply(type));
+		}
+	}
+	
+	private void writeSummary(final String name, final String type, final String labels, final HistogramSnapshot snapshot) throws IOException {
+		for (double quantile : QUANTILES) {
+			String quantileLabel = "quantile=\"" + quantile + "\"";
+			String sampleLabels = (labels == null) ? quantileLabel : labels + "," + quantileLabel;
+			this.writeSample(name, type, sampleLabels, null, snapshot.getValueAtPercentile(quantile * 100.0) / NANOS_PER_SECOND);
+		}
+		
+		this.writeSample(name + "_sum", type, labels, null, snapshot.getSum() / NANOS_PER_SECOND);
+		this.writeSample(name + "_count", type, labels, null, snapshot.getCount());
+	}
+	
+	// Writes one sample per fingerprint of the given types, the value is divided by the given divisor
+	private void writeQueryCounters(final String name, final String help, final Collection<String> types,
+			final ToLongFunction<QueryStatistics> value, final double divisor) throws IOException {
+		this.writeHeader(name, help, "counter");
+		
+		for (String type : types) {
+			QueryStatisticsTable table = MetricsRegistry.getQueryStatistics(type);
+			if (table == null) {
+				continue;
+			}
+			
+			for (QueryStatistics statistics : table.getEntries()) {
+				long sampleValue = value.applyAsLong(statistics);
+				
+				if (divisor == 1.0) {
+					this.writeSample(name, type, null, statistics.getFingerprint(), sampleValue);
+				} else {
+					this.writeSample(name, type, null, statistics.getFingerprint(), sampleValue / divisor);
+				}
+			}
+		}
+	}
+	
+	private void writeHeader(final String name, final String help, final String metricType) throws IOException {
+		this.writer.write("# HELP ");
+		this.writer.write(PREFIX);
+		this.writer.write(name);
+		this.writer.write(' ');
+		this.writer.write(help);
+		this.writer.write("\n# TYPE ");
+		this.writer.write(PREFIX);
+		this.writer.write(name);
+		this.writer.write(' ');
+		this.writer.write(metricType);
+		this.writer.write('\n');
+	}
+	
+	private void writeSample(final String name, final String type, final String labels, final String fingerprint, final long value)
+			throws IOException {
+		this.writeSampleName(name, type, labels, fingerprint);
+		this.writer.write(Long.toString(value));
+		this.writer.write('\n');
+	}
+	
+	private void writeSample(final String name, final String type, final String labels, final String fingerprint, final double value)
+			throws IOException {
+		this.writeSampleName(name, type, labels, fingerprint);
+		this.writer.write(Double.toString(value));
+		this.writer.write('\n');
+	}
+	
+	// Writes the name and labels of a sample, the additional labels must already be escaped
+	private void writeSampleName(final String name, final String type, final String labels, final String fingerprint) throws IOException {
+		this.writer.write(PREFIX);
+		this.writer.write(name);
+		this.writer.write("{type=\"");
+		this.writeEscaped(type);
+		this.writer.write('"');
+		
+		if (fingerprint != null) {
+			this.writer.write(",fingerprint=\"");
+			this.writeEscaped(fingerprint);
+			this.writer.write('"');
+		}
+		
+		if (labels != null) {
+			this.writer.write(',');
+			this.writer.write(labels);
+		}
+		
+		this.writer.write("} ");
+	}
+	
+	// Writes a label value, escaping backslashes, quotes and line feeds without copying the value
+	private void writeEscaped(final String value) throws IOException {
+		int start = 0;
+		
+		for (int index = 0; index < value.length(); index++) {
+			char character = value.charAt(index);
+			String escaped;
+			
+			switch (character) {
+			case '\\':
+				escaped = "\\\\";
+				break;
+				
+			case '"':
+				escaped = "\\\"";
+				break;
+				
+			case '\n':
+				escaped = "\\n";
+				break;
+				
+			default:
+				continue;
+			}
+			
+			this.writer.write(value, start, index - start);
+			this.writer.write(escaped);
+			start = index + 1;
+		}
+		
+		this.writer.write(value, start, value.length() - start);
+	}
+
+}
@@ -0,0 +1,282 @@
+package jdbcwrapper.jmx;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import jdbcwrapper.measurement.ConnectionMetrics;
+import jdbcwrapper.measurement.HistogramSnapshot;
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.measurement.StatementKind;
+import jdbcwrapper.measurement.StatementMetrics;
+import jdbcwrapper.measurement.TransactionMetrics;
+import jdbcwrapper.txmonitoring.TransactionEventDispatcher;
+import jdbcwrapper.util.DriverMetadata;
+
+// Read-only MBean exposing the metrics of a driver type, e.g., "jdbcwrapper:type=Metrics,name=postgresql".
+// The attributes only read the metrics registry when they are queried, so the MBean adds no work to
+// the connections. Latencies are given in nanoseconds.
+public class WrapperMetricsMBean implements DynamicMBean {
+	
+	private static final String DOMAIN = "jdbcwrapper";
+	
+	private static final String ENABLED_PROPERTY = "jmx.enabled";
+	
+	private static final Logger LOGGER = Logger.getLogger(WrapperMetricsMBean.class.getName());
+	
+	// Names of the registered MBeans by type
+	private static final ConcurrentMap<String, ObjectName> REGISTERED_NAMES = new ConcurrentHashMap<>();
+	
+	private final String type;
+	
+	private final Map<String, MetricAttribute> attributes = new LinkedHashMap<>();
+	
+	private final MBeanInfo info;
+	
+	public WrapperMetricsMBean(final String type) {
+		this.type = type;
+		
+		this.addAttribute("OpenConnections", "Number of open connections", metrics -> metrics.connections.getOpenCount());
+		this.addAttribute("OpenedConnections", "Number of connections opened", metrics -> metrics.connections.getOpenedCount());
+		this.addAttribute("ClosedConnections", "Number of connections closed", metrics -> metrics.connections.getClosedCount());
+		
+		this.addAttribute("TransactionsStarted", "Number of explicit transactions started", metrics -> metrics.transactions.getStartedCount());
+		this.addAttribute("TransactionsCommitted", "Number of transactions committed", metrics -> metrics.transactions.getCommittedCount());
+		this.addAttribute("TransactionsRolledBack", "Number of transactions rolled back", metrics -> metrics.transactions.getRolledBackCount());
+		this.addAttribute("FailedCompletions", "Number of failed commits and rollbacks", metrics -> metrics.transactions.getFailedCompletionCount());
+		this.addPercentileAttributes("TransactionDuration", "transaction duration", metrics -> metrics.transactions.getDurationSnapshot());
+		this.addPercentileAttributes("CommitLatency", "commit latency", metrics -> metrics.transactions.getCommitLatencySnapshot());
+		
+		for (StatementKind kind : StatementKind.values()) {
+			String name = kind.name().charAt(0) + kind.name().substring(1).toLowerCase(Locale.ROOT);
+			String description = kind.name().toLowerCase(Locale.ROOT) + " statement";
+			
+			this.addAttribute(name + "Statements", "Number of " + description + "s", metrics -> metrics.statements.snapshot(kind).getCount());
+			this.addPercentileAttributes(name + "Latency", description + " latency", metrics -> metrics.statements.snapshot(kind));
+		}
+		
+		this.addAttribute("SlowStatements", "Number of statements exceeding the slow query threshold",
+				metrics -> metrics.statements.getSlowStatementCount());
+		this.addAttribute("CancelledStatements", "Number of statements cancelled for exceeding their execution budget",
+				metrics -> metrics.statements.getCancelledStatementCount());
+		this.addAttribute("RepeatedQueries", "Number of queries repeated within a transaction",
+				metrics -> metrics.transactions.getRepeatedQueryCount());
+		this.addAttribute("ListenerErrors", "Number of exceptions thrown by listeners", Metrics::getListenerErrorCount);
+		
+		MBeanAttributeInfo[] attributeInfos = new MBeanAttributeInfo[this.attributes.size()];
+		Iterator<Map.Entry<String, MetricAttribute>> entries = this.attributes.entrySet().iterator();
+		for (int index = 0; index < attributeInfos.length; index++) {
+			Map.Entry<String, MetricAttribute> entry = entries.next();
+			attributeInfos[index] = new MBeanAttributeInfo(entry.getKey(), "long", entry.getValue().description, true, false, false);
+		}
+		
+		this.info = new MBeanInfo(this.getClass().getName(), "Metrics of the JDBC wrapper for type " + type, attributeInfos, null, null, null);
+	}
+	
+	private void addAttribute(final String name, final String description, final ToLongFunction<Metrics> value) {
+		this.attributes.put(name, new MetricAttribute(description, value));
+	}
+	
+	private void addPercentileAttributes(final String name, final String description, final Function<Metrics, HistogramSnapshot> snapshot) {
+		this.addAttribute(name + "P50", "Median " + description, metrics -> metrics.snapshot(name, snapshot).getP50());
+		this.addAttribute(name + "P99", "99th percentile of the " + description, metrics -> metrics.snapshot(name, snapshot).getP99());
+		this.addAttribute(name + "P999", "99.9th percentile of the " + description, metrics -> metrics.snapshot(name, snapshot).getP999());
+		this.addAttribute(name + "Max", "Maximum " + description, metrics -> metrics.snapshot(name, snapshot).getMax());
+	}
+	
+	// Registers the MBean for the type of the given metadata with the platform MBean server, unless
+	// disabled in the metadata. Returns the name of the MBean, or null if it is not registered.
+	public static ObjectName forMetadata(final DriverMetadata metadata) {
+		if (!metadata.getBooleanProperty(ENABLED_PROPERTY, true)) {
+			return null;
+		}
+		
+		return register(metadata.typeName);
+	}
+	
+	// Registers the MBean for the given type if it is not registered yet
+	public static ObjectName register(final String type) {
+		ObjectName name = REGISTERED_NAMES.get(type);
+		
+		if (name == null) {
+			name = REGISTERED_NAMES.computeIfAbsent(type, WrapperMetricsMBean::registerMBean);
+		}
+		
+		return name;
+	}
+	
+	private static ObjectName registerMBean(final String type) {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		
+		try {
+			ObjectName name = objectName(type);
+			server.registerMBean(new WrapperMetricsMBean(type), name);
+			return name;
+		} catch (InstanceAlreadyExistsException e) {
+			// Possibly registered by a copy of the driver in another class loader
+			LOGGER.log(Level.WARNING, () -> "An MBean for the metrics of " + type + " is already registered.");
+			return null;
+		} catch (JMException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, e, () -> "Error registering the metrics MBean for " + type + ".");
+			return null;
+		}
+	}
+	
+	// Unregisters the MBean for the given type, if registered
+	public static void unregister(final String type) {
+		ObjectName name = REGISTERED_NAMES.remove(type);
+		if (name == null) {
+			return;
+		}
+		
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		} catch (JMException e) {
+			LOGGER.log(Level.WARNING, e, () -> "Error unregistering the metrics MBean for " + type + ".");
+		}
+	}
+	
+	// Unregisters the MBeans of all types, e.g., when the driver is deregistered
+	public static void unregisterAll() {
+		for (String type : REGISTERED_NAMES.keySet()) {
+			unregister(type);
+		}
+	}
+	
+	public static ObjectName objectName(final String type) throws MalformedObjectNameException {
+		return new ObjectName(DOMAIN + ":type=Metrics,name=" + ObjectName.quote(type));
+	}
+	
+	public String getType() {
+		return this.type;
+	}
+	
+	@Override
+	public Object getAttribute(final String attribute) throws AttributeNotFoundException, MBeanException, ReflectionException {
+		return this.readAttribute(attribute, new Metrics(this.type));
+	}
+	
+	private long readAttribute(final String attribute, final Metrics metrics) throws AttributeNotFoundException {
+		MetricAttribute metricAttribute = this.attributes.get(attribute);
+		if (metricAttribute == null) {
+			throw new AttributeNotFoundException("No attribute " + attribute + ".");
+		}
+		
+		return metricAttribute.value.applyAsLong(metrics);
+	}
+	
+	@Override
+	public AttributeList getAttributes(final String[] attributes) {
+		// The metrics are looked up once for all attributes
+		Metrics metrics = new Metrics(this.type);
+		AttributeList values = new AttributeList(attributes.length);
+		
+		for (String attribute : attributes) {
+			try {
+				values.add(new Attribute(attribute, this.readAttribute(attribute, metrics)));
+			} catch (AttributeNotFoundException e) {
+				// Unknown attributes are omitted as specified by DynamicMBean
+			}
+		}
+		
+		return values;
+	}
+	
+	@Override
+	public void setAttribute(final Attribute attribute) throws AttributeNotFoundException {
+		throw new AttributeNotFoundException("Attribute " + attribute.getName() + " is read-only.");
+	}
+	
+	@Override
+	public AttributeList setAttributes(final AttributeList attributes) {
+		// All attributes are read-only, so none is set
+		return new AttributeList();
+	}
+	
+	@Override
+	public Object invoke(final String actionName, final Object[] params, final String[] signature) throws ReflectionException {
+		throw new ReflectionException(new NoSuchMethodException(actionName), "No operation " + actionName + ".");
+	}
+	
+	@Override
+	public MBeanInfo getMBeanInfo() {
+		return this.info;
+	}
+	
+	private static class MetricAttribute {
+		
+		public final String description;
+		
+		public final ToLongFunction<Metrics> value;
+		
+		public MetricAttribute(final String description, final ToLongFunction<Metrics> value) {
+			this.description = description;
+			this.value = value;
+		}
+	
+	}
+	
+	// Metrics of a type, looked up per query, since the metrics are created with the first connection
+	private static class Metrics {
+		
+		public final ConnectionMetrics connections;
+		
+		public final TransactionMetrics transactions;
+		
+		public final StatementMetrics statements;
+		
+		// Null if listeners are notified synchronously
+		public final TransactionEventDispatcher dispatcher;
+		
+		// Snapshots taken for this query, so that percentiles of the same histogram are consistent
+		private final Map<String, HistogramSnapshot> snapshots = new HashMap<>();
+		
+		public Metrics(final String type) {
+			this.connections = MetricsRegistry.getConnectionMetrics(type);
+			this.transactions = MetricsRegistry.getTransactionMetrics(type);
+			this.statements = MetricsRegistry.getStatementMetrics(type);
+			this.dispatcher = TransactionEventDispatcher.getDispatcher(type);
+		}
+		
+		public HistogramSnapshot snapshot(final String name, final Function<Metrics, HistogramSnapshot> snapshot) {
+			HistogramSnapshot histogramSnapshot = this.snapshots.get(name);
+			
+			if (histogramSnapshot == null) {
+				histogramSnapshot = snapshot.apply(this);
+				this.snapshots.put(name, histogramSnapshot);
+			}
+			
+			return histogramSnapshot;
+		}
+		
+		public long getListenerErrorCount() {
+			long errors = this.transactions.getListenerErrorCount();
+			return (this.dispatcher == null) ? errors : errors + this.dispatcher.getListenerErrorCount();
+		}
+	
+	}
+
+}
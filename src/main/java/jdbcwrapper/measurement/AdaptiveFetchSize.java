@@ -0,0 +1,63 @@
+package jdbcwrapper.measurement;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Derives fetch sizes for queries from the typical number of rows per result set recorded in the
+// query statistics. The fetch size covers the typical result including the end of the result set,
+// i.e., it is one more than the row count, and is limited by the configured bounds. Fingerprints
+// without statistics get no fetch size, so that the driver default is used.
+public class AdaptiveFetchSize {
+	
+	public static final int NO_FETCH_SIZE = 0;
+	
+	private final QueryStatisticsTable statistics;
+	
+	private final int minFetchSize;
+	
+	private final int maxFetchSize;
+	
+	public AdaptiveFetchSize(final QueryStatisticsTable statistics, final int minFetchSize, final int maxFetchSize) {
+		this.statistics = statistics;
+		this.minFetchSize = Math.max(1, minFetchSize);
+		this.maxFetchSize = Math.max(this.minFetchSize, maxFetchSize);
+	}
+	
+	public int getMinFetchSize() {
+		return this.minFetchSize;
+	}
+	
+	public int getMaxFetchSize() {
+		return this.maxFetchSize;
+	}
+	
+	// Returns the fetch size for the given fingerprint, or NO_FETCH_SIZE if nothing was learned yet
+	public int getFetchSize(final String fingerprint) {
+		QueryStatistics entry = this.statistics.get(fingerprint);
+		return (entry == null) ? NO_FETCH_SIZE : this.fetchSizeFor(entry.getTypicalRowCount());
+	}
+	
+	private int fetchSizeFor(final long typicalRowCount) {
+		if (typicalRowCount == QueryStatistics.NO_ROW_COUNT) {
+			return NO_FETCH_SIZE;
+		}
+		
+		return (int) Math.max(this.minFetchSize, Math.min(this.maxFetchSize, typicalRowCount + 1));
+	}
+	
+	// Returns the current fetch sizes by fingerprint
+	public Map<String, Integer> getLearnedFetchSizes() {
+		Map<String, Integer> fetchSizes = new HashMap<>();
+		
+		for (QueryStatistics entry : this.statistics.getEntries()) {
+			int fetchSize = this.fetchSizeFor(entry.getTypicalRowCount());
+			
+			if (fetchSize != NO_FETCH_SIZE) {
+				fetchSizes.put(entry.getFingerprint(), fetchSize);
+			}
+		}
+		
+		return fetchSizes;
+	}
+
+}
@@ -0,0 +1,22 @@
+package jdbcwrapper.measurement;
+
+class BatchUtil {
+	
+	// Sums up the update counts of a batch, ignoring entries without update count
+	// (SUCCESS_NO_INFO, EXECUTE_FAILED)
+	public static long sumUpdateCounts(final int[] updateCounts) {
+		if (updateCounts == null) {
+			return MeasuredStatement.NO_ROWS_AFFECTED;
+		}
+		
+		long sum = 0;
+		for (int updateCount : updateCounts) {
+			if (updateCount >= 0) {
+				sum += updateCount;
+			}
+		}
+		
+		return sum;
+	}
+
+}
@@ -0,0 +1,32 @@
+package jdbcwrapper.measurement;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConnectionMetrics {
+	
+	private final LongAdder openedConnections = new LongAdder();
+	
+	private final LongAdder closedConnections = new LongAdder();
+	
+	public void recordOpen() {
+		this.openedConnections.increment();
+	}
+	
+	public void recordClose() {
+		this.closedConnections.increment();
+	}
+	
+	public long getOpenedCount() {
+		return this.openedConnections.sum();
+	}
+	
+	public long getClosedCount() {
+		return this.closedConnections.sum();
+	}
+	
+	// The sums are not taken atomically, so the count may be slightly off while connections are opened
+	public long getOpenCount() {
+		return Math.max(0, this.getOpenedCount() - this.getClosedCount());
+	}
+
+}
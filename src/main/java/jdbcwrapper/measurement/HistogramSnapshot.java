@@ -0,0 +1,74 @@
+package jdbcwrapper.measurement;
+
+public class HistogramSnapshot {
+	
+	private final long[] counts;
+	
+	private final long totalCount;
+	
+	private final long sum;
+	
+	private final long max;
+	
+	HistogramSnapshot(final long[] counts, final long sum, final long max) {
+		this.counts = counts;
+		this.sum = sum;
+		this.max = max;
+		
+		long totalCount = 0;
+		for (long count : counts) {
+			totalCount += count;
+		}
+		this.totalCount = totalCount;
+	}
+	
+	public long getCount() {
+		return this.totalCount;
+	}
+	
+	public long getSum() {
+		return this.sum;
+	}
+	
+	public long getMax() {
+		return this.max;
+	}
+	
+	public double getMean() {
+		return (this.totalCount == 0) ? 0.0 : ((double) this.sum / this.totalCount);
+	}
+	
+	public long getValueAtPercentile(final double percentile) {
+		if (this.totalCount == 0) {
+			return 0;
+		}
+		
+		// Find the first bucket at which the cumulative count reaches the requested rank
+		long rank = Math.max(1, (long) Math.ceil((percentile / 100.0) * this.totalCount));
+		long cumulativeCount = 0;
+		
+		for (int bucketIndex = 0; bucketIndex < this.counts.length; bucketIndex++) {
+			cumulativeCount += this.counts[bucketIndex];
+			
+			if (cumulativeCount >= rank) {
+				// The bucket bound may exceed the actual maximum
+				return Math.min(LatencyHistogram.highestValueInBucket(bucketIndex), this.max);
+			}
+		}
+		
+		return this.max;
+	}
+	
+	public long getP50() {
+		return this.getValueAtPercentile(50.0);
+	}
+	
+	public long getP99() {
+		return this.getValueAtPercentile(99.0);
+	}
+	
+	public long getP999() {
+		return this.getValueAtPercentile(99.9);
+	}
+
+}
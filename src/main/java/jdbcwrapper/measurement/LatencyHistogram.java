@@ -0,0 +1,110 @@
+package jdbcwrapper.measurement;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+	
+	// Log-linear bucketing in the style of HdrHistogram: values below SUB_BUCKET_COUNT are counted
+	// exactly, above that each power of two is split into SUB_BUCKET_COUNT linear sub-buckets. This
+	// bounds the relative error to 1 / SUB_BUCKET_COUNT (about 3%) with a fixed number of buckets.
+	private static final int SUB_BUCKET_BITS = 5;
+	
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	
+	private static final int MAX_VALUE_BITS = 40;
+	
+	// About 18 minutes in nanoseconds, larger values are counted in the highest bucket
+	public static final long MAX_TRACKABLE_VALUE = (1L << MAX_VALUE_BITS) - 1;
+	
+	static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+	
+	private static final int SUM_INDEX = BUCKET_COUNT;
+	
+	private static final int MAX_INDEX = BUCKET_COUNT + 1;
+	
+	// Unused trailing slots, so that the hot slots of adjacent stripes do not share a cache line
+	private static final int PADDING = 16;
+	
+	private static final int STRIPE_LENGTH = BUCKET_COUNT + 2 + PADDING;
+	
+	private static final int MAX_STRIPES = 16;
+	
+	private final AtomicLongArray[] stripes;
+	
+	private final int stripeMask;
+	
+	public LatencyHistogram() {
+		this(Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors()));
+	}
+	
+	public LatencyHistogram(final int concurrency) {
+		// Round the number of stripes up to a power of two, so that the stripe can be selected by masking
+		int stripeCount = (concurrency <= 1) ? 1 : Integer.highestOneBit((concurrency - 1) << 1);
+		
+		this.stripes = new AtomicLongArray[stripeCount];
+		for (int stripeIndex = 0; stripeIndex < stripeCount; stripeIndex++) {
+			this.stripes[stripeIndex] = new AtomicLongArray(STRIPE_LENGTH);
+		}
+		
+		this.stripeMask = stripeCount - 1;
+	}
+	
+	public void record(final long value) {
+		long clampedValue = (value < 0) ? 0 : Math.min(value, MAX_TRACKABLE_VALUE);
+		
+		// Threads are spread over the stripes by their id, so concurrent recorders rarely touch the
+		// same stripe. Each update is a single atomic add, only a new maximum requires a CAS.
+		AtomicLongArray stripe = this.stripes[(int) Thread.currentThread().getId() & this.stripeMask];
+		stripe.getAndIncrement(bucketIndex(clampedValue));
+		stripe.getAndAdd(SUM_INDEX, clampedValue);
+		
+		long currentMax = stripe.get(MAX_INDEX);
+		while (clampedValue > currentMax) {
+			if (stripe.compareAndSet(MAX_INDEX, currentMax, clampedValue)) {
+				break;
+			}
+			
+			currentMax = stripe.get(MAX_INDEX);
+		}
+	}
+	
+	public HistogramSnapshot snapshot() {
+		long[] counts = new long[BUCKET_COUNT];
+		long sum = 0;
+		long max = 0;
+		
+		for (AtomicLongArray stripe : this.stripes) {
+			for (int bucketIndex = 0; bucketIndex < BUCKET_COUNT; bucketIndex++) {
+				counts[bucketIndex] += stripe.get(bucketIndex);
+			}
+			
+			sum += stripe.get(SUM_INDEX);
+			max = Math.max(max, stripe.get(MAX_INDEX));
+		}
+		
+		return new HistogramSnapshot(counts, sum, max);
+	}
+	
+	static int bucketIndex(final long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		
+		int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift);
+		
+		return (shift * SUB_BUCKET_COUNT) + subBucket;
+	}
+	
+	static long highestValueInBucket(final int bucketIndex) {
+		if (bucketIndex < SUB_BUCKET_COUNT) {
+			return bucketIndex;
+		}
+		
+		int shift = (bucketIndex / SUB_BUCKET_COUNT) - 1;
+		long subBucket = (bucketIndex % SUB_BUCKET_COUNT) + SUB_BUCKET_COUNT;
+		
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+}
@@ -0,0 +1,29 @@
+package jdbcwrapper.measurement;
+
+import jdbcwrapper.util.ParameterBuffer;
+
+// Details on the current (or last) execution of a measuring statement
+public interface MeasuredStatement {
+	
+	public static final long NO_ROWS_AFFECTED = -1;
+	
+	// Normalized SQL of the execution, or null if not available (e.g., for batches of plain statements)
+	public String getFingerprint();
+	
+	public long getRowsAffected();
+	
+	// SQL of the execution, or null if not available
+	public String getSql();
+	
+	// Returns whether the result of the execution was taken from the result cache, i.e., the statement
+	// did not reach the database
+	public default boolean isResultCached() {
+		return false;
+	}
+	
+	// Bind parameters of the execution, or null if they are not captured
+	public default ParameterBuffer getCapturedParameters() {
+		return null;
+	}
+
+}
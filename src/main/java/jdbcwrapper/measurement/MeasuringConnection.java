@@ -1,11 +1,47 @@
 package jdbcwrapper.measurement;
 
+import java.sql.SQLException;
 import java.sql.Statement;
 
+import jdbcwrapper.resultcache.ResultCache;
+import jdbcwrapper.watchdog.StatementWatchdog;
+
 public interface MeasuringConnection {
 	
 	public void onStatementStart(Statement statement);
 	
-	public void onStatementEnd(Statement statement);
+	public void onStatementEnd(Statement statement, StatementKind kind, long durationNanos);
+	
+	// Called when a result set is exhausted or closed. The times are measured from the start of the
+	// statement execution, firstRowNanos is -1 if there were no rows. The fetch count is estimated from
+	// the fetch size, as JDBC does not expose the actual round trips.
+	public void onResultSetEnd(Statement statement, long rowCount, long firstRowNanos, long fetchNanos, long fetchCount);
+	
+	// Returns the fetch size to set before the given statement executes a query, or 0 to leave the
+	// fetch size unchanged
+	public default int getAdvisedFetchSize(final MeasuredStatement statement) {
+		return 0;
+	}
+	
+	// Returns whether a prepared statement of the given SQL should capture its bind parameters, e.g., for logging
+	public default boolean isCapturingParameters(final String sql) {
+		return false;
+	}
+	
+	// Returns the result cache if the result of the given query may be cached, else null. Pending
+	// writes of the connection are executed first, as they may invalidate cached results.
+	public default ResultCache getResultCache(final String sql) throws SQLException {
+		return null;
+	}
+	
+	// Returns the write coalescer of the connection, null if updates are not to be deferred
+	public default WriteCoalescer getWriteCoalescer() {
+		return null;
+	}
+	
+	// Returns the watchdog enforcing the execution budgets of statements, null if there are none
+	public default StatementWatchdog getStatementWatchdog() {
+		return null;
+	}
 
 }
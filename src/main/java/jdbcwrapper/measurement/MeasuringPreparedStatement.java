@@ -1,86 +1,974 @@
 package jdbcwrapper.measurement;
 
-import static jdbcwrapper.util.TimingUtil.time;
+import static jdbcwrapper.util.TimingUtil.end;
+import static jdbcwrapper.util.TimingUtil.start;
 
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.BatchUpdateException;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
 import java.sql.PreparedStatement;
+import java.sql.Ref;
 import java.sql.ResultSet;
+import java.sql.RowId;
 import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
 
 import jdbcwrapper.WrappedPreparedStatement;
+import jdbcwrapper.resultcache.CachedResultSet;
+import jdbcwrapper.resultcache.ResultCache;
+import jdbcwrapper.resultcache.ResultCacheKey;
+import jdbcwrapper.resultcache.ResultRecorder;
+import jdbcwrapper.util.ParameterBuffer;
+import jdbcwrapper.util.SqlFingerprint;
+import jdbcwrapper.watchdog.StatementWatchdog;
+import jdbcwrapper.watchdog.WatchdogTimeout;
 
-public class MeasuringPreparedStatement extends WrappedPreparedStatement {
+public class MeasuringPreparedStatement extends WrappedPreparedStatement implements MeasuredStatement {
+	
+	// Initial capacity of the parameter buffer, it grows as needed
+	private static final int DEFAULT_PARAMETER_COUNT = 8;
 
 	private final MeasuringConnection connection;
 	
-	public MeasuringPreparedStatement(final PreparedStatement wrappedStatement, final MeasuringConnection connection) {
+	private final String preparedSql;
+	
+	// Fingerprint of the prepared SQL, computed at most once per statement
+	private String preparedFingerprint;
+	
+	// SQL of the current execution if it is not the prepared SQL, i.e., if one of the
+	// execute methods taking an SQL string is used
+	private String sql;
+	
+	private String fingerprint;
+	
+	// Set while the batch contains entries added by the user, updates are not deferred then
+	private boolean userBatch;
+	
+	private long rowsAffected = NO_ROWS_AFFECTED;
+	
+	private MeasuringResultSet resultSet;
+	
+	// Result set returned from the result cache for the current execution, if any
+	private CachedResultSet cachedResultSet;
+	
+	// Recorder for the result of the current query if it is to be cached, null otherwise
+	private ResultRecorder resultRecorder;
+	
+	// Parameters of the current execution, null unless captured for logging
+	private final ParameterBuffer capturedParameters;
+	
+	// Start time of the current execution, result sets are measured from it
+	private long executionStartTime;
+	
+	// Execution budget of the current execution, null if none
+	private WatchdogTimeout timeout;
+	
+	// Set if the fetch size was set by the user, it is not adjusted then
+	private boolean fetchSizeSet;
+	
+	// Fetch size set on the statement as advised by the connection, 0 if none
+	private int advisedFetchSize;
+	
+	// Fetch size of the statement before the current advice, restored when nothing is advised
+	private int defaultFetchSize;
+	
+	public MeasuringPreparedStatement(final PreparedStatement wrappedStatement, final String sql, final MeasuringConnection connection) {
 		super(wrappedStatement);
 		
 		this.connection = connection;
+		this.preparedSql = sql;
+		this.capturedParameters = (connection.isCapturingParameters(sql)) ? new ParameterBuffer(DEFAULT_PARAMETER_COUNT) : null;
+	}
+	
+	@Override
+	public String getFingerprint() {
+		if (this.sql != null) {
+			if (this.fingerprint == null) {
+				this.fingerprint = SqlFingerprint.of(this.sql);
+			}
+			
+			return this.fingerprint;
+		}
+		
+		return this.getPreparedFingerprint();
+	}
+	
+	public String getPreparedFingerprint() {
+		if (this.preparedFingerprint == null) {
+			this.preparedFingerprint = SqlFingerprint.of(this.preparedSql);
+		}
+		
+		return this.preparedFingerprint;
+	}
+	
+	public String getPreparedSql() {
+		return this.preparedSql;
+	}
+	
+	@Override
+	public String getSql() {
+		return (this.sql != null) ? this.sql : this.preparedSql;
+	}
+	
+	@Override
+	public ParameterBuffer getCapturedParameters() {
+		// Parameters do not apply to the execution of other SQL
+		return (this.sql != null) ? null : this.capturedParameters;
+	}
+	
+	@Override
+	public long getRowsAffected() {
+		return this.rowsAffected;
+	}
+	
+	@Override
+	public boolean isResultCached() {
+		return (this.cachedResultSet != null);
+	}
+	
+	private long startExecution(final String sql) throws SQLException {
+		// Deferred updates (including those of this statement) must be executed first
+		WriteCoalescer writeCoalescer = this.connection.getWriteCoalescer();
+		if (writeCoalescer != null) {
+			writeCoalescer.flush();
+		}
+		
+		// Re-executing a statement implicitly closes its current result set
+		this.finishResultSet();
+		this.cachedResultSet = null;
+		
+		this.sql = sql;
+		this.fingerprint = null;
+		this.rowsAffected = NO_ROWS_AFFECTED;
+		
+		this.executionStartTime = start(this, this.connection);
+		
+		StatementWatchdog watchdog = this.connection.getStatementWatchdog();
+		if (watchdog != null) {
+			this.timeout = watchdog.start(this, this);
+		}
+		
+		return this.executionStartTime;
+	}
+	
+	private void endExecution(final long startTime, final StatementKind kind) {
+		if (this.timeout != null) {
+			this.timeout.complete();
+			this.timeout = null;
+		}
+		
+		end(startTime, this, kind, this.connection);
+	}
+	
+	private long startPreparedExecution() throws SQLException {
+		return this.startExecution(null);
+	}
+	
+	private int updated(final int rowsAffected) {
+		this.rowsAffected = rowsAffected;
+		return rowsAffected;
+	}
+	
+	private int[] updated(final int[] rowsAffected) {
+		this.rowsAffected = BatchUtil.sumUpdateCounts(rowsAffected);
+		return rowsAffected;
+	}
+	
+	private void applyAdvisedFetchSize() throws SQLException {
+		if (this.fetchSizeSet) {
+			return;
+		}
+		
+		int fetchSize = this.connection.getAdvisedFetchSize(this);
+		if (fetchSize <= 0) {
+			// Nothing is advised for this query (e.g., another query of a plain statement), so an advice
+			// for a previous query must not stick
+			if (this.advisedFetchSize > 0) {
+				super.setFetchSize(this.defaultFetchSize);
+				this.advisedFetchSize = 0;
+			}
+		} else if (fetchSize != this.advisedFetchSize) {
+			if (this.advisedFetchSize == 0) {
+				this.defaultFetchSize = super.getFetchSize();
+			}
+			
+			super.setFetchSize(fetchSize);
+			this.advisedFetchSize = fetchSize;
+		}
+	}
+	
+	@Override
+	public void setFetchSize(final int rows) throws SQLException {
+		super.setFetchSize(rows);
+		this.fetchSizeSet = true;
+	}
+	
+	private ResultSet measure(final ResultSet resultSet) {
+		if (resultSet == null) {
+			return null;
+		}
+		
+		this.resultSet = new MeasuringResultSet(resultSet, this, this.executionStartTime, this.connection);
+		
+		if (this.resultRecorder != null) {
+			this.resultSet.record(this.resultRecorder);
+			this.resultRecorder = null;
+		}
+		
+		return this.resultSet;
+	}
+	
+	// Returns the cached result of the given query (null for the prepared SQL), or null if it is to be
+	// executed. In this case, the result recorder is set if the result is to be cached.
+	private ResultSet lookUpCachedResult(final String sql) throws SQLException {
+		this.resultRecorder = null;
+		
+		String querySql = (sql != null) ? sql : this.preparedSql;
+		ParameterBuffer parameters = (sql != null) ? null : this.capturedParameters;
+		
+		// Without captured parameters, the result of the prepared SQL cannot be identified
+		if (sql == null && parameters == null) {
+			return null;
+		}
+		
+		ResultCache resultCache = this.connection.getResultCache(querySql);
+		if (resultCache == null) {
+			return null;
+		}
+		
+		ResultCacheKey key = ResultCacheKey.of(querySql, parameters);
+		if (key == null) {
+			return null;
+		}
+		
+		CachedResultSet cachedResultSet = resultCache.get(key, this);
+		if (cachedResultSet == null) {
+			this.resultRecorder = resultCache.startRecording(key);
+			return null;
+		}
+		
+		// The cached result replaces the result of an execution
+		this.finishResultSet();
+		this.sql = sql;
+		this.fingerprint = null;
+		this.rowsAffected = NO_ROWS_AFFECTED;
+		this.cachedResultSet = cachedResultSet;
+		
+		// The hit is reported like an execution (without a watchdog, as nothing runs on the database), so
+		// that it counts for the statement metrics and may start a transaction
+		long startTime = start(this, this.connection);
+		end(startTime, this, StatementKind.QUERY, this.connection);
+		
+		return cachedResultSet;
+	}
+	
+	private void finishResultSet() {
+		if (this.resultSet != null) {
+			this.resultSet.finish();
+			this.resultSet = null;
+		}
 	}
 	
 	@Override
 	public boolean execute(final String sql) throws SQLException {
-		return time(() -> super.execute(sql), this, this.connection);
+		long startTime = this.startExecution(sql);
+		try {
+			this.applyAdvisedFetchSize();
+			return super.execute(sql);
+		} finally {
+			this.endExecution(startTime, StatementKind.EXECUTE);
+		}
 	}
 	
 	@Override
 	public boolean execute(final String sql, final int autoGeneratedKeys) throws SQLException {
-		return time(() -> super.execute(sql, autoGeneratedKeys), this, this.connection);
+		long startTime = this.startExecution(sql);
+		try {
+			this.applyAdvisedFetchSize();
+			return super.execute(sql, autoGeneratedKeys);
+		} finally {
+			this.endExecution(startTime, StatementKind.EXECUTE);
+		}
 	}
 	
 	@Override
 	public boolean execute(final String sql, final int[] columnIndexes) throws SQLException {
-		return time(() -> super.execute(sql, columnIndexes), this, this.connection);
+		long startTime = this.startExecution(sql);
+		try {
+			this.applyAdvisedFetchSize();
+			return super.execute(sql, columnIndexes);
+		} finally {
+			this.endExecution(startTime, StatementKind.EXECUTE);
+		}
 	}
 	
 	@Override
 	public boolean execute(final String sql, final String[] columnNames) throws SQLException {
-		return time(() -> super.execute(sql, columnNames), this, this.connection);
+		long startTime = this.startExecution(sql);
+		try {
+			this.applyAdvisedFetchSize();
+			return super.execute(sql, columnNames);
+		} finally {
+			this.endExecution(startTime, StatementKind.EXECUTE);
+		}
 	}
 	
 	@Override
 	public int[] executeBatch() throws SQLException {
-		return time(() -> super.executeBatch(), this, this.connection);
+		long startTime = this.startPreparedExecution();
+		try {
+			this.userBatch = false;
+			return this.updated(super.executeBatch());
+		} finally {
+			this.endExecution(startTime, StatementKind.BATCH);
+		}
+	}
+	
+	@Override
+	public void addBatch() throws SQLException {
+		this.flushDeferredUpdates();
+		this.userBatch = true;
+		super.addBatch();
+	}
+	
+	@Override
+	public void addBatch(final String sql) throws SQLException {
+		this.flushDeferredUpdates();
+		this.userBatch = true;
+		super.addBatch(sql);
+	}
+	
+	@Override
+	public void clearBatch() throws SQLException {
+		this.flushDeferredUpdates();
+		this.userBatch = false;
+		super.clearBatch();
+	}
+	
+	@Override
+	public int getUpdateCount() throws SQLException {
+		this.flushDeferredUpdates();
+		return super.getUpdateCount();
+	}
+	
+	@Override
+	public ResultSet getGeneratedKeys() throws SQLException {
+		this.flushDeferredUpdates();
+		return super.getGeneratedKeys();
+	}
+	
+	// Executes the deferred updates of this statement, if any
+	private void flushDeferredUpdates() throws SQLException {
+		WriteCoalescer writeCoalescer = this.connection.getWriteCoalescer();
+		if (writeCoalescer != null) {
+			writeCoalescer.flush(this);
+		}
+	}
+	
+	void addDeferredUpdate() throws SQLException {
+		this.finishResultSet();
+		super.addBatch();
+	}
+	
+	// Executes the deferred updates and checks that each returned the update count promised to the caller
+	void executeDeferredUpdates(final int promisedUpdateCount) throws SQLException {
+		int[] updateCounts;
+		
+		long startTime = this.startPreparedExecution();
+		try {
+			updateCounts = this.updated(super.executeBatch());
+		} finally {
+			this.endExecution(startTime, StatementKind.BATCH);
+		}
+		
+		for (int index = 0; index < updateCounts.length; index++) {
+			int updateCount = updateCounts[index];
+			
+			if (updateCount != promisedUpdateCount && updateCount != Statement.SUCCESS_NO_INFO) {
+				throw new BatchUpdateException("Deferred update " + (index + 1) + " affected " + updateCount + " rows instead of the reported " +
+						promisedUpdateCount + ".", updateCounts);
+			}
+		}
+	}
+	
+	void discardDeferredUpdates() throws SQLException {
+		super.clearBatch();
 	}
 	
 	@Override
 	public ResultSet executeQuery(final String sql) throws SQLException {
-		return time(() -> super.executeQuery(sql), this, this.connection);
+		ResultSet cachedResultSet = this.lookUpCachedResult(sql);
+		if (cachedResultSet != null) {
+			return cachedResultSet;
+		}
+		
+		long startTime = this.startExecution(sql);
+		try {
+			this.applyAdvisedFetchSize();
+			return this.measure(super.executeQuery(sql));
+		} finally {
+			this.resultRecorder = null;
+			this.endExecution(startTime, StatementKind.QUERY);
+		}
 	}
 	
 	@Override
 	public int executeUpdate(final String sql) throws SQLException {
-		return time(() -> super.executeUpdate(sql), this, this.connection);
+		long startTime = this.startExecution(sql);
+		try {
+			return this.updated(super.executeUpdate(sql));
+		} finally {
+			this.endExecution(startTime, StatementKind.UPDATE);
+		}
 	}
 	
 	@Override
 	public int executeUpdate(final String sql, final int autoGeneratedKeys) throws SQLException {
-		return time(() -> super.executeUpdate(sql, autoGeneratedKeys), this, this.connection);
+		long startTime = this.startExecution(sql);
+		try {
+			return this.updated(super.executeUpdate(sql, autoGeneratedKeys));
+		} finally {
+			this.endExecution(startTime, StatementKind.UPDATE);
+		}
 	}
 	
 	@Override
 	public int executeUpdate(final String sql, final int[] columnIndexes) throws SQLException {
-		return time(() -> super.executeUpdate(sql, columnIndexes), this, this.connection);
+		long startTime = this.startExecution(sql);
+		try {
+			return this.updated(super.executeUpdate(sql, columnIndexes));
+		} finally {
+			this.endExecution(startTime, StatementKind.UPDATE);
+		}
 	}
 	
 	@Override
 	public int executeUpdate(final String sql, final String[] columnNames) throws SQLException {
-		return time(() -> super.executeUpdate(sql, columnNames), this, this.connection);
+		long startTime = this.startExecution(sql);
+		try {
+			return this.updated(super.executeUpdate(sql, columnNames));
+		} finally {
+			this.endExecution(startTime, StatementKind.UPDATE);
+		}
 	}
 	
 	@Override
 	public boolean execute() throws SQLException {
-		return time(() -> super.execute(), this, this.connection);
+		long startTime = this.startPreparedExecution();
+		try {
+			this.applyAdvisedFetchSize();
+			return super.execute();
+		} finally {
+			this.endExecution(startTime, StatementKind.EXECUTE);
+		}
 	}
 	
 	@Override
 	public ResultSet executeQuery() throws SQLException {
-		return time(() -> super.executeQuery(), this, this.connection);
+		ResultSet cachedResultSet = this.lookUpCachedResult(null);
+		if (cachedResultSet != null) {
+			return cachedResultSet;
+		}
+		
+		long startTime = this.startPreparedExecution();
+		try {
+			this.applyAdvisedFetchSize();
+			return this.measure(super.executeQuery());
+		} finally {
+			this.resultRecorder = null;
+			this.endExecution(startTime, StatementKind.QUERY);
+		}
 	}
 	
 	@Override
 	public int executeUpdate() throws SQLException {
-		return time(() -> super.executeUpdate(), this, this.connection);
+		WriteCoalescer writeCoalescer = this.connection.getWriteCoalescer();
+		if (writeCoalescer != null && writeCoalescer.isActive() && !this.userBatch) {
+			return writeCoalescer.defer(this);
+		}
+		
+		long startTime = this.startPreparedExecution();
+		try {
+			return this.updated(super.executeUpdate());
+		} finally {
+			this.endExecution(startTime, StatementKind.UPDATE);
+		}
+	}
+	
+	@Override
+	public ResultSet getResultSet() throws SQLException {
+		if (this.cachedResultSet != null) {
+			return this.cachedResultSet;
+		}
+		
+		ResultSet resultSet = super.getResultSet();
+		
+		// Return the current wrapper if the result set was already returned
+		if (this.resultSet != null && this.resultSet.wraps(resultSet)) {
+			return this.resultSet;
+		}
+		
+		this.finishResultSet();
+		return this.measure(resultSet);
+	}
+	
+	@Override
+	public void clearParameters() throws SQLException {
+		super.clearParameters();
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.clear();
+		}
+	}
+	
+	@Override
+	public void close() throws SQLException {
+		this.flushDeferredUpdates();
+		this.finishResultSet();
+		super.close();
+	}
+	
+	@Override
+	public void setNull(final int parameterIndex, final int sqlType) throws SQLException {
+		super.setNull(parameterIndex, sqlType);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setNull(parameterIndex, sqlType);
+		}
+	}
+	
+	@Override
+	public void setBoolean(final int parameterIndex, final boolean x) throws SQLException {
+		super.setBoolean(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setBoolean(parameterIndex, x);
+		}
+	}
+	
+	@Override
+	public void setByte(final int parameterIndex, final byte x) throws SQLException {
+		super.setByte(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setByte(parameterIndex, x);
+		}
+	}
+	
+	@Override
+	public void setShort(final int parameterIndex, final short x) throws SQLException {
+		super.setShort(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setShort(parameterIndex, x);
+		}
+	}
+	
+	@Override
+	public void setInt(final int parameterIndex, final int x) throws SQLException {
+		super.setInt(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setInt(parameterIndex, x);
+		}
+	}
+	
+	@Override
+	public void setLong(final int parameterIndex, final long x) throws SQLException {
+		super.setLong(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setLong(parameterIndex, x);
+		}
+	}
+	
+	@Override
+	public void setFloat(final int parameterIndex, final float x) throws SQLException {
+		super.setFloat(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setFloat(parameterIndex, x);
+		}
+	}
+	
+	@Override
+	public void setDouble(final int parameterIndex, final double x) throws SQLException {
+		super.setDouble(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setDouble(parameterIndex, x);
+		}
+	}
+	
+	@Override
+	public void setBigDecimal(final int parameterIndex, final BigDecimal x) throws SQLException {
+		super.setBigDecimal(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setBigDecimal(parameterIndex, x);
+		}
+	}
+	
+	@Override
+	public void setString(final int parameterIndex, final String x) throws SQLException {
+		super.setString(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setString(parameterIndex, x);
+		}
+	}
+	
+	@Override
+	public void setBytes(final int parameterIndex, final byte[] x) throws SQLException {
+		super.setBytes(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setBytes(parameterIndex, x);
+		}
+	}
+	
+	@Override
+	public void setDate(final int parameterIndex, final Date x) throws SQLException {
+		super.setDate(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setDate(parameterIndex, x, null);
+		}
+	}
+	
+	@Override
+	public void setTime(final int parameterIndex, final Time x) throws SQLException {
+		super.setTime(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setTime(parameterIndex, x, null);
+		}
+	}
+	
+	@Override
+	public void setTimestamp(final int parameterIndex, final Timestamp x) throws SQLException {
+		super.setTimestamp(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setTimestamp(parameterIndex, x, null);
+		}
+	}
+	
+	@Override
+	public void setAsciiStream(final int parameterIndex, final InputStream x, final int length) throws SQLException {
+		super.setAsciiStream(parameterIndex, x, length);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "stream");
+		}
+	}
+	
+	@Override
+	public void setUnicodeStream(final int parameterIndex, final InputStream x, final int length) throws SQLException {
+		super.setUnicodeStream(parameterIndex, x, length);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "stream");
+		}
+	}
+	
+	@Override
+	public void setBinaryStream(final int parameterIndex, final InputStream x, final int length) throws SQLException {
+		super.setBinaryStream(parameterIndex, x, length);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "stream");
+		}
+	}
+	
+	@Override
+	public void setObject(final int parameterIndex, final Object x, final int targetSqlType) throws SQLException {
+		super.setObject(parameterIndex, x, targetSqlType);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setObject(parameterIndex, x, targetSqlType);
+		}
+	}
+	
+	@Override
+	public void setObject(final int parameterIndex, final Object x) throws SQLException {
+		super.setObject(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setObject(parameterIndex, x);
+		}
+	}
+	
+	@Override
+	public void setCharacterStream(final int parameterIndex, final Reader reader, final int length) throws SQLException {
+		super.setCharacterStream(parameterIndex, reader, length);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "stream");
+		}
+	}
+	
+	@Override
+	public void setRef(final int parameterIndex, final Ref x) throws SQLException {
+		super.setRef(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "REF");
+		}
+	}
+	
+	@Override
+	public void setBlob(final int parameterIndex, final Blob x) throws SQLException {
+		super.setBlob(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "BLOB");
+		}
+	}
+	
+	@Override
+	public void setClob(final int parameterIndex, final Clob x) throws SQLException {
+		super.setClob(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "CLOB");
+		}
+	}
+	
+	@Override
+	public void setArray(final int parameterIndex, final Array x) throws SQLException {
+		super.setArray(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "ARRAY");
+		}
+	}
+	
+	@Override
+	public void setDate(final int parameterIndex, final Date x, final Calendar cal) throws SQLException {
+		super.setDate(parameterIndex, x, cal);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setDate(parameterIndex, x, cal);
+		}
+	}
+	
+	@Override
+	public void setTime(final int parameterIndex, final Time x, final Calendar cal) throws SQLException {
+		super.setTime(parameterIndex, x, cal);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setTime(parameterIndex, x, cal);
+		}
+	}
+	
+	@Override
+	public void setTimestamp(final int parameterIndex, final Timestamp x, final Calendar cal) throws SQLException {
+		super.setTimestamp(parameterIndex, x, cal);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setTimestamp(parameterIndex, x, cal);
+		}
+	}
+	
+	@Override
+	public void setNull(final int parameterIndex, final int sqlType, final String typeName) throws SQLException {
+		super.setNull(parameterIndex, sqlType, typeName);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setNull(parameterIndex, sqlType, typeName);
+		}
+	}
+	
+	@Override
+	public void setURL(final int parameterIndex, final URL x) throws SQLException {
+		super.setURL(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "URL");
+		}
+	}
+	
+	@Override
+	public void setRowId(final int parameterIndex, final RowId x) throws SQLException {
+		super.setRowId(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "ROWID");
+		}
+	}
+	
+	@Override
+	public void setNString(final int parameterIndex, final String value) throws SQLException {
+		super.setNString(parameterIndex, value);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setNString(parameterIndex, value);
+		}
+	}
+	
+	@Override
+	public void setNCharacterStream(final int parameterIndex, final Reader value, final long length) throws SQLException {
+		super.setNCharacterStream(parameterIndex, value, length);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "stream");
+		}
+	}
+	
+	@Override
+	public void setNClob(final int parameterIndex, final NClob value) throws SQLException {
+		super.setNClob(parameterIndex, value);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "NCLOB");
+		}
+	}
+	
+	@Override
+	public void setClob(final int parameterIndex, final Reader reader, final long length) throws SQLException {
+		super.setClob(parameterIndex, reader, length);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "CLOB");
+		}
+	}
+	
+	@Override
+	public void setBlob(final int parameterIndex, final InputStream inputStream, final long length) throws SQLException {
+		super.setBlob(parameterIndex, inputStream, length);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "BLOB");
+		}
+	}
+	
+	@Override
+	public void setNClob(final int parameterIndex, final Reader reader, final long length) throws SQLException {
+		super.setNClob(parameterIndex, reader, length);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "NCLOB");
+		}
+	}
+	
+	@Override
+	public void setSQLXML(final int parameterIndex, final SQLXML xmlObject) throws SQLException {
+		super.setSQLXML(parameterIndex, xmlObject);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "SQLXML");
+		}
+	}
+	
+	@Override
+	public void setObject(final int parameterIndex, final Object x, final int targetSqlType, final int scaleOrLength) throws SQLException {
+		super.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+		}
+	}
+	
+	@Override
+	public void setAsciiStream(final int parameterIndex, final InputStream x, final long length) throws SQLException {
+		super.setAsciiStream(parameterIndex, x, length);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "stream");
+		}
+	}
+	
+	@Override
+	public void setBinaryStream(final int parameterIndex, final InputStream x, final long length) throws SQLException {
+		super.setBinaryStream(parameterIndex, x, length);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "stream");
+		}
+	}
+	
+	@Override
+	public void setCharacterStream(final int parameterIndex, final Reader reader, final long length) throws SQLException {
+		super.setCharacterStream(parameterIndex, reader, length);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "stream");
+		}
+	}
+	
+	@Override
+	public void setAsciiStream(final int parameterIndex, final InputStream x) throws SQLException {
+		super.setAsciiStream(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "stream");
+		}
+	}
+	
+	@Override
+	public void setBinaryStream(final int parameterIndex, final InputStream x) throws SQLException {
+		super.setBinaryStream(parameterIndex, x);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "stream");
+		}
+	}
+	
+	@Override
+	public void setCharacterStream(final int parameterIndex, final Reader reader) throws SQLException {
+		super.setCharacterStream(parameterIndex, reader);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "stream");
+		}
+	}
+	
+	@Override
+	public void setNCharacterStream(final int parameterIndex, final Reader value) throws SQLException {
+		super.setNCharacterStream(parameterIndex, value);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "stream");
+		}
+	}
+	
+	@Override
+	public void setClob(final int parameterIndex, final Reader reader) throws SQLException {
+		super.setClob(parameterIndex, reader);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "CLOB");
+		}
+	}
+	
+	@Override
+	public void setBlob(final int parameterIndex, final InputStream inputStream) throws SQLException {
+		super.setBlob(parameterIndex, inputStream);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "BLOB");
+		}
+	}
+	
+	@Override
+	public void setNClob(final int parameterIndex, final Reader reader) throws SQLException {
+		super.setNClob(parameterIndex, reader);
+		
+		if (this.capturedParameters != null) {
+			this.capturedParameters.setOpaque(parameterIndex, "NCLOB");
+		}
 	}
 	
 }
@@ -0,0 +1,143 @@
+package jdbcwrapper.measurement;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import jdbcwrapper.WrappedResultSet;
+import jdbcwrapper.resultcache.ResultRecorder;
+
+// Result set that measures the time to the first row and until it is exhausted or closed. To keep
+// next() cheap, the clock is only read for the first row and at the end, other rows are just counted.
+public class MeasuringResultSet extends WrappedResultSet {
+	
+	private final ResultSet wrappedResultSet;
+	
+	private final Statement statement;
+	
+	private final MeasuringConnection connection;
+	
+	// Start of the statement execution that produced the result set
+	private final long startTime;
+	
+	private long firstRowTime;
+	
+	private long rowCount;
+	
+	// Fetch size of the result set, used to estimate the number of fetches
+	private int fetchSize;
+	
+	private boolean exhausted;
+	
+	// Recorder copying the rows for the result cache, null if the result is not cached
+	private ResultRecorder recorder;
+	
+	private boolean finished;
+	
+	public MeasuringResultSet(final ResultSet resultSet, final Statement statement, final long startTime, final MeasuringConnection connection) {
+		super(resultSet);
+		
+		this.wrappedResultSet = resultSet;
+		this.statement = statement;
+		this.startTime = startTime;
+		this.connection = connection;
+		this.fetchSize = determineFetchSize(resultSet);
+	}
+	
+	private static int determineFetchSize(final ResultSet resultSet) {
+		try {
+			return resultSet.getFetchSize();
+		} catch (SQLException e) {
+			return 0;
+		}
+	}
+	
+	// Records the rows for the result cache while they are read
+	void record(final ResultRecorder recorder) {
+		if (this.rowCount == 0 && recorder.start(this.wrappedResultSet)) {
+			this.recorder = recorder;
+		}
+	}
+	
+	boolean wraps(final ResultSet resultSet) {
+		return (this.wrappedResultSet == resultSet);
+	}
+	
+	@Override
+	public boolean next() throws SQLException {
+		boolean rowAvailable = super.next();
+		
+		if (rowAvailable) {
+			if (this.rowCount++ == 0) {
+				this.firstRowTime = System.nanoTime();
+			}
+			
+			if (this.recorder != null && !this.recorder.recordRow(this.wrappedResultSet)) {
+				this.recorder = null;
+			}
+		} else {
+			this.exhausted = true;
+			
+			if (this.recorder != null) {
+				this.recorder.complete();
+			}
+			
+			this.finish();
+		}
+		
+		return rowAvailable;
+	}
+	
+	@Override
+	public void setFetchSize(final int rows) throws SQLException {
+		super.setFetchSize(rows);
+		this.fetchSize = rows;
+	}
+	
+	@Override
+	public void close() throws SQLException {
+		try {
+			super.close();
+		} finally {
+			this.finish();
+		}
+	}
+	
+	@Override
+	public Statement getStatement() throws SQLException {
+		return this.statement;
+	}
+	
+	// Estimates the number of fetches (i.e., round trips) from the fetch size. A fetch size of 0 means
+	// that all rows are fetched at once. Detecting the end of the result set requires an additional
+	// fetch unless the last fetch returned fewer rows than the fetch size, which amounts to the same.
+	long estimateFetchCount() {
+		if (this.fetchSize <= 0) {
+			return 1;
+		}
+		
+		if (this.exhausted) {
+			return (this.rowCount / this.fetchSize) + 1;
+		}
+		
+		return Math.max(1, (this.rowCount + this.fetchSize - 1) / this.fetchSize);
+	}
+	
+	// Reports the result set as completed. This happens when it is exhausted or closed, or when
+	// the statement is re-executed or closed (which implicitly closes the result set)
+	void finish() {
+		if (this.finished) {
+			return;
+		}
+		
+		this.finished = true;
+		
+		// Results that were not read completely are not cached
+		this.recorder = null;
+		
+		long endTime = System.nanoTime();
+		long firstRowNanos = (this.rowCount > 0) ? (this.firstRowTime - this.startTime) : -1;
+		this.connection.onResultSetEnd(this.statement, this.rowCount, firstRowNanos, endTime - this.startTime, this.estimateFetchCount());
+	}
+
+}
@@ -1,71 +1,350 @@
 package jdbcwrapper.measurement;
 
-import static jdbcwrapper.util.TimingUtil.time;
+import static jdbcwrapper.util.TimingUtil.end;
+import static jdbcwrapper.util.TimingUtil.start;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
 import jdbcwrapper.WrappedStatement;
+import jdbcwrapper.resultcache.CachedResultSet;
+import jdbcwrapper.resultcache.ResultCache;
+import jdbcwrapper.resultcache.ResultCacheKey;
+import jdbcwrapper.resultcache.ResultRecorder;
+import jdbcwrapper.util.SqlFingerprint;
+import jdbcwrapper.watchdog.StatementWatchdog;
+import jdbcwrapper.watchdog.WatchdogTimeout;
 
-public class MeasuringStatement extends WrappedStatement {
+public class MeasuringStatement extends WrappedStatement implements MeasuredStatement {
 
 	private final MeasuringConnection connection;
 	
+	// SQL of the current execution
+	private String sql;
+	
+	// Fingerprint of the current SQL, computed on demand
+	private String fingerprint;
+	
+	private long rowsAffected = NO_ROWS_AFFECTED;
+	
+	private MeasuringResultSet resultSet;
+	
+	// Result set returned from the result cache for the current execution, if any
+	private CachedResultSet cachedResultSet;
+	
+	// Recorder for the result of the current query if it is to be cached, null otherwise
+	private ResultRecorder resultRecorder;
+	
+	// Start time of the current execution, result sets are measured from it
+	private long executionStartTime;
+	
+	// Execution budget of the current execution, null if none
+	private WatchdogTimeout timeout;
+	
+	// Set if the fetch size was set by the user, it is not adjusted then
+	private boolean fetchSizeSet;
+	
+	// Fetch size set on the statement as advised by the connection, 0 if none
+	private int advisedFetchSize;
+	
+	// Fetch size of the statement before the current advice, restored when nothing is advised
+	private int defaultFetchSize;
+	
 	public MeasuringStatement(final Statement wrappedStatement, final MeasuringConnection connection) {
 		super(wrappedStatement);
 		
 		this.connection = connection;
 	}
 	
+	@Override
+	public String getFingerprint() {
+		if (this.fingerprint == null) {
+			this.fingerprint = SqlFingerprint.of(this.sql);
+		}
+		
+		return this.fingerprint;
+	}
+	
+	@Override
+	public String getSql() {
+		return this.sql;
+	}
+	
+	@Override
+	public long getRowsAffected() {
+		return this.rowsAffected;
+	}
+	
+	@Override
+	public boolean isResultCached() {
+		return (this.cachedResultSet != null);
+	}
+	
+	private long startExecution(final String sql) throws SQLException {
+		// Deferred updates must be executed before any other statement
+		WriteCoalescer writeCoalescer = this.connection.getWriteCoalescer();
+		if (writeCoalescer != null) {
+			writeCoalescer.flush();
+		}
+		
+		// Re-executing a statement implicitly closes its current result set
+		this.finishResultSet();
+		this.cachedResultSet = null;
+		
+		this.sql = sql;
+		this.fingerprint = null;
+		this.rowsAffected = NO_ROWS_AFFECTED;
+		
+		this.executionStartTime = start(this, this.connection);
+		
+		StatementWatchdog watchdog = this.connection.getStatementWatchdog();
+		if (watchdog != null) {
+			this.timeout = watchdog.start(this, this);
+		}
+		
+		return this.executionStartTime;
+	}
+	
+	private void endExecution(final long startTime, final StatementKind kind) {
+		if (this.timeout != null) {
+			this.timeout.complete();
+			this.timeout = null;
+		}
+		
+		end(startTime, this, kind, this.connection);
+	}
+	
+	private int updated(final int rowsAffected) {
+		this.rowsAffected = rowsAffected;
+		return rowsAffected;
+	}
+	
+	private int[] updated(final int[] rowsAffected) {
+		this.rowsAffected = BatchUtil.sumUpdateCounts(rowsAffected);
+		return rowsAffected;
+	}
+	
+	private void applyAdvisedFetchSize() throws SQLException {
+		if (this.fetchSizeSet) {
+			return;
+		}
+		
+		int fetchSize = this.connection.getAdvisedFetchSize(this);
+		if (fetchSize <= 0) {
+			// Nothing is advised for this query (e.g., another query of a plain statement), so an advice
+			// for a previous query must not stick
+			if (this.advisedFetchSize > 0) {
+				super.setFetchSize(this.defaultFetchSize);
+				this.advisedFetchSize = 0;
+			}
+		} else if (fetchSize != this.advisedFetchSize) {
+			if (this.advisedFetchSize == 0) {
+				this.defaultFetchSize = super.getFetchSize();
+			}
+			
+			super.setFetchSize(fetchSize);
+			this.advisedFetchSize = fetchSize;
+		}
+	}
+	
+	@Override
+	public void setFetchSize(final int rows) throws SQLException {
+		super.setFetchSize(rows);
+		this.fetchSizeSet = true;
+	}
+	
+	private ResultSet measure(final ResultSet resultSet) {
+		if (resultSet == null) {
+			return null;
+		}
+		
+		this.resultSet = new MeasuringResultSet(resultSet, this, this.executionStartTime, this.connection);
+		
+		if (this.resultRecorder != null) {
+			this.resultSet.record(this.resultRecorder);
+			this.resultRecorder = null;
+		}
+		
+		return this.resultSet;
+	}
+	
+	// Returns the cached result of the given query, or null if it is to be executed. In this case,
+	// the result recorder is set if the result is to be cached.
+	private ResultSet lookUpCachedResult(final String sql) throws SQLException {
+		this.resultRecorder = null;
+		
+		ResultCache resultCache = this.connection.getResultCache(sql);
+		if (resultCache == null) {
+			return null;
+		}
+		
+		ResultCacheKey key = ResultCacheKey.of(sql, null);
+		if (key == null) {
+			return null;
+		}
+		
+		CachedResultSet cachedResultSet = resultCache.get(key, this);
+		if (cachedResultSet == null) {
+			this.resultRecorder = resultCache.startRecording(key);
+			return null;
+		}
+		
+		// The cached result replaces the result of an execution
+		this.finishResultSet();
+		this.sql = sql;
+		this.fingerprint = null;
+		this.rowsAffected = NO_ROWS_AFFECTED;
+		this.cachedResultSet = cachedResultSet;
+		
+		// The hit is reported like an execution (without a watchdog, as nothing runs on the database), so
+		// that it counts for the statement metrics and may start a transaction
+		long startTime = start(this, this.connection);
+		end(startTime, this, StatementKind.QUERY, this.connection);
+		
+		return cachedResultSet;
+	}
+	
+	private void finishResultSet() {
+		if (this.resultSet != null) {
+			this.resultSet.finish();
+			this.resultSet = null;
+		}
+	}
+	
 	@Override
 	public boolean execute(final String sql) throws SQLException {
-		return time(() -> super.execute(sql), this, this.connection);
+		long startTime = this.startExecution(sql);
+		try {
+			this.applyAdvisedFetchSize();
+			return super.execute(sql);
+		} finally {
+			this.endExecution(startTime, StatementKind.EXECUTE);
+		}
 	}
 	
 	@Override
 	public boolean execute(final String sql, final int autoGeneratedKeys) throws SQLException {
-		return time(() -> super.execute(sql, autoGeneratedKeys), this, this.connection);
+		long startTime = this.startExecution(sql);
+		try {
+			this.applyAdvisedFetchSize();
+			return super.execute(sql, autoGeneratedKeys);
+		} finally {
+			this.endExecution(startTime, StatementKind.EXECUTE);
+		}
 	}
 	
 	@Override
 	public boolean execute(final String sql, final int[] columnIndexes) throws SQLException {
-		return time(() -> super.execute(sql, columnIndexes), this, this.connection);
+		long startTime = this.startExecution(sql);
+		try {
+			this.applyAdvisedFetchSize();
+			return super.execute(sql, columnIndexes);
+		} finally {
+			this.endExecution(startTime, StatementKind.EXECUTE);
+		}
 	}
 	
 	@Override
 	public boolean execute(final String sql, final String[] columnNames) throws SQLException {
-		return time(() -> super.execute(sql, columnNames), this, this.connection);
+		long startTime = this.startExecution(sql);
+		try {
+			this.applyAdvisedFetchSize();
+			return super.execute(sql, columnNames);
+		} finally {
+			this.endExecution(startTime, StatementKind.EXECUTE);
+		}
 	}
 	
 	@Override
 	public int[] executeBatch() throws SQLException {
-		return time(() -> super.executeBatch(), this, this.connection);
+		// A batch of plain statements may consist of different statements, so there is no fingerprint
+		long startTime = this.startExecution(null);
+		try {
+			return this.updated(super.executeBatch());
+		} finally {
+			this.endExecution(startTime, StatementKind.BATCH);
+		}
 	}
 	
 	@Override
 	public ResultSet executeQuery(final String sql) throws SQLException {
-		return time(() -> super.executeQuery(sql), this, this.connection);
+		ResultSet cachedResultSet = this.lookUpCachedResult(sql);
+		if (cachedResultSet != null) {
+			return cachedResultSet;
+		}
+		
+		long startTime = this.startExecution(sql);
+		try {
+			this.applyAdvisedFetchSize();
+			return this.measure(super.executeQuery(sql));
+		} finally {
+			this.resultRecorder = null;
+			this.endExecution(startTime, StatementKind.QUERY);
+		}
 	}
 	
 	@Override
 	public int executeUpdate(final String sql) throws SQLException {
-		return time(() -> super.executeUpdate(sql), this, this.connection);		
+		long startTime = this.startExecution(sql);
+		try {
+			return this.updated(super.executeUpdate(sql));
+		} finally {
+			this.endExecution(startTime, StatementKind.UPDATE);
+		}
 	}
 	
 	@Override
 	public int executeUpdate(final String sql, final int autoGeneratedKeys) throws SQLException {
-		return time(() -> super.executeUpdate(sql, autoGeneratedKeys), this, this.connection);
+		long startTime = this.startExecution(sql);
+		try {
+			return this.updated(super.executeUpdate(sql, autoGeneratedKeys));
+		} finally {
+			this.endExecution(startTime, StatementKind.UPDATE);
+		}
 	}
 	
 	@Override
 	public int executeUpdate(final String sql, final int[] columnIndexes) throws SQLException {
-		return time(() -> super.executeUpdate(sql, columnIndexes), this, this.connection);
+		long startTime = this.startExecution(sql);
+		try {
+			return this.updated(super.executeUpdate(sql, columnIndexes));
+		} finally {
+			this.endExecution(startTime, StatementKind.UPDATE);
+		}
 	}
 	
 	@Override
 	public int executeUpdate(final String sql, final String[] columnNames) throws SQLException {
-		return time(() -> super.executeUpdate(sql, columnNames), this, this.connection);
-	}	
+		long startTime = this.startExecution(sql);
+		try {
+			return this.updated(super.executeUpdate(sql, columnNames));
+		} finally {
+			this.endExecution(startTime, StatementKind.UPDATE);
+		}
+	}
+	
+	@Override
+	public ResultSet getResultSet() throws SQLException {
+		if (this.cachedResultSet != null) {
+			return this.cachedResultSet;
+		}
+		
+		ResultSet resultSet = super.getResultSet();
+		
+		// Return the current wrapper if the result set was already returned
+		if (this.resultSet != null && this.resultSet.wraps(resultSet)) {
+			return this.resultSet;
+		}
+		
+		this.finishResultSet();
+		return this.measure(resultSet);
+	}
+	
+	@Override
+	public void close() throws SQLException {
+		this.finishResultSet();
+		super.close();
+	}
 	
 }
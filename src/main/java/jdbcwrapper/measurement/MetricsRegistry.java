@@ -0,0 +1,123 @@
+package jdbcwrapper.measurement;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class MetricsRegistry {
+	
+	// Type used for connections that were not created from driver metadata
+	public static final String DEFAULT_TYPE = "default";
+	
+	private static final ConcurrentMap<String, StatementMetrics> STATEMENT_METRICS = new ConcurrentHashMap<>();
+	
+	private static final ConcurrentMap<String, QueryStatisticsTable> QUERY_STATISTICS = new ConcurrentHashMap<>();
+	
+	private static final ConcurrentMap<String, ConnectionMetrics> CONNECTION_METRICS = new ConcurrentHashMap<>();
+	
+	private static final ConcurrentMap<String, TransactionMetrics> TRANSACTION_METRICS = new ConcurrentHashMap<>();
+	
+	private static final ConcurrentMap<String, StatementCacheMetrics> STATEMENT_CACHE_METRICS = new ConcurrentHashMap<>();
+	
+	private static final ConcurrentMap<String, ResultCacheMetrics> RESULT_CACHE_METRICS = new ConcurrentHashMap<>();
+	
+	private static final ConcurrentMap<String, AdaptiveFetchSize> ADAPTIVE_FETCH_SIZES = new ConcurrentHashMap<>();
+	
+	public static StatementMetrics getStatementMetrics(final String type) {
+		StatementMetrics metrics = STATEMENT_METRICS.get(type);
+		
+		if (metrics == null) {
+			metrics = STATEMENT_METRICS.computeIfAbsent(type, key -> new StatementMetrics());
+		}
+		
+		return metrics;
+	}
+	
+	public static ConnectionMetrics getConnectionMetrics(final String type) {
+		ConnectionMetrics metrics = CONNECTION_METRICS.get(type);
+		
+		if (metrics == null) {
+			metrics = CONNECTION_METRICS.computeIfAbsent(type, key -> new ConnectionMetrics());
+		}
+		
+		return metrics;
+	}
+	
+	public static TransactionMetrics getTransactionMetrics(final String type) {
+		TransactionMetrics metrics = TRANSACTION_METRICS.get(type);
+		
+		if (metrics == null) {
+			metrics = TRANSACTION_METRICS.computeIfAbsent(type, key -> new TransactionMetrics());
+		}
+		
+		return metrics;
+	}
+	
+	public static StatementCacheMetrics getStatementCacheMetrics(final String type) {
+		StatementCacheMetrics metrics = STATEMENT_CACHE_METRICS.get(type);
+		
+		if (metrics == null) {
+			metrics = STATEMENT_CACHE_METRICS.computeIfAbsent(type, key -> new StatementCacheMetrics());
+		}
+		
+		return metrics;
+	}
+	
+	public static ResultCacheMetrics getResultCacheMetrics(final String type) {
+		ResultCacheMetrics metrics = RESULT_CACHE_METRICS.get(type);
+		
+		if (metrics == null) {
+			metrics = RESULT_CACHE_METRICS.computeIfAbsent(type, key -> new ResultCacheMetrics());
+		}
+		
+		return metrics;
+	}
+	
+	// The capacity is only used when the table for the type is created
+	public static QueryStatisticsTable getQueryStatistics(final String type, final int capacity) {
+		QueryStatisticsTable table = QUERY_STATISTICS.get(type);
+		
+		if (table == null) {
+			table = QUERY_STATISTICS.computeIfAbsent(type, key -> new QueryStatisticsTable(capacity));
+		}
+		
+		return table;
+	}
+	
+	public static QueryStatisticsTable getQueryStatistics(final String type) {
+		return QUERY_STATISTICS.get(type);
+	}
+	
+	// The statistics and bounds are only used when the adaptive fetch size for the type is created
+	public static AdaptiveFetchSize getAdaptiveFetchSize(final String type, final QueryStatisticsTable statistics, final int minFetchSize,
+			final int maxFetchSize) {
+		AdaptiveFetchSize fetchSize = ADAPTIVE_FETCH_SIZES.get(type);
+		
+		if (fetchSize == null) {
+			fetchSize = ADAPTIVE_FETCH_SIZES.computeIfAbsent(type, key -> new AdaptiveFetchSize(statistics, minFetchSize, maxFetchSize));
+		}
+		
+		return fetchSize;
+	}
+	
+	public static AdaptiveFetchSize getAdaptiveFetchSize(final String type) {
+		return ADAPTIVE_FETCH_SIZES.get(type);
+	}
+	
+	public static Set<String> getTypes() {
+		return Collections.unmodifiableSet(STATEMENT_METRICS.keySet());
+	}
+	
+	// Removes the metrics of all types, e.g., to isolate tests
+	public static void removeAll() {
+		STATEMENT_METRICS.clear();
+		QUERY_STATISTICS.clear();
+		CONNECTION_METRICS.clear();
+		TRANSACTION_METRICS.clear();
+		STATEMENT_CACHE_METRICS.clear();
+		RESULT_CACHE_METRICS.clear();
+		ADAPTIVE_FETCH_SIZES.clear();
+	}
+
+}
@@ -0,0 +1,130 @@
+package jdbcwrapper.measurement;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class QueryStatistics {
+	
+	// The access time is only updated if it is at least this old, so that hot entries are not
+	// written on every execution
+	private static final long ACCESS_TIME_GRANULARITY_NANOS = 1_000_000L;
+	
+	public static final long NO_ROW_COUNT = -1;
+	
+	// Weight of a new row count in the moving average, as a power of two (i.e., 1/4)
+	private static final int ROW_COUNT_WEIGHT_SHIFT = 2;
+	
+	private final String fingerprint;
+	
+	private final LongAdder callCount = new LongAdder();
+	
+	private final LongAdder totalTime = new LongAdder();
+	
+	private final LongAccumulator minTime = new LongAccumulator(Math::min, Long.MAX_VALUE);
+	
+	private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+	
+	private final LongAdder rowsReturned = new LongAdder();
+	
+	private final LongAdder rowsAffected = new LongAdder();
+	
+	// Time from execution until the result sets were exhausted or closed, and the (estimated) fetches
+	private final LongAdder totalFetchTime = new LongAdder();
+	
+	private final LongAdder fetchCount = new LongAdder();
+	
+	// Exponentially weighted moving average of the rows per result set, -1 until a result set was
+	// recorded. Concurrent updates may get lost, which is acceptable for an estimate.
+	private volatile long typicalRowCount = NO_ROW_COUNT;
+	
+	private volatile long lastAccessTime;
+	
+	QueryStatistics(final String fingerprint, final long creationTime) {
+		this.fingerprint = fingerprint;
+		this.lastAccessTime = creationTime;
+	}
+	
+	void recordExecution(final long durationNanos, final long rowsAffected, final long now) {
+		this.callCount.increment();
+		this.totalTime.add(durationNanos);
+		this.minTime.accumulate(durationNanos);
+		this.maxTime.accumulate(durationNanos);
+		
+		if (rowsAffected > 0) {
+			this.rowsAffected.add(rowsAffected);
+		}
+		
+		this.touch(now);
+	}
+	
+	void recordResultSet(final long rowCount, final long fetchNanos, final long fetchCount, final long now) {
+		this.rowsReturned.add(rowCount);
+		this.totalFetchTime.add(fetchNanos);
+		this.fetchCount.add(fetchCount);
+		this.updateTypicalRowCount(rowCount);
+		this.touch(now);
+	}
+	
+	private void updateTypicalRowCount(final long rowCount) {
+		long previousRowCount = this.typicalRowCount;
+		
+		if (previousRowCount == NO_ROW_COUNT) {
+			this.typicalRowCount = rowCount;
+		} else {
+			this.typicalRowCount = previousRowCount + ((rowCount - previousRowCount) >> ROW_COUNT_WEIGHT_SHIFT);
+		}
+	}
+	
+	private void touch(final long now) {
+		if (now - this.lastAccessTime > ACCESS_TIME_GRANULARITY_NANOS) {
+			this.lastAccessTime = now;
+		}
+	}
+	
+	long getLastAccessTime() {
+		return this.lastAccessTime;
+	}
+	
+	public String getFingerprint() {
+		return this.fingerprint;
+	}
+	
+	public long getCallCount() {
+		return this.callCount.sum();
+	}
+	
+	public long getTotalTime() {
+		return this.totalTime.sum();
+	}
+	
+	public long getMinTime() {
+		long minTime = this.minTime.get();
+		return (minTime == Long.MAX_VALUE) ? 0 : minTime;
+	}
+	
+	public long getMaxTime() {
+		return this.maxTime.get();
+	}
+	
+	public long getRowsReturned() {
+		return this.rowsReturned.sum();
+	}
+	
+	public long getRowsAffected() {
+		return this.rowsAffected.sum();
+	}
+	
+	// Returns the typical number of rows per result set, or NO_ROW_COUNT if no result set was recorded
+	public long getTypicalRowCount() {
+		return this.typicalRowCount;
+	}
+	
+	public long getTotalFetchTime() {
+		return this.totalFetchTime.sum();
+	}
+	
+	public long getFetchCount() {
+		return this.fetchCount.sum();
+	}
+
+}
@@ -0,0 +1,105 @@
+package jdbcwrapper.measurement;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class QueryStatisticsTable {
+	
+	// Fraction of the capacity that is freed on eviction, so that eviction runs are amortized
+	private static final int EVICTION_DIVISOR = 10;
+	
+	private final int capacity;
+	
+	private final ConcurrentMap<String, QueryStatistics> entries;
+	
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	
+	private final LongAdder evictionCount = new LongAdder();
+	
+	public QueryStatisticsTable(final int capacity) {
+		this.capacity = capacity;
+		this.entries = new ConcurrentHashMap<>(Math.min(capacity, 1024));
+	}
+	
+	public int getCapacity() {
+		return this.capacity;
+	}
+	
+	public void recordExecution(final String fingerprint, final long durationNanos, final long rowsAffected) {
+		long now = System.nanoTime();
+		this.getOrCreateEntry(fingerprint, now).recordExecution(durationNanos, rowsAffected, now);
+	}
+	
+	public void recordResultSet(final String fingerprint, final long rowCount, final long fetchNanos, final long fetchCount) {
+		long now = System.nanoTime();
+		this.getOrCreateEntry(fingerprint, now).recordResultSet(rowCount, fetchNanos, fetchCount, now);
+	}
+	
+	public QueryStatistics get(final String fingerprint) {
+		return this.entries.get(fingerprint);
+	}
+	
+	public Collection<QueryStatistics> getEntries() {
+		return Collections.unmodifiableCollection(this.entries.values());
+	}
+	
+	public int size() {
+		return this.entries.size();
+	}
+	
+	public long getEvictionCount() {
+		return this.evictionCount.sum();
+	}
+	
+	private QueryStatistics getOrCreateEntry(final String fingerprint, final long now) {
+		QueryStatistics entry = this.entries.get(fingerprint);
+		if (entry != null) {
+			return entry;
+		}
+		
+		entry = this.entries.computeIfAbsent(fingerprint, key -> new QueryStatistics(key, now));
+		
+		if (this.entries.size() > this.capacity) {
+			this.evictLeastRecentlyUsed();
+		}
+		
+		return entry;
+	}
+	
+	private void evictLeastRecentlyUsed() {
+		// Only one thread needs to evict, the others may continue while the table is
+		// temporarily over capacity
+		if (!this.evictionLock.tryLock()) {
+			return;
+		}
+		
+		try {
+			int targetSize = this.capacity - (this.capacity / EVICTION_DIVISOR);
+			int excessEntries = this.entries.size() - targetSize;
+			if (excessEntries <= 0) {
+				return;
+			}
+			
+			List<QueryStatistics> candidates = new ArrayList<>(this.entries.values());
+			candidates.sort(Comparator.comparingLong(QueryStatistics::getLastAccessTime));
+			
+			for (int index = 0; index < excessEntries && index < candidates.size(); index++) {
+				QueryStatistics candidate = candidates.get(index);
+				
+				if (this.entries.remove(candidate.getFingerprint(), candidate)) {
+					this.evictionCount.increment();
+				}
+			}
+		} finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+}
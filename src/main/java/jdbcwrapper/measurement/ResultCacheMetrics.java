@@ -0,0 +1,69 @@
+package jdbcwrapper.measurement;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class ResultCacheMetrics {
+	
+	private final LongAdder hits = new LongAdder();
+	
+	private final LongAdder misses = new LongAdder();
+	
+	private final LongAdder stores = new LongAdder();
+	
+	private final LongAdder invalidations = new LongAdder();
+	
+	private final LongAdder expirations = new LongAdder();
+	
+	private final LongAdder evictions = new LongAdder();
+	
+	public void recordHit() {
+		this.hits.increment();
+	}
+	
+	public void recordMiss() {
+		this.misses.increment();
+	}
+	
+	public void recordStore() {
+		this.stores.increment();
+	}
+	
+	public void recordInvalidation() {
+		this.invalidations.increment();
+	}
+	
+	public void recordExpiration() {
+		this.expirations.increment();
+	}
+	
+	public void recordEviction() {
+		this.evictions.increment();
+	}
+	
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+	
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+	
+	// Number of results stored in the cache
+	public long getStoreCount() {
+		return this.stores.sum();
+	}
+	
+	// Number of cached results removed because a referenced table was written
+	public long getInvalidationCount() {
+		return this.invalidations.sum();
+	}
+	
+	public long getExpirationCount() {
+		return this.expirations.sum();
+	}
+	
+	public long getEvictionCount() {
+		return this.evictions.sum();
+	}
+
+}
@@ -0,0 +1,78 @@
+package jdbcwrapper.measurement;
+
+import java.sql.Statement;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jdbcwrapper.util.ParameterBuffer;
+
+// Logs statements whose execution exceeds a threshold. Statements are only formatted when they are
+// actually logged, so statements below the threshold only cost a comparison.
+public class SlowQueryLog {
+	
+	private static final Logger LOGGER = Logger.getLogger(SlowQueryLog.class.getName());
+	
+	// String parameters are truncated to this length
+	private static final int MAX_VALUE_LENGTH = 100;
+	
+	private final long thresholdNanos;
+	
+	// Whether captured bind parameters are logged, they may contain sensitive data
+	private final boolean loggingParameters;
+	
+	private final StatementMetrics metrics;
+	
+	public SlowQueryLog(final long thresholdNanos, final boolean loggingParameters, final StatementMetrics metrics) {
+		this.thresholdNanos = thresholdNanos;
+		this.loggingParameters = loggingParameters;
+		this.metrics = metrics;
+	}
+	
+	public long getThresholdNanos() {
+		return this.thresholdNanos;
+	}
+	
+	public void record(final Statement statement, final StatementKind kind, final long durationNanos) {
+		if (durationNanos < this.thresholdNanos) {
+			return;
+		}
+		
+		this.metrics.recordSlowStatement();
+		
+		if (LOGGER.isLoggable(Level.WARNING)) {
+			LOGGER.log(Level.WARNING, format(statement, kind, durationNanos, this.loggingParameters));
+		}
+	}
+	
+	static String format(final Statement statement, final StatementKind kind, final long durationNanos, final boolean includeParameters) {
+		StringBuilder builder = new StringBuilder(128);
+		builder.append("Slow ").append(kind).append(" (").append(durationNanos / 1_000_000L).append(" ms): ");
+		
+		if (!(statement instanceof MeasuredStatement)) {
+			return builder.append("<unknown statement>").toString();
+		}
+		
+		MeasuredStatement measuredStatement = (MeasuredStatement) statement;
+		String sql = measuredStatement.getSql();
+		builder.append((sql != null) ? sql : "<batch>");
+		
+		ParameterBuffer parameters = (includeParameters) ? measuredStatement.getCapturedParameters() : null;
+		if (parameters != null && parameters.getParameterCount() > 0) {
+			builder.append(" [");
+			
+			for (int parameterIndex = 1; parameterIndex <= parameters.getParameterCount(); parameterIndex++) {
+				if (parameterIndex > 1) {
+					builder.append(", ");
+				}
+				
+				builder.append(parameterIndex).append('=');
+				parameters.appendValue(builder, parameterIndex, MAX_VALUE_LENGTH);
+			}
+			
+			builder.append(']');
+		}
+		
+		return builder.toString();
+	}
+
+}
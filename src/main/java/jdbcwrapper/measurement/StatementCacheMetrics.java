@@ -0,0 +1,37 @@
+package jdbcwrapper.measurement;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class StatementCacheMetrics {
+	
+	private final LongAdder hits = new LongAdder();
+	
+	private final LongAdder misses = new LongAdder();
+	
+	private final LongAdder evictions = new LongAdder();
+	
+	public void recordHit() {
+		this.hits.increment();
+	}
+	
+	public void recordMiss() {
+		this.misses.increment();
+	}
+	
+	public void recordEviction() {
+		this.evictions.increment();
+	}
+	
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+	
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+	
+	public long getEvictionCount() {
+		return this.evictions.sum();
+	}
+
+}
@@ -0,0 +1,14 @@
+package jdbcwrapper.measurement;
+
+public enum StatementKind {
+	
+	QUERY,
+	
+	UPDATE,
+	
+	BATCH,
+	
+	// Generic execute(), may be a query or an update
+	EXECUTE
+
+}
@@ -0,0 +1,113 @@
+package jdbcwrapper.measurement;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public class StatementMetrics {
+	
+	private final Map<StatementKind, LatencyHistogram> histograms;
+	
+	// Updates deferred by write coalescing and the batches they were executed in
+	private final LongAdder deferredUpdates = new LongAdder();
+	
+	private final LongAdder coalescedBatches = new LongAdder();
+	
+	// Statements exceeding the slow query threshold
+	private final LongAdder slowStatements = new LongAdder();
+	
+	// Statements cancelled for exceeding their execution budget
+	private final LongAdder cancelledStatements = new LongAdder();
+	
+	// Result sets, measured from the execution of their statement
+	private final LongAdder resultSets = new LongAdder();
+	
+	private final LongAdder rowsFetched = new LongAdder();
+	
+	private final LongAdder fetches = new LongAdder();
+	
+	private final LatencyHistogram firstRowLatencies = new LatencyHistogram();
+	
+	private final LatencyHistogram fetchDurations = new LatencyHistogram();
+	
+	public StatementMetrics() {
+		Map<StatementKind, LatencyHistogram> histograms = new EnumMap<>(StatementKind.class);
+		for (StatementKind kind : StatementKind.values()) {
+			histograms.put(kind, new LatencyHistogram());
+		}
+		
+		this.histograms = histograms;
+	}
+	
+	public void record(final StatementKind kind, final long durationNanos) {
+		this.histograms.get(kind).record(durationNanos);
+	}
+	
+	public HistogramSnapshot snapshot(final StatementKind kind) {
+		return this.histograms.get(kind).snapshot();
+	}
+	
+	public void recordDeferredUpdate() {
+		this.deferredUpdates.increment();
+	}
+	
+	public void recordCoalescedBatch() {
+		this.coalescedBatches.increment();
+	}
+	
+	public void recordSlowStatement() {
+		this.slowStatements.increment();
+	}
+	
+	public void recordCancelledStatement() {
+		this.cancelledStatements.increment();
+	}
+	
+	public void recordResultSet(final long rowCount, final long firstRowNanos, final long fetchNanos, final long fetchCount) {
+		this.resultSets.increment();
+		this.rowsFetched.add(rowCount);
+		this.fetches.add(fetchCount);
+		this.fetchDurations.record(fetchNanos);
+		
+		if (firstRowNanos >= 0) {
+			this.firstRowLatencies.record(firstRowNanos);
+		}
+	}
+	
+	public long getDeferredUpdateCount() {
+		return this.deferredUpdates.sum();
+	}
+	
+	public long getCoalescedBatchCount() {
+		return this.coalescedBatches.sum();
+	}
+	
+	public long getSlowStatementCount() {
+		return this.slowStatements.sum();
+	}
+	
+	public long getCancelledStatementCount() {
+		return this.cancelledStatements.sum();
+	}
+	
+	public long getResultSetCount() {
+		return this.resultSets.sum();
+	}
+	
+	public long getRowsFetched() {
+		return this.rowsFetched.sum();
+	}
+	
+	public long getFetchCount() {
+		return this.fetches.sum();
+	}
+	
+	public HistogramSnapshot getFirstRowLatencySnapshot() {
+		return this.firstRowLatencies.snapshot();
+	}
+	
+	public HistogramSnapshot getFetchDurationSnapshot() {
+		return this.fetchDurations.snapshot();
+	}
+
+}
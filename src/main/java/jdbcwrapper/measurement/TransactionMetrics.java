@@ -0,0 +1,104 @@
+package jdbcwrapper.measurement;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class TransactionMetrics {
+	
+	private final LongAdder startedTransactions = new LongAdder();
+	
+	private final LongAdder committedTransactions = new LongAdder();
+	
+	private final LongAdder rolledBackTransactions = new LongAdder();
+	
+	// Commits and rollbacks that threw an exception
+	private final LongAdder failedCompletions = new LongAdder();
+	
+	private final LongAdder listenerErrors = new LongAdder();
+	
+	// Query fingerprints exceeding the repetition threshold within a transaction
+	private final LongAdder repeatedQueries = new LongAdder();
+	
+	private final LatencyHistogram durations = new LatencyHistogram();
+	
+	private final LatencyHistogram commitLatencies = new LatencyHistogram();
+	
+	private final LatencyHistogram rollbackLatencies = new LatencyHistogram();
+	
+	public void recordStart() {
+		this.startedTransactions.increment();
+	}
+	
+	// The duration is negative if the start of the transaction is unknown
+	public void recordCommit(final long latencyNanos, final long durationNanos, final boolean successful) {
+		if (successful) {
+			this.committedTransactions.increment();
+		} else {
+			this.failedCompletions.increment();
+		}
+		
+		this.commitLatencies.record(latencyNanos);
+		this.recordDuration(durationNanos);
+	}
+	
+	public void recordRollback(final long latencyNanos, final long durationNanos, final boolean successful) {
+		if (successful) {
+			this.rolledBackTransactions.increment();
+		} else {
+			this.failedCompletions.increment();
+		}
+		
+		this.rollbackLatencies.record(latencyNanos);
+		this.recordDuration(durationNanos);
+	}
+	
+	private void recordDuration(final long durationNanos) {
+		if (durationNanos >= 0) {
+			this.durations.record(durationNanos);
+		}
+	}
+	
+	public void recordListenerError() {
+		this.listenerErrors.increment();
+	}
+	
+	public void recordRepeatedQuery() {
+		this.repeatedQueries.increment();
+	}
+	
+	public long getStartedCount() {
+		return this.startedTransactions.sum();
+	}
+	
+	public long getCommittedCount() {
+		return this.committedTransactions.sum();
+	}
+	
+	public long getRolledBackCount() {
+		return this.rolledBackTransactions.sum();
+	}
+	
+	public long getFailedCompletionCount() {
+		return this.failedCompletions.sum();
+	}
+	
+	public long getListenerErrorCount() {
+		return this.listenerErrors.sum();
+	}
+	
+	public long getRepeatedQueryCount() {
+		return this.repeatedQueries.sum();
+	}
+	
+	public HistogramSnapshot getDurationSnapshot() {
+		return this.durations.snapshot();
+	}
+	
+	public HistogramSnapshot getCommitLatencySnapshot() {
+		return this.commitLatencies.snapshot();
+	}
+	
+	public HistogramSnapshot getRollbackLatencySnapshot() {
+		return this.rollbackLatencies.snapshot();
+	}
+
+}
@@ -0,0 +1,96 @@
+package jdbcwrapper.measurement;
+
+import java.sql.SQLException;
+
+// Defers repeated executeUpdate() calls of a prepared statement within a transaction and executes
+// them as a single JDBC batch. At most one statement has deferred updates at any time. They are
+// flushed before any other statement of the connection is executed, when the batch size is reached,
+// and before commits and savepoints. Errors of deferred updates are therefore reported by the call
+// that triggered the flush, usually as a BatchUpdateException. This includes updates that affected a
+// different number of rows than the update count returned for them.
+public class WriteCoalescer {
+	
+	private final int batchSize;
+	
+	private final int updateCount;
+	
+	private final StatementMetrics metrics;
+	
+	// Updates are only deferred in explicit transactions
+	private boolean active;
+	
+	private MeasuringPreparedStatement pendingStatement;
+	
+	private int pendingCount;
+	
+	public WriteCoalescer(final int batchSize, final int updateCount, final StatementMetrics metrics) {
+		this.batchSize = batchSize;
+		this.updateCount = updateCount;
+		this.metrics = metrics;
+	}
+	
+	public void setActive(final boolean active) {
+		this.active = active;
+	}
+	
+	boolean isActive() {
+		return this.active;
+	}
+	
+	// Defers an update of the given statement and returns the configured (optimistic) update count
+	int defer(final MeasuringPreparedStatement statement) throws SQLException {
+		if (this.pendingStatement != statement) {
+			this.flush();
+		}
+		
+		statement.addDeferredUpdate();
+		this.pendingStatement = statement;
+		this.pendingCount++;
+		this.metrics.recordDeferredUpdate();
+		
+		if (this.pendingCount >= this.batchSize) {
+			this.flush();
+		}
+		
+		return this.updateCount;
+	}
+	
+	// Executes the deferred updates, if any
+	public void flush() throws SQLException {
+		MeasuringPreparedStatement statement = this.pendingStatement;
+		if (statement == null) {
+			return;
+		}
+		
+		// Reset first, since executing the batch flushes again
+		this.pendingStatement = null;
+		this.pendingCount = 0;
+		this.metrics.recordCoalescedBatch();
+		
+		statement.executeDeferredUpdates(this.updateCount);
+	}
+	
+	void flush(final MeasuringPreparedStatement statement) throws SQLException {
+		if (this.pendingStatement == statement) {
+			this.flush();
+		}
+	}
+	
+	// Drops the deferred updates, e.g., on rollback
+	public void discard() throws SQLException {
+		MeasuringPreparedStatement statement = this.pendingStatement;
+		if (statement == null) {
+			return;
+		}
+		
+		this.pendingStatement = null;
+		this.pendingCount = 0;
+		
+		statement.discardDeferredUpdates();
+	}
+	
+	public int getPendingCount() {
+		return this.pendingCount;
+	}
+
+}
@@ -0,0 +1,13 @@
+package jdbcwrapper.pool;
+
+import java.sql.SQLException;
+
+import jdbcwrapper.WrappedConnection;
+
+// Opens the physical connections of a pool
+@FunctionalInterface
+public interface ConnectionFactory {
+	
+	WrappedConnection<?> createConnection() throws SQLException;
+
+}
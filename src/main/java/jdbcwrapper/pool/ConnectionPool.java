@@ -0,0 +1,384 @@
+package jdbcwrapper.pool;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jdbcwrapper.WrappedConnection;
+import jdbcwrapper.util.DriverMetadata;
+
+// Lock-free connection pool in the style of HikariCP's ConcurrentBag. All connections are kept in a
+// copy-on-write list and borrowed by a CAS on their state. Each thread remembers the connections it
+// returned and tries them first, so that a thread usually gets back its previous connection without
+// scanning the shared list. Threads waiting for a connection receive returned connections directly
+// via a hand-off queue.
+public class ConnectionPool {
+	
+	private static final String ENABLED_PROPERTY = "pool.enabled";
+	
+	private static final String SIZE_PROPERTY = "pool.size";
+	
+	private static final int DEFAULT_SIZE = 10;
+	
+	private static final String TIMEOUT_PROPERTY = "pool.timeout.millis";
+	
+	private static final long DEFAULT_TIMEOUT = 30_000;
+	
+	private static final String VALIDATION_IDLE_PROPERTY = "pool.validation.idle.millis";
+	
+	private static final long DEFAULT_VALIDATION_IDLE = 500;
+	
+	private static final String MAX_LIFETIME_PROPERTY = "pool.max.lifetime.millis";
+	
+	private static final long DEFAULT_MAX_LIFETIME = 1_800_000;
+	
+	private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+	
+	// Maximum number of connections remembered per thread
+	private static final int MAX_THREAD_ENTRIES = 16;
+	
+	// Number of times a returning thread yields to waiting threads before it starts parking
+	private static final int SPIN_TRIES = 100;
+	
+	private static final long PARK_NANOS = 10_000;
+	
+	private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+	
+	private final ConnectionFactory connectionFactory;
+	
+	private final int maxSize;
+	
+	private final long timeoutNanos;
+	
+	// Connections idle for at least this time are validated before they are handed out
+	private final long validationIdleNanos;
+	
+	// Connections open for at least this time are closed instead of being handed out, 0 if unlimited
+	private final long maxLifetimeNanos;
+	
+	private final CopyOnWriteArrayList<PoolEntry> entries = new CopyOnWriteArrayList<>();
+	
+	// Connections recently returned by the current thread, weakly referenced, so that removed
+	// connections are not kept alive by idle threads
+	private final ThreadLocal<List<WeakReference<PoolEntry>>> threadEntries = ThreadLocal.withInitial(() -> new ArrayList<>(MAX_THREAD_ENTRIES));
+	
+	private final SynchronousQueue<PoolEntry> handOffQueue = new SynchronousQueue<>(true);
+	
+	// Number of connections, including those being opened
+	private final AtomicInteger size = new AtomicInteger();
+	
+	private final AtomicInteger waiters = new AtomicInteger();
+	
+	private volatile boolean closed;
+	
+	public ConnectionPool(final ConnectionFactory connectionFactory, final int maxSize, final long timeoutNanos) {
+		this(connectionFactory, maxSize, timeoutNanos, TimeUnit.MILLISECONDS.toNanos(DEFAULT_VALIDATION_IDLE),
+				TimeUnit.MILLISECONDS.toNanos(DEFAULT_MAX_LIFETIME));
+	}
+	
+	public ConnectionPool(final ConnectionFactory connectionFactory, final int maxSize, final long timeoutNanos, final long validationIdleNanos,
+			final long maxLifetimeNanos) {
+		this.connectionFactory = connectionFactory;
+		this.maxSize = Math.max(1, maxSize);
+		this.timeoutNanos = timeoutNanos;
+		this.validationIdleNanos = Math.max(0, validationIdleNanos);
+		this.maxLifetimeNanos = Math.max(0, maxLifetimeNanos);
+	}
+	
+	public static ConnectionPool forMetadata(final DriverMetadata metadata, final ConnectionFactory connectionFactory) {
+		int size = metadata.getIntProperty(SIZE_PROPERTY, DEFAULT_SIZE);
+		long timeout = metadata.getLongProperty(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT);
+		long validationIdle = metadata.getLongProperty(VALIDATION_IDLE_PROPERTY, DEFAULT_VALIDATION_IDLE);
+		long maxLifetime = metadata.getLongProperty(MAX_LIFETIME_PROPERTY, DEFAULT_MAX_LIFETIME);
+		
+		return new ConnectionPool(connectionFactory, size, TimeUnit.MILLISECONDS.toNanos(timeout), TimeUnit.MILLISECONDS.toNanos(validationIdle),
+				TimeUnit.MILLISECONDS.toNanos(maxLifetime));
+	}
+	
+	// Returns whether connections of the type are pooled even without the pooled URL prefix
+	public static boolean isEnabled(final DriverMetadata metadata) {
+		return metadata.getBooleanProperty(ENABLED_PROPERTY, false);
+	}
+	
+	// Borrows a connection, opening a new one if all are in use and the pool is not full. Waits for a
+	// connection to be returned otherwise. Closing the returned handle returns the connection.
+	public Connection getConnection() throws SQLException {
+		if (this.closed) {
+			throw new SQLException("The connection pool is closed.");
+		}
+		
+		long deadline = System.nanoTime() + this.timeoutNanos;
+		
+		while (true) {
+			PoolEntry entry = this.borrowFromThread();
+			if (entry == null) {
+				entry = this.borrow(deadline);
+			}
+			
+			if (this.isUsable(entry)) {
+				// A new handle for each borrow, so that previous users cannot reach the connection anymore
+				return new PooledConnectionHandle(entry);
+			}
+		}
+	}
+	
+	// Checks a borrowed connection before it is handed out. Connections that exceeded their lifetime or
+	// fail the validation, e.g., after a failover of the database, are discarded.
+	private boolean isUsable(final PoolEntry entry) {
+		long now = System.nanoTime();
+		
+		if (this.isExpired(entry, now)) {
+			this.discard(entry);
+			return false;
+		}
+		
+		// Recently used connections are assumed to be alive, which saves the round trip
+		if (now - entry.getReleaseTime() < this.validationIdleNanos) {
+			return true;
+		}
+		
+		boolean valid;
+		try {
+			valid = entry.getConnection().isValid(VALIDATION_TIMEOUT_SECONDS);
+		} catch (SQLException | RuntimeException e) {
+			valid = false;
+		}
+		
+		if (!valid) {
+			LOGGER.log(Level.FINE, "Discarding a pooled connection that failed the validation.");
+			this.discard(entry);
+		}
+		
+		return valid;
+	}
+	
+	private boolean isExpired(final PoolEntry entry, final long now) {
+		return (this.maxLifetimeNanos > 0 && now - entry.creationTime >= this.maxLifetimeNanos);
+	}
+	
+	private PoolEntry borrowFromThread() {
+		List<WeakReference<PoolEntry>> recentEntries = this.threadEntries.get();
+		
+		// Most recently returned first
+		for (int index = recentEntries.size() - 1; index >= 0; index--) {
+			PoolEntry entry = recentEntries.remove(index).get();
+			
+			if (entry != null && entry.compareAndSetState(PoolEntry.FREE, PoolEntry.IN_USE)) {
+				return entry;
+			}
+		}
+		
+		return null;
+	}
+	
+	private PoolEntry borrow(final long deadline) throws SQLException {
+		try {
+			while (true) {
+				PoolEntry freeEntry = this.borrowFree();
+				if (freeEntry != null) {
+					return freeEntry;
+				}
+				
+				PoolEntry newEntry = this.tryCreateEntry();
+				if (newEntry != null) {
+					return newEntry;
+				}
+				
+				long remainingNanos = deadline - System.nanoTime();
+				if (remainingNanos <= 0) {
+					throw new SQLTransientConnectionException("No connection available within " +
+							TimeUnit.NANOSECONDS.toMillis(this.timeoutNanos) + " ms, all " + this.maxSize + " connections are in use.");
+				}
+				
+				PoolEntry handedOffEntry = this.awaitHandOff(remainingNanos);
+				if (handedOffEntry != null) {
+					return handedOffEntry;
+				}
+				
+				if (this.closed) {
+					throw new SQLException("The connection pool is closed.");
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a connection.", e);
+		}
+	}
+	
+	private PoolEntry borrowFree() {
+		for (PoolEntry entry : this.entries) {
+			if (entry.compareAndSetState(PoolEntry.FREE, PoolEntry.IN_USE)) {
+				return entry;
+			}
+		}
+		
+		return null;
+	}
+	
+	// Waits for a connection to be handed off by a returning thread and borrows it, returns null if
+	// none was. Only threads in here count as waiters, so that returning threads do not wait for threads
+	// that are, e.g., opening a connection.
+	private PoolEntry awaitHandOff(final long timeoutNanos) throws InterruptedException {
+		this.waiters.incrementAndGet();
+		try {
+			// A connection returned before registering as a waiter was not handed off, so look again
+			PoolEntry freeEntry = this.borrowFree();
+			if (freeEntry != null) {
+				return freeEntry;
+			}
+			
+			PoolEntry handedOffEntry = this.handOffQueue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+			
+			// Another thread may have taken the connection after the hand-off
+			if (handedOffEntry != null && handedOffEntry.compareAndSetState(PoolEntry.FREE, PoolEntry.IN_USE)) {
+				return handedOffEntry;
+			}
+			
+			return null;
+		} finally {
+			this.waiters.decrementAndGet();
+		}
+	}
+	
+	// Opens a new connection if the pool is not full, returns null otherwise
+	private PoolEntry tryCreateEntry() throws SQLException {
+		int currentSize;
+		do {
+			currentSize = this.size.get();
+			if (currentSize >= this.maxSize) {
+				return null;
+			}
+		} while (!this.size.compareAndSet(currentSize, currentSize + 1));
+		
+		try {
+			WrappedConnection<?> connection = this.connectionFactory.createConnection();
+			PoolEntry entry = new PoolEntry(this, connection, connection.isReadOnly(), connection.getTransactionIsolation());
+			
+			this.entries.add(entry);
+			return entry;
+		} catch (SQLException | RuntimeException e) {
+			this.size.decrementAndGet();
+			throw e;
+		}
+	}
+	
+	// Returns the connection of the given entry to the pool, called when its handle is closed
+	void release(final PoolEntry entry) {
+		if (entry.getState() != PoolEntry.IN_USE) {
+			return;
+		}
+		
+		try {
+			this.resetConnection(entry);
+		} catch (SQLException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, e, () -> "Error resetting a pooled connection, closing it.");
+			this.discard(entry);
+			return;
+		}
+		
+		if (this.closed || this.isExpired(entry, System.nanoTime())) {
+			this.discard(entry);
+			return;
+		}
+		
+		entry.setReleaseTime(System.nanoTime());
+		entry.setState(PoolEntry.FREE);
+		
+		// Prefer handing the connection to a waiting thread
+		for (int tries = 0; this.waiters.get() > 0; tries++) {
+			if (entry.getState() != PoolEntry.FREE || this.handOffQueue.offer(entry)) {
+				return;
+			}
+			
+			if (tries < SPIN_TRIES) {
+				Thread.yield();
+			} else {
+				LockSupport.parkNanos(PARK_NANOS);
+			}
+		}
+		
+		List<WeakReference<PoolEntry>> recentEntries = this.threadEntries.get();
+		if (recentEntries.size() >= MAX_THREAD_ENTRIES) {
+			recentEntries.remove(0);
+		}
+		recentEntries.add(new WeakReference<>(entry));
+	}
+	
+	private void resetConnection(final PoolEntry entry) throws SQLException {
+		WrappedConnection<?> connection = entry.getConnection();
+		connection.resetState();
+		
+		if (connection.isReadOnly() != entry.initialReadOnly) {
+			connection.setReadOnly(entry.initialReadOnly);
+		}
+		
+		if (connection.getTransactionIsolation() != entry.initialIsolation) {
+			connection.setTransactionIsolation(entry.initialIsolation);
+		}
+	}
+	
+	// Removes the given entry from the pool without closing its connection, e.g., when it is aborted
+	void remove(final PoolEntry entry) {
+		if (entry.getAndSetState(PoolEntry.REMOVED) != PoolEntry.REMOVED) {
+			this.entries.remove(entry);
+			this.size.decrementAndGet();
+		}
+	}
+	
+	private void discard(final PoolEntry entry) {
+		this.remove(entry);
+		
+		try {
+			entry.getConnection().closeWrappedConnection();
+		} catch (SQLException e) {
+			LOGGER.log(Level.FINE, e, () -> "Error closing a pooled connection.");
+		}
+	}
+	
+	// Closes the idle connections and the others when they are returned
+	public void close() {
+		this.closed = true;
+		
+		for (PoolEntry entry : this.entries) {
+			if (entry.compareAndSetState(PoolEntry.FREE, PoolEntry.IN_USE)) {
+				this.discard(entry);
+			}
+		}
+	}
+	
+	public boolean isClosed() {
+		return this.closed;
+	}
+	
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+	
+	// Number of open connections, both idle and in use
+	public int size() {
+		return this.size.get();
+	}
+	
+	public int getIdleCount() {
+		int idleCount = 0;
+		
+		for (PoolEntry entry : this.entries) {
+			if (entry.getState() == PoolEntry.FREE) {
+				idleCount++;
+			}
+		}
+		
+		return idleCount;
+	}
+
+}
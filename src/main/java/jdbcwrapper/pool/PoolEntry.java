@@ -0,0 +1,77 @@
+package jdbcwrapper.pool;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import jdbcwrapper.WrappedConnection;
+
+// Connection of a pool with its state. Borrowing an entry is a single CAS on the state.
+class PoolEntry {
+	
+	static final int FREE = 0;
+	
+	static final int IN_USE = 1;
+	
+	static final int REMOVED = 2;
+	
+	private static final AtomicIntegerFieldUpdater<PoolEntry> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(PoolEntry.class, "state");
+	
+	private final ConnectionPool pool;
+	
+	private final WrappedConnection<?> connection;
+	
+	// State of the connection when it was opened, restored when it is returned
+	final boolean initialReadOnly;
+	
+	final int initialIsolation;
+	
+	// Time the connection was opened (System.nanoTime())
+	final long creationTime;
+	
+	// Time the connection was last returned, or opened if it was not returned yet
+	private volatile long releaseTime;
+	
+	// New entries are in use by the thread that created them
+	private volatile int state = IN_USE;
+	
+	PoolEntry(final ConnectionPool pool, final WrappedConnection<?> connection, final boolean initialReadOnly, final int initialIsolation) {
+		this.pool = pool;
+		this.connection = connection;
+		this.initialReadOnly = initialReadOnly;
+		this.initialIsolation = initialIsolation;
+		this.creationTime = System.nanoTime();
+		this.releaseTime = this.creationTime;
+	}
+	
+	public ConnectionPool getPool() {
+		return this.pool;
+	}
+	
+	public WrappedConnection<?> getConnection() {
+		return this.connection;
+	}
+	
+	long getReleaseTime() {
+		return this.releaseTime;
+	}
+	
+	void setReleaseTime(final long releaseTime) {
+		this.releaseTime = releaseTime;
+	}
+	
+	int getState() {
+		return this.state;
+	}
+	
+	void setState(final int state) {
+		this.state = state;
+	}
+	
+	boolean compareAndSetState(final int expectedState, final int newState) {
+		return STATE_UPDATER.compareAndSet(this, expectedState, newState);
+	}
+	
+	int getAndSetState(final int newState) {
+		return STATE_UPDATER.getAndSet(this, newState);
+	}
+
+}
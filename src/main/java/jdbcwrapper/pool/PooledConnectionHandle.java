@@ -0,0 +1,32 @@
+package jdbcwrapper.pool;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+
+import jdbcwrapper.ConnectionHandle;
+
+// Handle for a borrowed connection, a new one is created for each borrow. Closing the handle
+// returns the connection to its pool.
+class PooledConnectionHandle extends ConnectionHandle {
+	
+	private final PoolEntry entry;
+	
+	PooledConnectionHandle(final PoolEntry entry) {
+		super(entry.getConnection());
+		
+		this.entry = entry;
+	}
+	
+	@Override
+	protected void release() throws SQLException {
+		this.entry.getPool().release(this.entry);
+	}
+	
+	@Override
+	protected void abortConnection(final Executor executor) throws SQLException {
+		// An aborted connection cannot be reused
+		this.entry.getPool().remove(this.entry);
+		this.entry.getConnection().abort(executor);
+	}
+
+}
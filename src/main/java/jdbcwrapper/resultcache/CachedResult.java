@@ -0,0 +1,326 @@
+package jdbcwrapper.resultcache;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import jdbcwrapper.util.ParameterBuffer;
+
+// Immutable result of a query, stored column by column. Integral, boolean and floating point columns
+// are stored unboxed in primitive arrays with a bit set marking nulls, other columns as arrays of
+// (immutable or copied) objects. Results are built row by row while the original result set is read.
+public class CachedResult {
+	
+	static final byte LONG_STORAGE = 0;
+	
+	static final byte DOUBLE_STORAGE = 1;
+	
+	static final byte OBJECT_STORAGE = 2;
+	
+	private static final int INITIAL_CAPACITY = 16;
+	
+	private final CachedResultSetMetaData metaData;
+	
+	// Boxed types of the columns, e.g., Integer for an int column stored as long
+	private final Class<?>[] columnClasses;
+	
+	private final byte[] storageTypes;
+	
+	// long[], double[] or Object[] per column
+	private final Object[] columns;
+	
+	// Null values of primitive columns, null if the column has no nulls
+	private final BitSet[] nulls;
+	
+	private final Map<String, Integer> columnIndexes;
+	
+	private int rowCount;
+	
+	// Number of rows the column arrays can hold
+	private int capacity = INITIAL_CAPACITY;
+	
+	private CachedResult(final CachedResultSetMetaData metaData, final Class<?>[] columnClasses, final byte[] storageTypes) {
+		int columnCount = storageTypes.length;
+		
+		this.metaData = metaData;
+		this.columnClasses = columnClasses;
+		this.storageTypes = storageTypes;
+		this.columns = new Object[columnCount];
+		this.nulls = new BitSet[columnCount];
+		this.columnIndexes = new HashMap<>(columnCount * 2);
+		
+		for (int index = 0; index < columnCount; index++) {
+			switch (storageTypes[index]) {
+			case LONG_STORAGE:
+				this.columns[index] = new long[INITIAL_CAPACITY];
+				break;
+				
+			case DOUBLE_STORAGE:
+				this.columns[index] = new double[INITIAL_CAPACITY];
+				break;
+				
+			default:
+				this.columns[index] = new Object[INITIAL_CAPACITY];
+			}
+		}
+	}
+	
+	// Prepares a result for the rows of the given result set, or returns null if the result set
+	// has columns that cannot be cached (e.g., LOBs, which are only valid while the result set is open)
+	static CachedResult forResultSet(final ResultSet resultSet) throws SQLException {
+		ResultSetMetaData originalMetaData = resultSet.getMetaData();
+		int columnCount = originalMetaData.getColumnCount();
+		
+		Class<?>[] columnClasses = new Class<?>[columnCount];
+		byte[] storageTypes = new byte[columnCount];
+		
+		for (int index = 0; index < columnCount; index++) {
+			int column = index + 1;
+			if (!isCacheableType(originalMetaData.getColumnType(column))) {
+				return null;
+			}
+			
+			String className = originalMetaData.getColumnClassName(column);
+			columnClasses[index] = primitiveClass(className);
+			storageTypes[index] = storageType(columnClasses[index]);
+		}
+		
+		CachedResult result = new CachedResult(CachedResultSetMetaData.copyOf(originalMetaData), columnClasses, storageTypes);
+		
+		// Like result sets, the first column with a label takes precedence
+		for (int column = columnCount; column >= 1; column--) {
+			result.columnIndexes.put(originalMetaData.getColumnLabel(column).toLowerCase(Locale.ROOT), column);
+		}
+		
+		return result;
+	}
+	
+	private static boolean isCacheableType(final int sqlType) {
+		switch (sqlType) {
+		case Types.BLOB:
+		case Types.CLOB:
+		case Types.NCLOB:
+		case Types.ARRAY:
+		case Types.REF:
+		case Types.REF_CURSOR:
+		case Types.STRUCT:
+		case Types.SQLXML:
+		case Types.DATALINK:
+		case Types.JAVA_OBJECT:
+		case Types.ROWID:
+		case Types.OTHER:
+			return false;
+			
+		default:
+			return true;
+		}
+	}
+	
+	// Returns the wrapper class of the given class name if it denotes a primitive type, else null
+	private static Class<?> primitiveClass(final String className) {
+		if (className == null) {
+			return null;
+		}
+		
+		switch (className) {
+		case "java.lang.Boolean":
+			return Boolean.class;
+			
+		case "java.lang.Byte":
+			return Byte.class;
+			
+		case "java.lang.Short":
+			return Short.class;
+			
+		case "java.lang.Integer":
+			return Integer.class;
+			
+		case "java.lang.Long":
+			return Long.class;
+			
+		case "java.lang.Float":
+			return Float.class;
+			
+		case "java.lang.Double":
+			return Double.class;
+			
+		default:
+			return null;
+		}
+	}
+	
+	private static byte storageType(final Class<?> columnClass) {
+		if (columnClass == Float.class || columnClass == Double.class) {
+			return DOUBLE_STORAGE;
+		}
+		
+		return (columnClass == null) ? OBJECT_STORAGE : LONG_STORAGE;
+	}
+	
+	// Appends the current row of the given result set. Returns false if the row cannot be cached.
+	boolean addRow(final ResultSet resultSet) throws SQLException {
+		int row = this.rowCount;
+		if (row == this.capacity) {
+			this.grow(Math.max(INITIAL_CAPACITY, row * 2));
+		}
+		
+		for (int index = 0; index < this.storageTypes.length; index++) {
+			int column = index + 1;
+			
+			switch (this.storageTypes[index]) {
+			case LONG_STORAGE:
+				long longValue = (this.columnClasses[index] == Boolean.class) ? (resultSet.getBoolean(column) ? 1 : 0) : resultSet.getLong(column);
+				((long[]) this.columns[index])[row] = longValue;
+				this.recordNull(index, row, resultSet.wasNull());
+				break;
+				
+			case DOUBLE_STORAGE:
+				((double[]) this.columns[index])[row] = resultSet.getDouble(column);
+				this.recordNull(index, row, resultSet.wasNull());
+				break;
+				
+			default:
+				Object value = resultSet.getObject(column);
+				if (!ParameterBuffer.isValueType(value)) {
+					return false;
+				}
+				
+				((Object[]) this.columns[index])[row] = copyValue(value);
+			}
+		}
+		
+		this.rowCount++;
+		return true;
+	}
+	
+	private void recordNull(final int index, final int row, final boolean isNull) {
+		if (!isNull) {
+			return;
+		}
+		
+		if (this.nulls[index] == null) {
+			this.nulls[index] = new BitSet();
+		}
+		
+		this.nulls[index].set(row);
+	}
+	
+	private void grow(final int capacity) {
+		this.capacity = capacity;
+		
+		for (int index = 0; index < this.columns.length; index++) {
+			Object column = this.columns[index];
+			
+			if (column instanceof long[]) {
+				this.columns[index] = Arrays.copyOf((long[]) column, capacity);
+			} else if (column instanceof double[]) {
+				this.columns[index] = Arrays.copyOf((double[]) column, capacity);
+			} else {
+				this.columns[index] = Arrays.copyOf((Object[]) column, capacity);
+			}
+		}
+	}
+	
+	// Releases the unused capacity once all rows are added
+	void trim() {
+		if (this.capacity > this.rowCount) {
+			this.grow(this.rowCount);
+		}
+	}
+	
+	// Copies mutable values, so that neither the driver nor the user can change the cached values
+	static Object copyValue(final Object value) {
+		if (value instanceof byte[]) {
+			return ((byte[]) value).clone();
+		} else if (value instanceof java.util.Date) {
+			return ((java.util.Date) value).clone();
+		} else {
+			return value;
+		}
+	}
+	
+	public int getRowCount() {
+		return this.rowCount;
+	}
+	
+	public int getColumnCount() {
+		return this.storageTypes.length;
+	}
+	
+	public CachedResultSetMetaData getMetaData() {
+		return this.metaData;
+	}
+	
+	// Returns the index of the column with the given label (case-insensitive), or -1 if there is none
+	int findColumn(final String columnLabel) {
+		Integer index = this.columnIndexes.get(columnLabel.toLowerCase(Locale.ROOT));
+		return (index == null) ? -1 : index;
+	}
+	
+	byte getStorageType(final int column) {
+		return this.storageTypes[column - 1];
+	}
+	
+	boolean isNull(final int row, final int column) {
+		int index = column - 1;
+		
+		if (this.storageTypes[index] == OBJECT_STORAGE) {
+			return (((Object[]) this.columns[index])[row] == null);
+		}
+		
+		BitSet columnNulls = this.nulls[index];
+		return (columnNulls != null && columnNulls.get(row));
+	}
+	
+	long getLong(final int row, final int column) {
+		return ((long[]) this.columns[column - 1])[row];
+	}
+	
+	double getDouble(final int row, final int column) {
+		return ((double[]) this.columns[column - 1])[row];
+	}
+	
+	// Returns the stored object, which must not be modified
+	Object getStoredObject(final int row, final int column) {
+		return ((Object[]) this.columns[column - 1])[row];
+	}
+	
+	// Returns the value of the given column as the driver did, boxing primitives
+	Object getObject(final int row, final int column) {
+		if (this.isNull(row, column)) {
+			return null;
+		}
+		
+		int index = column - 1;
+		Class<?> columnClass = this.columnClasses[index];
+		
+		if (columnClass == null) {
+			return copyValue(this.getStoredObject(row, column));
+		} else if (columnClass == Double.class) {
+			return this.getDouble(row, column);
+		} else if (columnClass == Float.class) {
+			return (float) this.getDouble(row, column);
+		}
+		
+		long value = this.getLong(row, column);
+		
+		if (columnClass == Long.class) {
+			return value;
+		} else if (columnClass == Integer.class) {
+			return (int) value;
+		} else if (columnClass == Short.class) {
+			return (short) value;
+		} else if (columnClass == Byte.class) {
+			return (byte) value;
+		} else {
+			return (value != 0);
+		}
+	}
+
+}
@@ -0,0 +1,1344 @@
+package jdbcwrapper.resultcache;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.function.Function;
+
+// Read-only, forward-only result set over a cached result. It does not access the database, and
+// several result sets may read the same cached result concurrently. Values are converted between
+// types similar to drivers, except that streams are created from the cached values.
+public class CachedResultSet implements ResultSet {
+	
+	private static final LocalDate EPOCH_DATE = LocalDate.of(1970, 1, 1);
+	
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	
+	private final CachedResult result;
+	
+	private final Statement statement;
+	
+	// Index of the current row, -1 before the first row
+	private int row = -1;
+	
+	private boolean wasNull;
+	
+	private int fetchSize;
+	
+	private boolean closed;
+	
+	public CachedResultSet(final CachedResult result, final Statement statement) {
+		this.result = result;
+		this.statement = statement;
+	}
+	
+	private void checkOpen() throws SQLException {
+		if (this.closed) {
+			throw new SQLException("The result set is closed.");
+		}
+	}
+	
+	// Checks that the given column of the current row can be read and records whether it is null.
+	// Returns the index of the current row.
+	private int read(final int columnIndex) throws SQLException {
+		this.checkOpen();
+		
+		if (this.row < 0 || this.row >= this.result.getRowCount()) {
+			throw new SQLException("The result set is not positioned on a row.");
+		}
+		
+		if (columnIndex < 1 || columnIndex > this.result.getColumnCount()) {
+			throw new SQLException("Invalid column index " + columnIndex + ".");
+		}
+		
+		this.wasNull = this.result.isNull(this.row, columnIndex);
+		return this.row;
+	}
+	
+	// Returns the value of the given column without copying it, boxing primitives
+	private Object value(final int columnIndex) throws SQLException {
+		int row = this.read(columnIndex);
+		
+		if (this.result.getStorageType(columnIndex) == CachedResult.OBJECT_STORAGE) {
+			return this.result.getStoredObject(row, columnIndex);
+		}
+		
+		return this.result.getObject(row, columnIndex);
+	}
+	
+	private long longValue(final int columnIndex) throws SQLException {
+		int row = this.read(columnIndex);
+		
+		switch (this.result.getStorageType(columnIndex)) {
+		case CachedResult.LONG_STORAGE:
+			return this.result.getLong(row, columnIndex);
+			
+		case CachedResult.DOUBLE_STORAGE:
+			return (long) this.result.getDouble(row, columnIndex);
+			
+		default:
+			Object value = this.result.getStoredObject(row, columnIndex);
+			return (value == null) ? 0 : toNumber(value).longValue();
+		}
+	}
+	
+	private double doubleValue(final int columnIndex) throws SQLException {
+		int row = this.read(columnIndex);
+		
+		switch (this.result.getStorageType(columnIndex)) {
+		case CachedResult.LONG_STORAGE:
+			return this.result.getLong(row, columnIndex);
+			
+		case CachedResult.DOUBLE_STORAGE:
+			return this.result.getDouble(row, columnIndex);
+			
+		default:
+			Object value = this.result.getStoredObject(row, columnIndex);
+			return (value == null) ? 0 : toNumber(value).doubleValue();
+		}
+	}
+	
+	private static Number toNumber(final Object value) throws SQLException {
+		if (value instanceof Number) {
+			return (Number) value;
+		} else if (value instanceof Boolean) {
+			return ((Boolean) value) ? 1 : 0;
+		}
+		
+		return parseDecimal(value);
+	}
+	
+	private static BigDecimal parseDecimal(final Object value) throws SQLException {
+		if (!(value instanceof String)) {
+			throw cannotConvert(value, BigDecimal.class);
+		}
+		
+		return parse(value, BigDecimal::new);
+	}
+	
+	private static boolean toBoolean(final Object value) throws SQLException {
+		if (value == null) {
+			return false;
+		} else if (value instanceof Boolean) {
+			return (Boolean) value;
+		} else if (value instanceof String) {
+			String string = ((String) value).trim();
+			return ("true".equalsIgnoreCase(string) || "1".equals(string));
+		}
+		
+		return (toNumber(value).doubleValue() != 0);
+	}
+	
+	private static <T> T parse(final Object value, final Function<String, T> parser) throws SQLException {
+		try {
+			return parser.apply(((String) value).trim());
+		} catch (IllegalArgumentException e) {
+			throw new SQLException("Cannot convert '" + value + "'.", e);
+		}
+	}
+	
+	private static String toHex(final byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		
+		for (int index = 0; index < bytes.length; index++) {
+			chars[index * 2] = HEX_DIGITS[(bytes[index] >> 4) & 0xF];
+			chars[index * 2 + 1] = HEX_DIGITS[bytes[index] & 0xF];
+		}
+		
+		return new String(chars);
+	}
+	
+	private static SQLException cannotConvert(final Object value, final Class<?> type) {
+		return new SQLException("Cannot convert a value of type " + value.getClass().getName() + " to " + type.getName() + ".");
+	}
+	
+	private static SQLException readOnly() {
+		return new SQLFeatureNotSupportedException("Cached result sets are read-only.");
+	}
+	
+	private static SQLException forwardOnly() {
+		return new SQLException("Cached result sets are forward-only.");
+	}
+	
+	@Override
+	public boolean next() throws SQLException {
+		this.checkOpen();
+		
+		if (this.row < this.result.getRowCount()) {
+			this.row++;
+		}
+		
+		return (this.row < this.result.getRowCount());
+	}
+	
+	@Override
+	public void close() throws SQLException {
+		this.closed = true;
+	}
+	
+	@Override
+	public boolean isClosed() throws SQLException {
+		return this.closed;
+	}
+	
+	@Override
+	public boolean wasNull() throws SQLException {
+		return this.wasNull;
+	}
+	
+	@Override
+	public ResultSetMetaData getMetaData() throws SQLException {
+		this.checkOpen();
+		return this.result.getMetaData();
+	}
+	
+	@Override
+	public int findColumn(final String columnLabel) throws SQLException {
+		int columnIndex = this.result.findColumn(columnLabel);
+		if (columnIndex < 0) {
+			throw new SQLException("Unknown column '" + columnLabel + "'.");
+		}
+		
+		return columnIndex;
+	}
+	
+	@Override
+	public Statement getStatement() throws SQLException {
+		return this.statement;
+	}
+	
+	@Override
+	public int getType() throws SQLException {
+		return ResultSet.TYPE_FORWARD_ONLY;
+	}
+	
+	@Override
+	public int getConcurrency() throws SQLException {
+		return ResultSet.CONCUR_READ_ONLY;
+	}
+	
+	@Override
+	public int getHoldability() throws SQLException {
+		// The result does not depend on the transaction
+		return ResultSet.HOLD_CURSORS_OVER_COMMIT;
+	}
+	
+	@Override
+	public int getFetchDirection() throws SQLException {
+		return ResultSet.FETCH_FORWARD;
+	}
+	
+	@Override
+	public void setFetchDirection(final int direction) throws SQLException {
+		if (direction != ResultSet.FETCH_FORWARD) {
+			throw forwardOnly();
+		}
+	}
+	
+	@Override
+	public int getFetchSize() throws SQLException {
+		return this.fetchSize;
+	}
+	
+	@Override
+	public void setFetchSize(final int rows) throws SQLException {
+		if (rows < 0) {
+			throw new SQLException("Invalid fetch size " + rows + ".");
+		}
+		
+		// All rows are in memory, the fetch size is only kept for the getter
+		this.fetchSize = rows;
+	}
+	
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return null;
+	}
+	
+	@Override
+	public void clearWarnings() throws SQLException {
+		// There are no warnings
+	}
+	
+	@Override
+	public String getCursorName() throws SQLException {
+		throw new SQLFeatureNotSupportedException("Cached result sets have no cursor.");
+	}
+	
+	@Override
+	public int getRow() throws SQLException {
+		return (this.row >= 0 && this.row < this.result.getRowCount()) ? (this.row + 1) : 0;
+	}
+	
+	@Override
+	public boolean isBeforeFirst() throws SQLException {
+		return (this.row < 0 && this.result.getRowCount() > 0);
+	}
+	
+	@Override
+	public boolean isAfterLast() throws SQLException {
+		return (this.row >= this.result.getRowCount() && this.result.getRowCount() > 0);
+	}
+	
+	@Override
+	public boolean isFirst() throws SQLException {
+		return (this.row == 0 && this.result.getRowCount() > 0);
+	}
+	
+	@Override
+	public boolean isLast() throws SQLException {
+		return (this.row == this.result.getRowCount() - 1 && this.row >= 0);
+	}
+	
+	@Override
+	public <T> T unwrap(final Class<T> iface) throws SQLException {
+		if (iface.isInstance(this)) {
+			return iface.cast(this);
+		}
+		
+		throw new SQLException("Not a wrapper for " + iface.getName() + ".");
+	}
+	
+	@Override
+	public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+		return iface.isInstance(this);
+	}
+	
+	@Override
+	public String getString(final int columnIndex) throws SQLException {
+		Object value = this.value(columnIndex);
+		
+		if (value instanceof byte[]) {
+			return toHex((byte[]) value);
+		}
+		
+		return (value == null) ? null : value.toString();
+	}
+	
+	@Override
+	public boolean getBoolean(final int columnIndex) throws SQLException {
+		int row = this.read(columnIndex);
+		
+		switch (this.result.getStorageType(columnIndex)) {
+		case CachedResult.LONG_STORAGE:
+			return (this.result.getLong(row, columnIndex) != 0);
+			
+		case CachedResult.DOUBLE_STORAGE:
+			return (this.result.getDouble(row, columnIndex) != 0);
+			
+		default:
+			return toBoolean(this.result.getStoredObject(row, columnIndex));
+		}
+	}
+	
+	@Override
+	public byte getByte(final int columnIndex) throws SQLException {
+		return (byte) this.longValue(columnIndex);
+	}
+	
+	@Override
+	public short getShort(final int columnIndex) throws SQLException {
+		return (short) this.longValue(columnIndex);
+	}
+	
+	@Override
+	public int getInt(final int columnIndex) throws SQLException {
+		return (int) this.longValue(columnIndex);
+	}
+	
+	@Override
+	public long getLong(final int columnIndex) throws SQLException {
+		return this.longValue(columnIndex);
+	}
+	
+	@Override
+	public float getFloat(final int columnIndex) throws SQLException {
+		return (float) this.doubleValue(columnIndex);
+	}
+	
+	@Override
+	public double getDouble(final int columnIndex) throws SQLException {
+		return this.doubleValue(columnIndex);
+	}
+	
+	@Override
+	@SuppressWarnings("deprecation")
+	public BigDecimal getBigDecimal(final int columnIndex, final int scale) throws SQLException {
+		BigDecimal value = this.getBigDecimal(columnIndex);
+		return (value == null) ? null : value.setScale(scale, RoundingMode.HALF_UP);
+	}
+	
+	@Override
+	public byte[] getBytes(final int columnIndex) throws SQLException {
+		Object value = this.value(columnIndex);
+		
+		if (value == null) {
+			return null;
+		} else if (value instanceof byte[]) {
+			return ((byte[]) value).clone();
+		}
+		
+		throw cannotConvert(value, byte[].class);
+	}
+	
+	@Override
+	public Date getDate(final int columnIndex) throws SQLException {
+		Object value = this.value(columnIndex);
+		
+		if (value == null) {
+			return null;
+		} else if (value instanceof java.util.Date) {
+			return new Date(((java.util.Date) value).getTime());
+		} else if (value instanceof LocalDate) {
+			return Date.valueOf((LocalDate) value);
+		} else if (value instanceof LocalDateTime) {
+			return Date.valueOf(((LocalDateTime) value).toLocalDate());
+		} else if (value instanceof String) {
+			return parse(value, Date::valueOf);
+		}
+		
+		throw cannotConvert(value, Date.class);
+	}
+	
+	@Override
+	public Time getTime(final int columnIndex) throws SQLException {
+		Object value = this.value(columnIndex);
+		
+		if (value == null) {
+			return null;
+		} else if (value instanceof java.util.Date) {
+			return new Time(((java.util.Date) value).getTime());
+		} else if (value instanceof LocalTime) {
+			return Time.valueOf((LocalTime) value);
+		} else if (value instanceof String) {
+			return parse(value, Time::valueOf);
+		}
+		
+		throw cannotConvert(value, Time.class);
+	}
+	
+	@Override
+	public Timestamp getTimestamp(final int columnIndex) throws SQLException {
+		Object value = this.value(columnIndex);
+		
+		if (value == null) {
+			return null;
+		} else if (value instanceof Timestamp) {
+			return (Timestamp) ((Timestamp) value).clone();
+		} else if (value instanceof java.util.Date) {
+			return new Timestamp(((java.util.Date) value).getTime());
+		} else if (value instanceof LocalDateTime) {
+			return Timestamp.valueOf((LocalDateTime) value);
+		} else if (value instanceof LocalDate) {
+			return Timestamp.valueOf(((LocalDate) value).atStartOfDay());
+		} else if (value instanceof OffsetDateTime) {
+			return Timestamp.from(((OffsetDateTime) value).toInstant());
+		} else if (value instanceof String) {
+			return parse(value, Timestamp::valueOf);
+		}
+		
+		throw cannotConvert(value, Timestamp.class);
+	}
+	
+	@Override
+	public InputStream getAsciiStream(final int columnIndex) throws SQLException {
+		String value = this.getString(columnIndex);
+		return (value == null) ? null : new ByteArrayInputStream(value.getBytes(StandardCharsets.US_ASCII));
+	}
+	
+	@Override
+	@SuppressWarnings("deprecation")
+	public InputStream getUnicodeStream(final int columnIndex) throws SQLException {
+		throw new SQLFeatureNotSupportedException("getUnicodeStream() is not supported.");
+	}
+	
+	@Override
+	public InputStream getBinaryStream(final int columnIndex) throws SQLException {
+		byte[] value = this.getBytes(columnIndex);
+		return (value == null) ? null : new ByteArrayInputStream(value);
+	}
+	
+	@Override
+	public String getString(final String columnLabel) throws SQLException {
+		return this.getString(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public boolean getBoolean(final String columnLabel) throws SQLException {
+		return this.getBoolean(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public byte getByte(final String columnLabel) throws SQLException {
+		return this.getByte(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public short getShort(final String columnLabel) throws SQLException {
+		return this.getShort(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public int getInt(final String columnLabel) throws SQLException {
+		return this.getInt(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public long getLong(final String columnLabel) throws SQLException {
+		return this.getLong(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public float getFloat(final String columnLabel) throws SQLException {
+		return this.getFloat(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public double getDouble(final String columnLabel) throws SQLException {
+		return this.getDouble(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	@SuppressWarnings("deprecation")
+	public BigDecimal getBigDecimal(final String columnLabel, final int scale) throws SQLException {
+		return this.getBigDecimal(this.findColumn(columnLabel), scale);
+	}
+	
+	@Override
+	public byte[] getBytes(final String columnLabel) throws SQLException {
+		return this.getBytes(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public Date getDate(final String columnLabel) throws SQLException {
+		return this.getDate(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public Time getTime(final String columnLabel) throws SQLException {
+		return this.getTime(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public Timestamp getTimestamp(final String columnLabel) throws SQLException {
+		return this.getTimestamp(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public InputStream getAsciiStream(final String columnLabel) throws SQLException {
+		return this.getAsciiStream(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	@SuppressWarnings("deprecation")
+	public InputStream getUnicodeStream(final String columnLabel) throws SQLException {
+		return this.getUnicodeStream(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public InputStream getBinaryStream(final String columnLabel) throws SQLException {
+		return this.getBinaryStream(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public Object getObject(final int columnIndex) throws SQLException {
+		int row = this.read(columnIndex);
+		return this.result.getObject(row, columnIndex);
+	}
+	
+	@Override
+	public Object getObject(final String columnLabel) throws SQLException {
+		return this.getObject(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public Reader getCharacterStream(final int columnIndex) throws SQLException {
+		String value = this.getString(columnIndex);
+		return (value == null) ? null : new StringReader(value);
+	}
+	
+	@Override
+	public Reader getCharacterStream(final String columnLabel) throws SQLException {
+		return this.getCharacterStream(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public BigDecimal getBigDecimal(final int columnIndex) throws SQLException {
+		Object value = this.value(columnIndex);
+		
+		if (value == null || value instanceof BigDecimal) {
+			return (BigDecimal) value;
+		} else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			return BigDecimal.valueOf(((Number) value).longValue());
+		} else if (value instanceof Double || value instanceof Float) {
+			return BigDecimal.valueOf(((Number) value).doubleValue());
+		} else if (value instanceof Boolean) {
+			return ((Boolean) value) ? BigDecimal.ONE : BigDecimal.ZERO;
+		}
+		
+		return parseDecimal(value);
+	}
+	
+	@Override
+	public BigDecimal getBigDecimal(final String columnLabel) throws SQLException {
+		return this.getBigDecimal(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public void beforeFirst() throws SQLException {
+		throw forwardOnly();
+	}
+	
+	@Override
+	public void afterLast() throws SQLException {
+		throw forwardOnly();
+	}
+	
+	@Override
+	public boolean first() throws SQLException {
+		throw forwardOnly();
+	}
+	
+	@Override
+	public boolean last() throws SQLException {
+		throw forwardOnly();
+	}
+	
+	@Override
+	public boolean absolute(final int row) throws SQLException {
+		throw forwardOnly();
+	}
+	
+	@Override
+	public boolean relative(final int rows) throws SQLException {
+		throw forwardOnly();
+	}
+	
+	@Override
+	public boolean previous() throws SQLException {
+		throw forwardOnly();
+	}
+	
+	@Override
+	public boolean rowUpdated() throws SQLException {
+		return false;
+	}
+	
+	@Override
+	public boolean rowInserted() throws SQLException {
+		return false;
+	}
+	
+	@Override
+	public boolean rowDeleted() throws SQLException {
+		return false;
+	}
+	
+	@Override
+	public void updateNull(final int columnIndex) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBoolean(final int columnIndex, final boolean x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateByte(final int columnIndex, final byte x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateShort(final int columnIndex, final short x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateInt(final int columnIndex, final int x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateLong(final int columnIndex, final long x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateFloat(final int columnIndex, final float x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateDouble(final int columnIndex, final double x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBigDecimal(final int columnIndex, final BigDecimal x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateString(final int columnIndex, final String x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBytes(final int columnIndex, final byte[] x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateDate(final int columnIndex, final Date x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateTime(final int columnIndex, final Time x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateTimestamp(final int columnIndex, final Timestamp x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateAsciiStream(final int columnIndex, final InputStream x, final int length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBinaryStream(final int columnIndex, final InputStream x, final int length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateCharacterStream(final int columnIndex, final Reader x, final int length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateObject(final int columnIndex, final Object x, final int scaleOrLength) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateObject(final int columnIndex, final Object x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateNull(final String columnLabel) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBoolean(final String columnLabel, final boolean x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateByte(final String columnLabel, final byte x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateShort(final String columnLabel, final short x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateInt(final String columnLabel, final int x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateLong(final String columnLabel, final long x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateFloat(final String columnLabel, final float x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateDouble(final String columnLabel, final double x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBigDecimal(final String columnLabel, final BigDecimal x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateString(final String columnLabel, final String x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBytes(final String columnLabel, final byte[] x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateDate(final String columnLabel, final Date x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateTime(final String columnLabel, final Time x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateTimestamp(final String columnLabel, final Timestamp x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateAsciiStream(final String columnLabel, final InputStream x, final int length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBinaryStream(final String columnLabel, final InputStream x, final int length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateCharacterStream(final String columnLabel, final Reader x, final int length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateObject(final String columnLabel, final Object x, final int scaleOrLength) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateObject(final String columnLabel, final Object x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void insertRow() throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateRow() throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void deleteRow() throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void refreshRow() throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void cancelRowUpdates() throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void moveToInsertRow() throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void moveToCurrentRow() throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public Object getObject(final int columnIndex, final Map<String, Class<?>> map) throws SQLException {
+		if (map != null && !map.isEmpty()) {
+			throw new SQLFeatureNotSupportedException("Type maps are not supported.");
+		}
+		
+		return this.getObject(columnIndex);
+	}
+	
+	@Override
+	public Ref getRef(final int columnIndex) throws SQLException {
+		// Results with such columns are not cached
+		throw new SQLFeatureNotSupportedException("getRef() is not supported.");
+	}
+	
+	@Override
+	public Blob getBlob(final int columnIndex) throws SQLException {
+		// Results with such columns are not cached
+		throw new SQLFeatureNotSupportedException("getBlob() is not supported.");
+	}
+	
+	@Override
+	public Clob getClob(final int columnIndex) throws SQLException {
+		// Results with such columns are not cached
+		throw new SQLFeatureNotSupportedException("getClob() is not supported.");
+	}
+	
+	@Override
+	public Array getArray(final int columnIndex) throws SQLException {
+		// Results with such columns are not cached
+		throw new SQLFeatureNotSupportedException("getArray() is not supported.");
+	}
+	
+	@Override
+	public Object getObject(final String columnLabel, final Map<String, Class<?>> map) throws SQLException {
+		return this.getObject(this.findColumn(columnLabel), map);
+	}
+	
+	@Override
+	public Ref getRef(final String columnLabel) throws SQLException {
+		return this.getRef(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public Blob getBlob(final String columnLabel) throws SQLException {
+		return this.getBlob(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public Clob getClob(final String columnLabel) throws SQLException {
+		return this.getClob(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public Array getArray(final String columnLabel) throws SQLException {
+		return this.getArray(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public Date getDate(final int columnIndex, final Calendar cal) throws SQLException {
+		Date value = this.getDate(columnIndex);
+		if (value == null || cal == null) {
+			return value;
+		}
+		
+		// Interpret the date in the time zone of the calendar, like drivers do for values without time zone
+		return new Date(value.toLocalDate().atStartOfDay(cal.getTimeZone().toZoneId()).toInstant().toEpochMilli());
+	}
+	
+	@Override
+	public Date getDate(final String columnLabel, final Calendar cal) throws SQLException {
+		return this.getDate(this.findColumn(columnLabel), cal);
+	}
+	
+	@Override
+	public Time getTime(final int columnIndex, final Calendar cal) throws SQLException {
+		Time value = this.getTime(columnIndex);
+		if (value == null || cal == null) {
+			return value;
+		}
+		
+		return new Time(value.toLocalTime().atDate(EPOCH_DATE).atZone(cal.getTimeZone().toZoneId()).toInstant().toEpochMilli());
+	}
+	
+	@Override
+	public Time getTime(final String columnLabel, final Calendar cal) throws SQLException {
+		return this.getTime(this.findColumn(columnLabel), cal);
+	}
+	
+	@Override
+	public Timestamp getTimestamp(final int columnIndex, final Calendar cal) throws SQLException {
+		Timestamp value = this.getTimestamp(columnIndex);
+		if (value == null || cal == null) {
+			return value;
+		}
+		
+		return Timestamp.from(value.toLocalDateTime().atZone(cal.getTimeZone().toZoneId()).toInstant());
+	}
+	
+	@Override
+	public Timestamp getTimestamp(final String columnLabel, final Calendar cal) throws SQLException {
+		return this.getTimestamp(this.findColumn(columnLabel), cal);
+	}
+	
+	@Override
+	public URL getURL(final int columnIndex) throws SQLException {
+		String value = this.getString(columnIndex);
+		if (value == null) {
+			return null;
+		}
+		
+		try {
+			return new URL(value);
+		} catch (MalformedURLException e) {
+			throw new SQLException("Invalid URL '" + value + "'.", e);
+		}
+	}
+	
+	@Override
+	public URL getURL(final String columnLabel) throws SQLException {
+		return this.getURL(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public void updateRef(final int columnIndex, final Ref x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateRef(final String columnLabel, final Ref x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBlob(final int columnIndex, final Blob x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBlob(final String columnLabel, final Blob x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateClob(final int columnIndex, final Clob x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateClob(final String columnLabel, final Clob x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateArray(final int columnIndex, final Array x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateArray(final String columnLabel, final Array x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public RowId getRowId(final int columnIndex) throws SQLException {
+		// Results with such columns are not cached
+		throw new SQLFeatureNotSupportedException("getRowId() is not supported.");
+	}
+	
+	@Override
+	public RowId getRowId(final String columnLabel) throws SQLException {
+		return this.getRowId(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public void updateRowId(final int columnIndex, final RowId x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateRowId(final String columnLabel, final RowId x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateNString(final int columnIndex, final String x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateNString(final String columnLabel, final String x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateNClob(final int columnIndex, final NClob x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateNClob(final String columnLabel, final NClob x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public NClob getNClob(final int columnIndex) throws SQLException {
+		// Results with such columns are not cached
+		throw new SQLFeatureNotSupportedException("getNClob() is not supported.");
+	}
+	
+	@Override
+	public NClob getNClob(final String columnLabel) throws SQLException {
+		return this.getNClob(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public SQLXML getSQLXML(final int columnIndex) throws SQLException {
+		// Results with such columns are not cached
+		throw new SQLFeatureNotSupportedException("getSQLXML() is not supported.");
+	}
+	
+	@Override
+	public SQLXML getSQLXML(final String columnLabel) throws SQLException {
+		return this.getSQLXML(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public void updateSQLXML(final int columnIndex, final SQLXML x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateSQLXML(final String columnLabel, final SQLXML x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public String getNString(final int columnIndex) throws SQLException {
+		return this.getString(columnIndex);
+	}
+	
+	@Override
+	public String getNString(final String columnLabel) throws SQLException {
+		return this.getNString(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public Reader getNCharacterStream(final int columnIndex) throws SQLException {
+		String value = this.getNString(columnIndex);
+		return (value == null) ? null : new StringReader(value);
+	}
+	
+	@Override
+	public Reader getNCharacterStream(final String columnLabel) throws SQLException {
+		return this.getNCharacterStream(this.findColumn(columnLabel));
+	}
+	
+	@Override
+	public void updateNCharacterStream(final int columnIndex, final Reader x, final long length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateNCharacterStream(final String columnLabel, final Reader x, final long length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateAsciiStream(final int columnIndex, final InputStream x, final long length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBinaryStream(final int columnIndex, final InputStream x, final long length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateCharacterStream(final int columnIndex, final Reader x, final long length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateAsciiStream(final String columnLabel, final InputStream x, final long length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBinaryStream(final String columnLabel, final InputStream x, final long length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateCharacterStream(final String columnLabel, final Reader x, final long length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBlob(final int columnIndex, final InputStream x, final long length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBlob(final String columnLabel, final InputStream x, final long length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateClob(final int columnIndex, final Reader x, final long length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateClob(final String columnLabel, final Reader x, final long length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateNClob(final int columnIndex, final Reader x, final long length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateNClob(final String columnLabel, final Reader x, final long length) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateNCharacterStream(final int columnIndex, final Reader x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateNCharacterStream(final String columnLabel, final Reader x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateAsciiStream(final int columnIndex, final InputStream x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBinaryStream(final int columnIndex, final InputStream x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateCharacterStream(final int columnIndex, final Reader x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateAsciiStream(final String columnLabel, final InputStream x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBinaryStream(final String columnLabel, final InputStream x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateCharacterStream(final String columnLabel, final Reader x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBlob(final int columnIndex, final InputStream x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateBlob(final String columnLabel, final InputStream x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateClob(final int columnIndex, final Reader x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateClob(final String columnLabel, final Reader x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateNClob(final int columnIndex, final Reader x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public void updateNClob(final String columnLabel, final Reader x) throws SQLException {
+		throw readOnly();
+	}
+	
+	@Override
+	public <T> T getObject(final int columnIndex, final Class<T> type) throws SQLException {
+		if (type == null) {
+			throw new SQLException("The type must not be null.");
+		}
+		
+		Object value = this.getObject(columnIndex);
+		if (value == null || type.isInstance(value)) {
+			return type.cast(value);
+		}
+		
+		Object convertedValue;
+		
+		if (type == String.class) {
+			convertedValue = this.getString(columnIndex);
+		} else if (type == Long.class) {
+			convertedValue = this.getLong(columnIndex);
+		} else if (type == Integer.class) {
+			convertedValue = this.getInt(columnIndex);
+		} else if (type == Short.class) {
+			convertedValue = this.getShort(columnIndex);
+		} else if (type == Byte.class) {
+			convertedValue = this.getByte(columnIndex);
+		} else if (type == Double.class) {
+			convertedValue = this.getDouble(columnIndex);
+		} else if (type == Float.class) {
+			convertedValue = this.getFloat(columnIndex);
+		} else if (type == Boolean.class) {
+			convertedValue = this.getBoolean(columnIndex);
+		} else if (type == BigDecimal.class) {
+			convertedValue = this.getBigDecimal(columnIndex);
+		} else if (type == byte[].class) {
+			convertedValue = this.getBytes(columnIndex);
+		} else if (type == Date.class) {
+			convertedValue = this.getDate(columnIndex);
+		} else if (type == Time.class) {
+			convertedValue = this.getTime(columnIndex);
+		} else if (type == Timestamp.class) {
+			convertedValue = this.getTimestamp(columnIndex);
+		} else if (type == LocalDate.class) {
+			convertedValue = this.getDate(columnIndex).toLocalDate();
+		} else if (type == LocalTime.class) {
+			convertedValue = this.getTime(columnIndex).toLocalTime();
+		} else if (type == LocalDateTime.class) {
+			convertedValue = this.getTimestamp(columnIndex).toLocalDateTime();
+		} else {
+			throw cannotConvert(value, type);
+		}
+		
+		return type.cast(convertedValue);
+	}
+	
+	@Override
+	public <T> T getObject(final String columnLabel, final Class<T> type) throws SQLException {
+		return this.getObject(this.findColumn(columnLabel), type);
+	}
+
+}
@@ -0,0 +1,215 @@
+package jdbcwrapper.resultcache;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+// Copy of the metadata of a cached result, so that the metadata is available without the original
+// result set. Cached results are read-only, so no column is reported as writable.
+public class CachedResultSetMetaData implements ResultSetMetaData {
+	
+	private final ColumnMetaData[] columns;
+	
+	private CachedResultSetMetaData(final ColumnMetaData[] columns) {
+		this.columns = columns;
+	}
+	
+	public static CachedResultSetMetaData copyOf(final ResultSetMetaData metaData) throws SQLException {
+		ColumnMetaData[] columns = new ColumnMetaData[metaData.getColumnCount()];
+		
+		for (int index = 0; index < columns.length; index++) {
+			int column = index + 1;
+			ColumnMetaData columnMetaData = new ColumnMetaData();
+			
+			columnMetaData.label = metaData.getColumnLabel(column);
+			columnMetaData.name = metaData.getColumnName(column);
+			columnMetaData.type = metaData.getColumnType(column);
+			columnMetaData.typeName = metaData.getColumnTypeName(column);
+			columnMetaData.className = metaData.getColumnClassName(column);
+			columnMetaData.catalogName = metaData.getCatalogName(column);
+			columnMetaData.schemaName = metaData.getSchemaName(column);
+			columnMetaData.tableName = metaData.getTableName(column);
+			columnMetaData.precision = metaData.getPrecision(column);
+			columnMetaData.scale = metaData.getScale(column);
+			columnMetaData.displaySize = metaData.getColumnDisplaySize(column);
+			columnMetaData.nullable = metaData.isNullable(column);
+			columnMetaData.signed = metaData.isSigned(column);
+			columnMetaData.autoIncrement = metaData.isAutoIncrement(column);
+			columnMetaData.caseSensitive = metaData.isCaseSensitive(column);
+			columnMetaData.searchable = metaData.isSearchable(column);
+			columnMetaData.currency = metaData.isCurrency(column);
+			
+			columns[index] = columnMetaData;
+		}
+		
+		return new CachedResultSetMetaData(columns);
+	}
+	
+	private ColumnMetaData column(final int column) throws SQLException {
+		if (column < 1 || column > this.columns.length) {
+			throw new SQLException("Invalid column index " + column + ".");
+		}
+		
+		return this.columns[column - 1];
+	}
+	
+	@Override
+	public int getColumnCount() throws SQLException {
+		return this.columns.length;
+	}
+	
+	@Override
+	public boolean isAutoIncrement(final int column) throws SQLException {
+		return this.column(column).autoIncrement;
+	}
+	
+	@Override
+	public boolean isCaseSensitive(final int column) throws SQLException {
+		return this.column(column).caseSensitive;
+	}
+	
+	@Override
+	public boolean isSearchable(final int column) throws SQLException {
+		return this.column(column).searchable;
+	}
+	
+	@Override
+	public boolean isCurrency(final int column) throws SQLException {
+		return this.column(column).currency;
+	}
+	
+	@Override
+	public int isNullable(final int column) throws SQLException {
+		return this.column(column).nullable;
+	}
+	
+	@Override
+	public boolean isSigned(final int column) throws SQLException {
+		return this.column(column).signed;
+	}
+	
+	@Override
+	public int getColumnDisplaySize(final int column) throws SQLException {
+		return this.column(column).displaySize;
+	}
+	
+	@Override
+	public String getColumnLabel(final int column) throws SQLException {
+		return this.column(column).label;
+	}
+	
+	@Override
+	public String getColumnName(final int column) throws SQLException {
+		return this.column(column).name;
+	}
+	
+	@Override
+	public String getSchemaName(final int column) throws SQLException {
+		return this.column(column).schemaName;
+	}
+	
+	@Override
+	public int getPrecision(final int column) throws SQLException {
+		return this.column(column).precision;
+	}
+	
+	@Override
+	public int getScale(final int column) throws SQLException {
+		return this.column(column).scale;
+	}
+	
+	@Override
+	public String getTableName(final int column) throws SQLException {
+		return this.column(column).tableName;
+	}
+	
+	@Override
+	public String getCatalogName(final int column) throws SQLException {
+		return this.column(column).catalogName;
+	}
+	
+	@Override
+	public int getColumnType(final int column) throws SQLException {
+		return this.column(column).type;
+	}
+	
+	@Override
+	public String getColumnTypeName(final int column) throws SQLException {
+		return this.column(column).typeName;
+	}
+	
+	@Override
+	public boolean isReadOnly(final int column) throws SQLException {
+		this.column(column);
+		return true;
+	}
+	
+	@Override
+	public boolean isWritable(final int column) throws SQLException {
+		this.column(column);
+		return false;
+	}
+	
+	@Override
+	public boolean isDefinitelyWritable(final int column) throws SQLException {
+		this.column(column);
+		return false;
+	}
+	
+	@Override
+	public String getColumnClassName(final int column) throws SQLException {
+		return this.column(column).className;
+	}
+	
+	@Override
+	public <T> T unwrap(final Class<T> iface) throws SQLException {
+		if (iface.isInstance(this)) {
+			return iface.cast(this);
+		}
+		
+		throw new SQLException("Not a wrapper for " + iface.getName() + ".");
+	}
+	
+	@Override
+	public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+		return iface.isInstance(this);
+	}
+	
+	private static class ColumnMetaData {
+		
+		public String label;
+		
+		public String name;
+		
+		public int type;
+		
+		public String typeName;
+		
+		public String className;
+		
+		public String catalogName;
+		
+		public String schemaName;
+		
+		public String tableName;
+		
+		public int precision;
+		
+		public int scale;
+		
+		public int displaySize;
+		
+		public int nullable;
+		
+		public boolean signed;
+		
+		public boolean autoIncrement;
+		
+		public boolean caseSensitive;
+		
+		public boolean searchable;
+		
+		public boolean currency;
+	
+	}
+
+}
@@ -0,0 +1,326 @@
+package jdbcwrapper.resultcache;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.measurement.ResultCacheMetrics;
+import jdbcwrapper.util.DriverMetadata;
+
+// Read-through cache for query results, shared by all connections of a type. Only queries that
+// exclusively read configured tables (e.g., reference data) are cached, keyed by their SQL and bind
+// parameters. Writes through the wrapper remove the results of the tables they write, and results
+// expire after a time to live, which bounds the staleness after writes by other applications.
+//
+// Results are recorded while the user reads the original result set and only stored once it is
+// exhausted. Every invalidation increments a generation counter, results whose recording overlapped
+// with an invalidation are discarded, as they may predate the write.
+public class ResultCache {
+	
+	private static final String SIZE_PROPERTY = "result.cache.size";
+	
+	private static final int DEFAULT_SIZE = 0;
+	
+	private static final String MAX_ROWS_PROPERTY = "result.cache.max.rows";
+	
+	private static final int DEFAULT_MAX_ROWS = 1000;
+	
+	private static final String TTL_PROPERTY = "result.cache.ttl.millis";
+	
+	private static final long DEFAULT_TTL = 60_000;
+	
+	private static final String TABLES_PROPERTY = "result.cache.tables";
+	
+	// Fraction of the capacity that is freed on eviction, so that eviction runs are amortized
+	private static final int EVICTION_DIVISOR = 10;
+	
+	// Maximum number of statements whose table references are remembered
+	private static final int MAX_ANALYZED_STATEMENTS = 1024;
+	
+	private static final Logger LOGGER = Logger.getLogger(ResultCache.class.getName());
+	
+	private static final ConcurrentMap<String, ResultCache> CACHES = new ConcurrentHashMap<>();
+	
+	private final int capacity;
+	
+	private final int maxRows;
+	
+	private final long ttlNanos;
+	
+	// Tables whose results may be cached
+	private final Set<String> tables;
+	
+	private final ConcurrentMap<ResultCacheKey, Entry> entries;
+	
+	// Table references of recently executed statements, so that statements are not analyzed repeatedly
+	private final ConcurrentMap<String, TableReferences> analyzedStatements = new ConcurrentHashMap<>();
+	
+	private final AtomicLong generation = new AtomicLong();
+	
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	
+	private final ResultCacheMetrics metrics;
+	
+	public ResultCache(final int capacity, final int maxRows, final long ttlNanos, final Set<String> tables, final ResultCacheMetrics metrics) {
+		this.capacity = capacity;
+		this.maxRows = maxRows;
+		this.ttlNanos = ttlNanos;
+		this.tables = tables;
+		this.entries = new ConcurrentHashMap<>(Math.min(capacity, 1024));
+		this.metrics = metrics;
+	}
+	
+	// Returns the cache shared by all connections of the type, or null if results are not cached
+	public static ResultCache forMetadata(final DriverMetadata metadata) {
+		int size = metadata.getIntProperty(SIZE_PROPERTY, DEFAULT_SIZE);
+		if (size <= 0) {
+			return null;
+		}
+		
+		ResultCache cache = CACHES.get(metadata.typeName);
+		
+		if (cache == null) {
+			cache = CACHES.computeIfAbsent(metadata.typeName, type -> createCache(metadata, size));
+		}
+		
+		return cache;
+	}
+	
+	private static ResultCache createCache(final DriverMetadata metadata, final int size) {
+		Set<String> tables = new HashSet<>();
+		for (String table : metadata.getProperty(TABLES_PROPERTY, "").split(",")) {
+			String tableName = table.trim().toLowerCase(Locale.ROOT);
+			
+			if (!tableName.isEmpty()) {
+				tables.add(tableName);
+			}
+		}
+		
+		if (tables.isEmpty()) {
+			LOGGER.log(Level.WARNING, () -> "No tables configured for the result cache of " + metadata.typeName + ", no results are cached.");
+		}
+		
+		int maxRows = metadata.getIntProperty(MAX_ROWS_PROPERTY, DEFAULT_MAX_ROWS);
+		long ttl = metadata.getLongProperty(TTL_PROPERTY, DEFAULT_TTL);
+		
+		return new ResultCache(size, maxRows, TimeUnit.MILLISECONDS.toNanos(ttl), Collections.unmodifiableSet(tables),
+				MetricsRegistry.getResultCacheMetrics(metadata.typeName));
+	}
+	
+	public static ResultCache getResultCache(final String type) {
+		return CACHES.get(type);
+	}
+	
+	// Removes the caches of all types, their results are dropped with them
+	public static void removeAll() {
+		CACHES.clear();
+	}
+	
+	public TableReferences analyze(final String sql) {
+		if (sql == null) {
+			return TableReferences.of(null);
+		}
+		
+		TableReferences references = this.analyzedStatements.get(sql);
+		
+		if (references == null) {
+			if (this.analyzedStatements.size() >= MAX_ANALYZED_STATEMENTS) {
+				// Statements with inlined literals would otherwise fill the map
+				this.analyzedStatements.clear();
+			}
+			
+			references = this.analyzedStatements.computeIfAbsent(sql, TableReferences::of);
+		}
+		
+		return references;
+	}
+	
+	// Returns whether the result of the given query may be cached
+	public boolean isCacheable(final TableReferences query) {
+		return (query.getKind() == TableReferences.Kind.READ && !query.isLocking() && query.getTableCount() > 0 &&
+				query.isContainedIn(this.tables));
+	}
+	
+	// Returns whether the given statement may change cached results
+	public boolean isInvalidatedBy(final TableReferences write) {
+		switch (write.getKind()) {
+		case WRITE:
+			return write.intersects(this.tables);
+			
+		case UNKNOWN:
+			return true;
+			
+		default:
+			return false;
+		}
+	}
+	
+	// Returns a result set over the cached result for the given key, or null if there is none
+	public CachedResultSet get(final ResultCacheKey key, final Statement statement) {
+		Entry entry = this.entries.get(key);
+		
+		if (entry == null) {
+			this.metrics.recordMiss();
+			return null;
+		}
+		
+		long now = System.nanoTime();
+		if (now - entry.expirationTime >= 0) {
+			if (this.entries.remove(key, entry)) {
+				this.metrics.recordExpiration();
+			}
+			
+			this.metrics.recordMiss();
+			return null;
+		}
+		
+		entry.lastAccessTime = now;
+		this.metrics.recordHit();
+		return new CachedResultSet(entry.result, statement);
+	}
+	
+	// Starts recording the result of the given query after a miss
+	public ResultRecorder startRecording(final ResultCacheKey key) {
+		return new ResultRecorder(this, key.toStoredKey(), this.analyze(key.getSql()), this.generation.get(), this.maxRows);
+	}
+	
+	void store(final ResultCacheKey key, final CachedResult result, final TableReferences references, final long generation) {
+		if (this.generation.get() != generation) {
+			return;
+		}
+		
+		long now = System.nanoTime();
+		Entry entry = new Entry(result, references, now + this.ttlNanos, now);
+		this.entries.put(key, entry);
+		
+		// An invalidation may have happened after the check, it may have missed the new entry
+		if (this.generation.get() != generation) {
+			this.entries.remove(key, entry);
+			return;
+		}
+		
+		this.metrics.recordStore();
+		
+		if (this.entries.size() > this.capacity) {
+			this.evictLeastRecentlyUsed();
+		}
+	}
+	
+	// Removes the results that may be changed by the given statement
+	public void invalidate(final TableReferences write) {
+		if (!this.isInvalidatedBy(write)) {
+			return;
+		}
+		
+		if (write.getKind() == TableReferences.Kind.UNKNOWN) {
+			this.clear();
+			return;
+		}
+		
+		this.generation.incrementAndGet();
+		
+		for (Map.Entry<ResultCacheKey, Entry> entry : this.entries.entrySet()) {
+			if (entry.getValue().references.isAffectedBy(write) && this.entries.remove(entry.getKey(), entry.getValue())) {
+				this.metrics.recordInvalidation();
+			}
+		}
+	}
+	
+	// Removes all results
+	public void clear() {
+		this.generation.incrementAndGet();
+		
+		for (ResultCacheKey key : this.entries.keySet()) {
+			if (this.entries.remove(key) != null) {
+				this.metrics.recordInvalidation();
+			}
+		}
+	}
+	
+	private void evictLeastRecentlyUsed() {
+		// Only one thread needs to evict, the others may continue while the cache is
+		// temporarily over capacity
+		if (!this.evictionLock.tryLock()) {
+			return;
+		}
+		
+		try {
+			int targetSize = this.capacity - (this.capacity / EVICTION_DIVISOR);
+			int excessEntries = this.entries.size() - targetSize;
+			if (excessEntries <= 0) {
+				return;
+			}
+			
+			List<Map.Entry<ResultCacheKey, Entry>> candidates = new ArrayList<>(this.entries.entrySet());
+			candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccessTime));
+			
+			for (int index = 0; index < excessEntries && index < candidates.size(); index++) {
+				Map.Entry<ResultCacheKey, Entry> candidate = candidates.get(index);
+				
+				if (this.entries.remove(candidate.getKey(), candidate.getValue())) {
+					this.metrics.recordEviction();
+				}
+			}
+		} finally {
+			this.evictionLock.unlock();
+		}
+	}
+	
+	public int getCapacity() {
+		return this.capacity;
+	}
+	
+	public int getMaxRows() {
+		return this.maxRows;
+	}
+	
+	public long getTtlNanos() {
+		return this.ttlNanos;
+	}
+	
+	public Set<String> getTables() {
+		return this.tables;
+	}
+	
+	public int size() {
+		return this.entries.size();
+	}
+	
+	public ResultCacheMetrics getMetrics() {
+		return this.metrics;
+	}
+	
+	private static class Entry {
+		
+		public final CachedResult result;
+		
+		public final TableReferences references;
+		
+		public final long expirationTime;
+		
+		public volatile long lastAccessTime;
+		
+		public Entry(final CachedResult result, final TableReferences references, final long expirationTime, final long lastAccessTime) {
+			this.result = result;
+			this.references = references;
+			this.expirationTime = expirationTime;
+			this.lastAccessTime = lastAccessTime;
+		}
+	
+	}
+
+}
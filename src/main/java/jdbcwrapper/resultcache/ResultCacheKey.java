@@ -0,0 +1,69 @@
+package jdbcwrapper.resultcache;
+
+import java.util.Objects;
+
+import jdbcwrapper.util.ParameterBuffer;
+
+// Identifies a cached result by the SQL of the query and its bind parameters. The SQL is used
+// verbatim rather than its fingerprint, since the fingerprint does not distinguish literals.
+public class ResultCacheKey {
+	
+	private final String sql;
+	
+	// Bind parameters, null for plain statements
+	private final ParameterBuffer parameters;
+	
+	private final int hashCode;
+	
+	private ResultCacheKey(final String sql, final ParameterBuffer parameters, final int hashCode) {
+		this.sql = sql;
+		this.parameters = parameters;
+		this.hashCode = hashCode;
+	}
+	
+	// Creates a key for the given query. The key refers to the given parameters, so it must only be
+	// used for lookups before the parameters are changed. Returns null if the parameters cannot be
+	// compared, such queries are not cached.
+	public static ResultCacheKey of(final String sql, final ParameterBuffer parameters) {
+		if (parameters != null && !parameters.isComparable()) {
+			return null;
+		}
+		
+		int hashCode = 31 * sql.hashCode() + Objects.hashCode(parameters);
+		return new ResultCacheKey(sql, parameters, hashCode);
+	}
+	
+	// Returns a key with a copy of the parameters, so that it can be stored in the cache
+	ResultCacheKey toStoredKey() {
+		return (this.parameters == null) ? this : new ResultCacheKey(this.sql, this.parameters.copy(), this.hashCode);
+	}
+	
+	public String getSql() {
+		return this.sql;
+	}
+	
+	@Override
+	public int hashCode() {
+		return this.hashCode;
+	}
+	
+	@Override
+	public boolean equals(final Object object) {
+		if (this == object) {
+			return true;
+		}
+		
+		if (!(object instanceof ResultCacheKey)) {
+			return false;
+		}
+		
+		ResultCacheKey key = (ResultCacheKey) object;
+		return (this.hashCode == key.hashCode && this.sql.equals(key.sql) && Objects.equals(this.parameters, key.parameters));
+	}
+	
+	@Override
+	public String toString() {
+		return this.sql;
+	}
+
+}
@@ -0,0 +1,79 @@
+package jdbcwrapper.resultcache;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Copies the rows of a result set into a cached result while the user reads it. The result is
+// stored in the cache when the result set is exhausted, results with too many rows or values that
+// cannot be cached are discarded.
+public class ResultRecorder {
+	
+	private final ResultCache cache;
+	
+	private final ResultCacheKey key;
+	
+	private final TableReferences references;
+	
+	// Generation of the cache when the query was executed
+	private final long generation;
+	
+	private final int maxRows;
+	
+	// Result built so far, null if recording has not started or was aborted
+	private CachedResult result;
+	
+	ResultRecorder(final ResultCache cache, final ResultCacheKey key, final TableReferences references, final long generation, final int maxRows) {
+		this.cache = cache;
+		this.key = key;
+		this.references = references;
+		this.generation = generation;
+		this.maxRows = maxRows;
+	}
+	
+	// Prepares the recording of the given result set before its first row is read. Returns false if
+	// the result set cannot be recorded.
+	public boolean start(final ResultSet resultSet) {
+		try {
+			// Scrollable result sets may revisit rows, which would record them again
+			if (resultSet.getType() != ResultSet.TYPE_FORWARD_ONLY) {
+				return false;
+			}
+			
+			this.result = CachedResult.forResultSet(resultSet);
+		} catch (SQLException e) {
+			this.result = null;
+		}
+		
+		return (this.result != null);
+	}
+	
+	// Records the current row of the result set. Returns false if the recording was aborted.
+	public boolean recordRow(final ResultSet resultSet) {
+		if (this.result == null) {
+			return false;
+		}
+		
+		try {
+			if (this.result.getRowCount() < this.maxRows && this.result.addRow(resultSet)) {
+				return true;
+			}
+		} catch (SQLException e) {
+			// Errors are reported when the user reads the values
+		}
+		
+		this.result = null;
+		return false;
+	}
+	
+	// Stores the recorded result, called when the result set is exhausted
+	public void complete() {
+		if (this.result == null) {
+			return;
+		}
+		
+		this.result.trim();
+		this.cache.store(this.key, this.result, this.references, this.generation);
+		this.result = null;
+	}
+
+}
@@ -0,0 +1,349 @@
+package jdbcwrapper.resultcache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Tables referenced by an SQL statement, as far as they can be determined without a full parser.
+// Queries are analyzed for the tables after FROM and JOIN (including subqueries), writes for their
+// target table. Table names are lower-cased and unqualified, i.e., the schema is dropped. Statements
+// that cannot be analyzed (e.g., DDL or procedure calls) are classified as unknown and must be
+// assumed to write to any table.
+public class TableReferences {
+	
+	public enum Kind {
+		
+		READ,
+		
+		WRITE,
+		
+		UNKNOWN
+	
+	}
+	
+	private static final Set<String> READ_KEYWORDS = keywords("select", "with", "values", "table");
+	
+	private static final Set<String> WRITE_KEYWORDS = keywords("insert", "update", "delete", "merge", "replace", "upsert", "truncate");
+	
+	// Keywords that may precede the target table of a write
+	private static final Set<String> TARGET_PREFIX_KEYWORDS = keywords("into", "from", "only", "table", "ignore", "low_priority");
+	
+	// Keywords that may precede a table after FROM or JOIN
+	private static final Set<String> TABLE_PREFIX_KEYWORDS = keywords("only", "lateral");
+	
+	// Keywords that end the table list of a FROM clause
+	private static final Set<String> CLAUSE_KEYWORDS = keywords("where", "group", "having", "order", "limit", "offset", "fetch",
+			"union", "intersect", "except", "minus", "window", "for", "connect", "start");
+	
+	private static final TableReferences UNKNOWN_REFERENCES = new TableReferences(Kind.UNKNOWN, new String[0], false);
+	
+	private final Kind kind;
+	
+	private final String[] tables;
+	
+	// Set for queries that lock rows (e.g., SELECT ... FOR UPDATE)
+	private final boolean locking;
+	
+	private TableReferences(final Kind kind, final String[] tables, final boolean locking) {
+		this.kind = kind;
+		this.tables = tables;
+		this.locking = locking;
+	}
+	
+	public static TableReferences of(final String sql) {
+		if (sql == null) {
+			return UNKNOWN_REFERENCES;
+		}
+		
+		List<String> tokens = tokenize(sql);
+		
+		// Skip opening parentheses, e.g., of "(select ...) union (select ...)"
+		int firstIndex = 0;
+		while (firstIndex < tokens.size() && "(".equals(tokens.get(firstIndex))) {
+			firstIndex++;
+		}
+		
+		if (firstIndex >= tokens.size()) {
+			return UNKNOWN_REFERENCES;
+		}
+		
+		String firstToken = tokens.get(firstIndex);
+		if (READ_KEYWORDS.contains(firstToken)) {
+			return analyzeQuery(tokens, firstIndex);
+		} else if (WRITE_KEYWORDS.contains(firstToken)) {
+			return analyzeWrite(tokens, firstIndex);
+		} else {
+			return UNKNOWN_REFERENCES;
+		}
+	}
+	
+	private static TableReferences analyzeQuery(final List<String> tokens, final int firstIndex) {
+		Set<String> tables = new HashSet<>();
+		boolean locking = false;
+		
+		// Whether the FROM list at the respective parenthesis depth is still open, so that a comma
+		// introduces another table
+		boolean[] fromListOpen = new boolean[8];
+		int depth = 0;
+		boolean expectingTable = false;
+		
+		for (int index = firstIndex; index < tokens.size(); index++) {
+			String token = tokens.get(index);
+			
+			if ("(".equals(token)) {
+				depth++;
+				if (depth >= fromListOpen.length) {
+					fromListOpen = Arrays.copyOf(fromListOpen, depth * 2);
+				}
+				
+				fromListOpen[depth] = false;
+				expectingTable = false;
+			} else if (")".equals(token)) {
+				depth = Math.max(0, depth - 1);
+				expectingTable = false;
+			} else if ("from".equals(token) || "join".equals(token)) {
+				fromListOpen[depth] = true;
+				expectingTable = true;
+			} else if (",".equals(token)) {
+				expectingTable = fromListOpen[depth];
+			} else if (WRITE_KEYWORDS.contains(token) && !(index > 0 && "for".equals(tokens.get(index - 1)))) {
+				// Data-modifying subqueries or CTEs
+				return UNKNOWN_REFERENCES;
+			} else if ("into".equals(token)) {
+				// SELECT ... INTO creates a table
+				return UNKNOWN_REFERENCES;
+			} else if (expectingTable && TABLE_PREFIX_KEYWORDS.contains(token)) {
+				continue;
+			} else if (expectingTable && isIdentifier(token)) {
+				tables.add(tableName(token));
+				expectingTable = false;
+			} else {
+				if ("for".equals(token)) {
+					locking = true;
+				}
+				
+				if (CLAUSE_KEYWORDS.contains(token)) {
+					fromListOpen[depth] = false;
+				}
+				
+				expectingTable = false;
+			}
+		}
+		
+		return new TableReferences(Kind.READ, tables.toArray(new String[0]), locking);
+	}
+	
+	private static TableReferences analyzeWrite(final List<String> tokens, final int firstIndex) {
+		int index = firstIndex + 1;
+		while (index < tokens.size() && TARGET_PREFIX_KEYWORDS.contains(tokens.get(index))) {
+			index++;
+		}
+		
+		List<String> tables = new ArrayList<>(1);
+		
+		while (index < tokens.size() && isIdentifier(tokens.get(index))) {
+			tables.add(tableName(tokens.get(index)));
+			
+			// TRUNCATE may list several tables
+			if (index + 2 < tokens.size() && ",".equals(tokens.get(index + 1))) {
+				index += 2;
+			} else {
+				break;
+			}
+		}
+		
+		if (tables.isEmpty()) {
+			return UNKNOWN_REFERENCES;
+		}
+		
+		return new TableReferences(Kind.WRITE, tables.toArray(new String[0]), false);
+	}
+	
+	// Splits the statement into lower-cased identifiers (including qualified names) and single-character
+	// symbols, skipping whitespace, comments and literals
+	private static List<String> tokenize(final String sql) {
+		List<String> tokens = new ArrayList<>();
+		StringBuilder identifier = new StringBuilder();
+		int length = sql.length();
+		int position = 0;
+		
+		while (position < length) {
+			char currentChar = sql.charAt(position);
+			
+			if (currentChar == '-' && sql.startsWith("--", position)) {
+				position = skipUntil(sql, position + 2, "\n");
+			} else if (currentChar == '/' && sql.startsWith("/*", position)) {
+				position = skipUntil(sql, position + 2, "*/");
+			} else if (currentChar == '\'') {
+				position = skipQuoted(sql, position, '\'');
+				tokens.add("'");
+			} else if (currentChar == '"' || currentChar == '`' || isIdentifierPart(currentChar)) {
+				// Identifier, possibly qualified and quoted
+				identifier.setLength(0);
+				position = readIdentifier(sql, position, identifier);
+				tokens.add(identifier.toString().toLowerCase(Locale.ROOT));
+			} else if (Character.isWhitespace(currentChar)) {
+				position++;
+			} else {
+				tokens.add(String.valueOf(currentChar));
+				position++;
+			}
+		}
+		
+		return tokens;
+	}
+	
+	private static int readIdentifier(final String sql, final int startPosition, final StringBuilder identifier) {
+		int length = sql.length();
+		int position = startPosition;
+		
+		while (position < length) {
+			char currentChar = sql.charAt(position);
+			
+			if (currentChar == '"' || currentChar == '`') {
+				int endPosition = skipQuoted(sql, position, currentChar);
+				identifier.append(sql, position + 1, Math.max(position + 1, endPosition - 1));
+				position = endPosition;
+			} else if (isIdentifierPart(currentChar)) {
+				identifier.append(currentChar);
+				position++;
+			} else {
+				break;
+			}
+			
+			// Continue with the next part of a qualified name
+			if (position + 1 < length && sql.charAt(position) == '.' && !Character.isWhitespace(sql.charAt(position + 1))) {
+				identifier.append('.');
+				position++;
+			} else if (position < length && !isIdentifierPart(sql.charAt(position))) {
+				break;
+			}
+		}
+		
+		return position;
+	}
+	
+	private static int skipUntil(final String sql, final int position, final String terminator) {
+		int terminatorPosition = sql.indexOf(terminator, position);
+		return (terminatorPosition < 0) ? sql.length() : (terminatorPosition + terminator.length());
+	}
+	
+	private static int skipQuoted(final String sql, final int position, final char quoteChar) {
+		int currentPosition = position + 1;
+		int length = sql.length();
+		
+		while (currentPosition < length) {
+			if (sql.charAt(currentPosition) == quoteChar) {
+				// Doubled quotes are escapes, continue in this case
+				if (currentPosition + 1 < length && sql.charAt(currentPosition + 1) == quoteChar) {
+					currentPosition += 2;
+					continue;
+				}
+				
+				return currentPosition + 1;
+			}
+			
+			currentPosition++;
+		}
+		
+		return length;
+	}
+	
+	private static boolean isIdentifierPart(final char character) {
+		return Character.isLetterOrDigit(character) || character == '_' || character == '$';
+	}
+	
+	private static boolean isIdentifier(final String token) {
+		char firstChar = token.charAt(0);
+		return Character.isLetter(firstChar) || firstChar == '_';
+	}
+	
+	// Drops the qualifiers of the given (lower-cased) name
+	private static String tableName(final String name) {
+		int separatorIndex = name.lastIndexOf('.');
+		return name.substring(separatorIndex + 1);
+	}
+	
+	private static Set<String> keywords(final String... keywords) {
+		return new HashSet<>(Arrays.asList(keywords));
+	}
+	
+	public Kind getKind() {
+		return this.kind;
+	}
+	
+	// Names of the referenced tables. For queries, these are all tables read, for writes, the tables
+	// written.
+	public String[] getTables() {
+		return this.tables.clone();
+	}
+	
+	int getTableCount() {
+		return this.tables.length;
+	}
+	
+	public boolean isLocking() {
+		return this.locking;
+	}
+	
+	public boolean references(final String table) {
+		for (String referencedTable : this.tables) {
+			if (referencedTable.equals(table)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	// Returns whether the tables read by this statement may be changed by the given statement
+	public boolean isAffectedBy(final TableReferences write) {
+		switch (write.kind) {
+		case WRITE:
+			for (String table : write.tables) {
+				if (this.references(table)) {
+					return true;
+				}
+			}
+			
+			return false;
+			
+		case UNKNOWN:
+			return true;
+			
+		default:
+			return false;
+		}
+	}
+	
+	// Returns whether any referenced table is contained in the given set
+	boolean intersects(final Set<String> tableNames) {
+		for (String table : this.tables) {
+			if (tableNames.contains(table)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	// Returns whether all referenced tables are contained in the given set
+	boolean isContainedIn(final Set<String> tableNames) {
+		for (String table : this.tables) {
+			if (!tableNames.contains(table)) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	@Override
+	public String toString() {
+		return this.kind + " " + Arrays.toString(this.tables);
+	}
+
+}
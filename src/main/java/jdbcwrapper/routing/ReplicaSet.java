@@ -0,0 +1,155 @@
+package jdbcwrapper.routing;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import jdbcwrapper.util.DriverMetadata;
+
+// Replicas of a primary database, given as delegate URLs separated by "|". Connections routed to
+// the replicas choose the replica with the fewest outstanding connections, ties are broken
+// round-robin. A connection is outstanding on its replica while it routes reads to it.
+public class ReplicaSet {
+	
+	public static final char URL_SEPARATOR = '|';
+	
+	private static final String URLS_PROPERTY = "replica.urls";
+	
+	private static final Pattern URL_SEPARATOR_PATTERN = Pattern.compile(Pattern.quote(String.valueOf(URL_SEPARATOR)));
+	
+	private static final ConcurrentMap<String, ReplicaSet> REPLICA_SETS = new ConcurrentHashMap<>();
+	
+	private final List<Replica> replicas;
+	
+	// Start index of the next search, so that replicas with equal load are used in turn
+	private final AtomicInteger nextIndex = new AtomicInteger();
+	
+	public ReplicaSet(final List<String> urls) {
+		List<Replica> replicas = new ArrayList<>(urls.size());
+		for (String url : urls) {
+			replicas.add(new Replica(url));
+		}
+		
+		this.replicas = Collections.unmodifiableList(replicas);
+	}
+	
+	// Returns the replica set for the given URLs separated by "|", or null if there are none
+	public static ReplicaSet forUrls(final String urls) {
+		if (urls == null || urls.trim().isEmpty()) {
+			return null;
+		}
+		
+		ReplicaSet replicaSet = REPLICA_SETS.get(urls);
+		
+		if (replicaSet == null) {
+			replicaSet = REPLICA_SETS.computeIfAbsent(urls, key -> new ReplicaSet(parseUrls(key)));
+		}
+		
+		return (replicaSet.replicas.isEmpty()) ? null : replicaSet;
+	}
+	
+	// Returns the replica set configured for the type, or null if there are no replicas
+	public static ReplicaSet forMetadata(final DriverMetadata metadata) {
+		return forUrls(metadata.getProperty(URLS_PROPERTY, ""));
+	}
+	
+	private static List<String> parseUrls(final String urls) {
+		List<String> urlList = new ArrayList<>();
+		
+		for (String url : URL_SEPARATOR_PATTERN.split(urls)) {
+			String trimmedUrl = url.trim();
+			
+			if (!trimmedUrl.isEmpty()) {
+				urlList.add(trimmedUrl);
+			}
+		}
+		
+		return urlList;
+	}
+	
+	// Returns the replica with the fewest outstanding connections and acquires it, the replica must
+	// be released when the connection no longer routes to it
+	public Replica acquire() {
+		int replicaCount = this.replicas.size();
+		int startIndex = Math.floorMod(this.nextIndex.getAndIncrement(), replicaCount);
+		
+		Replica selectedReplica = null;
+		int selectedCount = Integer.MAX_VALUE;
+		
+		for (int offset = 0; offset < replicaCount; offset++) {
+			Replica replica = this.replicas.get((startIndex + offset) % replicaCount);
+			int outstandingCount = replica.getOutstandingCount();
+			
+			if (outstandingCount < selectedCount) {
+				selectedReplica = replica;
+				selectedCount = outstandingCount;
+			}
+		}
+		
+		selectedReplica.acquire();
+		return selectedReplica;
+	}
+	
+	public List<Replica> getReplicas() {
+		return this.replicas;
+	}
+	
+	public static class Replica {
+		
+		private final String url;
+		
+		private final AtomicInteger outstandingCount = new AtomicInteger();
+		
+		// Resolved on the first connection, so that connecting involves no DriverManager lookup
+		private volatile Driver driver;
+		
+		Replica(final String url) {
+			this.url = url;
+		}
+		
+		public Connection connect(final Properties info) throws SQLException {
+			Driver currentDriver = this.driver;
+			Connection connection = (currentDriver == null) ? null : currentDriver.connect(this.url, info);
+			
+			if (connection == null) {
+				// Not resolved yet or the driver does not accept the URL (anymore)
+				currentDriver = DriverManager.getDriver(this.url);
+				this.driver = currentDriver;
+				
+				connection = currentDriver.connect(this.url, info);
+				if (connection == null) {
+					throw new SQLException("The driver " + currentDriver.getClass().getName() + " does not accept the replica URL.");
+				}
+			}
+			
+			return connection;
+		}
+		
+		void acquire() {
+			this.outstandingCount.incrementAndGet();
+		}
+		
+		public void release() {
+			this.outstandingCount.decrementAndGet();
+		}
+		
+		public String getUrl() {
+			return this.url;
+		}
+		
+		public int getOutstandingCount() {
+			return this.outstandingCount.get();
+		}
+	
+	}
+
+}
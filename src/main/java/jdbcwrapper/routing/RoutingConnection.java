@@ -0,0 +1,270 @@
+package jdbcwrapper.routing;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jdbcwrapper.WrappedConnection;
+
+// Connection to a primary database that routes statements to a replica while it is read-only,
+// i.e., after setReadOnly(true) or in a read-only transaction. The replica is chosen and connected
+// on the first routed statement and kept for the lifetime of the connection. Writes, read-write
+// transactions and calls stay on the primary. Read-only transactions span the replica connection,
+// whose auto-commit mode follows the primary. If the replica cannot be connected, the statements
+// stay on the primary. Wrappers of a type wrap this connection like any delegate connection, so
+// routed statements are measured and monitored as well.
+public class RoutingConnection extends WrappedConnection<Object> {
+	
+	private static final Logger LOGGER = Logger.getLogger(RoutingConnection.class.getName());
+	
+	private final ReplicaSet replicaSet;
+	
+	// Connection properties for the replica connections (e.g., user and password)
+	private final Properties info;
+	
+	private boolean readOnly;
+	
+	// Replica of this connection, null until the first routed statement
+	private ReplicaSet.Replica replica;
+	
+	private Connection replicaConnection;
+	
+	// Set while this connection is outstanding on its replica
+	private boolean routing;
+	
+	// Set if the replica could not be connected, the statements stay on the primary then
+	private boolean replicaFailed;
+	
+	// Set if the current transaction may have used the replica connection, i.e., it has to be
+	// completed there as well
+	private boolean replicaInTransaction;
+	
+	public RoutingConnection(final Connection primaryConnection, final ReplicaSet replicaSet, final Properties info) {
+		super(primaryConnection);
+		
+		this.replicaSet = replicaSet;
+		this.info = info;
+	}
+	
+	// Returns the replica connection if statements are to be routed to it, null otherwise
+	private Connection routedConnection() throws SQLException {
+		if (!this.readOnly || this.replicaFailed) {
+			return null;
+		}
+		
+		if (this.replicaConnection == null) {
+			this.connectReplica();
+		} else if (!this.routing) {
+			this.replica.acquire();
+			this.routing = true;
+		}
+		
+		if (this.replicaConnection != null) {
+			this.replicaInTransaction = true;
+		}
+		
+		return this.replicaConnection;
+	}
+	
+	private void connectReplica() throws SQLException {
+		ReplicaSet.Replica chosenReplica = this.replicaSet.acquire();
+		
+		try {
+			Connection connection = chosenReplica.connect(this.info);
+			connection.setReadOnly(true);
+			
+			if (!super.getAutoCommit()) {
+				connection.setAutoCommit(false);
+			}
+			
+			this.replica = chosenReplica;
+			this.replicaConnection = connection;
+			this.routing = true;
+		} catch (SQLException | RuntimeException e) {
+			chosenReplica.release();
+			this.replicaFailed = true;
+			
+			LOGGER.log(Level.WARNING, e, () -> "Error connecting to replica " + chosenReplica.getUrl() + ", using the primary.");
+		}
+	}
+	
+	private void stopRouting() {
+		if (this.routing) {
+			this.replica.release();
+			this.routing = false;
+		}
+	}
+	
+	public boolean isRouting() {
+		return this.routing;
+	}
+	
+	// Returns the replica connection, null if none has been connected
+	public Connection getReplicaConnection() {
+		return this.replicaConnection;
+	}
+	
+	@Override
+	public void setReadOnly(final boolean readOnly) throws SQLException {
+		super.setReadOnly(readOnly);
+		
+		this.readOnly = readOnly;
+		if (!readOnly) {
+			this.stopRouting();
+		} else if (this.replicaConnection != null) {
+			// Statements cached for the replica may be reused without going through this connection
+			this.replicaInTransaction = true;
+		}
+	}
+	
+	@Override
+	public void setAutoCommit(final boolean autoCommit) throws SQLException {
+		super.setAutoCommit(autoCommit);
+		
+		if (this.replicaConnection != null) {
+			this.replicaConnection.setAutoCommit(autoCommit);
+		}
+	}
+	
+	@Override
+	public void commit() throws SQLException {
+		// The replica only reads, so it is completed first, and a failure there must not affect the
+		// outcome on the primary
+		this.endReplicaTransaction(true);
+		super.commit();
+	}
+	
+	@Override
+	public void rollback() throws SQLException {
+		this.endReplicaTransaction(false);
+		super.rollback();
+	}
+	
+	private void endReplicaTransaction(final boolean commit) {
+		if (!this.replicaInTransaction) {
+			return;
+		}
+		
+		try {
+			if (!this.replicaConnection.getAutoCommit()) {
+				if (commit) {
+					this.replicaConnection.commit();
+				} else {
+					this.replicaConnection.rollback();
+				}
+			}
+		} catch (SQLException e) {
+			LOGGER.log(Level.WARNING, e, () -> "Error completing the transaction on replica " + this.replica.getUrl() + ".");
+		} finally {
+			// While the connection stays read-only, the next transaction may use the replica again
+			this.replicaInTransaction = this.readOnly;
+		}
+	}
+	
+	@Override
+	public void resetState() throws SQLException {
+		super.resetState();
+		
+		if (this.replicaConnection != null && !this.replicaConnection.getAutoCommit()) {
+			this.replicaConnection.rollback();
+			this.replicaConnection.setAutoCommit(true);
+		}
+		
+		// The replica is acquired again by the next routed statement
+		this.replicaInTransaction = this.readOnly;
+		this.stopRouting();
+	}
+	
+	@Override
+	public void closeWrappedConnection() throws SQLException {
+		this.stopRouting();
+		
+		try {
+			if (this.replicaConnection != null) {
+				this.replicaConnection.close();
+			}
+		} finally {
+			super.closeWrappedConnection();
+		}
+	}
+	
+	@Override
+	public void abort(final Executor executor) throws SQLException {
+		this.stopRouting();
+		
+		try {
+			if (this.replicaConnection != null) {
+				this.replicaConnection.abort(executor);
+			}
+		} finally {
+			super.abort(executor);
+		}
+	}
+	
+	@Override
+	public Statement createStatement() throws SQLException {
+		Connection connection = this.routedConnection();
+		return (connection != null) ? connection.createStatement() : super.createStatement();
+	}
+	
+	@Override
+	public Statement createStatement(final int resultSetType, final int resultSetConcurrency) throws SQLException {
+		Connection connection = this.routedConnection();
+		return (connection != null) ? connection.createStatement(resultSetType, resultSetConcurrency) :
+				super.createStatement(resultSetType, resultSetConcurrency);
+	}
+	
+	@Override
+	public Statement createStatement(final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability)
+			throws SQLException {
+		Connection connection = this.routedConnection();
+		return (connection != null) ? connection.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability) :
+				super.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(final String sql) throws SQLException {
+		Connection connection = this.routedConnection();
+		return (connection != null) ? connection.prepareStatement(sql) : super.prepareStatement(sql);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency)
+			throws SQLException {
+		Connection connection = this.routedConnection();
+		return (connection != null) ? connection.prepareStatement(sql, resultSetType, resultSetConcurrency) :
+				super.prepareStatement(sql, resultSetType, resultSetConcurrency);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency,
+			final int resultSetHoldability) throws SQLException {
+		Connection connection = this.routedConnection();
+		return (connection != null) ? connection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability) :
+				super.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
+		Connection connection = this.routedConnection();
+		return (connection != null) ? connection.prepareStatement(sql, autoGeneratedKeys) : super.prepareStatement(sql, autoGeneratedKeys);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(final String sql, final int[] columnIndexes) throws SQLException {
+		Connection connection = this.routedConnection();
+		return (connection != null) ? connection.prepareStatement(sql, columnIndexes) : super.prepareStatement(sql, columnIndexes);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(final String sql, final String[] columnNames) throws SQLException {
+		Connection connection = this.routedConnection();
+		return (connection != null) ? connection.prepareStatement(sql, columnNames) : super.prepareStatement(sql, columnNames);
+	}
+
+}
@@ -1,37 +1,296 @@
 package jdbcwrapper.txmonitoring;
 
+import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import jdbcwrapper.WrappedConnection;
+import jdbcwrapper.batch.MultiRowInsert;
+import jdbcwrapper.batch.MultiRowInsertPreparedStatement;
+import jdbcwrapper.cache.PreparedStatementCache;
+import jdbcwrapper.cache.StatementCacheKey;
+import jdbcwrapper.measurement.AdaptiveFetchSize;
+import jdbcwrapper.measurement.ConnectionMetrics;
+import jdbcwrapper.measurement.MeasuredStatement;
 import jdbcwrapper.measurement.MeasuringConnection;
 import jdbcwrapper.measurement.MeasuringPreparedStatement;
 import jdbcwrapper.measurement.MeasuringStatement;
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.measurement.QueryStatisticsTable;
+import jdbcwrapper.measurement.SlowQueryLog;
+import jdbcwrapper.measurement.StatementKind;
+import jdbcwrapper.measurement.StatementMetrics;
+import jdbcwrapper.measurement.TransactionMetrics;
+import jdbcwrapper.measurement.WriteCoalescer;
+import jdbcwrapper.resultcache.ResultCache;
+import jdbcwrapper.resultcache.TableReferences;
+import jdbcwrapper.routing.RoutingConnection;
+import jdbcwrapper.util.DriverMetadata;
+import jdbcwrapper.watchdog.StatementWatchdog;
 
 public abstract class AbstractTxMonitoringConnection<L extends TransactionListener> extends WrappedConnection<L> implements MeasuringConnection, TxMonitoringConnection {
 
+	private static final String STATISTICS_SIZE_PROPERTY = "statistics.size";
+	
+	private static final int DEFAULT_STATISTICS_SIZE = 1000;
+	
+	private static final String STATEMENT_CACHE_SIZE_PROPERTY = "statement.cache.size";
+	
+	private static final int DEFAULT_STATEMENT_CACHE_SIZE = 0;
+	
+	private static final String WRITE_COALESCING_BATCH_SIZE_PROPERTY = "write.coalescing.batch.size";
+	
+	private static final int DEFAULT_WRITE_COALESCING_BATCH_SIZE = 0;
+	
+	private static final String WRITE_COALESCING_UPDATE_COUNT_PROPERTY = "write.coalescing.update.count";
+	
+	private static final int DEFAULT_WRITE_COALESCING_UPDATE_COUNT = 1;
+	
+	private static final String INSERT_REWRITE_SIZE_PROPERTY = "batch.insert.rewrite.size";
+	
+	private static final int DEFAULT_INSERT_REWRITE_SIZE = 0;
+	
+	private static final String ADAPTIVE_FETCH_SIZE_PROPERTY = "fetch.size.adaptive";
+	
+	private static final String ADAPTIVE_FETCH_SIZE_MIN_PROPERTY = "fetch.size.adaptive.min";
+	
+	private static final int DEFAULT_ADAPTIVE_FETCH_SIZE_MIN = 10;
+	
+	private static final String ADAPTIVE_FETCH_SIZE_MAX_PROPERTY = "fetch.size.adaptive.max";
+	
+	private static final int DEFAULT_ADAPTIVE_FETCH_SIZE_MAX = 1000;
+	
+	private static final String SLOW_QUERY_THRESHOLD_PROPERTY = "slow.query.threshold.millis";
+	
+	private static final long DEFAULT_SLOW_QUERY_THRESHOLD = 0;
+	
+	private static final String SLOW_QUERY_PARAMETERS_PROPERTY = "slow.query.parameters";
+	
+	private static final String REPEATED_QUERY_THRESHOLD_PROPERTY = "repeated.query.threshold";
+	
+	private static final int DEFAULT_REPEATED_QUERY_THRESHOLD = 0;
+	
+	private static final String REPEATED_QUERY_FINGERPRINTS_PROPERTY = "repeated.query.fingerprints";
+	
+	private static final int DEFAULT_REPEATED_QUERY_FINGERPRINTS = 64;
+	
+	private static final Logger LOGGER = Logger.getLogger(AbstractTxMonitoringConnection.class.getName());
+	
+	private final DriverMetadata metadata;
+	
+	private final ConnectionMetrics connectionMetrics;
+	
+	private final StatementMetrics statementMetrics;
+	
+	private final TransactionMetrics transactionMetrics;
+	
+	// Per-fingerprint statistics, null if disabled
+	private final QueryStatisticsTable queryStatistics;
+	
+	// Log for slow statements, null if disabled
+	private final SlowQueryLog slowQueryLog;
+	
+	// Watchdog cancelling statements that exceed their execution budget, null if there are no budgets
+	private final StatementWatchdog statementWatchdog;
+	
+	// Set if the delegate routes the statements of read-only connections to replicas
+	private final boolean routingDelegate;
+	
+	private boolean readOnly;
+	
+	// True if prepared statements capture their parameters for the slow query log
+	private final boolean loggingParameters;
+	
+	// Result cache shared by the connections of the type, null if disabled
+	private final ResultCache resultCache;
+	
+	// Writes of the current transaction that affect cached results, null if the cache is disabled.
+	// Until the transaction ends, the connection neither reads nor stores results of the tables
+	// written, as its view of them differs from the committed state.
+	private final Set<TableReferences> transactionWrites;
+	
+	// Fetch sizes learned from the query statistics, null if disabled
+	private final AdaptiveFetchSize adaptiveFetchSize;
+	
+	// Cache of prepared statements, null if disabled
+	private final PreparedStatementCache statementCache;
+	
+	// Defers repeated updates into batches, null if disabled
+	private final WriteCoalescer writeCoalescer;
+	
+	// Maximum number of rows per rewritten insert, rewriting is disabled if this is at most 1
+	private final int insertRewriteSize;
+	
+	// Detector for queries repeated within a transaction (N+1 queries), null if disabled
+	private final RepeatedQueryDetector repeatedQueryDetector;
+	
+	// Dispatcher for asynchronous listener notification, null if listeners are notified synchronously
+	private final TransactionEventDispatcher eventDispatcher;
+	
+	// True while auto-commit is disabled, i.e., statements run in explicit transactions. New
+	// connections are in auto-commit mode as required by JDBC.
+	private boolean explicitTransactions;
+	
+	// True while the listeners are notified about the end of a transaction
+	private boolean endingTransaction;
+	
+	// True once the connection is closed, so that repeated closes are not counted
+	private boolean closed;
+	
+	// Event for the current transaction, reused for all transactions of this connection
+	private final TransactionEvent transactionEvent = new TransactionEvent(this);
+	
 	public AbstractTxMonitoringConnection(final Connection wrappedConnection, final List<L> listeners) {
+		this(wrappedConnection, listeners, null);
+	}
+	
+	public AbstractTxMonitoringConnection(final Connection wrappedConnection, final List<L> listeners, final DriverMetadata metadata) {
 		super(wrappedConnection, listeners);
+		
+		DriverMetadata actualMetadata = (metadata == null) ? DriverMetadata.defaults(MetricsRegistry.DEFAULT_TYPE) : metadata;
+		String typeName = actualMetadata.typeName;
+		this.metadata = actualMetadata;
+		
+		// Connections of the same type share their metrics
+		this.connectionMetrics = MetricsRegistry.getConnectionMetrics(typeName);
+		this.statementMetrics = MetricsRegistry.getStatementMetrics(typeName);
+		this.transactionMetrics = MetricsRegistry.getTransactionMetrics(typeName);
+		
+		int statisticsSize = actualMetadata.getIntProperty(STATISTICS_SIZE_PROPERTY, DEFAULT_STATISTICS_SIZE);
+		this.queryStatistics = (statisticsSize > 0) ? MetricsRegistry.getQueryStatistics(typeName, statisticsSize) : null;
+		
+		long slowQueryThreshold = actualMetadata.getLongProperty(SLOW_QUERY_THRESHOLD_PROPERTY, DEFAULT_SLOW_QUERY_THRESHOLD);
+		this.loggingParameters = (slowQueryThreshold > 0 && actualMetadata.getBooleanProperty(SLOW_QUERY_PARAMETERS_PROPERTY, false));
+		this.slowQueryLog = (slowQueryThreshold > 0) ?
+				new SlowQueryLog(TimeUnit.MILLISECONDS.toNanos(slowQueryThreshold), this.loggingParameters, this.statementMetrics) : null;
+		
+		this.resultCache = ResultCache.forMetadata(actualMetadata);
+		this.transactionWrites = (this.resultCache != null) ? new HashSet<>() : null;
+		
+		this.adaptiveFetchSize = createAdaptiveFetchSize(actualMetadata, this.queryStatistics);
+		
+		int statementCacheSize = actualMetadata.getIntProperty(STATEMENT_CACHE_SIZE_PROPERTY, DEFAULT_STATEMENT_CACHE_SIZE);
+		this.statementCache = (statementCacheSize > 0) ?
+				new PreparedStatementCache(statementCacheSize, MetricsRegistry.getStatementCacheMetrics(typeName)) : null;
+		
+		int writeCoalescingBatchSize = actualMetadata.getIntProperty(WRITE_COALESCING_BATCH_SIZE_PROPERTY, DEFAULT_WRITE_COALESCING_BATCH_SIZE);
+		int writeCoalescingUpdateCount = actualMetadata.getIntProperty(WRITE_COALESCING_UPDATE_COUNT_PROPERTY, DEFAULT_WRITE_COALESCING_UPDATE_COUNT);
+		this.writeCoalescer = (writeCoalescingBatchSize > 1) ?
+				new WriteCoalescer(writeCoalescingBatchSize, writeCoalescingUpdateCount, this.statementMetrics) : null;
+		
+		this.insertRewriteSize = actualMetadata.getIntProperty(INSERT_REWRITE_SIZE_PROPERTY, DEFAULT_INSERT_REWRITE_SIZE);
+		int repeatedQueryThreshold = actualMetadata.getIntProperty(REPEATED_QUERY_THRESHOLD_PROPERTY, DEFAULT_REPEATED_QUERY_THRESHOLD);
+		int repeatedQueryFingerprints = actualMetadata.getIntProperty(REPEATED_QUERY_FINGERPRINTS_PROPERTY, DEFAULT_REPEATED_QUERY_FINGERPRINTS);
+		this.repeatedQueryDetector = (repeatedQueryThreshold > 0 && repeatedQueryFingerprints > 0) ?
+				new RepeatedQueryDetector(repeatedQueryThreshold, repeatedQueryFingerprints) : null;
+		
+		this.eventDispatcher = (this.getConnectionListeners().isEmpty()) ? null : TransactionEventDispatcher.forMetadata(actualMetadata);
+		this.statementWatchdog = StatementWatchdog.forMetadata(actualMetadata);
+		this.routingDelegate = (wrappedConnection instanceof RoutingConnection);
+		
+		this.connectionMetrics.recordOpen();
+	}
+
+	private static AdaptiveFetchSize createAdaptiveFetchSize(final DriverMetadata metadata, final QueryStatisticsTable queryStatistics) {
+		if (!metadata.getBooleanProperty(ADAPTIVE_FETCH_SIZE_PROPERTY, false)) {
+			return null;
+		}
+		
+		if (queryStatistics == null) {
+			LOGGER.log(Level.WARNING, () -> "Adaptive fetch sizes require query statistics, disabled for " + metadata.typeName + ".");
+			return null;
+		}
+		
+		int minFetchSize = metadata.getIntProperty(ADAPTIVE_FETCH_SIZE_MIN_PROPERTY, DEFAULT_ADAPTIVE_FETCH_SIZE_MIN);
+		int maxFetchSize = metadata.getIntProperty(ADAPTIVE_FETCH_SIZE_MAX_PROPERTY, DEFAULT_ADAPTIVE_FETCH_SIZE_MAX);
+		return MetricsRegistry.getAdaptiveFetchSize(metadata.typeName, queryStatistics, minFetchSize, maxFetchSize);
 	}
 
 	@Override
-	public void setAutoCommit(final boolean enable) throws SQLException {
-		super.setAutoCommit(enable);
+	public void setReadOnly(final boolean readOnly) throws SQLException {
+		super.setReadOnly(readOnly);
+		this.readOnly = readOnly;
+	}
 
+	@Override
+	public void setAutoCommit(final boolean enable) throws SQLException {
 		if (!enable) {
+			if (this.explicitTransactions) {
+				// Auto-commit is already disabled, so the current transaction simply continues
+				return;
+			}
+			
+			super.setAutoCommit(false);
+			
+			this.explicitTransactions = true;
+			if (this.writeCoalescer != null) {
+				this.writeCoalescer.setActive(true);
+			}
+
+			this.onTransactionBoundary();
 			this.onTransactionStart();
+		} else if (this.explicitTransactions) {
+			// Enabling auto-commit commits the current transaction, if any
+			long completionStartTime = System.nanoTime();
+			SQLException failure = null;
+			
+			try {
+				this.flushPendingWrites();
+				this.beforeCommit();
+				super.setAutoCommit(true);
+			} catch (SQLException e) {
+				failure = e;
+				throw e;
+			} finally {
+				this.explicitTransactions = (failure != null);
+				if (this.writeCoalescer != null) {
+					this.writeCoalescer.setActive(this.explicitTransactions);
+				}
+				
+				this.endTransaction(true, completionStartTime, failure);
+			}
+		} else {
+			super.setAutoCommit(true);
 		}
 	}
+	
+	// Returns whether statements currently run in an explicit transaction (i.e., auto-commit is disabled)
+	protected boolean isInExplicitTransaction() {
+		return this.explicitTransactions;
+	}
+	
+	// Called whenever a transaction ends or auto-commit is switched, so that subclasses can discard
+	// per-transaction state
+	protected void onTransactionBoundary() {
+		// Do nothing by default
+	}
+	
+	// Called right before the current transaction is committed, after the deferred writes have been
+	// executed. Not called for rollbacks.
+	protected void beforeCommit() throws SQLException {
+		// Do nothing by default
+	}
+	
+	// Creates a statement on the wrapped connection that is not measured, e.g., for monitoring queries
+	protected Statement createUnmeasuredStatement() throws SQLException {
+		return super.createStatement();
+	}
 
 	protected Statement wrapStatement(final Statement statement) {
 		return new MeasuringStatement(statement, this);
 	}
 
-	protected PreparedStatement wrapPreparedStatement(final PreparedStatement statement) {
-		return new MeasuringPreparedStatement(statement, this);
+	protected PreparedStatement wrapPreparedStatement(final PreparedStatement statement, final String sql) {
+		return new MeasuringPreparedStatement(statement, sql, this);
 	}
 
 	@Override
@@ -52,65 +311,537 @@ public abstract class AbstractTxMonitoringConnection<L extends TransactionListen
 
 	@Override
 	public PreparedStatement prepareStatement(final String sql) throws SQLException {
-		return this.wrapPreparedStatement(super.prepareStatement(sql));
+		if (this.statementCache == null) {
+			return this.wrapPreparedStatement(this.rewriteInserts(super.prepareStatement(sql), sql), sql);
+		}
+		
+		StatementCacheKey key = this.routed(StatementCacheKey.forSql(sql));
+		PreparedStatement statement = this.statementCache.checkOut(key);
+		PreparedStatement cachedStatement = this.statementCache.track(key, (statement != null) ? statement : super.prepareStatement(sql));
+		return this.wrapPreparedStatement(this.rewriteInserts(cachedStatement, sql), sql);
+	}
+	
+	// Wraps the statement so that its batches are executed as multi-row inserts, if enabled and applicable
+	private PreparedStatement rewriteInserts(final PreparedStatement statement, final String sql) {
+		if (this.insertRewriteSize <= 1) {
+			return statement;
+		}
+		
+		MultiRowInsert insert = MultiRowInsert.parse(sql);
+		return (insert == null) ? statement : new MultiRowInsertPreparedStatement(statement, insert, this.insertRewriteSize, this::prepareChunkStatement);
+	}
+	
+	// Prepares a statement for a chunk of a rewritten batch. It is not measured, as the batch is, but
+	// cached like the statements of the application, since the same chunk sizes recur.
+	private PreparedStatement prepareChunkStatement(final String sql) throws SQLException {
+		if (this.statementCache == null) {
+			return super.prepareStatement(sql);
+		}
+		
+		StatementCacheKey key = this.routed(StatementCacheKey.forSql(sql));
+		PreparedStatement statement = this.statementCache.checkOut(key);
+		return this.statementCache.track(key, (statement != null) ? statement : super.prepareStatement(sql));
 	}
 
 	@Override
 	public PreparedStatement prepareStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
-		return this.wrapPreparedStatement(super.prepareStatement(sql, autoGeneratedKeys));
+		if (this.statementCache == null) {
+			return this.wrapPreparedStatement(super.prepareStatement(sql, autoGeneratedKeys), sql);
+		}
+		
+		StatementCacheKey key = this.routed(StatementCacheKey.forGeneratedKeys(sql, autoGeneratedKeys));
+		PreparedStatement statement = this.statementCache.checkOut(key);
+		return this.wrapCachedStatement(key, (statement != null) ? statement : super.prepareStatement(sql, autoGeneratedKeys));
 	}
 
 	@Override
 	public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency)
 			throws SQLException {
-		return this.wrapPreparedStatement(super.prepareStatement(sql, resultSetType, resultSetConcurrency));
+		if (this.statementCache == null) {
+			return this.wrapPreparedStatement(super.prepareStatement(sql, resultSetType, resultSetConcurrency), sql);
+		}
+		
+		StatementCacheKey key = this.routed(StatementCacheKey.forResultSetType(sql, resultSetType, resultSetConcurrency));
+		PreparedStatement statement = this.statementCache.checkOut(key);
+		return this.wrapCachedStatement(key, (statement != null) ? statement : super.prepareStatement(sql, resultSetType, resultSetConcurrency));
 	}
 
 	@Override
 	public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency,
 			final int resultSetHoldability) throws SQLException {
-		return this.wrapPreparedStatement(
-				super.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+		if (this.statementCache == null) {
+			return this.wrapPreparedStatement(super.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability), sql);
+		}
+		
+		StatementCacheKey key = this.routed(StatementCacheKey.forResultSetType(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+		PreparedStatement statement = this.statementCache.checkOut(key);
+		return this.wrapCachedStatement(key,
+				(statement != null) ? statement : super.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
 	}
 
 	@Override
 	public PreparedStatement prepareStatement(final String sql, final int[] columnIndexes) throws SQLException {
-		return this.wrapPreparedStatement(super.prepareStatement(sql, columnIndexes));
+		if (this.statementCache == null) {
+			return this.wrapPreparedStatement(super.prepareStatement(sql, columnIndexes), sql);
+		}
+		
+		StatementCacheKey key = this.routed(StatementCacheKey.forColumnIndexes(sql, columnIndexes));
+		PreparedStatement statement = this.statementCache.checkOut(key);
+		return this.wrapCachedStatement(key, (statement != null) ? statement : super.prepareStatement(sql, columnIndexes));
 	}
 
 	@Override
 	public PreparedStatement prepareStatement(final String sql, final String[] columnNames) throws SQLException {
-		return this.wrapPreparedStatement(super.prepareStatement(sql, columnNames));
+		if (this.statementCache == null) {
+			return this.wrapPreparedStatement(super.prepareStatement(sql, columnNames), sql);
+		}
+		
+		StatementCacheKey key = this.routed(StatementCacheKey.forColumnNames(sql, columnNames));
+		PreparedStatement statement = this.statementCache.checkOut(key);
+		return this.wrapCachedStatement(key, (statement != null) ? statement : super.prepareStatement(sql, columnNames));
+	}
+	
+	// Keeps statements prepared on a replica apart from those prepared on the primary
+	private StatementCacheKey routed(final StatementCacheKey key) {
+		return (this.routingDelegate && this.readOnly) ? key.forReplica() : key;
+	}
+	
+	private PreparedStatement wrapCachedStatement(final StatementCacheKey key, final PreparedStatement statement) {
+		return this.wrapPreparedStatement(this.statementCache.track(key, statement), key.getSql());
+	}
+	
+	@Override
+	public CallableStatement prepareCall(final String sql) throws SQLException {
+		// Callable statements are not wrapped, so deferred writes must be executed beforehand
+		this.flushPendingWrites();
+		return super.prepareCall(sql);
+	}
+	
+	@Override
+	public CallableStatement prepareCall(final String sql, final int resultSetType, final int resultSetConcurrency) throws SQLException {
+		this.flushPendingWrites();
+		return super.prepareCall(sql, resultSetType, resultSetConcurrency);
+	}
+	
+	@Override
+	public CallableStatement prepareCall(final String sql, final int resultSetType, final int resultSetConcurrency,
+			final int resultSetHoldability) throws SQLException {
+		this.flushPendingWrites();
+		return super.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+	}
+	
+	@Override
+	public Savepoint setSavepoint() throws SQLException {
+		this.flushPendingWrites();
+		return super.setSavepoint();
+	}
+	
+	@Override
+	public Savepoint setSavepoint(final String name) throws SQLException {
+		this.flushPendingWrites();
+		return super.setSavepoint(name);
+	}
+	
+	@Override
+	public void rollback(final Savepoint savepoint) throws SQLException {
+		// Since setting a savepoint flushes, all deferred writes were issued after the savepoint
+		this.discardPendingWrites();
+		super.rollback(savepoint);
+	}
+	
+	@Override
+	public void releaseSavepoint(final Savepoint savepoint) throws SQLException {
+		this.flushPendingWrites();
+		super.releaseSavepoint(savepoint);
+	}
+	
+	private void flushPendingWrites() throws SQLException {
+		if (this.writeCoalescer != null) {
+			this.writeCoalescer.flush();
+		}
+	}
+	
+	private void discardPendingWrites() throws SQLException {
+		if (this.writeCoalescer != null) {
+			this.writeCoalescer.discard();
+		}
+	}
+	
+	@Override
+	public ResultCache getResultCache(final String sql) throws SQLException {
+		if (this.resultCache == null) {
+			return null;
+		}
+		
+		// Deferred writes may invalidate results
+		this.flushPendingWrites();
+		
+		TableReferences query = this.resultCache.analyze(sql);
+		if (!this.resultCache.isCacheable(query)) {
+			return null;
+		}
+		
+		for (TableReferences write : this.transactionWrites) {
+			if (query.isAffectedBy(write)) {
+				return null;
+			}
+		}
+		
+		return this.resultCache;
+	}
+	
+	// Invalidates the cached results that may be changed by the given statement
+	private void invalidateResults(final Statement statement) {
+		String sql = (statement instanceof MeasuredStatement) ? ((MeasuredStatement) statement).getSql() : null;
+		
+		// Batches of plain statements have no SQL and may write any table
+		TableReferences write = this.resultCache.analyze(sql);
+		if (!this.resultCache.isInvalidatedBy(write)) {
+			return;
+		}
+		
+		this.resultCache.invalidate(write);
+		
+		if (this.explicitTransactions) {
+			this.transactionWrites.add(write);
+		}
+	}
+	
+	// Invalidates the results written by the ended transaction again, as other connections may have
+	// cached results between the writes and the commit
+	private void endTransactionWrites(final boolean commit) {
+		if (this.transactionWrites == null || this.transactionWrites.isEmpty()) {
+			return;
+		}
+		
+		if (commit) {
+			for (TableReferences write : this.transactionWrites) {
+				this.resultCache.invalidate(write);
+			}
+		}
+		
+		this.transactionWrites.clear();
+	}
+	
+	@Override
+	public WriteCoalescer getWriteCoalescer() {
+		return this.writeCoalescer;
+	}
+	
+	@Override
+	public void closeWrappedConnection() throws SQLException {
+		// Closing a connection without commit discards the transaction
+		this.discardPendingWrites();
+		
+		if (this.statementCache != null) {
+			this.statementCache.close();
+		}
+		
+		super.closeWrappedConnection();
+		
+		if (!this.closed) {
+			this.closed = true;
+			this.connectionMetrics.recordClose();
+		}
+	}
+	
+	@Override
+	public void resetState() throws SQLException {
+		// Like closing, returning a connection to its pool discards the transaction without notifying
+		// the listeners. Cached statements are kept for the next user.
+		this.discardPendingWrites();
+		
+		this.explicitTransactions = false;
+		if (this.writeCoalescer != null) {
+			this.writeCoalescer.setActive(false);
+		}
+		
+		if (this.transactionWrites != null) {
+			this.transactionWrites.clear();
+		}
+		
+		if (this.repeatedQueryDetector != null) {
+			this.repeatedQueryDetector.clear();
+		}
+		
+		this.transactionEvent.reset();
+		this.onTransactionBoundary();
+		
+		super.resetState();
+	}
+	
+	// Returns the metadata of the connection's type
+	public DriverMetadata getDriverMetadata() {
+		return this.metadata;
+	}
+	
+	public AdaptiveFetchSize getAdaptiveFetchSize() {
+		return this.adaptiveFetchSize;
+	}
+	
+	// Returns the prepared statement cache of this connection, null if caching is disabled
+	public PreparedStatementCache getStatementCache() {
+		return this.statementCache;
 	}
 
 	@Override
 	public void commit() throws SQLException {
-		this.onTransactionEnd(true);
-		super.commit();
+		long completionStartTime = System.nanoTime();
+		SQLException failure = null;
+		
+		try {
+			this.flushPendingWrites();
+			this.beforeCommit();
+			super.commit();
+		} catch (SQLException e) {
+			failure = e;
+			throw e;
+		} finally {
+			this.endTransaction(true, completionStartTime, failure);
+		}
 	}
 
 	@Override
 	public void rollback() throws SQLException {
-		this.onTransactionEnd(false);
-		super.rollback();
+		long completionStartTime = System.nanoTime();
+		SQLException failure = null;
+		
+		try {
+			this.discardPendingWrites();
+			super.rollback();
+		} catch (SQLException e) {
+			failure = e;
+			throw e;
+		} finally {
+			this.endTransaction(false, completionStartTime, failure);
+		}
+	}
+	
+	// Returns whether the listeners are currently being notified about the end of a transaction, i.e.,
+	// the transaction has already been committed or rolled back
+	protected boolean isEndingTransaction() {
+		return this.endingTransaction;
 	}
 
 	protected void onTransactionStart() {
-		this.notifyConnectionListeners(listener -> listener.onTransactionStart(this));
+		this.transactionEvent.reset();
+		this.transactionEvent.start(System.nanoTime());
+		this.transactionMetrics.recordStart();
+		
+		List<L> listeners = this.getConnectionListeners();
+		if (listeners.isEmpty()) {
+			return;
+		}
+		
+		if (this.eventDispatcher != null) {
+			this.eventDispatcher.publishStart(this, listeners);
+			return;
+		}
+		
+		// Indexed loop, so that no iterator is allocated
+		for (int listenerIndex = 0; listenerIndex < listeners.size(); listenerIndex++) {
+			L listener = listeners.get(listenerIndex);
+			
+			try {
+				listener.onTransactionStart(this);
+			} catch (RuntimeException e) {
+				this.onListenerError(listener, e);
+			}
+		}
+	}
+	
+	private void endTransaction(final boolean commit, final long completionStartTime, final SQLException failure) {
+		TransactionEvent event = this.transactionEvent;
+		if (!event.isStarted()) {
+			// After a commit or rollback, no transaction is open until the next statement, so there
+			// is nothing to report
+			this.onTransactionBoundary();
+			return;
+		}
+		
+		long endTime = System.nanoTime();
+		
+		TransactionOutcome outcome;
+		if (commit) {
+			outcome = (failure == null) ? TransactionOutcome.COMMITTED : TransactionOutcome.COMMIT_FAILED;
+		} else {
+			outcome = (failure == null) ? TransactionOutcome.ROLLED_BACK : TransactionOutcome.ROLLBACK_FAILED;
+		}
+		
+		event.end(outcome, completionStartTime, endTime, failure);
+		
+		if (commit) {
+			this.transactionMetrics.recordCommit(event.getCompletionLatency(), event.getDuration(), (failure == null));
+		} else {
+			this.transactionMetrics.recordRollback(event.getCompletionLatency(), event.getDuration(), (failure == null));
+		}
+		
+		this.endTransactionWrites(commit);
+		
+		this.endingTransaction = true;
+		try {
+			this.reportRepeatedQueries();
+			this.onTransactionEnd(event);
+		} finally {
+			this.endingTransaction = false;
+			
+			// The next transaction starts with its first statement
+			event.reset();
+			this.onTransactionBoundary();
+		}
+	}
+	
+	private void reportRepeatedQueries() {
+		RepeatedQueryDetector detector = this.repeatedQueryDetector;
+		if (detector == null) {
+			return;
+		}
+		
+		try {
+			List<L> listeners = this.getConnectionListeners();
+			
+			for (int index = 0; index < detector.size(); index++) {
+				if (!detector.isRepeated(index)) {
+					continue;
+				}
+				
+				this.transactionMetrics.recordRepeatedQuery();
+				
+				String fingerprint = detector.getFingerprint(index);
+				int executionCount = detector.getExecutionCount(index);
+				long totalTime = detector.getTotalTime(index);
+				
+				for (int listenerIndex = 0; listenerIndex < listeners.size(); listenerIndex++) {
+					L listener = listeners.get(listenerIndex);
+					
+					try {
+						listener.onRepeatedQuery(this, fingerprint, executionCount, totalTime);
+					} catch (RuntimeException e) {
+						this.onListenerError(listener, e);
+					}
+				}
+			}
+		} finally {
+			detector.clear();
+		}
 	}
 
-	protected void onTransactionEnd(final boolean success) {
-		this.notifyConnectionListeners(listener -> listener.onTransactionEnd(this, success));
+	protected void onTransactionEnd(final TransactionEvent event) {
+		List<L> listeners = this.getConnectionListeners();
+		if (listeners.isEmpty()) {
+			return;
+		}
+		
+		// Capture the id while the connection is still associated with the ended transaction
+		event.setTransactionId(this.getTransactionId());
+		
+		if (this.eventDispatcher != null) {
+			this.eventDispatcher.publishEnd(event, listeners);
+			return;
+		}
+		
+		for (int listenerIndex = 0; listenerIndex < listeners.size(); listenerIndex++) {
+			L listener = listeners.get(listenerIndex);
+			
+			try {
+				listener.onTransactionEnd(event);
+			} catch (RuntimeException e) {
+				this.onListenerError(listener, e);
+			}
+		}
+	}
+	
+	private void onListenerError(final L listener, final RuntimeException exception) {
+		this.transactionMetrics.recordListenerError();
+		LOGGER.log(Level.WARNING, exception, () -> "Error in transaction listener " + listener + ".");
 	}
 
 	@Override
 	public void onStatementStart(final Statement statement) {
-		// Do nothing by default
+		// In explicit transactions, a transaction implicitly starts with the first statement
+		// after a commit or rollback
+		if (this.explicitTransactions && !this.transactionEvent.isStarted()) {
+			this.onTransactionStart();
+		}
 	}
 
 	@Override
-	public void onStatementEnd(final Statement statement) {
-		// Do nothing by default
+	public void onStatementEnd(final Statement statement, final StatementKind kind, final long durationNanos) {
+		this.statementMetrics.record(kind, durationNanos);
+		
+		if (this.slowQueryLog != null) {
+			this.slowQueryLog.record(statement, kind, durationNanos);
+		}
+		
+		if (this.resultCache != null && kind != StatementKind.QUERY) {
+			this.invalidateResults(statement);
+		}
+		
+		if (this.repeatedQueryDetector != null && this.explicitTransactions && kind == StatementKind.QUERY &&
+				statement instanceof MeasuredStatement) {
+			String fingerprint = ((MeasuredStatement) statement).getFingerprint();
+			
+			if (fingerprint != null) {
+				this.repeatedQueryDetector.record(fingerprint, durationNanos);
+			}
+		}
+		
+		// The statistics describe the executions on the database, which cache hits do not reach
+		if (this.queryStatistics != null && statement instanceof MeasuredStatement && !((MeasuredStatement) statement).isResultCached()) {
+			MeasuredStatement measuredStatement = (MeasuredStatement) statement;
+			String fingerprint = measuredStatement.getFingerprint();
+			
+			if (fingerprint != null) {
+				this.queryStatistics.recordExecution(fingerprint, durationNanos, measuredStatement.getRowsAffected());
+			}
+		}
+	}
+	
+	@Override
+	public boolean isCapturingParameters(final String sql) {
+		if (this.loggingParameters) {
+			return true;
+		}
+		
+		// The result cache identifies results by the parameters, which is only needed for cacheable queries
+		return (this.resultCache != null && sql != null && this.resultCache.isCacheable(this.resultCache.analyze(sql)));
+	}
+	
+	@Override
+	public int getAdvisedFetchSize(final MeasuredStatement statement) {
+		if (this.adaptiveFetchSize == null) {
+			return AdaptiveFetchSize.NO_FETCH_SIZE;
+		}
+		
+		String fingerprint = statement.getFingerprint();
+		return (fingerprint == null) ? AdaptiveFetchSize.NO_FETCH_SIZE : this.adaptiveFetchSize.getFetchSize(fingerprint);
+	}
+	
+	@Override
+	public StatementWatchdog getStatementWatchdog() {
+		return this.statementWatchdog;
+	}
+	
+	@Override
+	public void onResultSetEnd(final Statement statement, final long rowCount, final long firstRowNanos, final long fetchNanos,
+			final long fetchCount) {
+		this.statementMetrics.recordResultSet(rowCount, firstRowNanos, fetchNanos, fetchCount);
+		
+		if (this.queryStatistics != null && statement instanceof MeasuredStatement) {
+			String fingerprint = ((MeasuredStatement) statement).getFingerprint();
+			
+			if (fingerprint != null) {
+				this.queryStatistics.recordResultSet(fingerprint, rowCount, fetchNanos, fetchCount);
+			}
+		}
+	}
+	
+	protected StatementMetrics getStatementMetrics() {
+		return this.statementMetrics;
+	}
+	
+	protected TransactionMetrics getTransactionMetrics() {
+		return this.transactionMetrics;
 	}
 	
 }
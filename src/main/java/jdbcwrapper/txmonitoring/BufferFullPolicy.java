@@ -0,0 +1,38 @@
+package jdbcwrapper.txmonitoring;
+
+public enum BufferFullPolicy {
+	
+	// Discard the event, the caller is never delayed
+	DROP("drop"),
+	
+	// Wait until the dispatcher has made room for the event
+	BLOCK("block"),
+	
+	// Wait for every n-th event, drop the others, so that a sample of the events is still delivered
+	// while the dispatcher cannot keep up
+	SAMPLE("sample");
+	
+	private final String propertyValue;
+	
+	private BufferFullPolicy(final String propertyValue) {
+		this.propertyValue = propertyValue;
+	}
+	
+	public String getPropertyValue() {
+		return this.propertyValue;
+	}
+	
+	// Returns the policy for the given property value (case-insensitive), or null if there is no such policy
+	public static BufferFullPolicy fromPropertyValue(final String value) {
+		String normalizedValue = value.trim();
+		
+		for (BufferFullPolicy policy : values()) {
+			if (policy.propertyValue.equalsIgnoreCase(normalizedValue)) {
+				return policy;
+			}
+		}
+		
+		return null;
+	}
+
+}
@@ -0,0 +1,102 @@
+package jdbcwrapper.txmonitoring;
+
+// Counts the executions of query fingerprints within a transaction to detect N+1 query patterns, i.e.,
+// the same query being executed for each row of a previous result. Memory is bounded: at most
+// maxFingerprints distinct fingerprints are tracked per transaction, further ones are ignored. The
+// table uses open addressing and is cleared in time proportional to the tracked fingerprints.
+class RepeatedQueryDetector {
+	
+	private final int threshold;
+	
+	private final int maxFingerprints;
+	
+	private final String[] fingerprints;
+	
+	private final int[] executionCounts;
+	
+	private final long[] totalTimes;
+	
+	// Slots in use, in insertion order
+	private final int[] usedSlots;
+	
+	private int size;
+	
+	public RepeatedQueryDetector(final int threshold, final int maxFingerprints) {
+		// Keep the load factor at or below 0.5
+		int capacity = Integer.highestOneBit(Math.max(2, maxFingerprints) * 2 - 1) << 1;
+		
+		this.threshold = threshold;
+		this.maxFingerprints = maxFingerprints;
+		this.fingerprints = new String[capacity];
+		this.executionCounts = new int[capacity];
+		this.totalTimes = new long[capacity];
+		this.usedSlots = new int[maxFingerprints];
+	}
+	
+	public int getThreshold() {
+		return this.threshold;
+	}
+	
+	public void record(final String fingerprint, final long durationNanos) {
+		int mask = this.fingerprints.length - 1;
+		int hash = fingerprint.hashCode();
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		
+		while (true) {
+			String existingFingerprint = this.fingerprints[slot];
+			
+			if (existingFingerprint == null) {
+				if (this.size >= this.maxFingerprints) {
+					// Table is full, ignore new fingerprints for the rest of the transaction
+					return;
+				}
+				
+				this.fingerprints[slot] = fingerprint;
+				this.executionCounts[slot] = 1;
+				this.totalTimes[slot] = durationNanos;
+				this.usedSlots[this.size++] = slot;
+				return;
+			}
+			
+			if (existingFingerprint == fingerprint || existingFingerprint.equals(fingerprint)) {
+				this.executionCounts[slot]++;
+				this.totalTimes[slot] += durationNanos;
+				return;
+			}
+			
+			slot = (slot + 1) & mask;
+		}
+	}
+	
+	// Number of fingerprints tracked in the current transaction
+	public int size() {
+		return this.size;
+	}
+	
+	// The following accessors take an index between 0 and size() - 1
+	
+	public boolean isRepeated(final int index) {
+		return (this.executionCounts[this.usedSlots[index]] > this.threshold);
+	}
+	
+	public String getFingerprint(final int index) {
+		return this.fingerprints[this.usedSlots[index]];
+	}
+	
+	public int getExecutionCount(final int index) {
+		return this.executionCounts[this.usedSlots[index]];
+	}
+	
+	public long getTotalTime(final int index) {
+		return this.totalTimes[this.usedSlots[index]];
+	}
+	
+	public void clear() {
+		for (int index = 0; index < this.size; index++) {
+			this.fingerprints[this.usedSlots[index]] = null;
+		}
+		
+		this.size = 0;
+	}
+
+}
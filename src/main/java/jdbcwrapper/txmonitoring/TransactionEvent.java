@@ -0,0 +1,121 @@
+package jdbcwrapper.txmonitoring;
+
+import java.sql.SQLException;
+
+// Describes a completed transaction. Each connection reuses a single event object, so listeners
+// must not keep a reference to it beyond the notification; use copyFrom to retain the data.
+public class TransactionEvent {
+	
+	// Marker for unknown timestamps
+	public static final long UNKNOWN_TIME = Long.MIN_VALUE;
+	
+	private TxMonitoringConnection connection;
+	
+	private int transactionId;
+	
+	private TransactionOutcome outcome;
+	
+	// Timestamps as given by System.nanoTime()
+	private long startTime = UNKNOWN_TIME;
+	
+	private long completionStartTime = UNKNOWN_TIME;
+	
+	private long endTime = UNKNOWN_TIME;
+	
+	private SQLException failure;
+	
+	public TransactionEvent() {
+		this(null);
+	}
+	
+	public TransactionEvent(final TxMonitoringConnection connection) {
+		this.connection = connection;
+	}
+	
+	public TxMonitoringConnection getConnection() {
+		return this.connection;
+	}
+	
+	// Id of the transaction as known when it ended, 0 if unknown
+	public int getTransactionId() {
+		return this.transactionId;
+	}
+	
+	public TransactionOutcome getOutcome() {
+		return this.outcome;
+	}
+	
+	public boolean isSuccessful() {
+		return (this.outcome == TransactionOutcome.COMMITTED);
+	}
+	
+	public long getStartTime() {
+		return this.startTime;
+	}
+	
+	public long getEndTime() {
+		return this.endTime;
+	}
+	
+	// Duration of the entire transaction in nanoseconds, from its start to the end of the commit or
+	// rollback, or -1 if the start of the transaction is unknown
+	public long getDuration() {
+		return (this.startTime == UNKNOWN_TIME) ? -1 : (this.endTime - this.startTime);
+	}
+	
+	// Duration of the commit or rollback call in nanoseconds
+	public long getCompletionLatency() {
+		return this.endTime - this.completionStartTime;
+	}
+	
+	// Exception thrown by the commit or rollback, if any
+	public SQLException getFailure() {
+		return this.failure;
+	}
+	
+	public void copyFrom(final TransactionEvent event) {
+		this.connection = event.connection;
+		this.transactionId = event.transactionId;
+		this.outcome = event.outcome;
+		this.startTime = event.startTime;
+		this.completionStartTime = event.completionStartTime;
+		this.endTime = event.endTime;
+		this.failure = event.failure;
+	}
+	
+	boolean isStarted() {
+		return (this.startTime != UNKNOWN_TIME);
+	}
+	
+	void start(final long startTime) {
+		this.startTime = startTime;
+	}
+	
+	void end(final TransactionOutcome outcome, final long completionStartTime, final long endTime, final SQLException failure) {
+		this.outcome = outcome;
+		this.completionStartTime = completionStartTime;
+		this.endTime = endTime;
+		this.failure = failure;
+	}
+	
+	void setTransactionId(final int transactionId) {
+		this.transactionId = transactionId;
+	}
+	
+	// Prepares the event for the next transaction, whose start is not known yet
+	void reset() {
+		this.transactionId = 0;
+		this.outcome = null;
+		this.startTime = UNKNOWN_TIME;
+		this.completionStartTime = UNKNOWN_TIME;
+		this.endTime = UNKNOWN_TIME;
+		this.failure = null;
+	}
+	
+	// Releases the references held by the event
+	void clear() {
+		this.reset();
+		this.connection = null;
+	}
+
+}
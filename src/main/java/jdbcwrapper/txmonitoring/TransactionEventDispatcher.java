@@ -0,0 +1,385 @@
+package jdbcwrapper.txmonitoring;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jdbcwrapper.measurement.HistogramSnapshot;
+import jdbcwrapper.measurement.LatencyHistogram;
+import jdbcwrapper.util.DriverMetadata;
+
+// Delivers transaction events to the listeners on a dedicated thread. Events are written to a
+// preallocated ring buffer in the style of the LMAX Disruptor: producers claim a sequence number
+// with a CAS, fill the slot and publish it by storing its sequence number, the single consumer
+// thread processes the slots in sequence order. No objects are allocated per event.
+public class TransactionEventDispatcher {
+	
+	private static final String DISPATCH_PROPERTY = "connection.listeners.dispatch";
+	
+	private static final String BUFFER_SIZE_PROPERTY = "connection.listeners.dispatch.buffer.size";
+	
+	private static final String BUFFER_FULL_POLICY_PROPERTY = "connection.listeners.dispatch.buffer.full";
+	
+	private static final String SAMPLE_RATE_PROPERTY = "connection.listeners.dispatch.sample.rate";
+	
+	private static final String ASYNC_DISPATCH = "async";
+	
+	private static final int DEFAULT_BUFFER_SIZE = 1024;
+	
+	private static final int MAX_BUFFER_SIZE = 1 << 20;
+	
+	private static final BufferFullPolicy DEFAULT_BUFFER_FULL_POLICY = BufferFullPolicy.DROP;
+	
+	private static final int DEFAULT_SAMPLE_RATE = 10;
+	
+	// Number of times a waiting thread spins before it starts parking
+	private static final int SPIN_TRIES = 100;
+	
+	private static final long PARK_NANOS = 50_000;
+	
+	private static final long UNPUBLISHED = -1;
+	
+	private static final Logger LOGGER = Logger.getLogger(TransactionEventDispatcher.class.getName());
+	
+	private static final ConcurrentMap<String, TransactionEventDispatcher> DISPATCHERS = new ConcurrentHashMap<>();
+	
+	private final DispatchSlot[] slots;
+	
+	// Sequence number of the event stored in the respective slot, used to detect published slots
+	private final AtomicLongArray publishedSequences;
+	
+	private final int indexMask;
+	
+	// Next sequence number to be claimed by a producer
+	private final AtomicLong claimSequence = new AtomicLong();
+	
+	// Next sequence number to be processed by the consumer
+	private final AtomicLong consumeSequence = new AtomicLong();
+	
+	private final BufferFullPolicy bufferFullPolicy;
+	
+	private final int sampleRate;
+	
+	private final LongAdder publishedEvents = new LongAdder();
+	
+	private final LongAdder droppedEvents = new LongAdder();
+	
+	private final LongAdder listenerErrors = new LongAdder();
+	
+	private final AtomicLong fullBufferEvents = new AtomicLong();
+	
+	// Time between publishing an event and delivering it to the listeners
+	private final LatencyHistogram lag = new LatencyHistogram(1);
+	
+	private final Thread consumerThread;
+	
+	private volatile boolean consumerWaiting;
+	
+	private volatile boolean running = true;
+	
+	public TransactionEventDispatcher(final String name, final int bufferSize, final BufferFullPolicy bufferFullPolicy, final int sampleRate) {
+		// Round the buffer size up to a power of two, so that the slot can be selected by masking
+		int capacity = (bufferSize <= 1) ? 1 : Integer.highestOneBit((Math.min(bufferSize, MAX_BUFFER_SIZE) - 1) << 1);
+		
+		this.slots = new DispatchSlot[capacity];
+		this.publishedSequences = new AtomicLongArray(capacity);
+		for (int index = 0; index < capacity; index++) {
+			this.slots[index] = new DispatchSlot();
+			this.publishedSequences.set(index, UNPUBLISHED);
+		}
+		
+		this.indexMask = capacity - 1;
+		this.bufferFullPolicy = bufferFullPolicy;
+		this.sampleRate = Math.max(1, sampleRate);
+		
+		this.consumerThread = new Thread(this::consumeEvents, "jdbc-wrapper-dispatcher-" + name);
+		this.consumerThread.setDaemon(true);
+		this.consumerThread.start();
+	}
+	
+	// Returns the dispatcher shared by all connections of the type, or null if events are to be
+	// delivered synchronously
+	public static TransactionEventDispatcher forMetadata(final DriverMetadata metadata) {
+		String dispatchMode = metadata.getProperty(DISPATCH_PROPERTY, "");
+		if (!ASYNC_DISPATCH.equalsIgnoreCase(dispatchMode)) {
+			return null;
+		}
+		
+		TransactionEventDispatcher dispatcher = DISPATCHERS.get(metadata.typeName);
+		
+		if (dispatcher == null) {
+			dispatcher = DISPATCHERS.computeIfAbsent(metadata.typeName, type -> createDispatcher(metadata));
+		}
+		
+		return dispatcher;
+	}
+	
+	private static TransactionEventDispatcher createDispatcher(final DriverMetadata metadata) {
+		int bufferSize = metadata.getIntProperty(BUFFER_SIZE_PROPERTY, DEFAULT_BUFFER_SIZE);
+		int sampleRate = metadata.getIntProperty(SAMPLE_RATE_PROPERTY, DEFAULT_SAMPLE_RATE);
+		
+		BufferFullPolicy policy = DEFAULT_BUFFER_FULL_POLICY;
+		String policyName = metadata.getProperty(BUFFER_FULL_POLICY_PROPERTY, null);
+		if (policyName != null && !policyName.isEmpty()) {
+			policy = BufferFullPolicy.fromPropertyValue(policyName);
+			
+			if (policy == null) {
+				LOGGER.log(Level.WARNING, () -> "Invalid buffer full policy '" + policyName + "' for " + metadata.typeName + ", using " +
+						DEFAULT_BUFFER_FULL_POLICY.getPropertyValue() + ".");
+				policy = DEFAULT_BUFFER_FULL_POLICY;
+			}
+		}
+		
+		return new TransactionEventDispatcher(metadata.typeName, bufferSize, policy, sampleRate);
+	}
+	
+	public static TransactionEventDispatcher getDispatcher(final String type) {
+		return DISPATCHERS.get(type);
+	}
+	
+	// Delivers the pending events of all dispatchers and stops their threads, e.g., when the driver is
+	// deregistered
+	public static void shutdownAll() throws InterruptedException {
+		for (String type : DISPATCHERS.keySet()) {
+			TransactionEventDispatcher dispatcher = DISPATCHERS.remove(type);
+			
+			if (dispatcher != null) {
+				dispatcher.shutdown();
+			}
+		}
+	}
+	
+	// Queues a transaction start event for the given listeners. Returns false if the event was dropped.
+	public boolean publishStart(final TxMonitoringConnection connection, final List<? extends TransactionListener> listeners) {
+		long sequence = this.claim();
+		if (sequence < 0) {
+			this.droppedEvents.increment();
+			return false;
+		}
+		
+		int index = (int) sequence & this.indexMask;
+		DispatchSlot slot = this.slots[index];
+		slot.connection = connection;
+		slot.listeners = listeners;
+		slot.transactionStart = true;
+		
+		this.publish(index, sequence, slot);
+		return true;
+	}
+	
+	// Queues a copy of the given transaction end event for the given listeners. Returns false if the
+	// event was dropped.
+	public boolean publishEnd(final TransactionEvent event, final List<? extends TransactionListener> listeners) {
+		long sequence = this.claim();
+		if (sequence < 0) {
+			this.droppedEvents.increment();
+			return false;
+		}
+		
+		int index = (int) sequence & this.indexMask;
+		DispatchSlot slot = this.slots[index];
+		slot.connection = event.getConnection();
+		slot.listeners = listeners;
+		slot.transactionStart = false;
+		slot.endEvent.copyFrom(event);
+		
+		this.publish(index, sequence, slot);
+		return true;
+	}
+	
+	private void publish(final int index, final long sequence, final DispatchSlot slot) {
+		slot.publishTime = System.nanoTime();
+		
+		// Publishing the sequence number makes the event visible to the consumer. This is a volatile
+		// write, so that it cannot be reordered with the subsequent check for a waiting consumer.
+		this.publishedSequences.set(index, sequence);
+		this.publishedEvents.increment();
+		
+		if (this.consumerWaiting) {
+			LockSupport.unpark(this.consumerThread);
+		}
+	}
+	
+	// Claims the next sequence number, returns -1 if the event is to be dropped
+	private long claim() {
+		// Events published after the consumer thread stopped would never be delivered
+		if (!this.running) {
+			return -1;
+		}
+		
+		long sequence = this.tryClaim();
+		if (sequence >= 0 || this.bufferFullPolicy == BufferFullPolicy.DROP) {
+			return sequence;
+		}
+		
+		if (this.bufferFullPolicy == BufferFullPolicy.SAMPLE && (this.fullBufferEvents.getAndIncrement() % this.sampleRate) != 0) {
+			return -1;
+		}
+		
+		// Wait for the consumer to make room
+		int tries = 0;
+		while (this.running) {
+			sequence = this.tryClaim();
+			if (sequence >= 0) {
+				return sequence;
+			}
+			
+			tries = backOff(tries);
+		}
+		
+		return -1;
+	}
+	
+	private long tryClaim() {
+		while (true) {
+			long sequence = this.claimSequence.get();
+			if (sequence - this.consumeSequence.get() >= this.slots.length) {
+				return -1;
+			}
+			
+			if (this.claimSequence.compareAndSet(sequence, sequence + 1)) {
+				return sequence;
+			}
+		}
+	}
+	
+	private static int backOff(final int tries) {
+		if (tries < SPIN_TRIES) {
+			Thread.yield();
+		} else {
+			LockSupport.parkNanos(PARK_NANOS);
+		}
+		
+		return tries + 1;
+	}
+	
+	private void consumeEvents() {
+		long sequence = this.consumeSequence.get();
+		int tries = 0;
+		
+		try {
+			while (this.running || sequence < this.claimSequence.get()) {
+				int index = (int) sequence & this.indexMask;
+				
+				if (this.publishedSequences.get(index) != sequence) {
+					tries = this.awaitEvent(index, sequence, tries);
+					continue;
+				}
+				
+				tries = 0;
+				this.dispatch(this.slots[index]);
+				
+				// Hand the slot back to the producers
+				sequence++;
+				this.consumeSequence.lazySet(sequence);
+			}
+		} finally {
+			// If the thread dies unexpectedly, producers must drop their events instead of waiting
+			// for room in the buffer forever
+			if (this.running) {
+				this.running = false;
+				LOGGER.log(Level.SEVERE, () -> "Dispatcher thread " + this.consumerThread.getName() + " stopped unexpectedly, dropping further events.");
+			}
+		}
+	}
+	
+	private int awaitEvent(final int index, final long sequence, final int tries) {
+		if (tries < SPIN_TRIES) {
+			Thread.yield();
+			return tries + 1;
+		}
+		
+		// Announce that the consumer is about to park and check again, so that a producer
+		// publishing concurrently is guaranteed to unpark it
+		this.consumerWaiting = true;
+		if (this.publishedSequences.get(index) != sequence && this.running) {
+			LockSupport.parkNanos(this, PARK_NANOS * 20);
+		}
+		this.consumerWaiting = false;
+		
+		return tries;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void dispatch(final DispatchSlot slot) {
+		this.lag.record(System.nanoTime() - slot.publishTime);
+		
+		TxMonitoringConnection connection = slot.connection;
+		for (TransactionListener listener : (List<TransactionListener>) slot.listeners) {
+			try {
+				if (slot.transactionStart) {
+					listener.onTransactionStart(connection);
+				} else {
+					listener.onTransactionEnd(slot.endEvent);
+				}
+			} catch (Throwable e) {
+				// Also catch errors, since the dispatcher thread must not die
+				this.listenerErrors.increment();
+				LOGGER.log(Level.WARNING, e, () -> "Error in transaction listener " + listener + ".");
+			}
+		}
+		
+		// Release the references, so that closed connections are not kept alive by the buffer
+		slot.connection = null;
+		slot.listeners = null;
+		slot.endEvent.clear();
+	}
+	
+	public int getCapacity() {
+		return this.slots.length;
+	}
+	
+	public BufferFullPolicy getBufferFullPolicy() {
+		return this.bufferFullPolicy;
+	}
+	
+	// Number of events that were published, but not yet delivered
+	public long getBacklog() {
+		return Math.max(0, this.claimSequence.get() - this.consumeSequence.get());
+	}
+	
+	public long getPublishedEventCount() {
+		return this.publishedEvents.sum();
+	}
+	
+	public long getDroppedEventCount() {
+		return this.droppedEvents.sum();
+	}
+	
+	public long getListenerErrorCount() {
+		return this.listenerErrors.sum();
+	}
+	
+	public HistogramSnapshot getLagSnapshot() {
+		return this.lag.snapshot();
+	}
+	
+	// Delivers the pending events and stops the dispatcher thread
+	public void shutdown() throws InterruptedException {
+		this.running = false;
+		LockSupport.unpark(this.consumerThread);
+		this.consumerThread.join();
+	}
+	
+	private static class DispatchSlot {
+		
+		public TxMonitoringConnection connection;
+		
+		public List<? extends TransactionListener> listeners;
+		
+		public boolean transactionStart;
+		
+		// Copy of the end event, since the connection reuses its event object
+		public final TransactionEvent endEvent = new TransactionEvent();
+		
+		public long publishTime;
+		
+	}
+
+}
@@ -1,9 +1,25 @@
 package jdbcwrapper.txmonitoring;
 
+// With asynchronous dispatch, the listener methods are called on the dispatcher thread after the
+// fact, so implementations must not execute statements on the given connection
 public interface TransactionListener {
 	
 	public void onTransactionStart(TxMonitoringConnection connection);
 	
 	public void onTransactionEnd(TxMonitoringConnection connection, boolean success);
+	
+	// Called after the commit or rollback has completed, with the outcome and timing of the
+	// transaction. The event object is reused, see TransactionEvent.
+	public default void onTransactionEnd(final TransactionEvent event) {
+		this.onTransactionEnd(event.getConnection(), event.isSuccessful());
+	}
+	
+	// Called at the end of a transaction for each query fingerprint that was executed more often than
+	// the configured threshold (i.e., a likely N+1 query), before the end of the transaction is reported.
+	// This method is always called synchronously.
+	public default void onRepeatedQuery(final TxMonitoringConnection connection, final String fingerprint, final int executionCount,
+			final long totalTimeNanos) {
+		// Do nothing by default
+	}
 
 }
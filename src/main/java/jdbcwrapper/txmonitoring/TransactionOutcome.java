@@ -0,0 +1,14 @@
+package jdbcwrapper.txmonitoring;
+
+public enum TransactionOutcome {
+	
+	COMMITTED,
+	
+	ROLLED_BACK,
+	
+	// The commit threw an exception, the transaction may or may not have been committed
+	COMMIT_FAILED,
+	
+	ROLLBACK_FAILED
+
+}
@@ -5,30 +5,124 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import jdbcwrapper.measurement.MeasuringConnection;
 import jdbcwrapper.txmonitoring.AbstractTxMonitoringConnection;
 import jdbcwrapper.txmonitoring.TransactionListener;
+import jdbcwrapper.util.DriverMetadata;
 
 public class PostgresMonitoringConnection extends AbstractTxMonitoringConnection<TransactionListener> implements MeasuringConnection {
+	
+	private static final String TRANSACTION_ID_MODE_PROPERTY = "transaction.id.mode";
+	
+	private static final TransactionIdMode DEFAULT_TRANSACTION_ID_MODE = TransactionIdMode.CURRENT;
+	
+	private static final String CURRENT_TRANSACTION_ID_QUERY = "select txid_current()";
+	
+	private static final String ASSIGNED_TRANSACTION_ID_QUERY = "select txid_current_if_assigned()";
+	
+	private static final int NO_TRANSACTION_ID = 0;
+	
+	private static final Logger LOGGER = Logger.getLogger(PostgresMonitoringConnection.class.getName());
+	
+	private final TransactionIdMode transactionIdMode;
+	
+	// Id of the current transaction, NO_TRANSACTION_ID if not (yet) known. Only valid
+	// until the next transaction boundary.
+	private int cachedTransactionId = NO_TRANSACTION_ID;
 
 	public PostgresMonitoringConnection(final Connection wrappedConnection, final List<TransactionListener> listeners) {
-		super(wrappedConnection, listeners);
+		this(wrappedConnection, listeners, null);
+	}
+	
+	public PostgresMonitoringConnection(final Connection wrappedConnection, final List<TransactionListener> listeners, final DriverMetadata metadata) {
+		super(wrappedConnection, listeners, metadata);
+		
+		this.transactionIdMode = (metadata == null) ? DEFAULT_TRANSACTION_ID_MODE : determineTransactionIdMode(metadata);
+	}
+	
+	private static TransactionIdMode determineTransactionIdMode(final DriverMetadata metadata) {
+		String modeName = metadata.getProperty(TRANSACTION_ID_MODE_PROPERTY, "");
+		if (modeName.isEmpty()) {
+			return DEFAULT_TRANSACTION_ID_MODE;
+		}
+		
+		TransactionIdMode mode = TransactionIdMode.fromPropertyValue(modeName);
+		if (mode == null) {
+			LOGGER.log(Level.WARNING, () -> "Invalid transaction id mode '" + modeName + "' for " + metadata.typeName + ", using " +
+					DEFAULT_TRANSACTION_ID_MODE.getPropertyValue() + ".");
+			return DEFAULT_TRANSACTION_ID_MODE;
+		}
+		
+		return mode;
 	}
 
 	@Override
 	public int getTransactionId() {
-		try (Statement statement = this.createStatement()) {
-			ResultSet resultSet = statement.executeQuery("select txid_current()");
-
+		if (this.cachedTransactionId != NO_TRANSACTION_ID) {
+			return this.cachedTransactionId;
+		}
+		
+		if (this.isEndingTransaction()) {
+			// The transaction has already been committed or rolled back, so a query would
+			// return the id of the next transaction
+			return NO_TRANSACTION_ID;
+		}
+		
+		switch (this.transactionIdMode) {
+		case CURRENT:
+			return this.cacheTransactionId(this.queryTransactionId(CURRENT_TRANSACTION_ID_QUERY));
+			
+		case IF_ASSIGNED:
+			return this.cacheTransactionId(this.queryTransactionId(ASSIGNED_TRANSACTION_ID_QUERY));
+			
+		case AT_COMMIT:
+		default:
+			// The id is only fetched at commit time
+			return NO_TRANSACTION_ID;
+		}
+	}
+	
+	private int cacheTransactionId(final int transactionId) {
+		// In auto-commit mode, every statement runs in its own transaction, so there is nothing to cache
+		if (this.isInExplicitTransaction()) {
+			this.cachedTransactionId = transactionId;
+		}
+		
+		return transactionId;
+	}
+	
+	private int queryTransactionId(final String query) {
+		// Use an unmeasured statement, so that monitoring does not show up in the statement metrics
+		try (Statement statement = this.createUnmeasuredStatement();
+				ResultSet resultSet = statement.executeQuery(query)) {
+			
 			if (resultSet.next()) {
+				// txid_current_if_assigned() returns null if no id is assigned, which yields 0
 				return resultSet.getInt(1);
 			} else {
-				return 0;
+				return NO_TRANSACTION_ID;
 			}
 		} catch (SQLException e) {
-			return 0;
+			return NO_TRANSACTION_ID;
 		}
 	}
+	
+	@Override
+	protected void beforeCommit() {
+		// Listeners are notified after the commit, so fetch the id for them before it is lost. The other modes
+		// only report an id that was already fetched during the transaction.
+		if (this.transactionIdMode == TransactionIdMode.AT_COMMIT && this.cachedTransactionId == NO_TRANSACTION_ID &&
+				this.isInExplicitTransaction() && !this.getConnectionListeners().isEmpty()) {
+			this.cacheTransactionId(this.queryTransactionId(ASSIGNED_TRANSACTION_ID_QUERY));
+		}
+	}
+	
+	@Override
+	protected void onTransactionBoundary() {
+		this.cachedTransactionId = NO_TRANSACTION_ID;
+	}
 		
 }
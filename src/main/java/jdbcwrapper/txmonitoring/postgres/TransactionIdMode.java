@@ -0,0 +1,42 @@
+package jdbcwrapper.txmonitoring.postgres;
+
+public enum TransactionIdMode {
+	
+	// Query the id with txid_current(), which assigns an id if the transaction does not have one yet.
+	// The id is only queried when it is requested, and at most once per transaction.
+	CURRENT("current"),
+	
+	// Query the id with txid_current_if_assigned() (PostgreSQL 10+), so that read-only transactions
+	// are not assigned an id. The id is 0 until the transaction has written something.
+	IF_ASSIGNED("if-assigned"),
+	
+	// Do not query the id during the transaction, but fetch it once with txid_current_if_assigned()
+	// right before the commit (if listeners are registered). The id is 0 before the commit, for read-only
+	// transactions and for rolled back transactions.
+	AT_COMMIT("at-commit");
+	
+	private final String propertyValue;
+	
+	private TransactionIdMode(final String propertyValue) {
+		this.propertyValue = propertyValue;
+	}
+	
+	public String getPropertyValue() {
+		return this.propertyValue;
+	}
+	
+	// Returns the mode for the given property value (case-insensitive, '_' may be used instead of '-'),
+	// or null if there is no such mode
+	public static TransactionIdMode fromPropertyValue(final String value) {
+		String normalizedValue = value.trim().replace('_', '-');
+		
+		for (TransactionIdMode mode : values()) {
+			if (mode.propertyValue.equalsIgnoreCase(normalizedValue)) {
+				return mode;
+			}
+		}
+		
+		return null;
+	}
+
+}
@@ -1,9 +0,0 @@
-package jdbcwrapper.util;
-
-import java.sql.SQLException;
-
-public interface BooleanSupplier {
-	
-	public boolean get() throws SQLException;
-
-}
@@ -0,0 +1,11 @@
+package jdbcwrapper.util;
+
+import java.sql.Connection;
+import java.util.List;
+
+@FunctionalInterface
+public interface ConnectionWrapperFactory {
+	
+	public Connection create(Connection connection, List<Object> listeners, DriverMetadata metadata);
+
+}
@@ -1,21 +1,74 @@
 package jdbcwrapper.util;
 
-import java.lang.reflect.Constructor;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class DriverMetadata {	 
+	
+	private static final Logger LOGGER = Logger.getLogger(DriverMetadata.class.getName());
 
-	public final Constructor<?> connectionWrapperConstructor;
+	public final String typeName;
+	
+	public final ConnectionWrapperFactory connectionWrapperFactory;
 	
 	public final boolean acceptsConnectionListeners;
 	
-	public final List<Constructor<?>> connectionListenerConstructors;
+	public final boolean acceptsDriverMetadata;
+	
+	public final List<ListenerFactory> connectionListenerFactories;
+	
+	public final ListenerScope connectionListenerScope;
+	
+	// All properties given for the type, without the type prefix
+	public final Map<String, String> properties;
 
-	public DriverMetadata(final Constructor<?> connectionWrapperConstructor, final boolean acceptsConnectionListeners, final List<Constructor<?>> connectionListenerConstructors) {
-		this.connectionWrapperConstructor = connectionWrapperConstructor;
+	public DriverMetadata(final String typeName, final ConnectionWrapperFactory connectionWrapperFactory, final boolean acceptsConnectionListeners,
+			final boolean acceptsDriverMetadata, final List<ListenerFactory> connectionListenerFactories, final ListenerScope connectionListenerScope,
+			final Map<String, String> properties) {
+		this.typeName = typeName;
+		this.connectionWrapperFactory = connectionWrapperFactory;
 		this.acceptsConnectionListeners = acceptsConnectionListeners;
-		this.connectionListenerConstructors = Collections.unmodifiableList(connectionListenerConstructors);
+		this.acceptsDriverMetadata = acceptsDriverMetadata;
+		this.connectionListenerFactories = Collections.unmodifiableList(connectionListenerFactories);
+		this.connectionListenerScope = connectionListenerScope;
+		this.properties = Collections.unmodifiableMap(properties);
+	}
+	
+	// Metadata for connections that are not created by the driver, i.e., without wrapper and properties
+	public static DriverMetadata defaults(final String typeName) {
+		return new DriverMetadata(typeName, null, false, false, Collections.emptyList(), ListenerScope.PER_CONNECTION, Collections.emptyMap());
+	}
+	
+	public String getProperty(final String name, final String defaultValue) {
+		String value = this.properties.get(name);
+		return (value == null) ? defaultValue : value.trim();
+	}
+	
+	public int getIntProperty(final String name, final int defaultValue) {
+		long value = this.getLongProperty(name, defaultValue);
+		return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+	}
+	
+	public long getLongProperty(final String name, final long defaultValue) {
+		String value = this.properties.get(name);
+		if (value == null || value.trim().isEmpty()) {
+			return defaultValue;
+		}
+		
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			LOGGER.log(Level.WARNING, () -> "Invalid value '" + value + "' for property " + name + " of " + this.typeName + ", using " + defaultValue + ".");
+			return defaultValue;
+		}
+	}
+	
+	public boolean getBooleanProperty(final String name, final boolean defaultValue) {
+		String value = this.properties.get(name);
+		return (value == null || value.trim().isEmpty()) ? defaultValue : Boolean.parseBoolean(value.trim());
 	}
 	
 }
@@ -23,6 +23,10 @@ public class DriverMetadataLoader {
 	private static final String CONNECTION_WRAPPER_TYPE_PROPERTY = "connection.wrapper";
 	
 	private static final String CONNECTION_LISTENER_TYPES_PROPERTY = "connection.listeners";
+	
+	private static final String CONNECTION_LISTENER_SCOPE_PROPERTY = "connection.listeners.scope";
+	
+	private static final ListenerScope DEFAULT_LISTENER_SCOPE = ListenerScope.PER_CONNECTION;
 		
 	private static final Logger LOGGER = Logger.getLogger(DriverMetadataLoader.class.getName());
 	
@@ -109,17 +113,39 @@ public class DriverMetadataLoader {
 			return null;
 		}
 		
-		List<Constructor<?>> listenerConstructors;
+		ListenerScope listenerScope = this.determineListenerScope(identifier, properties.get(CONNECTION_LISTENER_SCOPE_PROPERTY));
+		
+		List<ListenerFactory> listenerFactories;
 		String listenerTypeNames = properties.get(CONNECTION_LISTENER_TYPES_PROPERTY);
 		if (listenerTypeNames == null) {
 			// No listener types given, assume an empty list
-			listenerConstructors = Collections.emptyList();
+			listenerFactories = Collections.emptyList();
 		} else {
-			// Find listener constructors
-			listenerConstructors = this.findListenerConstructors(listenerTypeNames);
+			// Find listener constructors and create the factories
+			listenerFactories = this.createListenerFactories(listenerTypeNames, listenerScope);
+		}
+		
+		// Create the wrapper factory once, so that creating a wrapper is as cheap as a constructor call
+		ConnectionWrapperFactory wrapperFactory = FactoryUtil.createWrapperFactory(wrapperConstructorInfo.constructor,
+				wrapperConstructorInfo.acceptsListeners, wrapperConstructorInfo.acceptsMetadata);
+		
+		return new DriverMetadata(identifier, wrapperFactory, wrapperConstructorInfo.acceptsListeners,
+				wrapperConstructorInfo.acceptsMetadata, listenerFactories, listenerScope, properties);
+	}
+	
+	private ListenerScope determineListenerScope(final String identifier, final String scopeName) {
+		if (scopeName == null || scopeName.trim().isEmpty()) {
+			return DEFAULT_LISTENER_SCOPE;
 		}
 		
-		return new DriverMetadata(wrapperConstructorInfo.constructor, wrapperConstructorInfo.acceptsListeners, listenerConstructors);
+		ListenerScope scope = ListenerScope.fromPropertyValue(scopeName);
+		if (scope == null) {
+			LOGGER.log(Level.WARNING, () -> "Invalid listener scope '" + scopeName + "' for " + identifier + ", using " +
+					DEFAULT_LISTENER_SCOPE.getPropertyValue() + ".");
+			return DEFAULT_LISTENER_SCOPE;
+		}
+		
+		return scope;
 	}
 
 	private WrapperConstructorInfo findWrapperConstructor(final String typeName) {
@@ -132,20 +158,30 @@ public class DriverMetadataLoader {
 			return null;
 		}
 		
+		if (!Connection.class.isAssignableFrom(wrapperType)) {
+			LOGGER.log(Level.WARNING, () -> "Wrapper type " + typeName + " does not implement " + Connection.class.getName() + ".");
+			return null;
+		}
+		
 		Constructor<?> constructorCandidate = null;
 		boolean acceptsListeners = false;
 
 		// Look for an appropriate constructor
 		for (Constructor<?> constructor : wrapperType.getConstructors()) {
+			if (argumentsCompatible(constructor, Connection.class, List.class, DriverMetadata.class)) {
+				// Constructor accepting listeners and metadata was found. These are preferred,
+				// so return immediately
+				return new WrapperConstructorInfo(constructor, true, true);
+			}
+			
 			if (argumentsCompatible(constructor, Connection.class, List.class)) {
-				// Constructor accepting listeners was found. These are preferred, so break
-				// out of the loop
+				// Constructor accepting listeners was found. Save this, but continue to look
+				// for one also accepting metadata
 				constructorCandidate = constructor;
 				acceptsListeners = true;
-				break;
 			}
 
-			if (argumentsCompatible(constructor, Connection.class)) {
+			if (!acceptsListeners && argumentsCompatible(constructor, Connection.class)) {
 				// Constructor without listeners was found. Save this, but continue to
 				// look for one accepting listeners
 				constructorCandidate = constructor;
@@ -158,7 +194,7 @@ public class DriverMetadataLoader {
 			return null;
 		}
 		
-		return new WrapperConstructorInfo(constructorCandidate, acceptsListeners);
+		return new WrapperConstructorInfo(constructorCandidate, acceptsListeners, false);
 	}
 	
 	private static boolean argumentsCompatible(final Constructor<?> constructor, final Class<?>... requiredArgumentTypes) {
@@ -182,23 +218,23 @@ public class DriverMetadataLoader {
 		return true;
 	}
 	
-	private List<Constructor<?>> findListenerConstructors(final String listenerTypeNameString) {
+	private List<ListenerFactory> createListenerFactories(final String listenerTypeNameString, final ListenerScope scope) {
 		String[] listenerTypeNames = listenerTypeNameString.split(LISTENERS_SEPARATOR_REGEX);
 		
 		if (listenerTypeNames.length == 0 || listenerTypeNameString.isEmpty()) {
 			return Collections.emptyList();
 		}
 		
-		List<Constructor<?>> listenerConstructors = new ArrayList<>(listenerTypeNames.length);
+		List<ListenerFactory> listenerFactories = new ArrayList<>(listenerTypeNames.length);
 		for (String listenerTypeName : listenerTypeNames) {
 			Constructor<?> constructor = this.findListenerConstructor(listenerTypeName);
 			
 			if (constructor != null) {
-				listenerConstructors.add(constructor);
+				listenerFactories.add(FactoryUtil.createListenerFactory(constructor, scope));
 			}
 		}
 		
-		return listenerConstructors;
+		return listenerFactories;
 	}
 	
 	private Constructor<?> findListenerConstructor(final String listenerTypeName) {
@@ -220,10 +256,13 @@ public class DriverMetadataLoader {
 		public final Constructor<?> constructor;
 		
 		public final boolean acceptsListeners;
+		
+		public final boolean acceptsMetadata;
 
-		public WrapperConstructorInfo(final Constructor<?> constructor, final boolean acceptsListeners) {
+		public WrapperConstructorInfo(final Constructor<?> constructor, final boolean acceptsListeners, final boolean acceptsMetadata) {
 			this.constructor = constructor;
 			this.acceptsListeners = acceptsListeners;
+			this.acceptsMetadata = acceptsMetadata;
 		}		
 	}
 	
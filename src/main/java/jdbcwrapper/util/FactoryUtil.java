@@ -0,0 +1,111 @@
+package jdbcwrapper.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class FactoryUtil {
+	
+	// The factories are generated using the LambdaMetafactory, i.e., invoking them costs the same as
+	// a constructor call and can be inlined by the JIT, as opposed to Constructor.newInstance. If a
+	// factory cannot be generated, a reflective factory is used instead.
+	
+	private static final Logger LOGGER = Logger.getLogger(FactoryUtil.class.getName());
+	
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	
+	private static final String FACTORY_METHOD_NAME = "create";
+	
+	private static final String FUNCTION_METHOD_NAME = "apply";
+	
+	private static final String SUPPLIER_METHOD_NAME = "get";
+	
+	@SuppressWarnings("unchecked")
+	public static ConnectionWrapperFactory createWrapperFactory(final Constructor<?> constructor, final boolean acceptsListeners, final boolean acceptsMetadata) {
+		try {
+			if (acceptsMetadata) {
+				MethodType factoryMethodType = MethodType.methodType(Connection.class, Connection.class, List.class, DriverMetadata.class);
+				return (ConnectionWrapperFactory) generateFactory(constructor, ConnectionWrapperFactory.class, FACTORY_METHOD_NAME,
+						factoryMethodType, factoryMethodType);
+			} else if (acceptsListeners) {
+				BiFunction<Connection, List<Object>, Connection> function = (BiFunction<Connection, List<Object>, Connection>) generateFactory(constructor,
+						BiFunction.class, FUNCTION_METHOD_NAME, MethodType.methodType(Object.class, Object.class, Object.class),
+						MethodType.methodType(Connection.class, Connection.class, List.class));
+				return (connection, listeners, metadata) -> function.apply(connection, listeners);
+			} else {
+				Function<Connection, Connection> function = (Function<Connection, Connection>) generateFactory(constructor, Function.class,
+						FUNCTION_METHOD_NAME, MethodType.methodType(Object.class, Object.class), MethodType.methodType(Connection.class, Connection.class));
+				return (connection, listeners, metadata) -> function.apply(connection);
+			}
+		} catch (ReflectiveOperationException | LambdaConversionException | RuntimeException e) {
+			LOGGER.log(Level.FINE, e, () -> "Could not generate a factory for " + constructor.getName() + ", using reflection.");
+			return createReflectiveWrapperFactory(constructor, acceptsListeners, acceptsMetadata);
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	public static ListenerFactory createListenerFactory(final Constructor<?> constructor, final ListenerScope scope) {
+		Supplier<Object> supplier;
+		
+		try {
+			supplier = (Supplier<Object>) generateFactory(constructor, Supplier.class, SUPPLIER_METHOD_NAME, MethodType.methodType(Object.class),
+					MethodType.methodType(Object.class));
+		} catch (ReflectiveOperationException | LambdaConversionException | RuntimeException e) {
+			LOGGER.log(Level.FINE, e, () -> "Could not generate a factory for " + constructor.getName() + ", using reflection.");
+			supplier = () -> newInstance(constructor);
+		}
+		
+		return new ListenerFactory(constructor.getDeclaringClass(), supplier, scope);
+	}
+	
+	// The interface method type is the signature of the implemented method as declared in the interface,
+	// the instantiated method type its signature with generic types substituted
+	private static Object generateFactory(final Constructor<?> constructor, final Class<?> interfaceType, final String methodName,
+			final MethodType interfaceMethodType, final MethodType instantiatedMethodType) throws ReflectiveOperationException, LambdaConversionException {
+		MethodHandle constructorHandle = LOOKUP.unreflectConstructor(constructor);
+		
+		CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, methodName, MethodType.methodType(interfaceType),
+				interfaceMethodType, constructorHandle, instantiatedMethodType);
+		
+		try {
+			// Obtain the (non-capturing) factory instance
+			return callSite.getTarget().invoke();
+		} catch (Throwable e) {
+			throw new LambdaConversionException("Error obtaining the factory instance.", e);
+		}
+	}
+	
+	private static ConnectionWrapperFactory createReflectiveWrapperFactory(final Constructor<?> constructor, final boolean acceptsListeners, final boolean acceptsMetadata) {
+		if (acceptsMetadata) {
+			return (connection, listeners, metadata) -> (Connection) newInstance(constructor, connection, listeners, metadata);
+		} else if (acceptsListeners) {
+			return (connection, listeners, metadata) -> (Connection) newInstance(constructor, connection, listeners);
+		} else {
+			return (connection, listeners, metadata) -> (Connection) newInstance(constructor, connection);
+		}
+	}
+	
+	private static Object newInstance(final Constructor<?> constructor, final Object... arguments) {
+		try {
+			return constructor.newInstance(arguments);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			throw (cause instanceof RuntimeException) ? (RuntimeException) cause : new IllegalStateException(cause);
+		} catch (InstantiationException | IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
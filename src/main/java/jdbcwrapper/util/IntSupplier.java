@@ -1,9 +0,0 @@
-package jdbcwrapper.util;
-
-import java.sql.SQLException;
-
-public interface IntSupplier {
-	
-	public int get() throws SQLException;
-
-}
@@ -0,0 +1,89 @@
+package jdbcwrapper.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+public class ListenerFactory {
+	
+	private final Class<?> listenerType;
+	
+	private final ListenerScope scope;
+	
+	private final Supplier<Object> instanceSupplier;
+	
+	public ListenerFactory(final Class<?> listenerType, final Supplier<Object> constructor) {
+		this(listenerType, constructor, ListenerScope.PER_CONNECTION);
+	}
+	
+	public ListenerFactory(final Class<?> listenerType, final Supplier<Object> constructor, final ListenerScope scope) {
+		this.listenerType = listenerType;
+		this.scope = scope;
+		this.instanceSupplier = createInstanceSupplier(constructor, scope);
+	}
+	
+	private static Supplier<Object> createInstanceSupplier(final Supplier<Object> constructor, final ListenerScope scope) {
+		switch (scope) {
+		case SINGLETON:
+			return new SingletonSupplier(constructor);
+			
+		case PER_THREAD:
+			ThreadLocal<Object> instances = ThreadLocal.withInitial(constructor);
+			return instances::get;
+			
+		case PER_CONNECTION:
+		default:
+			return constructor;
+		}
+	}
+	
+	public Class<?> getListenerType() {
+		return this.listenerType;
+	}
+	
+	public ListenerScope getScope() {
+		return this.scope;
+	}
+	
+	// Returns the listener instance for a new connection according to the scope
+	public Object create() {
+		return this.instanceSupplier.get();
+	}
+	
+	private static class SingletonSupplier implements Supplier<Object> {
+		
+		private final Supplier<Object> constructor;
+		
+		// A lock rather than a monitor, so that a virtual thread waiting for the instance does not
+		// pin its carrier thread
+		private final ReentrantLock lock = new ReentrantLock();
+		
+		private volatile Object instance;
+		
+		public SingletonSupplier(final Supplier<Object> constructor) {
+			this.constructor = constructor;
+		}
+		
+		@Override
+		public Object get() {
+			Object currentInstance = this.instance;
+			if (currentInstance != null) {
+				return currentInstance;
+			}
+			
+			// Create the instance lazily, but exactly once. If the constructor fails, the next
+			// connection tries again
+			this.lock.lock();
+			try {
+				if (this.instance == null) {
+					this.instance = this.constructor.get();
+				}
+				
+				return this.instance;
+			} finally {
+				this.lock.unlock();
+			}
+		}
+		
+	}
+
+}
@@ -0,0 +1,39 @@
+package jdbcwrapper.util;
+
+public enum ListenerScope {
+	
+	// One listener instance shared by all connections of a type, must therefore be thread-safe
+	SINGLETON("singleton"),
+	
+	// A new listener instance for each connection (default)
+	PER_CONNECTION("per-connection"),
+	
+	// One listener instance per thread that opens connections. Note that the listener stays with the
+	// connection, even if the connection is later used by another thread
+	PER_THREAD("per-thread");
+	
+	private final String propertyValue;
+	
+	private ListenerScope(final String propertyValue) {
+		this.propertyValue = propertyValue;
+	}
+	
+	public String getPropertyValue() {
+		return this.propertyValue;
+	}
+	
+	// Returns the scope for the given property value (case-insensitive, '_' may be used instead of '-'),
+	// or null if there is no such scope
+	public static ListenerScope fromPropertyValue(final String value) {
+		String normalizedValue = value.trim().replace('_', '-');
+		
+		for (ListenerScope scope : values()) {
+			if (scope.propertyValue.equalsIgnoreCase(normalizedValue)) {
+				return scope;
+			}
+		}
+		
+		return null;
+	}
+
+}
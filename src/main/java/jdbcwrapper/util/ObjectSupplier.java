@@ -1,9 +0,0 @@
-package jdbcwrapper.util;
-
-import java.sql.SQLException;
-
-public interface ObjectSupplier<T> {
-
-	public T get() throws SQLException;
-	
-}
@@ -0,0 +1,599 @@
+package jdbcwrapper.util;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Objects;
+import java.util.UUID;
+
+// Records bind parameters of a prepared statement so that they can be applied to another statement
+// later or formatted, e.g., for logging. Primitive values are stored unboxed in a long array (floating
+// point values as their raw bits), so recording primitives does not allocate. Only values that can be
+// applied more than once are supported, i.e., no streams or LOBs. These can be recorded as opaque
+// parameters for formatting, but cannot be applied.
+public class ParameterBuffer {
+	
+	private static final byte UNSET = 0;
+	
+	private static final byte NULL = 1;
+	
+	private static final byte BOOLEAN = 2;
+	
+	private static final byte BYTE = 3;
+	
+	private static final byte SHORT = 4;
+	
+	private static final byte INT = 5;
+	
+	private static final byte LONG = 6;
+	
+	private static final byte FLOAT = 7;
+	
+	private static final byte DOUBLE = 8;
+	
+	private static final byte BIG_DECIMAL = 9;
+	
+	private static final byte STRING = 10;
+	
+	private static final byte NSTRING = 11;
+	
+	private static final byte BYTES = 12;
+	
+	private static final byte DATE = 13;
+	
+	private static final byte TIME = 14;
+	
+	private static final byte TIMESTAMP = 15;
+	
+	private static final byte OBJECT = 16;
+	
+	private static final byte OBJECT_WITH_TYPE = 17;
+	
+	private static final byte OBJECT_WITH_TYPE_AND_SCALE = 18;
+	
+	private static final byte OPAQUE = 19;
+	
+	private static final int NO_SQL_TYPE = Integer.MIN_VALUE;
+	
+	private byte[] kinds;
+	
+	private long[] primitiveValues;
+	
+	private Object[] objectValues;
+	
+	// SQL type for nulls and typed objects, the scale is stored as primitive value
+	private int[] sqlTypes;
+	
+	// Calendar or type name, allocated on first use
+	private Object[] auxiliaryValues;
+	
+	// Highest parameter index set
+	private int parameterCount;
+	
+	public ParameterBuffer(final int expectedParameterCount) {
+		int capacity = Math.max(1, expectedParameterCount);
+		
+		this.kinds = new byte[capacity];
+		this.primitiveValues = new long[capacity];
+		this.objectValues = new Object[capacity];
+		this.sqlTypes = new int[capacity];
+	}
+	
+	private ParameterBuffer(final ParameterBuffer buffer) {
+		int count = buffer.parameterCount;
+		
+		this.kinds = Arrays.copyOf(buffer.kinds, count);
+		this.primitiveValues = Arrays.copyOf(buffer.primitiveValues, count);
+		this.objectValues = Arrays.copyOf(buffer.objectValues, count);
+		this.sqlTypes = Arrays.copyOf(buffer.sqlTypes, count);
+		this.auxiliaryValues = (buffer.auxiliaryValues == null) ? null : Arrays.copyOf(buffer.auxiliaryValues, count);
+		this.parameterCount = count;
+		
+		// The caller may modify mutable values after the copy, so these are copied as well
+		for (int index = 0; index < count; index++) {
+			this.objectValues[index] = copyMutableValue(this.objectValues[index]);
+			
+			if (this.auxiliaryValues != null) {
+				this.auxiliaryValues[index] = copyMutableValue(this.auxiliaryValues[index]);
+			}
+		}
+	}
+	
+	// Returns a compact copy of the current parameters that does not share mutable values (byte arrays,
+	// dates and calendars) with this buffer
+	public ParameterBuffer copy() {
+		return new ParameterBuffer(this);
+	}
+	
+	private static Object copyMutableValue(final Object value) {
+		if (value instanceof byte[]) {
+			return ((byte[]) value).clone();
+		} else if (value instanceof java.util.Date) {
+			// Also copies subclasses like Timestamp completely, including the nanos
+			return ((java.util.Date) value).clone();
+		} else if (value instanceof Calendar) {
+			return ((Calendar) value).clone();
+		} else {
+			return value;
+		}
+	}
+	
+	public int getParameterCount() {
+		return this.parameterCount;
+	}
+	
+	public boolean isSet(final int parameterIndex) {
+		int index = parameterIndex - 1;
+		return (index >= 0 && index < this.parameterCount && this.kinds[index] != UNSET);
+	}
+	
+	public void clear() {
+		Arrays.fill(this.kinds, 0, this.parameterCount, UNSET);
+		Arrays.fill(this.objectValues, 0, this.parameterCount, null);
+		
+		if (this.auxiliaryValues != null) {
+			Arrays.fill(this.auxiliaryValues, 0, this.parameterCount, null);
+		}
+		
+		this.parameterCount = 0;
+	}
+	
+	private int slot(final int parameterIndex, final byte kind) {
+		int index = parameterIndex - 1;
+		if (index < 0) {
+			throw new IndexOutOfBoundsException("Invalid parameter index " + parameterIndex + ".");
+		}
+		
+		if (index >= this.kinds.length) {
+			int capacity = Math.max(index + 1, this.kinds.length * 2);
+			
+			this.kinds = Arrays.copyOf(this.kinds, capacity);
+			this.primitiveValues = Arrays.copyOf(this.primitiveValues, capacity);
+			this.objectValues = Arrays.copyOf(this.objectValues, capacity);
+			this.sqlTypes = Arrays.copyOf(this.sqlTypes, capacity);
+			
+			if (this.auxiliaryValues != null) {
+				this.auxiliaryValues = Arrays.copyOf(this.auxiliaryValues, capacity);
+			}
+		}
+		
+		this.kinds[index] = kind;
+		this.objectValues[index] = null;
+		this.sqlTypes[index] = NO_SQL_TYPE;
+		
+		if (this.auxiliaryValues != null) {
+			this.auxiliaryValues[index] = null;
+		}
+		
+		if (index >= this.parameterCount) {
+			this.parameterCount = index + 1;
+		}
+		
+		return index;
+	}
+	
+	private void setAuxiliaryValue(final int index, final Object value) {
+		if (value == null) {
+			return;
+		}
+		
+		if (this.auxiliaryValues == null) {
+			this.auxiliaryValues = new Object[this.kinds.length];
+		}
+		
+		this.auxiliaryValues[index] = value;
+	}
+	
+	public void setNull(final int parameterIndex, final int sqlType) {
+		int index = this.slot(parameterIndex, NULL);
+		this.sqlTypes[index] = sqlType;
+	}
+	
+	public void setNull(final int parameterIndex, final int sqlType, final String typeName) {
+		int index = this.slot(parameterIndex, NULL);
+		this.sqlTypes[index] = sqlType;
+		this.setAuxiliaryValue(index, typeName);
+	}
+	
+	public void setBoolean(final int parameterIndex, final boolean value) {
+		int index = this.slot(parameterIndex, BOOLEAN);
+		this.primitiveValues[index] = (value) ? 1 : 0;
+	}
+	
+	public void setByte(final int parameterIndex, final byte value) {
+		int index = this.slot(parameterIndex, BYTE);
+		this.primitiveValues[index] = value;
+	}
+	
+	public void setShort(final int parameterIndex, final short value) {
+		int index = this.slot(parameterIndex, SHORT);
+		this.primitiveValues[index] = value;
+	}
+	
+	public void setInt(final int parameterIndex, final int value) {
+		int index = this.slot(parameterIndex, INT);
+		this.primitiveValues[index] = value;
+	}
+	
+	public void setLong(final int parameterIndex, final long value) {
+		int index = this.slot(parameterIndex, LONG);
+		this.primitiveValues[index] = value;
+	}
+	
+	public void setFloat(final int parameterIndex, final float value) {
+		int index = this.slot(parameterIndex, FLOAT);
+		this.primitiveValues[index] = Float.floatToRawIntBits(value);
+	}
+	
+	public void setDouble(final int parameterIndex, final double value) {
+		int index = this.slot(parameterIndex, DOUBLE);
+		this.primitiveValues[index] = Double.doubleToRawLongBits(value);
+	}
+	
+	public void setBigDecimal(final int parameterIndex, final BigDecimal value) {
+		int index = this.slot(parameterIndex, BIG_DECIMAL);
+		this.objectValues[index] = value;
+	}
+	
+	public void setString(final int parameterIndex, final String value) {
+		int index = this.slot(parameterIndex, STRING);
+		this.objectValues[index] = value;
+	}
+	
+	public void setNString(final int parameterIndex, final String value) {
+		int index = this.slot(parameterIndex, NSTRING);
+		this.objectValues[index] = value;
+	}
+	
+	public void setBytes(final int parameterIndex, final byte[] value) {
+		int index = this.slot(parameterIndex, BYTES);
+		this.objectValues[index] = value;
+	}
+	
+	public void setDate(final int parameterIndex, final Date value, final Calendar calendar) {
+		int index = this.slot(parameterIndex, DATE);
+		this.objectValues[index] = value;
+		this.setAuxiliaryValue(index, calendar);
+	}
+	
+	public void setTime(final int parameterIndex, final Time value, final Calendar calendar) {
+		int index = this.slot(parameterIndex, TIME);
+		this.objectValues[index] = value;
+		this.setAuxiliaryValue(index, calendar);
+	}
+	
+	public void setTimestamp(final int parameterIndex, final Timestamp value, final Calendar calendar) {
+		int index = this.slot(parameterIndex, TIMESTAMP);
+		this.objectValues[index] = value;
+		this.setAuxiliaryValue(index, calendar);
+	}
+	
+	public void setObject(final int parameterIndex, final Object value) {
+		int index = this.slot(parameterIndex, OBJECT);
+		this.objectValues[index] = value;
+	}
+	
+	public void setObject(final int parameterIndex, final Object value, final int targetSqlType) {
+		int index = this.slot(parameterIndex, OBJECT_WITH_TYPE);
+		this.objectValues[index] = value;
+		this.sqlTypes[index] = targetSqlType;
+	}
+	
+	public void setObject(final int parameterIndex, final Object value, final int targetSqlType, final int scaleOrLength) {
+		int index = this.slot(parameterIndex, OBJECT_WITH_TYPE_AND_SCALE);
+		this.objectValues[index] = value;
+		this.sqlTypes[index] = targetSqlType;
+		this.primitiveValues[index] = scaleOrLength;
+	}
+	
+	// Records a parameter whose value cannot be recorded, only its type is kept
+	public void setOpaque(final int parameterIndex, final String typeName) {
+		int index = this.slot(parameterIndex, OPAQUE);
+		this.objectValues[index] = typeName;
+	}
+	
+	// Returns the value of the given parameter, boxing primitives
+	public Object getValue(final int parameterIndex) {
+		int index = parameterIndex - 1;
+		
+		switch (this.kinds[index]) {
+		case BOOLEAN:
+			return (this.primitiveValues[index] != 0);
+			
+		case BYTE:
+			return (byte) this.primitiveValues[index];
+			
+		case SHORT:
+			return (short) this.primitiveValues[index];
+			
+		case INT:
+			return (int) this.primitiveValues[index];
+			
+		case LONG:
+			return this.primitiveValues[index];
+			
+		case FLOAT:
+			return Float.intBitsToFloat((int) this.primitiveValues[index]);
+			
+		case DOUBLE:
+			return Double.longBitsToDouble(this.primitiveValues[index]);
+			
+		case OPAQUE:
+			return null;
+			
+		default:
+			return this.objectValues[index];
+		}
+	}
+	
+	// Returns whether all parameters are set to values that can be compared by equals(), e.g., for use
+	// in cache keys. Opaque parameters, parameters with a calendar and objects of types without value
+	// semantics are not comparable.
+	public boolean isComparable() {
+		for (int index = 0; index < this.parameterCount; index++) {
+			byte kind = this.kinds[index];
+			
+			if (kind == UNSET || kind == OPAQUE) {
+				return false;
+			}
+			
+			if (kind != NULL && this.auxiliaryValues != null && this.auxiliaryValues[index] != null) {
+				return false;
+			}
+			
+			if (kind >= OBJECT && !isValueType(this.objectValues[index])) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	// Returns whether the given value is null or of an immutable type (or byte array) with value semantics
+	public static boolean isValueType(final Object value) {
+		return (value == null || value instanceof String || value instanceof Number || value instanceof Boolean ||
+				value instanceof Character || value instanceof java.util.Date || value instanceof TemporalAccessor ||
+				value instanceof UUID || value instanceof byte[]);
+	}
+	
+	private static boolean isPrimitive(final byte kind) {
+		return ((kind >= BOOLEAN && kind <= DOUBLE) || kind == OBJECT_WITH_TYPE_AND_SCALE);
+	}
+	
+	// Parameters are equal if they were set by the same setters to equal values. Byte arrays are
+	// compared by content.
+	@Override
+	public boolean equals(final Object object) {
+		if (this == object) {
+			return true;
+		}
+		
+		if (!(object instanceof ParameterBuffer)) {
+			return false;
+		}
+		
+		ParameterBuffer buffer = (ParameterBuffer) object;
+		if (this.parameterCount != buffer.parameterCount) {
+			return false;
+		}
+		
+		for (int index = 0; index < this.parameterCount; index++) {
+			byte kind = this.kinds[index];
+			
+			if (kind != buffer.kinds[index] || this.sqlTypes[index] != buffer.sqlTypes[index]) {
+				return false;
+			}
+			
+			if (isPrimitive(kind) && this.primitiveValues[index] != buffer.primitiveValues[index]) {
+				return false;
+			}
+			
+			if (!Objects.deepEquals(this.objectValues[index], buffer.objectValues[index]) ||
+					!Objects.equals(this.getAuxiliaryValue(index), buffer.getAuxiliaryValue(index))) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	@Override
+	public int hashCode() {
+		int hashCode = this.parameterCount;
+		
+		for (int index = 0; index < this.parameterCount; index++) {
+			byte kind = this.kinds[index];
+			Object objectValue = this.objectValues[index];
+			
+			hashCode = 31 * hashCode + kind;
+			
+			if (isPrimitive(kind)) {
+				hashCode = 31 * hashCode + Long.hashCode(this.primitiveValues[index]);
+			}
+			
+			if (objectValue instanceof byte[]) {
+				hashCode = 31 * hashCode + Arrays.hashCode((byte[]) objectValue);
+			} else if (objectValue != null) {
+				hashCode = 31 * hashCode + objectValue.hashCode();
+			}
+		}
+		
+		return hashCode;
+	}
+	
+	private Object getAuxiliaryValue(final int index) {
+		return (this.auxiliaryValues == null) ? null : this.auxiliaryValues[index];
+	}
+	
+	// Appends a readable representation of the given parameter to the builder, truncating strings
+	// to the given length
+	public void appendValue(final StringBuilder builder, final int parameterIndex, final int maxLength) {
+		int index = parameterIndex - 1;
+		byte kind = (index < this.parameterCount) ? this.kinds[index] : UNSET;
+		Object objectValue = (index < this.parameterCount) ? this.objectValues[index] : null;
+		
+		switch (kind) {
+		case UNSET:
+			builder.append("<unset>");
+			break;
+			
+		case NULL:
+			builder.append("NULL");
+			break;
+			
+		case STRING:
+		case NSTRING:
+			appendString(builder, (String) objectValue, maxLength);
+			break;
+			
+		case BYTES:
+			builder.append('<').append(((byte[]) objectValue).length).append(" bytes>");
+			break;
+			
+		case OPAQUE:
+			builder.append('<').append(objectValue).append('>');
+			break;
+			
+		default:
+			Object value = this.getValue(parameterIndex);
+			
+			if (value == null) {
+				builder.append("NULL");
+			} else if (value instanceof String) {
+				appendString(builder, (String) value, maxLength);
+			} else {
+				builder.append(value);
+			}
+		}
+	}
+	
+	private static void appendString(final StringBuilder builder, final String value, final int maxLength) {
+		if (value == null) {
+			builder.append("NULL");
+		} else if (value.length() > maxLength) {
+			builder.append('\'').append(value, 0, maxLength).append("...'");
+		} else {
+			builder.append('\'').append(value).append('\'');
+		}
+	}
+	
+	// Applies the parameters to the given statement, shifting the parameter indexes by the given offset
+	public void applyTo(final PreparedStatement statement, final int parameterOffset) throws SQLException {
+		for (int index = 0; index < this.parameterCount; index++) {
+			this.apply(statement, index, index + 1 + parameterOffset);
+		}
+	}
+	
+	private void apply(final PreparedStatement statement, final int index, final int parameterIndex) throws SQLException {
+		long primitiveValue = this.primitiveValues[index];
+		Object objectValue = this.objectValues[index];
+		Object auxiliaryValue = (this.auxiliaryValues == null) ? null : this.auxiliaryValues[index];
+		
+		switch (this.kinds[index]) {
+		case UNSET:
+			// Leave the parameter unset, so that the statement reports the error
+			break;
+			
+		case NULL:
+			if (auxiliaryValue != null) {
+				statement.setNull(parameterIndex, this.sqlTypes[index], (String) auxiliaryValue);
+			} else {
+				statement.setNull(parameterIndex, this.sqlTypes[index]);
+			}
+			break;
+			
+		case BOOLEAN:
+			statement.setBoolean(parameterIndex, (primitiveValue != 0));
+			break;
+			
+		case BYTE:
+			statement.setByte(parameterIndex, (byte) primitiveValue);
+			break;
+			
+		case SHORT:
+			statement.setShort(parameterIndex, (short) primitiveValue);
+			break;
+			
+		case INT:
+			statement.setInt(parameterIndex, (int) primitiveValue);
+			break;
+			
+		case LONG:
+			statement.setLong(parameterIndex, primitiveValue);
+			break;
+			
+		case FLOAT:
+			statement.setFloat(parameterIndex, Float.intBitsToFloat((int) primitiveValue));
+			break;
+			
+		case DOUBLE:
+			statement.setDouble(parameterIndex, Double.longBitsToDouble(primitiveValue));
+			break;
+			
+		case BIG_DECIMAL:
+			statement.setBigDecimal(parameterIndex, (BigDecimal) objectValue);
+			break;
+			
+		case STRING:
+			statement.setString(parameterIndex, (String) objectValue);
+			break;
+			
+		case NSTRING:
+			statement.setNString(parameterIndex, (String) objectValue);
+			break;
+			
+		case BYTES:
+			statement.setBytes(parameterIndex, (byte[]) objectValue);
+			break;
+			
+		case DATE:
+			if (auxiliaryValue != null) {
+				statement.setDate(parameterIndex, (Date) objectValue, (Calendar) auxiliaryValue);
+			} else {
+				statement.setDate(parameterIndex, (Date) objectValue);
+			}
+			break;
+			
+		case TIME:
+			if (auxiliaryValue != null) {
+				statement.setTime(parameterIndex, (Time) objectValue, (Calendar) auxiliaryValue);
+			} else {
+				statement.setTime(parameterIndex, (Time) objectValue);
+			}
+			break;
+			
+		case TIMESTAMP:
+			if (auxiliaryValue != null) {
+				statement.setTimestamp(parameterIndex, (Timestamp) objectValue, (Calendar) auxiliaryValue);
+			} else {
+				statement.setTimestamp(parameterIndex, (Timestamp) objectValue);
+			}
+			break;
+			
+		case OBJECT:
+			statement.setObject(parameterIndex, objectValue);
+			break;
+			
+		case OBJECT_WITH_TYPE:
+			statement.setObject(parameterIndex, objectValue, this.sqlTypes[index]);
+			break;
+			
+		case OBJECT_WITH_TYPE_AND_SCALE:
+			statement.setObject(parameterIndex, objectValue, this.sqlTypes[index], (int) primitiveValue);
+			break;
+			
+		case OPAQUE:
+			throw new SQLException("Parameter " + (index + 1) + " of type " + objectValue + " cannot be applied.");
+			
+		default:
+			throw new IllegalStateException("Unknown parameter kind " + this.kinds[index] + ".");
+		}
+	}
+
+}
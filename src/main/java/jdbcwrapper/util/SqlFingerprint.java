@@ -0,0 +1,194 @@
+package jdbcwrapper.util;
+
+public class SqlFingerprint {
+	
+	// Longer fingerprints are truncated to bound the memory used per statistics entry
+	public static final int MAX_LENGTH = 2048;
+	
+	private static final String IN_KEYWORD = "in";
+	
+	// Normalizes the given SQL string, so that statements that only differ in their literals
+	// map to the same fingerprint: string and numeric literals as well as numbered placeholders
+	// are replaced by "?", lists consisting only of placeholders after IN are collapsed to a single
+	// "?", comments are removed, whitespace is collapsed and unquoted text is lower-cased
+	public static String of(final String sql) {
+		if (sql == null) {
+			return null;
+		}
+		
+		int length = sql.length();
+		StringBuilder builder = new StringBuilder(Math.min(length, MAX_LENGTH));
+		
+		// Start position of a potential IN-list in the builder, or -1
+		int inListStart = -1;
+		boolean pendingSpace = false;
+		int position = 0;
+		
+		while (position < length && builder.length() < MAX_LENGTH) {
+			char currentChar = sql.charAt(position);
+			
+			if (Character.isWhitespace(currentChar)) {
+				pendingSpace = (builder.length() > 0);
+				position++;
+				continue;
+			}
+			
+			if (currentChar == '-' && startsWith(sql, position, "--")) {
+				// Line comment
+				position = skipUntil(sql, position + 2, "\n");
+				pendingSpace = (builder.length() > 0);
+				continue;
+			}
+			
+			if (currentChar == '/' && startsWith(sql, position, "/*")) {
+				// Block comment
+				position = skipUntil(sql, position + 2, "*/");
+				pendingSpace = (builder.length() > 0);
+				continue;
+			}
+			
+			if (pendingSpace) {
+				builder.append(' ');
+				pendingSpace = false;
+			}
+			
+			if (currentChar == '\'') {
+				// String literal, quotes are escaped by doubling
+				position = skipQuoted(sql, position, '\'');
+				builder.append('?');
+			} else if (currentChar == '"' || currentChar == '`') {
+				// Quoted identifier, kept verbatim
+				int endPosition = skipQuoted(sql, position, currentChar);
+				builder.append(sql, position, endPosition);
+				position = endPosition;
+			} else if (isDigit(currentChar) && !isIdentifierPart(lastChar(builder))) {
+				// Numeric literal
+				position = skipNumber(sql, position);
+				builder.append('?');
+			} else if (currentChar == '$' && position + 1 < length && isDigit(sql.charAt(position + 1))) {
+				// Numbered placeholder
+				position = skipNumber(sql, position + 1);
+				builder.append('?');
+			} else if (isIdentifierPart(currentChar)) {
+				int endPosition = position;
+				while (endPosition < length && isIdentifierPart(sql.charAt(endPosition))) {
+					builder.append(Character.toLowerCase(sql.charAt(endPosition)));
+					endPosition++;
+				}
+				position = endPosition;
+			} else if (currentChar == '(') {
+				inListStart = endsWithKeyword(builder, IN_KEYWORD) ? builder.length() : -1;
+				builder.append(currentChar);
+				position++;
+			} else if (currentChar == ')') {
+				if (inListStart >= 0 && isPlaceholderList(builder, inListStart + 1)) {
+					builder.setLength(inListStart + 1);
+					builder.append('?');
+				}
+				
+				inListStart = -1;
+				builder.append(currentChar);
+				position++;
+			} else {
+				builder.append(currentChar);
+				position++;
+			}
+		}
+		
+		return builder.toString();
+	}
+	
+	private static boolean startsWith(final String sql, final int position, final String prefix) {
+		return sql.startsWith(prefix, position);
+	}
+	
+	private static int skipUntil(final String sql, final int position, final String terminator) {
+		int terminatorPosition = sql.indexOf(terminator, position);
+		return (terminatorPosition < 0) ? sql.length() : (terminatorPosition + terminator.length());
+	}
+	
+	private static int skipQuoted(final String sql, final int position, final char quoteChar) {
+		int currentPosition = position + 1;
+		int length = sql.length();
+		
+		while (currentPosition < length) {
+			if (sql.charAt(currentPosition) == quoteChar) {
+				// Doubled quotes are escapes, continue in this case
+				if (currentPosition + 1 < length && sql.charAt(currentPosition + 1) == quoteChar) {
+					currentPosition += 2;
+					continue;
+				}
+				
+				return currentPosition + 1;
+			}
+			
+			currentPosition++;
+		}
+		
+		return length;
+	}
+	
+	private static int skipNumber(final String sql, final int position) {
+		int currentPosition = position;
+		int length = sql.length();
+		
+		while (currentPosition < length) {
+			char currentChar = sql.charAt(currentPosition);
+			
+			if (isDigit(currentChar) || currentChar == '.') {
+				currentPosition++;
+			} else if ((currentChar == 'e' || currentChar == 'E') && currentPosition + 1 < length && (isDigit(sql.charAt(currentPosition + 1)) || sql.charAt(currentPosition + 1) == '-')) {
+				// Exponent
+				currentPosition += 2;
+			} else {
+				break;
+			}
+		}
+		
+		return currentPosition;
+	}
+	
+	private static boolean isPlaceholderList(final StringBuilder builder, final int startPosition) {
+		boolean placeholderFound = false;
+		
+		for (int position = startPosition; position < builder.length(); position++) {
+			char currentChar = builder.charAt(position);
+			
+			if (currentChar == '?') {
+				placeholderFound = true;
+			} else if (currentChar != ',' && currentChar != ' ') {
+				return false;
+			}
+		}
+		
+		return placeholderFound;
+	}
+	
+	private static boolean endsWithKeyword(final StringBuilder builder, final String keyword) {
+		// The keyword may be followed by a space
+		int endPosition = builder.length();
+		if (endPosition > 0 && builder.charAt(endPosition - 1) == ' ') {
+			endPosition--;
+		}
+		
+		int startPosition = endPosition - keyword.length();
+		if (startPosition < 0 || (startPosition > 0 && isIdentifierPart(builder.charAt(startPosition - 1)))) {
+			return false;
+		}
+		
+		return builder.substring(startPosition, endPosition).equals(keyword);
+	}
+	
+	private static char lastChar(final StringBuilder builder) {
+		return (builder.length() == 0) ? ' ' : builder.charAt(builder.length() - 1);
+	}
+	
+	private static boolean isDigit(final char character) {
+		return (character >= '0' && character <= '9');
+	}
+	
+	private static boolean isIdentifierPart(final char character) {
+		return Character.isLetterOrDigit(character) || character == '_' || character == '$';
+	}
+
+}
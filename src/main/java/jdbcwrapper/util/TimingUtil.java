@@ -1,37 +1,25 @@
 package jdbcwrapper.util;
 
-import java.sql.SQLException;
 import java.sql.Statement;
 
 import jdbcwrapper.measurement.MeasuringConnection;
+import jdbcwrapper.measurement.StatementKind;
 
 public class TimingUtil {
 	
-	public static int time(final IntSupplier method, final Statement statement, final MeasuringConnection connection) throws SQLException {
-		connection.onStatementStart(statement);
-		try {
-			return method.get();
-		} finally {
-			connection.onStatementEnd(statement);
-		}		
-	}
+	// The timing methods are meant to be used in a try/finally block around the actual call,
+	// i.e., "long start = start(...); try { ... } finally { end(start, ...); }". As opposed to
+	// passing the call as a lambda, this does not allocate and keeps the methods small enough
+	// to be inlined at every call site
 	
-	public static boolean time(final BooleanSupplier method, final Statement statement, final MeasuringConnection connection) throws SQLException {
+	public static long start(final Statement statement, final MeasuringConnection connection) {
 		connection.onStatementStart(statement);
-		try {
-			return method.get();
-		} finally {
-			connection.onStatementEnd(statement);
-		}
+		return System.nanoTime();
 	}
 	
-	public static <T> T time(final ObjectSupplier<T> method, final Statement statement, final MeasuringConnection connection) throws SQLException {
-		connection.onStatementStart(statement);
-		try {
-			return method.get();
-		} finally {
-			connection.onStatementEnd(statement);
-		}
+	public static void end(final long startTime, final Statement statement, final StatementKind kind, final MeasuringConnection connection) {
+		long duration = System.nanoTime() - startTime;
+		connection.onStatementEnd(statement, kind, duration);
 	}
 
 }
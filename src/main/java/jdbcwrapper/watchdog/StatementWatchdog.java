@@ -0,0 +1,133 @@
+package jdbcwrapper.watchdog;
+
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jdbcwrapper.measurement.MeasuredStatement;
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.measurement.StatementMetrics;
+import jdbcwrapper.util.DriverMetadata;
+import jdbcwrapper.util.SqlFingerprint;
+
+// Execution budgets of the statements of a driver type, enforced by cancelling statements that
+// exceed them on the shared timing wheel. This avoids setQueryTimeout, which some drivers implement
+// with a timer thread per statement. Budgets can be given per fingerprint, other statements have
+// the budget of the type.
+public class StatementWatchdog {
+	
+	private static final String TIMEOUT_PROPERTY = "statement.timeout.millis";
+	
+	private static final long DEFAULT_TIMEOUT = 0;
+	
+	private static final String OVERRIDES_PROPERTY = "statement.timeout.overrides";
+	
+	private static final Logger LOGGER = Logger.getLogger(StatementWatchdog.class.getName());
+	
+	private static final ConcurrentMap<String, StatementWatchdog> WATCHDOGS = new ConcurrentHashMap<>();
+	
+	private final long defaultBudgetNanos;
+	
+	// Budgets by fingerprint
+	private final Map<String, Long> budgetOverrides;
+	
+	private final StatementMetrics metrics;
+	
+	private final TimingWheel timingWheel;
+	
+	public StatementWatchdog(final long defaultBudgetNanos, final Map<String, Long> budgetOverrides, final StatementMetrics metrics,
+			final TimingWheel timingWheel) {
+		this.defaultBudgetNanos = defaultBudgetNanos;
+		this.budgetOverrides = budgetOverrides;
+		this.metrics = metrics;
+		this.timingWheel = timingWheel;
+	}
+	
+	// Returns the watchdog of the type, or null if no budgets are configured
+	public static StatementWatchdog forMetadata(final DriverMetadata metadata) {
+		StatementWatchdog watchdog = WATCHDOGS.get(metadata.typeName);
+		
+		if (watchdog == null) {
+			watchdog = WATCHDOGS.computeIfAbsent(metadata.typeName, type -> createWatchdog(metadata));
+		}
+		
+		return (watchdog.isActive()) ? watchdog : null;
+	}
+	
+	private static StatementWatchdog createWatchdog(final DriverMetadata metadata) {
+		long timeout = metadata.getLongProperty(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT);
+		Map<String, Long> overrides = parseOverrides(metadata);
+		
+		return new StatementWatchdog(TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeout)), overrides,
+				MetricsRegistry.getStatementMetrics(metadata.typeName), TimingWheel.getInstance());
+	}
+	
+	// Parses overrides of the form "<millis>:<sql>;<millis>:<sql>", the SQL is normalized to its
+	// fingerprint. A budget of 0 exempts the statement from the budget of the type.
+	private static Map<String, Long> parseOverrides(final DriverMetadata metadata) {
+		Map<String, Long> overrides = new HashMap<>();
+		
+		for (String override : metadata.getProperty(OVERRIDES_PROPERTY, "").split(";")) {
+			String trimmedOverride = override.trim();
+			if (trimmedOverride.isEmpty()) {
+				continue;
+			}
+			
+			int separatorIndex = trimmedOverride.indexOf(':');
+			try {
+				long timeout = Long.parseLong(trimmedOverride.substring(0, Math.max(0, separatorIndex)).trim());
+				String fingerprint = SqlFingerprint.of(trimmedOverride.substring(separatorIndex + 1));
+				
+				overrides.put(fingerprint, TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeout)));
+			} catch (NumberFormatException e) {
+				LOGGER.log(Level.WARNING, () -> "Invalid statement timeout override '" + trimmedOverride + "' for " + metadata.typeName + ".");
+			}
+		}
+		
+		return (overrides.isEmpty()) ? Collections.emptyMap() : overrides;
+	}
+	
+	public static StatementWatchdog getWatchdog(final String type) {
+		return WATCHDOGS.get(type);
+	}
+	
+	// Removes the watchdogs of all types, the next connection of a type reads its budgets again
+	public static void removeAll() {
+		WATCHDOGS.clear();
+	}
+	
+	public boolean isActive() {
+		return (this.defaultBudgetNanos > 0 || !this.budgetOverrides.isEmpty());
+	}
+	
+	// Starts watching the execution of the given statement. Returns the timeout to complete when the
+	// execution ends, or null if the statement has no budget.
+	public WatchdogTimeout start(final Statement statement, final MeasuredStatement measuredStatement) {
+		long budgetNanos = this.getBudgetNanos(measuredStatement);
+		
+		return (budgetNanos > 0) ? this.timingWheel.schedule(statement, budgetNanos, this.metrics) : null;
+	}
+	
+	private long getBudgetNanos(final MeasuredStatement statement) {
+		// The fingerprint is only needed for overrides
+		if (this.budgetOverrides.isEmpty()) {
+			return this.defaultBudgetNanos;
+		}
+		
+		String fingerprint = statement.getFingerprint();
+		Long budgetOverride = (fingerprint == null) ? null : this.budgetOverrides.get(fingerprint);
+		
+		return (budgetOverride != null) ? budgetOverride : this.defaultBudgetNanos;
+	}
+	
+	public long getDefaultBudgetNanos() {
+		return this.defaultBudgetNanos;
+	}
+
+}
@@ -0,0 +1,221 @@
+package jdbcwrapper.watchdog;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jdbcwrapper.measurement.StatementMetrics;
+
+// Hashed timing wheel shared by all statement watchdogs, driven by a single daemon thread. Executing
+// threads only append new timeouts to a lock-free queue and complete them by a CAS, both in
+// constant time. The wheel thread moves the queued timeouts into the bucket of their deadline once
+// per tick, drops completed ones while walking the current bucket and cancels the statements of the
+// remaining due ones. The cancellations run on a small executor, so that a driver blocking in
+// cancel() does not delay the other timeouts. Deadlines more than one revolution ahead are kept in
+// their bucket with a count of remaining rounds. While no timeouts are pending, the thread parks
+// until the next one is scheduled.
+public class TimingWheel {
+	
+	private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	
+	// Must be a power of two
+	private static final int WHEEL_SIZE = 512;
+	
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+	
+	private static final int CANCEL_THREADS = 2;
+	
+	private static final long CANCEL_THREAD_KEEP_ALIVE_SECONDS = 60;
+	
+	private static final Logger LOGGER = Logger.getLogger(TimingWheel.class.getName());
+	
+	private static final TimingWheel INSTANCE = new TimingWheel();
+	
+	private final Queue<WatchdogTimeout> newTimeouts = new ConcurrentLinkedQueue<>();
+	
+	private final AtomicBoolean started = new AtomicBoolean();
+	
+	// Set while the wheel thread is parked without a deadline
+	private final AtomicBoolean idle = new AtomicBoolean();
+	
+	private volatile Thread wheelThread;
+	
+	private final Executor cancelExecutor = createCancelExecutor();
+	
+	// The following fields are only accessed by the wheel thread
+	
+	private final WatchdogTimeout[] buckets = new WatchdogTimeout[WHEEL_SIZE];
+	
+	private final long startTime = System.nanoTime();
+	
+	// Next tick to process
+	private long tick;
+	
+	// Number of timeouts in the buckets
+	private int timeoutCount;
+	
+	public static TimingWheel getInstance() {
+		return INSTANCE;
+	}
+	
+	private static Executor createCancelExecutor() {
+		AtomicInteger threadNumber = new AtomicInteger();
+		
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(CANCEL_THREADS, CANCEL_THREADS, CANCEL_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, "jdbc-wrapper-watchdog-cancel-" + threadNumber.getAndIncrement());
+					thread.setDaemon(true);
+					return thread;
+				});
+		
+		// Cancellations are rare, so the threads only live while there are some
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+	
+	// Starts watching the given statement, which is cancelled if the returned timeout is not completed
+	// within the given budget
+	public WatchdogTimeout schedule(final Statement statement, final long budgetNanos, final StatementMetrics metrics) {
+		WatchdogTimeout timeout = new WatchdogTimeout(statement, budgetNanos, System.nanoTime() + budgetNanos, metrics);
+		this.newTimeouts.add(timeout);
+		
+		if (!this.started.get() && this.started.compareAndSet(false, true)) {
+			this.start();
+		} else if (this.idle.get() && this.idle.compareAndSet(true, false)) {
+			LockSupport.unpark(this.wheelThread);
+		}
+		
+		return timeout;
+	}
+	
+	private void start() {
+		Thread thread = new Thread(this::run, "jdbc-wrapper-watchdog");
+		thread.setDaemon(true);
+		
+		this.wheelThread = thread;
+		thread.start();
+	}
+	
+	// Stops the wheel thread, e.g., when the driver is deregistered. Pending timeouts are dropped, the
+	// next scheduled timeout starts a new thread.
+	public void shutdown() throws InterruptedException {
+		Thread thread = this.wheelThread;
+		if (thread == null || !this.started.get()) {
+			return;
+		}
+		
+		thread.interrupt();
+		thread.join();
+	}
+	
+	private void run() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				try {
+					this.awaitNextTick();
+					this.transferNewTimeouts();
+					this.expireTimeouts();
+					this.tick++;
+				} catch (Throwable e) {
+					// Also survive errors, otherwise no statement would be cancelled anymore
+					LOGGER.log(Level.SEVERE, e, () -> "Error in the statement watchdog.");
+				}
+			}
+		} finally {
+			// If the thread is stopped or dies nevertheless, the next scheduled timeout starts a new one
+			Arrays.fill(this.buckets, null);
+			this.timeoutCount = 0;
+			this.started.set(false);
+		}
+	}
+	
+	private void awaitNextTick() {
+		if (this.timeoutCount == 0 && this.newTimeouts.isEmpty()) {
+			this.idle.set(true);
+			
+			// A timeout scheduled before the flag was set is seen here, later ones unpark the thread
+			while (this.newTimeouts.isEmpty() && this.idle.get() && !Thread.currentThread().isInterrupted()) {
+				LockSupport.park(this);
+			}
+			this.idle.set(false);
+			
+			// Ticks passed while idle are skipped, there were no timeouts in them
+			this.tick = Math.max(this.tick, (System.nanoTime() - this.startTime) / TICK_NANOS);
+		}
+		
+		long tickDeadline = this.startTime + (this.tick + 1) * TICK_NANOS;
+		for (long remainingNanos = tickDeadline - System.nanoTime(); remainingNanos > 0 && !Thread.currentThread().isInterrupted();
+				remainingNanos = tickDeadline - System.nanoTime()) {
+			LockSupport.parkNanos(this, remainingNanos);
+		}
+	}
+	
+	private void transferNewTimeouts() {
+		WatchdogTimeout timeout;
+		while ((timeout = this.newTimeouts.poll()) != null) {
+			// Timeouts of short executions are usually completed before they reach the wheel
+			if (!timeout.isPending()) {
+				continue;
+			}
+			
+			long deadlineTick = (timeout.deadline - this.startTime + TICK_NANOS - 1) / TICK_NANOS;
+			long targetTick = Math.max(deadlineTick, this.tick);
+			
+			timeout.remainingRounds = (targetTick - this.tick) / WHEEL_SIZE;
+			
+			int bucketIndex = (int) (targetTick & WHEEL_MASK);
+			timeout.next = this.buckets[bucketIndex];
+			this.buckets[bucketIndex] = timeout;
+			this.timeoutCount++;
+		}
+	}
+	
+	// Deadlines are rounded up to the next tick and a tick is processed after its end, so the timeouts
+	// in their last round are due
+	private void expireTimeouts() {
+		int bucketIndex = (int) (this.tick & WHEEL_MASK);
+		
+		WatchdogTimeout previous = null;
+		WatchdogTimeout timeout = this.buckets[bucketIndex];
+		while (timeout != null) {
+			WatchdogTimeout next = timeout.next;
+			
+			boolean remove;
+			if (!timeout.isPending()) {
+				remove = true;
+			} else if (timeout.remainingRounds <= 0) {
+				timeout.expire(this.cancelExecutor);
+				remove = true;
+			} else {
+				timeout.remainingRounds--;
+				remove = false;
+			}
+			
+			if (remove) {
+				if (previous == null) {
+					this.buckets[bucketIndex] = next;
+				} else {
+					previous.next = next;
+				}
+				
+				timeout.next = null;
+				this.timeoutCount--;
+			} else {
+				previous = timeout;
+			}
+			
+			timeout = next;
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+package jdbcwrapper.watchdog;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jdbcwrapper.measurement.StatementMetrics;
+
+// Execution budget of a running statement. The executing thread completes the timeout when the
+// execution ends, the wheel thread expires it when the budget is exceeded and hands the
+// cancellation to an executor. Both compete by a CAS on the state, so exactly one of them wins.
+public class WatchdogTimeout {
+	
+	private static final int PENDING = 0;
+	
+	private static final int COMPLETED = 1;
+	
+	private static final int CANCELLING = 2;
+	
+	private static final int CANCELLED = 3;
+	
+	private static final Logger LOGGER = Logger.getLogger(WatchdogTimeout.class.getName());
+	
+	private static final AtomicIntegerFieldUpdater<WatchdogTimeout> STATE_UPDATER =
+			AtomicIntegerFieldUpdater.newUpdater(WatchdogTimeout.class, "state");
+	
+	private final Statement statement;
+	
+	private final long budgetNanos;
+	
+	final long deadline;
+	
+	private final StatementMetrics metrics;
+	
+	private volatile int state = PENDING;
+	
+	// Thread waiting in complete() for the cancellation to finish, if any
+	private volatile Thread completingThread;
+	
+	// Maintained by the wheel thread only
+	long remainingRounds;
+	
+	WatchdogTimeout next;
+	
+	WatchdogTimeout(final Statement statement, final long budgetNanos, final long deadline, final StatementMetrics metrics) {
+		this.statement = statement;
+		this.budgetNanos = budgetNanos;
+		this.deadline = deadline;
+		this.metrics = metrics;
+	}
+	
+	// Called by the executing thread when the execution ends. If the statement is just being
+	// cancelled, waits for the cancellation to finish, so that it cannot hit a later execution.
+	public void complete() {
+		if (STATE_UPDATER.compareAndSet(this, PENDING, COMPLETED)) {
+			return;
+		}
+		
+		// Cancelling may take a while (e.g., a round trip to the database), so park instead of spinning.
+		// The cancelling thread sets the state before it reads the waiting thread, so the wake-up
+		// cannot be missed.
+		this.completingThread = Thread.currentThread();
+		while (this.state == CANCELLING) {
+			LockSupport.park(this);
+		}
+		this.completingThread = null;
+	}
+	
+	public boolean isCancelled() {
+		return (this.state == CANCELLED);
+	}
+	
+	boolean isPending() {
+		return (this.state == PENDING);
+	}
+	
+	// Called by the wheel thread when the budget is exceeded
+	void expire(final Executor cancelExecutor) {
+		if (!STATE_UPDATER.compareAndSet(this, PENDING, CANCELLING)) {
+			return;
+		}
+		
+		try {
+			cancelExecutor.execute(this::cancel);
+		} catch (RejectedExecutionException e) {
+			this.cancel();
+		}
+	}
+	
+	private void cancel() {
+		try {
+			this.statement.cancel();
+			this.metrics.recordCancelledStatement();
+			
+			LOGGER.log(Level.WARNING, () -> "Cancelled a statement exceeding its budget of " + (this.budgetNanos / 1_000_000L) + " ms.");
+		} catch (SQLException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, e, () -> "Error cancelling a statement exceeding its budget.");
+		} finally {
+			this.state = CANCELLED;
+			
+			Thread waitingThread = this.completingThread;
+			if (waitingThread != null) {
+				LockSupport.unpark(waitingThread);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,22 @@
+package jdbcwrapper.async;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Java 21 variant of the executor factory, running each task on a new virtual thread. The number
+// of concurrent tasks is limited by the caller.
+final class ExecutorFactory {
+	
+	private ExecutorFactory() {
+		// Not instantiable
+	}
+	
+	static boolean usesVirtualThreads() {
+		return true;
+	}
+	
+	static ExecutorService createExecutor(final String name, final int threadCount) {
+		return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("jdbc-wrapper-async-" + name + "-", 0).factory());
+	}
+
+}
@@ -0,0 +1,144 @@
+package jdbcwrapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.PooledConnection;
+
+import org.junit.jupiter.api.Test;
+
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.test.TestMetadata;
+import jdbcwrapper.test.TestMonitoringConnection;
+import jdbcwrapper.util.DriverMetadata;
+
+public class WrappingDataSourceTest {
+	
+	private static final String URL = "jdbc:wrapped:h2:mem:datasource;DB_CLOSE_DELAY=-1";
+	
+	@Test
+	public void testConnectionsAreWrappedWithBoundMetadata() throws SQLException {
+		WrappingDataSource dataSource = new WrappingDataSource(URL);
+		dataSource.setDelegateDriver(new org.h2.Driver());
+		dataSource.setMetadata(createMetadata("datasource-test"));
+		
+		try (Connection connection = dataSource.getConnection("sa", "")) {
+			assertTrue(connection instanceof TestMonitoringConnection);
+			
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("select 1");
+			}
+		}
+		
+		assertEquals(1, MetricsRegistry.getConnectionMetrics("datasource-test").getClosedCount());
+		
+		// Unknown types are not wrapped
+		WrappingDataSource unwrappedDataSource = new WrappingDataSource(URL);
+		unwrappedDataSource.setUser("sa");
+		try (Connection connection = unwrappedDataSource.getConnection()) {
+			assertFalse(connection instanceof WrappedConnection);
+		}
+		
+		assertThrows(SQLException.class, () -> new WrappingDataSource("jdbc:h2:mem:datasource").getConnection());
+	}
+	
+	@Test
+	public void testPooledConnectionHandsOutLogicalConnections() throws SQLException {
+		WrappingConnectionPoolDataSource dataSource = new WrappingConnectionPoolDataSource(URL);
+		dataSource.setUser("sa");
+		dataSource.setMetadata(createMetadata("datasource-pooled"));
+		
+		PooledConnection pooledConnection = dataSource.getPooledConnection();
+		List<ConnectionEvent> events = new ArrayList<>();
+		pooledConnection.addConnectionEventListener(new ConnectionEventListener() {
+			
+			@Override
+			public void connectionClosed(final ConnectionEvent event) {
+				events.add(event);
+			}
+			
+			@Override
+			public void connectionErrorOccurred(final ConnectionEvent event) {
+				// Not expected
+			}
+			
+		});
+		
+		Connection connection = pooledConnection.getConnection();
+		connection.setAutoCommit(false);
+		connection.close();
+		
+		assertTrue(connection.isClosed());
+		assertThrows(SQLException.class, connection::createStatement);
+		assertEquals(1, events.size());
+		assertSame(pooledConnection, events.get(0).getSource());
+		
+		// The physical connection stays open and is reset for the next user
+		Connection nextConnection = pooledConnection.getConnection();
+		assertFalse(nextConnection.isClosed());
+		assertTrue(nextConnection.getAutoCommit());
+		
+		// Getting another logical connection invalidates the previous one
+		Connection otherConnection = pooledConnection.getConnection();
+		assertTrue(nextConnection.isClosed());
+		assertThrows(SQLException.class, nextConnection::createStatement);
+		nextConnection = otherConnection;
+		
+		pooledConnection.close();
+		assertTrue(nextConnection.isClosed());
+		assertEquals(1, MetricsRegistry.getConnectionMetrics("datasource-pooled").getClosedCount());
+	}
+	
+	@Test
+	public void testBrokenPhysicalConnectionIsReported() throws SQLException {
+		WrappingConnectionPoolDataSource dataSource = new WrappingConnectionPoolDataSource(URL);
+		dataSource.setUser("sa");
+		dataSource.setMetadata(createMetadata("datasource-pooled-error"));
+		
+		WrappingPooledConnection pooledConnection = (WrappingPooledConnection) dataSource.getPooledConnection();
+		List<ConnectionEvent> errorEvents = new ArrayList<>();
+		pooledConnection.addConnectionEventListener(new ConnectionEventListener() {
+			
+			@Override
+			public void connectionClosed(final ConnectionEvent event) {
+				// Not expected
+			}
+			
+			@Override
+			public void connectionErrorOccurred(final ConnectionEvent event) {
+				errorEvents.add(event);
+			}
+			
+		});
+		
+		Connection connection = pooledConnection.getConnection();
+		connection.setAutoCommit(false);
+		pooledConnection.getPhysicalConnection().close();
+		
+		// The failing commit reports the broken connection to the pool and invalidates the handle
+		SQLException exception = assertThrows(SQLException.class, connection::commit);
+		assertEquals(1, errorEvents.size());
+		assertSame(exception, errorEvents.get(0).getSQLException());
+		assertTrue(connection.isClosed());
+		
+		connection.close();
+		assertEquals(1, errorEvents.size());
+	}
+	
+	private static DriverMetadata createMetadata(final String type) {
+		return TestMetadata.forMonitoringConnections(type, Collections.emptyMap());
+	}
+
+}
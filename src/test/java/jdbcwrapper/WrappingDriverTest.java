@@ -0,0 +1,150 @@
+package jdbcwrapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+import jdbcwrapper.jmx.WrapperMetricsMBean;
+import jdbcwrapper.test.TestMetadata;
+import jdbcwrapper.txmonitoring.TransactionEventDispatcher;
+import jdbcwrapper.util.DriverMetadata;
+
+public class WrappingDriverTest {
+	
+	@Test
+	public void testDeregisterReleasesSharedResources() throws SQLException {
+		String type = "driver-deregister";
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		
+		ObjectName name = WrapperMetricsMBean.register(type);
+		DriverMetadata metadata = TestMetadata.forProperty(type, "connection.listeners.dispatch", "async");
+		assertNotNull(TransactionEventDispatcher.forMetadata(metadata));
+		
+		try {
+			WrappingDriver.deregister();
+			
+			// MBeans and dispatcher threads must not keep the class loader of the driver alive
+			assertFalse(WrappingDriver.isRegistered());
+			assertFalse(server.isRegistered(name));
+			assertNull(TransactionEventDispatcher.getDispatcher(type));
+		} finally {
+			WrappingDriver.register();
+		}
+		
+		assertTrue(WrappingDriver.isRegistered());
+	}
+	
+	@Test
+	public void testDataSourcesShareOneInstanceWhileDeregistered() throws SQLException {
+		WrappingDriver.deregister();
+		
+		try {
+			// No new instance (with its own metrics endpoints) per connection
+			assertSame(WrappingDriver.getInstance(), WrappingDriver.getInstance());
+			
+			WrappingDataSource dataSource = new WrappingDataSource("jdbc:wrapped:h2:mem:");
+			assertSame(WrappingDriver.PARENT_LOGGER, dataSource.getParentLogger());
+			
+			dataSource.setLoginTimeout(0);
+			assertEquals(0, dataSource.getLoginTimeout());
+			assertThrows(SQLFeatureNotSupportedException.class, () -> dataSource.setLoginTimeout(10));
+		} finally {
+			WrappingDriver.register();
+		}
+	}
+	
+	@Test
+	public void testDelegatesAreResolvedPerClassLoader() throws SQLException, IOException {
+		WrappingDriver driver = new WrappingDriver();
+		Thread thread = Thread.currentThread();
+		ClassLoader originalClassLoader = thread.getContextClassLoader();
+		
+		try (URLClassLoader otherClassLoader = new URLClassLoader(new URL[0], originalClassLoader)) {
+			try (Connection connection = driver.connect("jdbc:wrapped:h2:mem:", new Properties())) {
+				assertNotNull(connection);
+			}
+			
+			thread.setContextClassLoader(otherClassLoader);
+			try (Connection connection = driver.connect("jdbc:wrapped:h2:mem:", new Properties())) {
+				assertNotNull(connection);
+			}
+		} finally {
+			thread.setContextClassLoader(originalClassLoader);
+		}
+	}
+	
+	@Test
+	public void testUnacceptedUrlIsReportedAfterResolvingAgain() throws SQLException {
+		Driver nullDriver = new NullDriver();
+		WrappingDriver.registerDriver(nullDriver);
+		
+		try {
+			// The delegate accepts the URL, but does not return a connection
+			WrappingDriver driver = new WrappingDriver();
+			assertThrows(SQLException.class, () -> driver.connect("jdbc:wrapped:nulldriver:test", new Properties()));
+		} finally {
+			WrappingDriver.deregisterDriver(nullDriver);
+		}
+	}
+	
+	private static class NullDriver implements Driver {
+		
+		@Override
+		public Connection connect(final String url, final Properties info) {
+			return null;
+		}
+		
+		@Override
+		public boolean acceptsURL(final String url) {
+			return url.startsWith("jdbc:nulldriver:");
+		}
+		
+		@Override
+		public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) {
+			return new DriverPropertyInfo[0];
+		}
+		
+		@Override
+		public int getMajorVersion() {
+			return 1;
+		}
+		
+		@Override
+		public int getMinorVersion() {
+			return 0;
+		}
+		
+		@Override
+		public boolean jdbcCompliant() {
+			return false;
+		}
+		
+		@Override
+		public Logger getParentLogger() {
+			return null;
+		}
+		
+	}
+
+}
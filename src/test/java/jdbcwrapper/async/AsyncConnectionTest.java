@@ -0,0 +1,123 @@
+package jdbcwrapper.async;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.measurement.StatementKind;
+import jdbcwrapper.test.ResetRegistries;
+import jdbcwrapper.test.TestMonitoringConnection;
+
+@ExtendWith(ResetRegistries.class)
+public class AsyncConnectionTest {
+	
+	private static final String URL = "jdbc:h2:mem:async;DB_CLOSE_DELAY=-1";
+	
+	@Test
+	public void testStatementsAreExecutedInSubmissionOrder() throws Exception {
+		try (Connection connection = TestMonitoringConnection.open(URL, Collections.emptyMap())) {
+			AsyncConnection asyncConnection = AsyncConnection.of(connection);
+			assertSame(AsyncExecutor.getExecutor(TestMonitoringConnection.TYPE), asyncConnection.getExecutor());
+			
+			asyncConnection.executeUpdateAsync("create table if not exists async_test (id int, position int)");
+			asyncConnection.executeUpdateAsync("delete from async_test");
+			
+			// Each insert reads the number of previous rows, which only matches its id if the inserts run in order
+			List<CompletableFuture<Integer>> inserts = new ArrayList<>();
+			for (int id = 0; id < 50; id++) {
+				int currentId = id;
+				inserts.add(asyncConnection.executeUpdateAsync("insert into async_test select ?, count(*) from async_test",
+						statement -> statement.setInt(1, currentId)));
+			}
+			
+			CompletableFuture<int[]> batch = asyncConnection.executeBatchAsync("insert into async_test values (?, -1)",
+					Arrays.asList(statement -> statement.setInt(1, 100), statement -> statement.setInt(1, 101)));
+			
+			CompletableFuture<Integer> mismatches = asyncConnection.executeQueryAsync("select count(*) from async_test where position <> id and position >= 0",
+					resultSet -> {
+						resultSet.next();
+						return resultSet.getInt(1);
+					});
+			
+			CompletableFuture<Integer> count = asyncConnection.executeQueryAsync("select count(*) from async_test where id >= ?",
+					statement -> statement.setInt(1, 100), resultSet -> {
+						resultSet.next();
+						return resultSet.getInt(1);
+					});
+			
+			for (CompletableFuture<Integer> insert : inserts) {
+				assertEquals(1, insert.get(10, TimeUnit.SECONDS).intValue());
+			}
+			assertArrayEquals(new int[] { 1, 1 }, batch.get(10, TimeUnit.SECONDS));
+			assertEquals(0, mismatches.get(10, TimeUnit.SECONDS).intValue());
+			assertEquals(2, count.get(10, TimeUnit.SECONDS).intValue());
+			
+			// The statements are measured like synchronous ones
+			assertEquals(2, MetricsRegistry.getStatementMetrics(TestMonitoringConnection.TYPE).snapshot(StatementKind.QUERY).getCount());
+		}
+	}
+	
+	@Test
+	public void testSubmissionsAreRejectedWhenSaturated() throws Exception {
+		AsyncExecutor executor = new AsyncExecutor("async-saturated", 2, 2, 0);
+		
+		try (Connection connection = DriverManager.getConnection(URL)) {
+			AsyncConnection asyncConnection = new AsyncConnection(connection, executor);
+			CountDownLatch connectionLatch = new CountDownLatch(1);
+			CountDownLatch otherLatch = new CountDownLatch(1);
+			
+			CompletableFuture<Boolean> blocking = asyncConnection.submit(c -> await(connectionLatch));
+			CompletableFuture<Boolean> other = executor.submit(() -> await(otherLatch));
+			
+			// Both permits are taken
+			CompletableFuture<Boolean> rejected = asyncConnection.submit(Connection::getAutoCommit);
+			ExecutionException exception = assertThrows(ExecutionException.class, () -> rejected.get(10, TimeUnit.SECONDS));
+			assertTrue(exception.getCause() instanceof SQLTransientException);
+			assertEquals(1, executor.getRejectedCount());
+			
+			otherLatch.countDown();
+			assertTrue(other.get(10, TimeUnit.SECONDS));
+			
+			// The rejection does not let later tasks overtake the running one
+			CompletableFuture<Boolean> later = asyncConnection.submit(c -> blocking.isDone());
+			
+			connectionLatch.countDown();
+			assertTrue(blocking.get(10, TimeUnit.SECONDS));
+			assertTrue(later.get(10, TimeUnit.SECONDS));
+			
+			asyncConnection.whenIdle().get(10, TimeUnit.SECONDS);
+			assertEquals(0, executor.getPendingCount());
+			assertEquals(3, executor.getSubmittedCount());
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	private static boolean await(final CountDownLatch latch) throws SQLException {
+		try {
+			return latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			throw new SQLException(e);
+		}
+	}
+
+}
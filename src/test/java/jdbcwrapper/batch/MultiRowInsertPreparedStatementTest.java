@@ -0,0 +1,205 @@
+package jdbcwrapper.batch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.measurement.StatementCacheMetrics;
+import jdbcwrapper.test.ResetRegistries;
+import jdbcwrapper.test.TestMonitoringConnection;
+
+@ExtendWith(ResetRegistries.class)
+public class MultiRowInsertPreparedStatementTest {
+	
+	private static final String URL = "jdbc:h2:mem:insertrewrite;DB_CLOSE_DELAY=-1";
+	
+	private static final String INSERT_SQL = "insert into rewrite_test (id, name, amount) values (?, ?, ?)";
+	
+	@BeforeEach
+	public void createTable() throws SQLException {
+		try (Connection connection = DriverManager.getConnection(URL);
+				Statement statement = connection.createStatement()) {
+			statement.execute("create table if not exists rewrite_test (id int primary key, name varchar(100), amount double)");
+			statement.execute("delete from rewrite_test");
+		}
+	}
+	
+	@Test
+	public void testBatchIsInsertedInChunks() throws SQLException {
+		try (Connection connection = openConnection();
+				PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+			for (int id = 0; id < 10; id++) {
+				statement.setInt(1, id);
+				if (id % 2 == 0) {
+					statement.setString(2, "name" + id);
+				} else {
+					statement.setNull(2, Types.VARCHAR);
+				}
+				statement.setDouble(3, id * 1.5);
+				statement.addBatch();
+			}
+			
+			// Ten rows with a chunk size of four are inserted by three statements
+			int[] updateCounts = statement.executeBatch();
+			assertArrayEquals(new int[] {1, 1, 1, 1, 1, 1, 1, 1, 1, 1}, updateCounts);
+			
+			// The batch is empty afterwards
+			assertEquals(0, statement.executeBatch().length);
+			
+			// Regular executions use the current parameters
+			statement.setInt(1, 10);
+			assertEquals(1, statement.executeUpdate());
+			
+			try (Statement query = connection.createStatement();
+					ResultSet resultSet = query.executeQuery("select id, name, amount from rewrite_test order by id")) {
+				for (int id = 0; id <= 10; id++) {
+					assertTrue(resultSet.next());
+					assertEquals(id, resultSet.getInt(1));
+					assertEquals((id % 2 == 0 && id < 10) ? "name" + id : null, resultSet.getString(2));
+					assertEquals(Math.min(id, 9) * 1.5, resultSet.getDouble(3), 0.0);
+				}
+				
+				assertFalse(resultSet.next());
+			}
+		}
+	}
+	
+	@Test
+	public void testFailedChunkReportsPreviousUpdateCounts() throws SQLException {
+		try (Connection connection = openConnection();
+				PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+			// The sixth row violates the primary key, so the second chunk fails
+			for (int id : new int[] {1, 2, 3, 4, 5, 1, 7}) {
+				statement.setInt(1, id);
+				statement.setString(2, "name");
+				statement.setDouble(3, 0.0);
+				statement.addBatch();
+			}
+			
+			BatchUpdateException exception = assertThrows(BatchUpdateException.class, statement::executeBatch);
+			assertArrayEquals(new int[] {1, 1, 1, 1}, exception.getUpdateCounts());
+		}
+	}
+	
+	@Test
+	public void testMutableParametersAreCopied() throws SQLException {
+		try (Connection connection = openConnection()) {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("create table if not exists rewrite_mutable (id int primary key, created timestamp, data varbinary(10))");
+				statement.execute("delete from rewrite_mutable");
+			}
+			
+			// Reuse the same mutable values for every row
+			Timestamp timestamp = new Timestamp(0);
+			byte[] data = new byte[1];
+			
+			try (PreparedStatement statement = connection.prepareStatement("insert into rewrite_mutable (id, created, data) values (?, ?, ?)")) {
+				for (int id = 0; id < 3; id++) {
+					timestamp.setTime(id * 1000L);
+					data[0] = (byte) id;
+					
+					statement.setInt(1, id);
+					statement.setTimestamp(2, timestamp);
+					statement.setBytes(3, data);
+					statement.addBatch();
+				}
+				
+				statement.executeBatch();
+			}
+			
+			try (Statement query = connection.createStatement();
+					ResultSet resultSet = query.executeQuery("select created, data from rewrite_mutable order by id")) {
+				for (int id = 0; id < 3; id++) {
+					assertTrue(resultSet.next());
+					assertEquals(id * 1000L, resultSet.getTimestamp(1).getTime());
+					assertArrayEquals(new byte[] {(byte) id}, resultSet.getBytes(2));
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void testChunkStatementsAreCached() throws SQLException {
+		Map<String, String> properties = new HashMap<>();
+		properties.put("statement.cache.size", "10");
+		
+		try (Connection connection = openConnection(properties)) {
+			// Ten rows use a full chunk statement for four rows and a remainder statement for two rows
+			for (int batch = 0; batch < 2; batch++) {
+				try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+					for (int id = 0; id < 10; id++) {
+						statement.setInt(1, batch * 10 + id);
+						statement.setString(2, "name");
+						statement.setDouble(3, 0.0);
+						statement.addBatch();
+					}
+					
+					statement.executeBatch();
+				}
+			}
+		}
+		
+		// The second batch reuses all three statements
+		StatementCacheMetrics metrics = MetricsRegistry.getStatementCacheMetrics(TestMonitoringConnection.TYPE);
+		assertEquals(3, metrics.getMissCount());
+		assertEquals(3, metrics.getHitCount());
+	}
+	
+	@Test
+	public void testFallbackForUnsupportedParameters() throws SQLException {
+		try (Connection connection = openConnection();
+				PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+			statement.setInt(1, 1);
+			statement.setString(2, "first");
+			statement.setDouble(3, 1.0);
+			statement.addBatch();
+			
+			// Streams cannot be recorded, so the statement falls back to regular batching
+			statement.setInt(1, 2);
+			statement.setCharacterStream(2, new StringReader("second"));
+			statement.addBatch();
+			
+			assertEquals(2, statement.executeBatch().length);
+			
+			try (Statement query = connection.createStatement();
+					ResultSet resultSet = query.executeQuery("select name, amount from rewrite_test order by id")) {
+				assertTrue(resultSet.next());
+				assertEquals("first", resultSet.getString(1));
+				assertTrue(resultSet.next());
+				assertEquals("second", resultSet.getString(1));
+				assertEquals(1.0, resultSet.getDouble(2), 0.0);
+			}
+		}
+	}
+	
+	private static Connection openConnection() throws SQLException {
+		return openConnection(new HashMap<>());
+	}
+	
+	private static Connection openConnection(final Map<String, String> properties) throws SQLException {
+		properties.put("batch.insert.rewrite.size", "4");
+		
+		return TestMonitoringConnection.open(URL, properties);
+	}
+
+}
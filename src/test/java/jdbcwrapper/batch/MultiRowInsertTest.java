@@ -0,0 +1,33 @@
+package jdbcwrapper.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+public class MultiRowInsertTest {
+	
+	@Test
+	public void testParseSimpleInserts() {
+		MultiRowInsert insert = MultiRowInsert.parse("INSERT INTO test (a, b) VALUES (?, ?)");
+		assertEquals(2, insert.getParameterCount());
+		assertEquals("INSERT INTO test (a, b) VALUES (?, ?), (?, ?), (?, ?)", insert.getSql(3));
+		
+		insert = MultiRowInsert.parse(" insert into values_table values(?, 'a?', \"values\", lower(?)) ");
+		assertEquals(2, insert.getParameterCount());
+		assertEquals("insert into values_table values (?, 'a?', \"values\", lower(?)), (?, 'a?', \"values\", lower(?))", insert.getSql(2));
+	}
+	
+	@Test
+	public void testUnsupportedStatements() {
+		assertNull(MultiRowInsert.parse("update test set a = ?"));
+		assertNull(MultiRowInsert.parse("insert into test select * from other where a = ?"));
+		assertNull(MultiRowInsert.parse("insert into test values (?) on conflict do nothing"));
+		assertNull(MultiRowInsert.parse("insert into test values (?) returning id"));
+		assertNull(MultiRowInsert.parse("insert into test values (?), (?)x"));
+		assertNull(MultiRowInsert.parse("insert into test values (?) -- comment"));
+		assertNull(MultiRowInsert.parse("insert into test default values"));
+		assertNull(MultiRowInsert.parse("insert into test values ('unterminated)"));
+	}
+
+}
@@ -0,0 +1,114 @@
+package jdbcwrapper.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.measurement.StatementCacheMetrics;
+import jdbcwrapper.test.ResetRegistries;
+import jdbcwrapper.test.TestMonitoringConnection;
+
+@ExtendWith(ResetRegistries.class)
+public class PreparedStatementCacheTest {
+	
+	@Test
+	public void testStatementsAreReused() throws SQLException {
+		try (TestMonitoringConnection connection = openConnection()) {
+			PreparedStatement statement = connection.prepareStatement("select ?");
+			PreparedStatement delegate = statement.unwrap(PreparedStatement.class);
+			statement.setInt(1, 42);
+			statement.close();
+			assertTrue(statement.isClosed());
+			
+			// The same delegate is returned with its parameters cleared
+			PreparedStatement cachedStatement = connection.prepareStatement("select ?");
+			assertSame(delegate, cachedStatement.unwrap(PreparedStatement.class));
+			assertThrows(SQLException.class, cachedStatement::executeQuery);
+			
+			cachedStatement.setInt(1, 43);
+			try (ResultSet resultSet = cachedStatement.executeQuery()) {
+				resultSet.next();
+				assertEquals(43, resultSet.getInt(1));
+			}
+			
+			// Different overloads are cached separately
+			PreparedStatement otherStatement = connection.prepareStatement("select ?", Statement.RETURN_GENERATED_KEYS);
+			assertNotSame(delegate, otherStatement.unwrap(PreparedStatement.class));
+		}
+		
+		StatementCacheMetrics metrics = MetricsRegistry.getStatementCacheMetrics(TestMonitoringConnection.TYPE);
+		assertEquals(1, metrics.getHitCount());
+		assertEquals(2, metrics.getMissCount());
+	}
+	
+	@Test
+	public void testClosedStatementsCannotBeUsed() throws SQLException {
+		try (TestMonitoringConnection connection = openConnection()) {
+			PreparedStatement statement = connection.prepareStatement("select ?");
+			statement.setInt(1, 42);
+			ResultSet resultSet = statement.executeQuery();
+			statement.close();
+			
+			// The open result set is closed with the statement, and the statement cannot be used while cached
+			assertTrue(resultSet.isClosed());
+			assertThrows(SQLException.class, () -> statement.setInt(1, 43));
+			assertThrows(SQLException.class, statement::executeQuery);
+			
+			// Neither after the delegate was handed out again
+			PreparedStatement cachedStatement = connection.prepareStatement("select ?");
+			assertSame(statement.unwrap(PreparedStatement.class), cachedStatement.unwrap(PreparedStatement.class));
+			assertThrows(SQLException.class, () -> statement.setInt(1, 43));
+			cachedStatement.close();
+		}
+	}
+	
+	@Test
+	public void testLeastRecentlyUsedStatementsAreEvicted() throws SQLException {
+		try (TestMonitoringConnection connection = openConnection()) {
+			PreparedStatement statement1 = connection.prepareStatement("select 1");
+			PreparedStatement statement2 = connection.prepareStatement("select 2");
+			PreparedStatement statement3 = connection.prepareStatement("select 3");
+			PreparedStatement delegate1 = statement1.unwrap(PreparedStatement.class);
+			
+			statement1.close();
+			statement2.close();
+			statement3.close();
+			
+			assertEquals(2, connection.getStatementCache().size());
+			assertTrue(delegate1.isClosed());
+		}
+		
+		assertEquals(1, MetricsRegistry.getStatementCacheMetrics(TestMonitoringConnection.TYPE).getEvictionCount());
+	}
+	
+	@Test
+	public void testModifiedStatementsAreNotCached() throws SQLException {
+		try (TestMonitoringConnection connection = openConnection()) {
+			PreparedStatement statement = connection.prepareStatement("select 1");
+			PreparedStatement delegate = statement.unwrap(PreparedStatement.class);
+			
+			statement.setMaxRows(1);
+			statement.close();
+			
+			assertTrue(delegate.isClosed());
+			assertEquals(0, connection.getStatementCache().size());
+		}
+	}
+	
+	private static TestMonitoringConnection openConnection() throws SQLException {
+		return TestMonitoringConnection.open("jdbc:h2:mem:", Collections.singletonMap("statement.cache.size", "2"));
+	}
+
+}
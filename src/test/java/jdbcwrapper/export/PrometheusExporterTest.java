@@ -0,0 +1,102 @@
+package jdbcwrapper.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import jdbcwrapper.test.TestMetadata;
+import jdbcwrapper.test.TestMonitoringConnection;
+import jdbcwrapper.util.DriverMetadata;
+
+public class PrometheusExporterTest {
+	
+	private static final String URL = "jdbc:h2:mem:export;DB_CLOSE_DELAY=-1";
+	
+	@Test
+	public void testMetricsAreWrittenInTextFormat() throws SQLException, IOException {
+		String type = "export-\"text\"";
+		
+		try (TestMonitoringConnection connection = new TestMonitoringConnection(DriverManager.getConnection(URL), Collections.emptyList(),
+				DriverMetadata.defaults(type));
+				Statement statement = connection.createStatement()) {
+			statement.executeUpdate("create table if not exists export_test (id varchar(10))");
+			statement.executeQuery("select id from export_test where id = 'a\\b'").close();
+		}
+		
+		StringWriter writer = new StringWriter();
+		new PrometheusTextWriter(writer).writeMetrics(Collections.singletonList(type));
+		String output = writer.toString();
+		
+		assertTrue(output.contains("# TYPE jdbcwrapper_connections_open gauge\njdbcwrapper_connections_open{type=\"export-\\\"text\\\"\"} 0\n"));
+		assertTrue(output.contains("jdbcwrapper_connections_closed_total{type=\"export-\\\"text\\\"\"} 1\n"));
+		assertTrue(output.contains("jdbcwrapper_statement_duration_seconds_count{type=\"export-\\\"text\\\"\",kind=\"query\"} 1\n"));
+		assertTrue(output.contains("jdbcwrapper_statement_duration_seconds{type=\"export-\\\"text\\\"\",kind=\"update\",quantile=\"0.99\"} "));
+		assertTrue(output.contains("jdbcwrapper_query_calls_total{type=\"export-\\\"text\\\"\",fingerprint=\"select id from export_test where id = ?\"} 1\n"));
+		
+		// Each family is announced exactly once
+		long typeLines = Arrays.stream(output.split("\n")).filter(line -> line.startsWith("# TYPE jdbcwrapper_query_calls_total ")).count();
+		assertEquals(1, typeLines);
+	}
+	
+	@Test
+	public void testExporterListensOnLoopbackByDefault() throws IOException {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		
+		DriverMetadata metadata = TestMetadata.forProperty("export-loopback", "metrics.http.port", String.valueOf(port));
+		
+		PrometheusExporter exporter = PrometheusExporter.forMetadata(metadata);
+		try {
+			assertTrue(exporter.getAddress().getAddress().isLoopbackAddress());
+		} finally {
+			PrometheusExporter.stopAll();
+		}
+	}
+	
+	@Test
+	public void testMetricsAreServedOverHttp() throws IOException {
+		PrometheusExporter exporter = new PrometheusExporter(new InetSocketAddress("localhost", 0));
+		exporter.addType("export-http");
+		exporter.start();
+		
+		try {
+			URL url = new URL("http://localhost:" + exporter.getAddress().getPort() + "/metrics");
+			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+			
+			assertEquals(200, connection.getResponseCode());
+			assertEquals(PrometheusTextWriter.CONTENT_TYPE, connection.getContentType());
+			
+			try (InputStream inputStream = connection.getInputStream()) {
+				ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+				byte[] buffer = new byte[4096];
+				for (int count = inputStream.read(buffer); count >= 0; count = inputStream.read(buffer)) {
+					outputStream.write(buffer, 0, count);
+				}
+				
+				String body = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+				assertTrue(body.contains("jdbcwrapper_transactions_started_total{type=\"export-http\"} 0\n"));
+			}
+		} finally {
+			exporter.stop();
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+package jdbcwrapper.jmx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+import jdbcwrapper.test.TestMetadata;
+import jdbcwrapper.test.TestMonitoringConnection;
+import jdbcwrapper.util.DriverMetadata;
+
+public class WrapperMetricsMBeanTest {
+	
+	private static final String URL = "jdbc:h2:mem:jmx;DB_CLOSE_DELAY=-1";
+	
+	@Test
+	public void testAttributesReflectMetrics() throws SQLException, JMException {
+		String type = "jmx-test";
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		
+		ObjectName name = WrapperMetricsMBean.register(type);
+		try {
+			assertEquals(WrapperMetricsMBean.objectName(type), name);
+			assertSame(name, WrapperMetricsMBean.register(type));
+			assertTrue(server.isRegistered(name));
+			
+			try (TestMonitoringConnection connection = new TestMonitoringConnection(DriverManager.getConnection(URL), Collections.emptyList(),
+					DriverMetadata.defaults(type))) {
+				assertEquals(1L, server.getAttribute(name, "OpenConnections"));
+				
+				connection.setAutoCommit(false);
+				try (Statement statement = connection.createStatement()) {
+					statement.executeUpdate("create table if not exists jmx_test (id int)");
+					
+					try (ResultSet resultSet = statement.executeQuery("select count(*) from jmx_test")) {
+						assertTrue(resultSet.next());
+					}
+				}
+				connection.commit();
+			}
+			
+			AttributeList attributes = server.getAttributes(name, new String[] { "OpenConnections", "ClosedConnections", "TransactionsStarted",
+					"TransactionsCommitted", "QueryStatements", "UpdateStatements", "Unknown" });
+			assertEquals(6, attributes.size());
+			assertEquals(0L, attributes.asList().get(0).getValue());
+			assertEquals(1L, attributes.asList().get(1).getValue());
+			assertEquals(1L, attributes.asList().get(3).getValue());
+			assertEquals(1L, attributes.asList().get(4).getValue());
+			assertEquals(1L, attributes.asList().get(5).getValue());
+			
+			long p50 = (Long) server.getAttribute(name, "QueryLatencyP50");
+			long max = (Long) server.getAttribute(name, "QueryLatencyMax");
+			assertTrue(p50 > 0 && p50 <= max);
+			
+			assertThrows(AttributeNotFoundException.class, () -> server.getAttribute(name, "Unknown"));
+		} finally {
+			WrapperMetricsMBean.unregister(type);
+		}
+		
+		assertFalse(server.isRegistered(name));
+	}
+	
+	@Test
+	public void testRegistrationCanBeDisabled() {
+		DriverMetadata metadata = TestMetadata.forProperty("jmx-disabled", "jmx.enabled", "false");
+		
+		assertNull(WrapperMetricsMBean.forMetadata(metadata));
+		assertNotNull(WrapperMetricsMBean.forMetadata(DriverMetadata.defaults("jmx-enabled")));
+		
+		WrapperMetricsMBean.unregister("jmx-enabled");
+	}
+
+}
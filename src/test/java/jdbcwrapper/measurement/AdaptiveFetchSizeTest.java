@@ -0,0 +1,119 @@
+package jdbcwrapper.measurement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import jdbcwrapper.test.ResetRegistries;
+import jdbcwrapper.test.TestMonitoringConnection;
+
+@ExtendWith(ResetRegistries.class)
+public class AdaptiveFetchSizeTest {
+	
+	private static final String URL = "jdbc:h2:mem:fetchsize";
+	
+	private static final String QUERY = "select x from system_range(1, ?)";
+	
+	@Test
+	public void testFetchSizeBounds() {
+		QueryStatisticsTable statistics = new QueryStatisticsTable(10);
+		AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize(statistics, 10, 100);
+		
+		statistics.recordResultSet("small", 1, 0, 1);
+		statistics.recordResultSet("medium", 49, 0, 1);
+		statistics.recordResultSet("large", 100000, 0, 1);
+		statistics.recordExecution("update", 0, 1);
+		
+		assertEquals(10, adaptiveFetchSize.getFetchSize("small"));
+		assertEquals(50, adaptiveFetchSize.getFetchSize("medium"));
+		assertEquals(100, adaptiveFetchSize.getFetchSize("large"));
+		assertEquals(AdaptiveFetchSize.NO_FETCH_SIZE, adaptiveFetchSize.getFetchSize("update"));
+		assertEquals(AdaptiveFetchSize.NO_FETCH_SIZE, adaptiveFetchSize.getFetchSize("unknown"));
+		
+		Map<String, Integer> learnedFetchSizes = adaptiveFetchSize.getLearnedFetchSizes();
+		assertEquals(3, learnedFetchSizes.size());
+		assertEquals(50, learnedFetchSizes.get("medium").intValue());
+		
+		// Later result sets move the fetch size gradually
+		statistics.recordResultSet("medium", 9, 0, 1);
+		assertEquals(40, adaptiveFetchSize.getFetchSize("medium"));
+	}
+	
+	@Test
+	public void testFetchSizeIsSetBeforeQueries() throws SQLException {
+		try (TestMonitoringConnection connection = openConnection();
+				PreparedStatement statement = connection.prepareStatement(QUERY)) {
+			int defaultFetchSize = statement.getFetchSize();
+			statement.setInt(1, 30);
+			
+			// Nothing is known before the first execution
+			readAll(statement);
+			assertEquals(defaultFetchSize, statement.getFetchSize());
+			
+			readAll(statement);
+			assertEquals(31, statement.getFetchSize());
+			
+			statement.setInt(1, 1000);
+			readAll(statement);
+			readAll(statement);
+			assertEquals(200, statement.getFetchSize());
+			
+			// Fetch sizes set by the user are not changed
+			statement.setFetchSize(7);
+			readAll(statement);
+			assertEquals(7, statement.getFetchSize());
+			
+			assertEquals(200, connection.getAdaptiveFetchSize().getLearnedFetchSizes().values().iterator().next().intValue());
+		}
+	}
+	
+	@Test
+	public void testDefaultFetchSizeIsRestoredForOtherQueries() throws SQLException {
+		try (TestMonitoringConnection connection = openConnection();
+				Statement statement = connection.createStatement()) {
+			int defaultFetchSize = statement.getFetchSize();
+			
+			readAll(statement, "select x from system_range(1, 30)");
+			readAll(statement, "select x from system_range(1, 30)");
+			assertEquals(31, statement.getFetchSize());
+			
+			// Nothing is known about the other query, so the statement uses the default again
+			readAll(statement, "select x, x from system_range(1, 20)");
+			assertEquals(defaultFetchSize, statement.getFetchSize());
+		}
+	}
+	
+	private static void readAll(final Statement statement, final String sql) throws SQLException {
+		try (ResultSet resultSet = statement.executeQuery(sql)) {
+			while (resultSet.next()) {
+				// Read all rows
+			}
+		}
+	}
+	
+	private static void readAll(final PreparedStatement statement) throws SQLException {
+		try (ResultSet resultSet = statement.executeQuery()) {
+			while (resultSet.next()) {
+				// Read all rows
+			}
+		}
+	}
+	
+	private static TestMonitoringConnection openConnection() throws SQLException {
+		Map<String, String> properties = new HashMap<>();
+		properties.put("fetch.size.adaptive", "true");
+		properties.put("fetch.size.adaptive.min", "5");
+		properties.put("fetch.size.adaptive.max", "200");
+		
+		return TestMonitoringConnection.open(URL, properties);
+	}
+
+}
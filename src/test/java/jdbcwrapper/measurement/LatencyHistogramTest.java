@@ -0,0 +1,81 @@
+package jdbcwrapper.measurement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+	
+	@Test
+	public void testBucketBoundaries() {
+		// Small values are counted exactly
+		for (long value = 0; value < 32; value++) {
+			assertEquals(value, LatencyHistogram.highestValueInBucket(LatencyHistogram.bucketIndex(value)));
+		}
+		
+		// Each value must lie within its bucket, and buckets are contiguous
+		long previousHighestValue = -1;
+		for (int bucketIndex = 0; bucketIndex < LatencyHistogram.BUCKET_COUNT; bucketIndex++) {
+			long highestValue = LatencyHistogram.highestValueInBucket(bucketIndex);
+			
+			assertEquals(bucketIndex, LatencyHistogram.bucketIndex(previousHighestValue + 1));
+			assertEquals(bucketIndex, LatencyHistogram.bucketIndex(highestValue));
+			previousHighestValue = highestValue;
+		}
+		
+		assertEquals(LatencyHistogram.MAX_TRACKABLE_VALUE, previousHighestValue);
+	}
+	
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram(4);
+		
+		for (long value = 1; value <= 100_000; value++) {
+			histogram.record(value * 1000);
+		}
+		
+		HistogramSnapshot snapshot = histogram.snapshot();
+		
+		assertEquals(100_000, snapshot.getCount());
+		assertEquals(100_000_000L, snapshot.getMax());
+		assertWithinRelativeError(50_000_000L, snapshot.getP50());
+		assertWithinRelativeError(99_000_000L, snapshot.getP99());
+		assertWithinRelativeError(99_900_000L, snapshot.getP999());
+		assertWithinRelativeError(50_000_500L, (long) snapshot.getMean());
+	}
+	
+	@Test
+	public void testConcurrentRecording() throws InterruptedException {
+		LatencyHistogram histogram = new LatencyHistogram(2);
+		List<Thread> threads = new ArrayList<>();
+		
+		for (int threadIndex = 0; threadIndex < 8; threadIndex++) {
+			Thread thread = new Thread(() -> {
+				for (int value = 0; value < 10_000; value++) {
+					histogram.record(value);
+				}
+			});
+			
+			threads.add(thread);
+			thread.start();
+		}
+		
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		
+		HistogramSnapshot snapshot = histogram.snapshot();
+		assertEquals(80_000, snapshot.getCount());
+		assertEquals(9_999, snapshot.getMax());
+	}
+	
+	private static void assertWithinRelativeError(final long expected, final long actual) {
+		double relativeError = Math.abs(actual - expected) / (double) expected;
+		assertTrue(relativeError < 0.035, () -> "Expected " + expected + ", but was " + actual + ".");
+	}
+
+}
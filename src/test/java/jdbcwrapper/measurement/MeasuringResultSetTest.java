@@ -0,0 +1,106 @@
+package jdbcwrapper.measurement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.Test;
+
+public class MeasuringResultSetTest {
+	
+	private static final String URL = "jdbc:h2:mem:resultsets";
+	
+	private static final String QUERY = "select x from system_range(1, 250)";
+	
+	@Test
+	public void testExhaustedResultSet() throws SQLException {
+		RecordingConnection recorder = new RecordingConnection();
+		
+		try (Connection connection = DriverManager.getConnection(URL);
+				Statement statement = new MeasuringStatement(connection.createStatement(), recorder);
+				ResultSet resultSet = statement.executeQuery(QUERY)) {
+			resultSet.setFetchSize(100);
+			
+			while (resultSet.next()) {
+				// Read all rows
+			}
+			
+			// Reported once when exhausted, closing does not report again
+			assertEquals(1, recorder.resultSets);
+		}
+		
+		assertEquals(1, recorder.resultSets);
+		assertEquals(250, recorder.rowCount);
+		assertTrue(recorder.firstRowNanos >= 0);
+		assertTrue(recorder.fetchNanos >= recorder.firstRowNanos);
+		// Two full fetches and a partial one
+		assertEquals(3, recorder.fetchCount);
+	}
+	
+	@Test
+	public void testClosedResultSet() throws SQLException {
+		RecordingConnection recorder = new RecordingConnection();
+		
+		try (Connection connection = DriverManager.getConnection(URL)) {
+			try (Statement statement = new MeasuringStatement(connection.createStatement(), recorder)) {
+				try (ResultSet resultSet = statement.executeQuery(QUERY)) {
+					resultSet.setFetchSize(100);
+					
+					for (int row = 0; row < 150; row++) {
+						resultSet.next();
+					}
+				}
+				
+				assertEquals(150, recorder.rowCount);
+				assertEquals(2, recorder.fetchCount);
+				
+				// Re-executing finishes the previous result set, empty result sets have no first row
+				statement.executeQuery("select x from system_range(1, 0)");
+			}
+			
+			assertEquals(2, recorder.resultSets);
+			assertEquals(0, recorder.rowCount);
+			assertEquals(-1, recorder.firstRowNanos);
+		}
+	}
+	
+	private static class RecordingConnection implements MeasuringConnection {
+		
+		public int resultSets;
+		
+		public long rowCount;
+		
+		public long firstRowNanos;
+		
+		public long fetchNanos;
+		
+		public long fetchCount;
+		
+		@Override
+		public void onStatementStart(final Statement statement) {
+			// Do nothing
+		}
+		
+		@Override
+		public void onStatementEnd(final Statement statement, final StatementKind kind, final long durationNanos) {
+			// Do nothing
+		}
+		
+		@Override
+		public void onResultSetEnd(final Statement statement, final long rowCount, final long firstRowNanos, final long fetchNanos,
+				final long fetchCount) {
+			this.resultSets++;
+			this.rowCount = rowCount;
+			this.firstRowNanos = firstRowNanos;
+			this.fetchNanos = fetchNanos;
+			this.fetchCount = fetchCount;
+		}
+		
+	}
+
+}
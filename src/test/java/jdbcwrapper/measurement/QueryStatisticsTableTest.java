@@ -0,0 +1,53 @@
+package jdbcwrapper.measurement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class QueryStatisticsTableTest {
+	
+	@Test
+	public void testRecording() {
+		QueryStatisticsTable table = new QueryStatisticsTable(10);
+		
+		table.recordExecution("select ?", 100, MeasuredStatement.NO_ROWS_AFFECTED);
+		table.recordExecution("select ?", 300, MeasuredStatement.NO_ROWS_AFFECTED);
+		table.recordResultSet("select ?", 5, 500, 2);
+		table.recordExecution("update t set x = ?", 200, 3);
+		
+		QueryStatistics selectStatistics = table.get("select ?");
+		assertEquals(2, selectStatistics.getCallCount());
+		assertEquals(400, selectStatistics.getTotalTime());
+		assertEquals(100, selectStatistics.getMinTime());
+		assertEquals(300, selectStatistics.getMaxTime());
+		assertEquals(5, selectStatistics.getRowsReturned());
+		assertEquals(0, selectStatistics.getRowsAffected());
+		assertEquals(500, selectStatistics.getTotalFetchTime());
+		assertEquals(2, selectStatistics.getFetchCount());
+		
+		assertEquals(3, table.get("update t set x = ?").getRowsAffected());
+	}
+	
+	@Test
+	public void testSizeIsBounded() throws InterruptedException {
+		QueryStatisticsTable table = new QueryStatisticsTable(100);
+		
+		table.recordExecution("hot", 1, MeasuredStatement.NO_ROWS_AFFECTED);
+		for (int index = 0; index < 1000; index++) {
+			table.recordExecution("select " + index, 1, MeasuredStatement.NO_ROWS_AFFECTED);
+			
+			if (index % 50 == 0) {
+				// Keep the hot entry recently used
+				Thread.sleep(2);
+				table.recordExecution("hot", 1, MeasuredStatement.NO_ROWS_AFFECTED);
+			}
+		}
+		
+		assertTrue(table.size() <= 100);
+		assertTrue(table.getEvictionCount() >= 900);
+		assertNotNull(table.get("hot"));
+	}
+
+}
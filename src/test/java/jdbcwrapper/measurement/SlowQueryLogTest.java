@@ -0,0 +1,111 @@
+package jdbcwrapper.measurement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import jdbcwrapper.test.ResetRegistries;
+import jdbcwrapper.test.TestMonitoringConnection;
+
+@ExtendWith(ResetRegistries.class)
+public class SlowQueryLogTest {
+	
+	private static final String QUERY = "select sleep_millis(?), ?, ?, ?, ?";
+	
+	public static int sleepMillis(final int millis) throws InterruptedException {
+		Thread.sleep(millis);
+		return millis;
+	}
+	
+	@Test
+	public void testOnlySlowStatementsAreLogged() throws SQLException {
+		Logger logger = Logger.getLogger(SlowQueryLog.class.getName());
+		RecordingHandler handler = new RecordingHandler();
+		logger.addHandler(handler);
+		
+		try (Connection connection = openConnection();
+				PreparedStatement statement = connection.prepareStatement(QUERY)) {
+			statement.setString(2, "value");
+			statement.setNull(3, Types.INTEGER);
+			statement.setDouble(4, 1.5);
+			statement.setBinaryStream(5, new ByteArrayInputStream(new byte[] {1, 2, 3}));
+			
+			statement.setInt(1, 0);
+			execute(statement);
+			assertEquals(0, handler.messages.size());
+			
+			statement.setInt(1, 50);
+			execute(statement);
+		} finally {
+			logger.removeHandler(handler);
+		}
+		
+		assertEquals(1, MetricsRegistry.getStatementMetrics(TestMonitoringConnection.TYPE).getSlowStatementCount());
+		assertEquals(1, handler.messages.size());
+		
+		String message = handler.messages.get(0);
+		assertTrue(message.startsWith("Slow QUERY ("), message);
+		assertTrue(message.endsWith(" ms): " + QUERY + " [1=50, 2='value', 3=NULL, 4=1.5, 5=<stream>]"), message);
+	}
+	
+	private static void execute(final PreparedStatement statement) throws SQLException {
+		try (ResultSet resultSet = statement.executeQuery()) {
+			resultSet.next();
+		}
+	}
+	
+	private static Connection openConnection() throws SQLException {
+		Connection connection = DriverManager.getConnection("jdbc:h2:mem:");
+		
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("create alias sleep_millis for '" + SlowQueryLogTest.class.getName() + ".sleepMillis'");
+		}
+		
+		Map<String, String> properties = new HashMap<>();
+		properties.put("slow.query.threshold.millis", "20");
+		properties.put("slow.query.parameters", "true");
+		
+		return TestMonitoringConnection.open(connection, Collections.emptyList(), properties);
+	}
+	
+	private static class RecordingHandler extends Handler {
+		
+		public final List<String> messages = new ArrayList<>();
+		
+		@Override
+		public void publish(final LogRecord record) {
+			this.messages.add(record.getMessage());
+		}
+		
+		@Override
+		public void flush() {
+			// Nothing to flush
+		}
+		
+		@Override
+		public void close() {
+			// Nothing to close
+		}
+		
+	}
+
+}
@@ -0,0 +1,149 @@
+package jdbcwrapper.measurement;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import jdbcwrapper.test.ResetRegistries;
+import jdbcwrapper.test.TestMonitoringConnection;
+
+@ExtendWith(ResetRegistries.class)
+public class WriteCoalescerTest {
+	
+	private static final String URL = "jdbc:h2:mem:coalescing;DB_CLOSE_DELAY=-1";
+	
+	@BeforeEach
+	public void createTable() throws SQLException {
+		try (Connection connection = DriverManager.getConnection(URL);
+				Statement statement = connection.createStatement()) {
+			statement.execute("create table if not exists coalescing_test (id int)");
+			statement.execute("delete from coalescing_test");
+		}
+	}
+	
+	@Test
+	public void testUpdatesAreDeferredUntilQuery() throws SQLException {
+		try (TestMonitoringConnection connection = openConnection()) {
+			connection.setAutoCommit(false);
+			
+			try (PreparedStatement statement = connection.prepareStatement("insert into coalescing_test values (?)")) {
+				for (int id = 0; id < 5; id++) {
+					statement.setInt(1, id);
+					assertEquals(1, statement.executeUpdate());
+				}
+				
+				// The batch size is three, so two updates are still pending
+				assertEquals(2, connection.getWriteCoalescer().getPendingCount());
+				
+				// A query on the connection sees all updates
+				assertEquals(5, countRows(connection));
+				assertEquals(0, connection.getWriteCoalescer().getPendingCount());
+			}
+			
+			connection.rollback();
+			assertEquals(0, countRows(connection));
+		}
+		
+		StatementMetrics metrics = MetricsRegistry.getStatementMetrics(TestMonitoringConnection.TYPE);
+		assertEquals(5, metrics.getDeferredUpdateCount());
+		assertEquals(2, metrics.getCoalescedBatchCount());
+		assertEquals(2, metrics.snapshot(StatementKind.BATCH).getCount());
+		assertEquals(0, metrics.snapshot(StatementKind.UPDATE).getCount());
+	}
+	
+	@Test
+	public void testUpdatesAreFlushedAtCommit() throws SQLException {
+		try (TestMonitoringConnection connection = openConnection()) {
+			connection.setAutoCommit(false);
+			
+			try (PreparedStatement statement = connection.prepareStatement("insert into coalescing_test values (?)")) {
+				statement.setInt(1, 1);
+				statement.executeUpdate();
+				statement.setInt(1, 2);
+				statement.executeUpdate();
+			}
+			
+			connection.commit();
+		}
+		
+		try (Connection connection = DriverManager.getConnection(URL)) {
+			assertEquals(2, countRows(connection));
+		}
+	}
+	
+	@Test
+	public void testUpdatesAreNotDeferredInAutoCommitMode() throws SQLException {
+		try (TestMonitoringConnection connection = openConnection();
+				PreparedStatement statement = connection.prepareStatement("insert into coalescing_test values (?)")) {
+			statement.setInt(1, 1);
+			statement.executeUpdate();
+			
+			assertEquals(0, connection.getWriteCoalescer().getPendingCount());
+		}
+	}
+	
+	@Test
+	public void testPendingUpdatesAreDiscardedOnRollback() throws SQLException {
+		try (TestMonitoringConnection connection = openConnection()) {
+			connection.setAutoCommit(false);
+			
+			PreparedStatement statement = connection.prepareStatement("insert into coalescing_test values (?)");
+			statement.setInt(1, 1);
+			statement.executeUpdate();
+			
+			connection.rollback();
+			
+			// Closing the statement must not execute the discarded update
+			statement.close();
+			assertEquals(0, countRows(connection));
+		}
+	}
+	
+	@Test
+	public void testUnexpectedUpdateCountsAreReported() throws SQLException {
+		try (TestMonitoringConnection connection = openConnection()) {
+			connection.setAutoCommit(false);
+			
+			try (PreparedStatement statement = connection.prepareStatement("update coalescing_test set id = id + 1 where id = ?")) {
+				// The update does not match any row, but reports the configured count of one
+				statement.setInt(1, 1);
+				assertEquals(1, statement.executeUpdate());
+				
+				BatchUpdateException exception = assertThrows(BatchUpdateException.class, () -> countRows(connection));
+				assertArrayEquals(new int[] {0}, exception.getUpdateCounts());
+			}
+			
+			connection.rollback();
+		}
+	}
+	
+	private static int countRows(final Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery("select count(*) from coalescing_test")) {
+			resultSet.next();
+			return resultSet.getInt(1);
+		}
+	}
+	
+	private static TestMonitoringConnection openConnection() throws SQLException {
+		Map<String, String> properties = new HashMap<>();
+		properties.put("write.coalescing.batch.size", "3");
+		
+		return TestMonitoringConnection.open(URL, properties);
+	}
+
+}
@@ -0,0 +1,190 @@
+package jdbcwrapper.pool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import jdbcwrapper.WrappedConnection;
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.test.ResetRegistries;
+import jdbcwrapper.test.TestMonitoringConnection;
+
+@ExtendWith(ResetRegistries.class)
+public class ConnectionPoolTest {
+	
+	private static final String URL = "jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1";
+	
+	@Test
+	public void testReturnedConnectionsAreResetAndReused() throws SQLException {
+		ConnectionPool pool = createPool(2, 1000);
+		
+		Connection connection = pool.getConnection();
+		TestMonitoringConnection pooledConnection = connection.unwrap(TestMonitoringConnection.class);
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("create table if not exists pool_test (id int)");
+			statement.execute("delete from pool_test");
+		}
+		
+		// Close within a transaction
+		connection.setAutoCommit(false);
+		try (Statement statement = connection.createStatement()) {
+			statement.executeUpdate("insert into pool_test values (1)");
+		}
+		connection.close();
+		assertTrue(connection.isClosed());
+		
+		// The same thread gets the same connection back, without the transaction, but through a new handle
+		Connection reusedConnection = pool.getConnection();
+		assertNotSame(connection, reusedConnection);
+		assertSame(pooledConnection, reusedConnection.unwrap(TestMonitoringConnection.class));
+		assertFalse(reusedConnection.isClosed());
+		
+		// The previous handle cannot reach the connection anymore
+		assertTrue(connection.isClosed());
+		assertThrows(SQLException.class, () -> connection.unwrap(TestMonitoringConnection.class));
+		assertThrows(SQLException.class, () -> connection.isWrapperFor(TestMonitoringConnection.class));
+		assertThrows(SQLException.class, connection::createStatement);
+		assertThrows(SQLException.class, connection::commit);
+		assertThrows(SQLException.class, () -> connection.setAutoCommit(false));
+		connection.close();
+		assertTrue(reusedConnection.getAutoCommit());
+		assertFalse(reusedConnection.isClosed());
+		assertTrue(reusedConnection.getAutoCommit());
+		
+		try (Statement statement = reusedConnection.createStatement();
+				ResultSet resultSet = statement.executeQuery("select count(*) from pool_test")) {
+			assertTrue(resultSet.next());
+			assertEquals(0, resultSet.getInt(1));
+		}
+		reusedConnection.close();
+		
+		assertEquals(1, pool.size());
+		assertEquals(1, pool.getIdleCount());
+		assertEquals(0, MetricsRegistry.getConnectionMetrics(TestMonitoringConnection.TYPE).getClosedCount());
+		
+		pool.close();
+		assertEquals(0, pool.size());
+		assertEquals(1, MetricsRegistry.getConnectionMetrics(TestMonitoringConnection.TYPE).getClosedCount());
+	}
+	
+	@Test
+	public void testWaitingThreadReceivesReturnedConnection() throws Exception {
+		ConnectionPool pool = createPool(1, 5000);
+		Connection connection = pool.getConnection();
+		TestMonitoringConnection pooledConnection = connection.unwrap(TestMonitoringConnection.class);
+		
+		CompletableFuture<Connection> waitingBorrow = CompletableFuture.supplyAsync(() -> {
+			try {
+				return pool.getConnection();
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		
+		assertThrows(TimeoutException.class, () -> waitingBorrow.get(100, TimeUnit.MILLISECONDS));
+		
+		connection.close();
+		Connection handedOffConnection = waitingBorrow.get(5, TimeUnit.SECONDS);
+		assertSame(pooledConnection, handedOffConnection.unwrap(TestMonitoringConnection.class));
+		assertEquals(1, pool.size());
+		
+		handedOffConnection.close();
+		pool.close();
+	}
+	
+	@Test
+	public void testBorrowTimesOutWhenPoolIsExhausted() throws SQLException {
+		ConnectionPool pool = createPool(1, 50);
+		
+		Connection connection = pool.getConnection();
+		assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+		connection.close();
+		
+		pool.close();
+		assertThrows(SQLException.class, pool::getConnection);
+	}
+	
+	@Test
+	public void testBrokenConnectionsAreReplacedOnBorrow() throws SQLException {
+		// Validate every connection on borrow
+		ConnectionPool pool = createPool(1, 1000, 0, 0);
+		
+		Connection connection = pool.getConnection();
+		org.h2.jdbc.JdbcConnection physicalConnection = connection.unwrap(org.h2.jdbc.JdbcConnection.class);
+		connection.close();
+		
+		// E.g., after a failover of the database
+		physicalConnection.close();
+		
+		try (Connection newConnection = pool.getConnection()) {
+			assertNotSame(physicalConnection, newConnection.unwrap(org.h2.jdbc.JdbcConnection.class));
+			assertTrue(newConnection.isValid(1));
+		}
+		
+		assertEquals(1, pool.size());
+		pool.close();
+	}
+	
+	@Test
+	public void testExpiredConnectionsAreReplaced() throws Exception {
+		ConnectionPool pool = createPool(1, 1000, TimeUnit.DAYS.toMillis(1), 50);
+		
+		Connection connection = pool.getConnection();
+		org.h2.jdbc.JdbcConnection physicalConnection = connection.unwrap(org.h2.jdbc.JdbcConnection.class);
+		connection.close();
+		
+		Thread.sleep(100);
+		
+		try (Connection newConnection = pool.getConnection()) {
+			assertNotSame(physicalConnection, newConnection.unwrap(org.h2.jdbc.JdbcConnection.class));
+		}
+		
+		assertTrue(physicalConnection.isClosed());
+		assertEquals(1, pool.size());
+		pool.close();
+	}
+	
+	@Test
+	public void testPooledUrl() throws SQLException {
+		String url = "jdbc:wrapped:pooled:h2:mem:pooledurl;DB_CLOSE_DELAY=-1";
+		
+		Connection connection = DriverManager.getConnection(url);
+		assertTrue(connection instanceof WrappedConnection);
+		Connection physicalConnection = connection.unwrap(org.h2.jdbc.JdbcConnection.class);
+		connection.close();
+		
+		// Pools are kept by URL, so the connection is reused
+		try (Connection reusedConnection = DriverManager.getConnection(url)) {
+			assertSame(physicalConnection, reusedConnection.unwrap(org.h2.jdbc.JdbcConnection.class));
+		}
+	}
+	
+	private static ConnectionPool createPool(final int size, final long timeoutMillis) {
+		return new ConnectionPool(() -> TestMonitoringConnection.open(URL, Collections.emptyMap()), size,
+				TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+	}
+	
+	private static ConnectionPool createPool(final int size, final long timeoutMillis, final long validationIdleMillis, final long maxLifetimeMillis) {
+		return new ConnectionPool(() -> TestMonitoringConnection.open(URL, Collections.emptyMap()), size,
+				TimeUnit.MILLISECONDS.toNanos(timeoutMillis), TimeUnit.MILLISECONDS.toNanos(validationIdleMillis),
+				TimeUnit.MILLISECONDS.toNanos(maxLifetimeMillis));
+	}
+
+}
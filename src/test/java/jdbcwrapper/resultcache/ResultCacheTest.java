@@ -0,0 +1,189 @@
+package jdbcwrapper.resultcache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.measurement.ResultCacheMetrics;
+import jdbcwrapper.measurement.StatementKind;
+import jdbcwrapper.test.ResetRegistries;
+import jdbcwrapper.test.TestMonitoringConnection;
+
+@ExtendWith(ResetRegistries.class)
+public class ResultCacheTest {
+	
+	private static final String URL = "jdbc:h2:mem:resultcache;DB_CLOSE_DELAY=-1";
+	
+	private static final String QUERY = "select code, name, rate, active from currency where code = ?";
+	
+	@BeforeEach
+	public void createTable() throws SQLException {
+		try (Connection connection = DriverManager.getConnection(URL);
+				Statement statement = connection.createStatement()) {
+			statement.execute("create table if not exists currency (code varchar(3), name varchar(50), rate decimal(10, 4), active boolean)");
+			statement.execute("delete from currency");
+			statement.execute("insert into currency values ('EUR', 'Euro', 1.0000, true), ('USD', 'US Dollar', null, false)");
+		}
+	}
+	
+	@Test
+	public void testCachedResultIsReturnedWithoutQuery() throws SQLException {
+		try (TestMonitoringConnection connection = openConnection();
+				PreparedStatement statement = connection.prepareStatement(QUERY)) {
+			statement.setString(1, "USD");
+			assertEquals("US Dollar", readName(statement));
+			
+			// Change the table behind the wrapper's back, the cached result is still returned
+			updateUnwrapped("update currency set name = 'Dollar' where code = 'USD'");
+			
+			try (ResultSet resultSet = statement.executeQuery()) {
+				assertTrue(resultSet instanceof CachedResultSet);
+				assertTrue(resultSet.next());
+				assertEquals("USD", resultSet.getString(1));
+				assertEquals("US Dollar", resultSet.getString("NAME"));
+				assertNull(resultSet.getBigDecimal("rate"));
+				assertTrue(resultSet.wasNull());
+				assertEquals(Boolean.FALSE, resultSet.getObject(4));
+				assertFalse(resultSet.next());
+			}
+			
+			// Other parameters are a different result
+			statement.setString(1, "EUR");
+			try (ResultSet resultSet = statement.executeQuery()) {
+				assertTrue(resultSet.next());
+				assertEquals(0, new BigDecimal("1").compareTo(resultSet.getBigDecimal(3)));
+				assertEquals(1, resultSet.getInt(3));
+				assertTrue(resultSet.getBoolean(4));
+			}
+		}
+		
+		ResultCacheMetrics metrics = MetricsRegistry.getResultCacheMetrics(TestMonitoringConnection.TYPE);
+		assertEquals(1, metrics.getHitCount());
+		assertEquals(2, metrics.getMissCount());
+		
+		// The second result was not read completely
+		assertEquals(1, metrics.getStoreCount());
+	}
+	
+	@Test
+	public void testCacheHitsAreMeasured() throws SQLException {
+		try (TestMonitoringConnection connection = openConnection();
+				PreparedStatement statement = connection.prepareStatement(QUERY)) {
+			statement.setString(1, "USD");
+			readName(statement);
+			
+			// The hit starts a transaction like an executed query
+			connection.setAutoCommit(false);
+			connection.commit();
+			
+			readName(statement);
+			connection.commit();
+			
+			// Only cacheable statements capture their parameters
+			assertTrue(connection.isCapturingParameters(QUERY));
+			assertFalse(connection.isCapturingParameters("update currency set name = ? where code = ?"));
+			assertFalse(connection.isCapturingParameters("select * from information_schema.tables where table_name = ?"));
+		}
+		
+		assertEquals(1, MetricsRegistry.getResultCacheMetrics(TestMonitoringConnection.TYPE).getHitCount());
+		assertEquals(2, MetricsRegistry.getStatementMetrics(TestMonitoringConnection.TYPE).snapshot(StatementKind.QUERY).getCount());
+		assertEquals(2, MetricsRegistry.getTransactionMetrics(TestMonitoringConnection.TYPE).getCommittedCount());
+	}
+	
+	@Test
+	public void testWritesInvalidateResults() throws SQLException {
+		try (TestMonitoringConnection connection = openConnection();
+				PreparedStatement statement = connection.prepareStatement(QUERY)) {
+			statement.setString(1, "USD");
+			readName(statement);
+			
+			try (Statement updateStatement = connection.createStatement()) {
+				updateStatement.executeUpdate("update currency set name = 'Dollar' where code = 'USD'");
+			}
+			
+			assertEquals("Dollar", readName(statement));
+			
+			// Within a transaction, the written table is read from the database
+			connection.setAutoCommit(false);
+			try (PreparedStatement updateStatement = connection.prepareStatement("update currency set name = ? where code = ?")) {
+				updateStatement.setString(1, "Greenback");
+				updateStatement.setString(2, "USD");
+				updateStatement.executeUpdate();
+			}
+			
+			assertEquals("Greenback", readName(statement));
+			assertEquals(0, ResultCache.getResultCache(TestMonitoringConnection.TYPE).size());
+			
+			connection.rollback();
+			assertEquals("Dollar", readName(statement));
+		}
+		
+		ResultCacheMetrics metrics = MetricsRegistry.getResultCacheMetrics(TestMonitoringConnection.TYPE);
+		assertEquals(0, metrics.getHitCount());
+		
+		// Both updates removed the cached result
+		assertEquals(2, metrics.getInvalidationCount());
+	}
+	
+	@Test
+	public void testOtherTablesAndPartialResultsAreNotCached() throws SQLException {
+		try (TestMonitoringConnection connection = openConnection();
+				Statement statement = connection.createStatement()) {
+			// Not exhausted
+			try (ResultSet resultSet = statement.executeQuery("select * from currency order by code")) {
+				assertTrue(resultSet.next());
+			}
+			
+			// Table not configured
+			try (ResultSet resultSet = statement.executeQuery("select * from information_schema.tables")) {
+				while (resultSet.next()) {
+					// Read all rows
+				}
+			}
+			
+			assertEquals(0, ResultCache.getResultCache(TestMonitoringConnection.TYPE).size());
+		}
+	}
+	
+	private static String readName(final PreparedStatement statement) throws SQLException {
+		try (ResultSet resultSet = statement.executeQuery()) {
+			assertTrue(resultSet.next());
+			String name = resultSet.getString(2);
+			assertFalse(resultSet.next());
+			
+			return name;
+		}
+	}
+	
+	private static void updateUnwrapped(final String sql) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(URL);
+				Statement statement = connection.createStatement()) {
+			statement.executeUpdate(sql);
+		}
+	}
+	
+	private static TestMonitoringConnection openConnection() throws SQLException {
+		Map<String, String> properties = new HashMap<>();
+		properties.put("result.cache.size", "10");
+		properties.put("result.cache.tables", "currency");
+		
+		return TestMonitoringConnection.open(URL, properties);
+	}
+
+}
@@ -0,0 +1,57 @@
+package jdbcwrapper.resultcache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class TableReferencesTest {
+	
+	@Test
+	public void testQueries() {
+		assertReads("select * from Country where code = 'from x'", "country");
+		assertReads("select c.name, r.name from public.country c join region r on r.id = c.region_id", "country", "region");
+		assertReads("select * from country, \"Currency\" cu where cu.code in (select code from rate)", "country", "currency", "rate");
+		assertReads("select * from (select id from country) c, region -- from comment", "country", "region");
+		assertReads("select 1");
+		
+		assertTrue(TableReferences.of("select * from country for update").isLocking());
+		assertEquals(TableReferences.Kind.UNKNOWN, TableReferences.of("with d as (delete from country returning *) select * from d").getKind());
+	}
+	
+	@Test
+	public void testWrites() {
+		assertWrites("insert into country (code) values ('x')", "country");
+		assertWrites("UPDATE public.Country SET name = ? WHERE code IN (SELECT code FROM region)", "country");
+		assertWrites("delete from country where id = 1", "country");
+		assertWrites("truncate table country, region", "country", "region");
+		
+		assertEquals(TableReferences.Kind.UNKNOWN, TableReferences.of("call refresh_countries()").getKind());
+		assertEquals(TableReferences.Kind.UNKNOWN, TableReferences.of(null).getKind());
+	}
+	
+	private static void assertReads(final String sql, final String... tables) {
+		TableReferences references = TableReferences.of(sql);
+		
+		assertEquals(TableReferences.Kind.READ, references.getKind());
+		assertSameTables(tables, references.getTables());
+	}
+	
+	private static void assertWrites(final String sql, final String... tables) {
+		TableReferences references = TableReferences.of(sql);
+		
+		assertEquals(TableReferences.Kind.WRITE, references.getKind());
+		assertSameTables(tables, references.getTables());
+	}
+	
+	private static void assertSameTables(final String[] expectedTables, final String[] actualTables) {
+		String[] sortedTables = actualTables.clone();
+		Arrays.sort(sortedTables);
+		
+		assertArrayEquals(expectedTables, sortedTables);
+	}
+
+}
@@ -0,0 +1,169 @@
+package jdbcwrapper.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import jdbcwrapper.WrappingDataSource;
+import jdbcwrapper.test.TestMetadata;
+import jdbcwrapper.test.TestMonitoringConnection;
+import jdbcwrapper.util.DriverMetadata;
+
+public class RoutingConnectionTest {
+	
+	private static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1";
+	
+	private static final String REPLICA_1_URL = "jdbc:h2:mem:routing_replica1;DB_CLOSE_DELAY=-1";
+	
+	private static final String REPLICA_2_URL = "jdbc:h2:mem:routing_replica2;DB_CLOSE_DELAY=-1";
+	
+	@BeforeAll
+	public static void createDatabases() throws SQLException {
+		createDatabase(PRIMARY_URL, "primary");
+		createDatabase(REPLICA_1_URL, "replica1");
+		createDatabase(REPLICA_2_URL, "replica2");
+	}
+	
+	private static void createDatabase(final String url, final String name) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(url, "sa", "");
+				Statement statement = connection.createStatement()) {
+			statement.execute("create table if not exists site (name varchar(20))");
+			statement.execute("delete from site");
+			statement.execute("insert into site values ('" + name + "')");
+		}
+	}
+	
+	@Test
+	public void testReadOnlyStatementsGoToTheLeastLoadedReplica() throws SQLException {
+		String url = "jdbc:wrapped:h2:mem:routing_primary;DB_CLOSE_DELAY=-1|" + REPLICA_1_URL + "|" + REPLICA_2_URL;
+		
+		try (Connection firstConnection = DriverManager.getConnection(url, "sa", "");
+				Connection secondConnection = DriverManager.getConnection(url, "sa", "")) {
+			// Statements of read-write connections stay on the primary
+			assertEquals("primary", querySite(firstConnection));
+			
+			firstConnection.setReadOnly(true);
+			String firstReplica = querySite(firstConnection);
+			assertTrue(firstReplica.startsWith("replica"), firstReplica);
+			
+			// The other replica has fewer outstanding connections
+			secondConnection.setReadOnly(true);
+			String secondReplica = querySite(secondConnection);
+			assertTrue(secondReplica.startsWith("replica"), secondReplica);
+			assertNotEquals(firstReplica, secondReplica);
+			
+			// Writes go to the primary again
+			firstConnection.setReadOnly(false);
+			try (Statement statement = firstConnection.createStatement()) {
+				statement.executeUpdate("update site set name = 'primary'");
+			}
+			assertEquals("primary", querySite(firstConnection));
+			
+			// The connection keeps its replica
+			firstConnection.setReadOnly(true);
+			assertEquals(firstReplica, querySite(firstConnection));
+		}
+		
+		ReplicaSet replicaSet = ReplicaSet.forUrls(REPLICA_1_URL + "|" + REPLICA_2_URL);
+		for (ReplicaSet.Replica replica : replicaSet.getReplicas()) {
+			assertEquals(0, replica.getOutstandingCount());
+		}
+	}
+	
+	@Test
+	public void testReadOnlyTransactionsAndCachedStatements() throws SQLException {
+		Map<String, String> properties = new HashMap<>();
+		properties.put("replica.urls", REPLICA_1_URL);
+		properties.put("statement.cache.size", "10");
+		
+		DriverMetadata metadata = TestMetadata.forMonitoringConnections("routing-test", properties);
+		
+		WrappingDataSource dataSource = new WrappingDataSource("jdbc:wrapped:h2:mem:routing_primary;DB_CLOSE_DELAY=-1");
+		dataSource.setDelegateDriver(new org.h2.Driver());
+		dataSource.setMetadata(metadata);
+		
+		try (Connection connection = dataSource.getConnection("sa", "")) {
+			assertTrue(connection instanceof TestMonitoringConnection);
+			assertEquals("primary", queryPreparedSite(connection));
+			
+			// A read-only transaction is routed to the replica and completed there as well
+			connection.setAutoCommit(false);
+			connection.setReadOnly(true);
+			assertEquals("replica1", queryPreparedSite(connection));
+			assertEquals("replica1", queryPreparedSite(connection));
+			connection.commit();
+			
+			// Statements cached while read-only are not reused for the primary
+			connection.setReadOnly(false);
+			assertEquals("primary", queryPreparedSite(connection));
+			connection.commit();
+			connection.setAutoCommit(true);
+		}
+	}
+	
+	@Test
+	public void testReplicaFailureDoesNotAffectTheCommit() throws SQLException {
+		Properties info = new Properties();
+		info.setProperty("user", "sa");
+		info.setProperty("password", "");
+		
+		try (RoutingConnection connection = new RoutingConnection(DriverManager.getConnection(PRIMARY_URL, info), ReplicaSet.forUrls(REPLICA_1_URL), info)) {
+			connection.setAutoCommit(false);
+			connection.setReadOnly(true);
+			assertEquals("replica1", querySite(connection));
+			
+			// The replica is completed first, and its failure is only logged
+			connection.getReplicaConnection().close();
+			connection.commit();
+			
+			connection.setReadOnly(false);
+			assertEquals("primary", querySite(connection));
+			connection.rollback();
+		}
+	}
+	
+	@Test
+	public void testUnreachableReplicaFallsBackToThePrimary() throws SQLException {
+		String url = "jdbc:wrapped:h2:mem:routing_primary;DB_CLOSE_DELAY=-1|jdbc:unknown:replica";
+		
+		try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+			connection.setReadOnly(true);
+			assertEquals("primary", querySite(connection));
+			assertFalse(ReplicaSet.forUrls("jdbc:unknown:replica").getReplicas().get(0).getOutstandingCount() > 0);
+		}
+	}
+	
+	private static String querySite(final Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery("select name from site")) {
+			assertTrue(resultSet.next());
+			return resultSet.getString(1);
+		}
+	}
+	
+	private static String queryPreparedSite(final Connection connection) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement("select name from site where name <> ?")) {
+			statement.setString(1, "none");
+			
+			try (ResultSet resultSet = statement.executeQuery()) {
+				assertTrue(resultSet.next());
+				return resultSet.getString(1);
+			}
+		}
+	}
+
+}
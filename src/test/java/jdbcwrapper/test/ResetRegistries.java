@@ -0,0 +1,20 @@
+package jdbcwrapper.test;
+
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.resultcache.ResultCache;
+import jdbcwrapper.watchdog.StatementWatchdog;
+
+// Removes the metrics, result caches and watchdogs of all types before each test, so that tests can share a type
+public class ResetRegistries implements BeforeEachCallback {
+	
+	@Override
+	public void beforeEach(final ExtensionContext context) {
+		MetricsRegistry.removeAll();
+		ResultCache.removeAll();
+		StatementWatchdog.removeAll();
+	}
+
+}
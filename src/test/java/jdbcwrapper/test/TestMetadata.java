@@ -0,0 +1,34 @@
+package jdbcwrapper.test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import jdbcwrapper.txmonitoring.TransactionListener;
+import jdbcwrapper.util.DriverMetadata;
+import jdbcwrapper.util.ListenerScope;
+
+// Metadata of test types that are only configured by properties
+public final class TestMetadata {
+	
+	private TestMetadata() {
+		// Not instantiable
+	}
+	
+	public static DriverMetadata forProperties(final String type, final Map<String, String> properties) {
+		return new DriverMetadata(type, null, true, true, Collections.emptyList(), ListenerScope.PER_CONNECTION, properties);
+	}
+	
+	public static DriverMetadata forProperty(final String type, final String name, final String value) {
+		return forProperties(type, Collections.singletonMap(name, value));
+	}
+	
+	// Metadata of a type whose connections are wrapped in TestMonitoringConnections, e.g., for data sources
+	@SuppressWarnings("unchecked")
+	public static DriverMetadata forMonitoringConnections(final String type, final Map<String, String> properties) {
+		return new DriverMetadata(type, (connection, listeners, typeMetadata) ->
+				new TestMonitoringConnection(connection, (List<TransactionListener>) (List<?>) listeners, typeMetadata),
+				true, true, Collections.emptyList(), ListenerScope.PER_CONNECTION, properties);
+	}
+
+}
@@ -0,0 +1,38 @@
+package jdbcwrapper.test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import jdbcwrapper.txmonitoring.AbstractTxMonitoringConnection;
+import jdbcwrapper.txmonitoring.TransactionListener;
+import jdbcwrapper.util.DriverMetadata;
+
+// Transaction monitoring connection for arbitrary test databases
+public class TestMonitoringConnection extends AbstractTxMonitoringConnection<TransactionListener> {
+	
+	// Type of the connections opened by the factory methods, tests using them reset the registries with ResetRegistries
+	public static final String TYPE = "test";
+	
+	public TestMonitoringConnection(final Connection connection, final List<TransactionListener> listeners, final DriverMetadata metadata) {
+		super(connection, listeners, metadata);
+	}
+	
+	public static TestMonitoringConnection open(final String url, final Map<String, String> properties) throws SQLException {
+		return open(DriverManager.getConnection(url), Collections.emptyList(), properties);
+	}
+	
+	public static TestMonitoringConnection open(final Connection connection, final List<TransactionListener> listeners,
+			final Map<String, String> properties) {
+		return new TestMonitoringConnection(connection, listeners, TestMetadata.forProperties(TYPE, properties));
+	}
+	
+	@Override
+	public int getTransactionId() {
+		return 0;
+	}
+
+}
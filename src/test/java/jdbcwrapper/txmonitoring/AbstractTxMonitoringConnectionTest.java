@@ -0,0 +1,189 @@
+package jdbcwrapper.txmonitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.measurement.TransactionMetrics;
+import jdbcwrapper.test.ResetRegistries;
+import jdbcwrapper.test.TestMonitoringConnection;
+
+@ExtendWith(ResetRegistries.class)
+public class AbstractTxMonitoringConnectionTest {
+	
+	private static final String URL = "jdbc:h2:mem:txmonitoring;DB_CLOSE_DELAY=-1";
+	
+	@Test
+	public void testListenersAreNotifiedAfterCommit() throws SQLException {
+		RecordingListener listener = new RecordingListener();
+		
+		try (Connection checkConnection = DriverManager.getConnection(URL);
+				TestMonitoringConnection connection = TestMonitoringConnection.open(DriverManager.getConnection(URL), Collections.singletonList(listener), Collections.emptyMap())) {
+			
+			try (Statement statement = checkConnection.createStatement()) {
+				statement.execute("create table if not exists tx_test (id int)");
+				statement.execute("delete from tx_test");
+			}
+			
+			listener.checkConnection = checkConnection;
+			
+			connection.setAutoCommit(false);
+			try (Statement statement = connection.createStatement()) {
+				statement.executeUpdate("insert into tx_test values (1)");
+			}
+			connection.commit();
+			
+			// The listener must see the committed data, and the event must describe the transaction
+			assertEquals(Collections.singletonList(1), listener.visibleRowCounts);
+			
+			TransactionEvent event = listener.events.get(0);
+			assertEquals(TransactionOutcome.COMMITTED, event.getOutcome());
+			assertTrue(event.getCompletionLatency() >= 0);
+			assertTrue(event.getDuration() >= event.getCompletionLatency());
+			
+			// The next transaction reuses the event object
+			try (Statement statement = connection.createStatement()) {
+				statement.executeUpdate("insert into tx_test values (2)");
+			}
+			connection.rollback();
+			
+			assertSame(listener.eventInstances.get(0), listener.eventInstances.get(1));
+			assertEquals(TransactionOutcome.ROLLED_BACK, listener.events.get(1).getOutcome());
+			assertTrue(listener.events.get(1).getDuration() >= 0);
+		}
+		
+		// The second transaction starts implicitly with its first statement
+		assertEquals(2, listener.startCount);
+		
+		TransactionMetrics metrics = connectionMetrics();
+		assertEquals(2, metrics.getStartedCount());
+		assertEquals(1, metrics.getCommittedCount());
+		assertEquals(1, metrics.getRolledBackCount());
+		assertEquals(2, metrics.getDurationSnapshot().getCount());
+	}
+	
+	@Test
+	public void testEnablingAutoCommitAfterCommitDoesNotReportAgain() throws SQLException {
+		RecordingListener listener = new RecordingListener();
+		
+		try (TestMonitoringConnection connection = TestMonitoringConnection.open(DriverManager.getConnection(URL), Collections.singletonList(listener), Collections.emptyMap())) {
+			connection.setAutoCommit(false);
+			// Disabling auto-commit again does not start another transaction
+			connection.setAutoCommit(false);
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("select 1");
+			}
+			connection.commit();
+			connection.setAutoCommit(true);
+		}
+		
+		assertEquals(1, listener.startCount);
+		assertEquals(1, listener.events.size());
+		assertEquals(1, connectionMetrics().getStartedCount());
+		assertEquals(1, connectionMetrics().getCommittedCount());
+	}
+	
+	@Test
+	public void testCompletionWithoutStatementsIsNotReported() throws SQLException {
+		RecordingListener listener = new RecordingListener();
+		
+		try (TestMonitoringConnection connection = TestMonitoringConnection.open(DriverManager.getConnection(URL), Collections.singletonList(listener), Collections.emptyMap())) {
+			connection.setAutoCommit(false);
+			connection.commit();
+			
+			// No statement was executed since the commit, so no transaction is open
+			connection.commit();
+			connection.rollback();
+		}
+		
+		assertEquals(1, listener.startCount);
+		assertEquals(1, listener.events.size());
+		
+		TransactionMetrics metrics = connectionMetrics();
+		assertEquals(1, metrics.getStartedCount());
+		assertEquals(1, metrics.getCommittedCount());
+		assertEquals(0, metrics.getRolledBackCount());
+	}
+	
+	@Test
+	public void testFailedCommitIsReported() throws SQLException {
+		RecordingListener listener = new RecordingListener();
+		
+		Connection delegate = DriverManager.getConnection(URL);
+		TestMonitoringConnection connection = TestMonitoringConnection.open(delegate, Collections.singletonList(listener), Collections.emptyMap());
+		connection.setAutoCommit(false);
+		delegate.close();
+		
+		SQLException exception = assertThrows(SQLException.class, connection::commit);
+		
+		TransactionEvent event = listener.events.get(0);
+		assertEquals(TransactionOutcome.COMMIT_FAILED, event.getOutcome());
+		assertSame(exception, event.getFailure());
+		assertEquals(1, connectionMetrics().getFailedCompletionCount());
+	}
+	
+	private static TransactionMetrics connectionMetrics() {
+		return MetricsRegistry.getTransactionMetrics(TestMonitoringConnection.TYPE);
+	}
+	
+	private static class RecordingListener implements TransactionListener {
+		
+		public Connection checkConnection;
+		
+		public final List<Integer> visibleRowCounts = new ArrayList<>();
+		
+		public final List<TransactionEvent> eventInstances = new ArrayList<>();
+		
+		public final List<TransactionEvent> events = new ArrayList<>();
+		
+		public int startCount;
+		
+		@Override
+		public void onTransactionStart(final TxMonitoringConnection connection) {
+			this.startCount++;
+		}
+		
+		@Override
+		public void onTransactionEnd(final TxMonitoringConnection connection, final boolean success) {
+			// Not called, since the event variant is overridden
+		}
+		
+		@Override
+		public void onTransactionEnd(final TransactionEvent event) {
+			assertNotNull(event.getConnection());
+			
+			// The event object is reused, so keep a copy
+			TransactionEvent copy = new TransactionEvent();
+			copy.copyFrom(event);
+			this.events.add(copy);
+			this.eventInstances.add(event);
+			
+			if (this.checkConnection != null && event.isSuccessful()) {
+				try (Statement statement = this.checkConnection.createStatement();
+						ResultSet resultSet = statement.executeQuery("select count(*) from tx_test")) {
+					resultSet.next();
+					this.visibleRowCounts.add(resultSet.getInt(1));
+				} catch (SQLException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+		
+	}
+
+}
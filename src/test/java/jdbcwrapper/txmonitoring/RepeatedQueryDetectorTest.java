@@ -0,0 +1,129 @@
+package jdbcwrapper.txmonitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.test.ResetRegistries;
+import jdbcwrapper.test.TestMonitoringConnection;
+
+@ExtendWith(ResetRegistries.class)
+public class RepeatedQueryDetectorTest {
+	
+	@Test
+	public void testTrackingIsBounded() {
+		RepeatedQueryDetector detector = new RepeatedQueryDetector(2, 3);
+		
+		for (int round = 0; round < 3; round++) {
+			for (int index = 0; index < 5; index++) {
+				detector.record("select " + index, 10);
+			}
+		}
+		
+		// Only the first three fingerprints are tracked
+		assertEquals(3, detector.size());
+		assertEquals("select 2", detector.getFingerprint(2));
+		assertEquals(3, detector.getExecutionCount(2));
+		assertEquals(30, detector.getTotalTime(2));
+		assertTrue(detector.isRepeated(2));
+		
+		detector.clear();
+		assertEquals(0, detector.size());
+		
+		detector.record("select 4", 10);
+		assertEquals("select 4", detector.getFingerprint(0));
+		assertFalse(detector.isRepeated(0));
+	}
+	
+	@Test
+	public void testRepeatedQueriesAreReported() throws SQLException {
+		RecordingListener listener = new RecordingListener();
+		
+		Map<String, String> properties = new HashMap<>();
+		properties.put("repeated.query.threshold", "3");
+		
+		try (TestMonitoringConnection connection = TestMonitoringConnection.open(DriverManager.getConnection("jdbc:h2:mem:"),
+				Collections.singletonList(listener), properties)) {
+			connection.setAutoCommit(false);
+			
+			// Four executions of the same query with different parameters and literals
+			try (PreparedStatement statement = connection.prepareStatement("select ? + 1")) {
+				for (int value = 0; value < 2; value++) {
+					statement.setInt(1, value);
+					statement.executeQuery().close();
+				}
+			}
+			
+			try (Statement statement = connection.createStatement()) {
+				for (int value = 2; value < 4; value++) {
+					statement.executeQuery("select " + value + " + 1").close();
+				}
+				
+				// Queries below the threshold are not reported
+				try (ResultSet resultSet = statement.executeQuery("select 1")) {
+					resultSet.next();
+				}
+			}
+			
+			connection.commit();
+			
+			assertEquals(Collections.singletonList("select ? + ?"), listener.fingerprints);
+			assertEquals(Collections.singletonList(4), listener.executionCounts);
+			assertTrue(listener.totalTimes.get(0) > 0);
+			
+			// Counts do not carry over into the next transaction
+			try (Statement statement = connection.createStatement()) {
+				statement.executeQuery("select 5 + 1").close();
+			}
+			
+			connection.rollback();
+			assertEquals(1, listener.fingerprints.size());
+		}
+		
+		assertEquals(1, MetricsRegistry.getTransactionMetrics(TestMonitoringConnection.TYPE).getRepeatedQueryCount());
+	}
+	
+	private static class RecordingListener implements TransactionListener {
+		
+		public final List<String> fingerprints = new ArrayList<>();
+		
+		public final List<Integer> executionCounts = new ArrayList<>();
+		
+		public final List<Long> totalTimes = new ArrayList<>();
+		
+		@Override
+		public void onTransactionStart(final TxMonitoringConnection connection) {
+			// Do nothing
+		}
+		
+		@Override
+		public void onTransactionEnd(final TxMonitoringConnection connection, final boolean success) {
+			// Do nothing
+		}
+		
+		@Override
+		public void onRepeatedQuery(final TxMonitoringConnection connection, final String fingerprint, final int executionCount,
+				final long totalTimeNanos) {
+			this.fingerprints.add(fingerprint);
+			this.executionCounts.add(executionCount);
+			this.totalTimes.add(totalTimeNanos);
+		}
+		
+	}
+
+}
@@ -0,0 +1,183 @@
+package jdbcwrapper.txmonitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+public class TransactionEventDispatcherTest {
+	
+	@Test
+	public void testEventsAreDeliveredInOrder() throws InterruptedException {
+		TransactionEventDispatcher dispatcher = new TransactionEventDispatcher("test", 16, BufferFullPolicy.BLOCK, 1);
+		List<Integer> transactionIds = Collections.synchronizedList(new ArrayList<>());
+		TransactionListener listener = new RecordingListener(transactionIds);
+		
+		for (int transactionId = 0; transactionId < 1000; transactionId++) {
+			int currentId = transactionId;
+			assertTrue(dispatcher.publishEnd(committedEvent(() -> currentId), Collections.singletonList(listener)));
+		}
+		
+		dispatcher.shutdown();
+		
+		assertEquals(1000, transactionIds.size());
+		for (int index = 0; index < 1000; index++) {
+			assertEquals(index, transactionIds.get(index).intValue());
+		}
+		
+		assertEquals(0, dispatcher.getDroppedEventCount());
+		assertEquals(0, dispatcher.getBacklog());
+		assertEquals(1000, dispatcher.getLagSnapshot().getCount());
+	}
+	
+	@Test
+	public void testEventsAreDroppedWhenFull() throws InterruptedException {
+		TransactionEventDispatcher dispatcher = new TransactionEventDispatcher("test", 4, BufferFullPolicy.DROP, 1);
+		BlockingListener listener = new BlockingListener();
+		List<TransactionListener> listeners = Collections.singletonList(listener);
+		
+		// Wait until the dispatcher thread is blocked by the first event
+		assertTrue(dispatcher.publishStart(() -> 0, listeners));
+		listener.started.await();
+		
+		// The first event still occupies its slot, so only three more fit into the buffer
+		int acceptedCount = 0;
+		for (int index = 0; index < 10; index++) {
+			if (dispatcher.publishStart(() -> 0, listeners)) {
+				acceptedCount++;
+			}
+		}
+		
+		assertEquals(3, acceptedCount);
+		assertEquals(7, dispatcher.getDroppedEventCount());
+		assertFalse(dispatcher.publishStart(() -> 0, listeners));
+		
+		listener.release.countDown();
+		dispatcher.shutdown();
+		
+		assertEquals(4, listener.eventCount);
+		assertEquals(4, dispatcher.getPublishedEventCount());
+		assertEquals(8, dispatcher.getDroppedEventCount());
+	}
+	
+	@Test
+	public void testListenerErrorsAreCounted() throws InterruptedException {
+		TransactionEventDispatcher dispatcher = new TransactionEventDispatcher("test", 4, BufferFullPolicy.BLOCK, 1);
+		List<Integer> transactionIds = new ArrayList<>();
+		List<TransactionListener> listeners = new ArrayList<>();
+		listeners.add(new FailingListener());
+		listeners.add(new ErrorListener());
+		listeners.add(new RecordingListener(transactionIds));
+		
+		dispatcher.publishEnd(committedEvent(() -> 42), listeners);
+		dispatcher.publishEnd(committedEvent(() -> 43), listeners);
+		dispatcher.shutdown();
+		
+		// The failing listeners must not prevent the delivery to the others
+		assertEquals(4, dispatcher.getListenerErrorCount());
+		assertEquals(Arrays.asList(42, 43), transactionIds);
+	}
+	
+	@Test
+	public void testEventsAreDroppedAfterShutdown() throws InterruptedException {
+		TransactionEventDispatcher dispatcher = new TransactionEventDispatcher("test", 1, BufferFullPolicy.BLOCK, 1);
+		dispatcher.shutdown();
+		
+		// Without a consumer, the event is dropped instead of waiting for room in the buffer
+		assertFalse(dispatcher.publishStart(() -> 0, Collections.singletonList(new FailingListener())));
+		assertFalse(dispatcher.publishStart(() -> 0, Collections.singletonList(new FailingListener())));
+		assertEquals(2, dispatcher.getDroppedEventCount());
+	}
+	
+	private static TransactionEvent committedEvent(final TxMonitoringConnection connection) {
+		TransactionEvent event = new TransactionEvent(connection);
+		event.start(100);
+		event.end(TransactionOutcome.COMMITTED, 150, 200, null);
+		
+		return event;
+	}
+	
+	private static class RecordingListener implements TransactionListener {
+		
+		private final List<Integer> transactionIds;
+		
+		public RecordingListener(final List<Integer> transactionIds) {
+			this.transactionIds = transactionIds;
+		}
+		
+		@Override
+		public void onTransactionStart(final TxMonitoringConnection connection) {
+			// Do nothing
+		}
+		
+		@Override
+		public void onTransactionEnd(final TxMonitoringConnection connection, final boolean success) {
+			this.transactionIds.add(connection.getTransactionId());
+		}
+		
+	}
+	
+	private static class BlockingListener implements TransactionListener {
+		
+		public final CountDownLatch started = new CountDownLatch(1);
+		
+		public final CountDownLatch release = new CountDownLatch(1);
+		
+		// Only accessed by the dispatcher thread and after shutdown
+		public int eventCount;
+		
+		@Override
+		public void onTransactionStart(final TxMonitoringConnection connection) {
+			this.eventCount++;
+			this.started.countDown();
+			
+			try {
+				this.release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		
+		@Override
+		public void onTransactionEnd(final TxMonitoringConnection connection, final boolean success) {
+			// Do nothing
+		}
+		
+	}
+	
+	private static class ErrorListener implements TransactionListener {
+		
+		@Override
+		public void onTransactionStart(final TxMonitoringConnection connection) {
+			throw new Error("Start failed.");
+		}
+		
+		@Override
+		public void onTransactionEnd(final TxMonitoringConnection connection, final boolean success) {
+			throw new Error("End failed.");
+		}
+		
+	}
+	
+	private static class FailingListener implements TransactionListener {
+		
+		@Override
+		public void onTransactionStart(final TxMonitoringConnection connection) {
+			throw new IllegalStateException("Start failed.");
+		}
+		
+		@Override
+		public void onTransactionEnd(final TxMonitoringConnection connection, final boolean success) {
+			throw new IllegalStateException("End failed.");
+		}
+		
+	}
+
+}
@@ -0,0 +1,172 @@
+package jdbcwrapper.txmonitoring.postgres;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import jdbcwrapper.test.TestMetadata;
+import jdbcwrapper.txmonitoring.TransactionListener;
+import jdbcwrapper.txmonitoring.TxMonitoringConnection;
+import jdbcwrapper.util.DriverMetadata;
+
+// Uses an H2 database with Java functions emulating the PostgreSQL transaction id functions
+public class PostgresMonitoringConnectionTest {
+	
+	private static final AtomicInteger TRANSACTION_ID_QUERIES = new AtomicInteger();
+	
+	private static final AtomicInteger NEXT_TRANSACTION_ID = new AtomicInteger(100);
+	
+	public static long txidCurrent() {
+		TRANSACTION_ID_QUERIES.incrementAndGet();
+		return NEXT_TRANSACTION_ID.incrementAndGet();
+	}
+	
+	public static Long txidCurrentIfAssigned() {
+		TRANSACTION_ID_QUERIES.incrementAndGet();
+		return null;
+	}
+	
+	@Test
+	public void testTransactionIdIsCachedPerTransaction() throws SQLException {
+		try (PostgresMonitoringConnection connection = this.openConnection("current", Collections.emptyList())) {
+			connection.setAutoCommit(false);
+			TRANSACTION_ID_QUERIES.set(0);
+			
+			int transactionId = connection.getTransactionId();
+			assertEquals(transactionId, connection.getTransactionId());
+			assertEquals(1, TRANSACTION_ID_QUERIES.get());
+			
+			// A new transaction gets a new id
+			connection.commit();
+			assertEquals(transactionId + 1, connection.getTransactionId());
+			assertEquals(2, TRANSACTION_ID_QUERIES.get());
+			
+			// In auto-commit mode, nothing is cached
+			connection.setAutoCommit(true);
+			connection.getTransactionId();
+			connection.getTransactionId();
+			assertEquals(4, TRANSACTION_ID_QUERIES.get());
+		}
+	}
+	
+	@Test
+	public void testTransactionIdIfAssigned() throws SQLException {
+		try (PostgresMonitoringConnection connection = this.openConnection("if-assigned", Collections.emptyList())) {
+			connection.setAutoCommit(false);
+			TRANSACTION_ID_QUERIES.set(0);
+			
+			// No id is assigned for transactions that did not write
+			assertEquals(0, connection.getTransactionId());
+			assertEquals(1, TRANSACTION_ID_QUERIES.get());
+		}
+	}
+	
+	@Test
+	public void testTransactionIdAtCommit() throws SQLException {
+		List<Integer> transactionIds = new ArrayList<>();
+		TransactionListener listener = new TransactionListener() {
+			
+			@Override
+			public void onTransactionStart(final TxMonitoringConnection connection) {
+				transactionIds.add(connection.getTransactionId());
+			}
+			
+			@Override
+			public void onTransactionEnd(final TxMonitoringConnection connection, final boolean success) {
+				transactionIds.add(connection.getTransactionId());
+			}
+			
+		};
+		
+		try (PostgresMonitoringConnection connection = this.openConnection("at-commit", Collections.singletonList(listener))) {
+			TRANSACTION_ID_QUERIES.set(0);
+			
+			// The id is only queried once at commit time
+			connection.setAutoCommit(false);
+			connection.getTransactionId();
+			assertEquals(0, TRANSACTION_ID_QUERIES.get());
+			
+			connection.commit();
+			assertEquals(1, TRANSACTION_ID_QUERIES.get());
+			assertEquals(2, transactionIds.size());
+			
+			// Rollbacks do not query the id, as the transaction may be aborted
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("select 1");
+			}
+			
+			connection.rollback();
+			assertEquals(1, TRANSACTION_ID_QUERIES.get());
+			assertEquals(4, transactionIds.size());
+		}
+	}
+	
+	@Test
+	public void testTransactionIdIsNotPrefetched() throws SQLException {
+		List<Integer> transactionIds = new ArrayList<>();
+		TransactionListener listener = new TransactionListener() {
+			
+			@Override
+			public void onTransactionStart(final TxMonitoringConnection connection) {
+				// Do not request the id
+			}
+			
+			@Override
+			public void onTransactionEnd(final TxMonitoringConnection connection, final boolean success) {
+				transactionIds.add(connection.getTransactionId());
+			}
+			
+		};
+		
+		try (PostgresMonitoringConnection connection = this.openConnection("current", Collections.singletonList(listener))) {
+			connection.setAutoCommit(false);
+			TRANSACTION_ID_QUERIES.set(0);
+			
+			// Unless requested during the transaction, the id is not queried
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("select 1");
+			}
+			
+			connection.commit();
+			assertEquals(0, TRANSACTION_ID_QUERIES.get());
+			assertEquals(Collections.singletonList(0), transactionIds);
+			
+			// An id requested during the transaction is reported at its end
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("select 1");
+			}
+			
+			int transactionId = connection.getTransactionId();
+			connection.commit();
+			assertEquals(1, TRANSACTION_ID_QUERIES.get());
+			assertEquals(transactionId, transactionIds.get(1).intValue());
+		}
+	}
+	
+	private PostgresMonitoringConnection openConnection(final String transactionIdMode, final List<TransactionListener> listeners) throws SQLException {
+		Connection connection = DriverManager.getConnection("jdbc:h2:mem:");
+		
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("create alias txid_current for '" + PostgresMonitoringConnectionTest.class.getName() + ".txidCurrent'");
+			statement.execute("create alias txid_current_if_assigned for '" + PostgresMonitoringConnectionTest.class.getName() + ".txidCurrentIfAssigned'");
+		}
+		
+		Map<String, String> properties = new HashMap<>();
+		properties.put("transaction.id.mode", transactionIdMode);
+		DriverMetadata metadata = TestMetadata.forProperties("postgres-test", properties);
+		
+		return new PostgresMonitoringConnection(connection, listeners, metadata);
+	}
+
+}
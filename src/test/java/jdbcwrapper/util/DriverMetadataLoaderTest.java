@@ -1,10 +1,26 @@
 package jdbcwrapper.util;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Test;
 
+import jdbcwrapper.test.TestConnectionListener1;
+import jdbcwrapper.test.TestConnectionListener2;
+import jdbcwrapper.test.TestConnectionWithListeners;
+import jdbcwrapper.test.TestConnectionWithoutListeners;
+import jdbcwrapper.txmonitoring.postgres.PostgresMonitoringConnection;
+
 public class DriverMetadataLoaderTest {
 
 	@Test
@@ -13,7 +29,93 @@ public class DriverMetadataLoaderTest {
 				"postgresql.connection.listeners=jdbcwrapper.test.TestConnectionListener1, jdbcwrapper.test.TestConnectionListener2";
 		InputStream inputStream = new ByteArrayInputStream(metadata.getBytes());
 		
-		new DriverMetadataLoader().loadMetadata(inputStream);
+		Map<String, DriverMetadata> metadataMap = new DriverMetadataLoader().loadMetadata(inputStream);
+		DriverMetadata postgresMetadata = metadataMap.get("postgresql");
+		
+		assertTrue(postgresMetadata.acceptsConnectionListeners);
+		assertEquals(ListenerScope.PER_CONNECTION, postgresMetadata.connectionListenerScope);
+		assertEquals(2, postgresMetadata.connectionListenerFactories.size());
+		assertTrue(postgresMetadata.connectionListenerFactories.get(0).create() instanceof TestConnectionListener1);
+		assertTrue(postgresMetadata.connectionListenerFactories.get(1).create() instanceof TestConnectionListener2);
+		
+		Connection wrapper = postgresMetadata.connectionWrapperFactory.create(null, Collections.emptyList(), postgresMetadata);
+		assertTrue(wrapper instanceof TestConnectionWithListeners);
+	}
+	
+	@Test
+	public void testDriverWithMetadata() {
+		String metadata = "postgresql.connection.wrapper=jdbcwrapper.txmonitoring.postgres.PostgresMonitoringConnection\n" +
+				"postgresql.statistics.size=10";
+		InputStream inputStream = new ByteArrayInputStream(metadata.getBytes());
+		
+		DriverMetadata postgresMetadata = new DriverMetadataLoader().loadMetadata(inputStream).get("postgresql");
+		
+		assertTrue(postgresMetadata.acceptsDriverMetadata);
+		assertEquals(10, postgresMetadata.getIntProperty("statistics.size", 0));
+		
+		Connection wrapper = postgresMetadata.connectionWrapperFactory.create(null, Collections.emptyList(), postgresMetadata);
+		assertTrue(wrapper instanceof PostgresMonitoringConnection);
+	}
+	
+	@Test
+	public void testDriverWithoutListeners() {
+		String metadata = "h2.connection.wrapper=jdbcwrapper.test.TestConnectionWithoutListeners";
+		InputStream inputStream = new ByteArrayInputStream(metadata.getBytes());
+		
+		DriverMetadata h2Metadata = new DriverMetadataLoader().loadMetadata(inputStream).get("h2");
+		
+		assertFalse(h2Metadata.acceptsConnectionListeners);
+		assertTrue(h2Metadata.connectionListenerFactories.isEmpty());
+		
+		Connection wrapper = h2Metadata.connectionWrapperFactory.create(null, Collections.emptyList(), h2Metadata);
+		assertTrue(wrapper instanceof TestConnectionWithoutListeners);
+	}
+	
+	@Test
+	public void testListenerScopes() throws InterruptedException {
+		String metadata = "singleton.connection.wrapper=jdbcwrapper.test.TestConnectionWithListeners\n" + 
+				"singleton.connection.listeners=jdbcwrapper.test.TestConnectionListener1\n" +
+				"singleton.connection.listeners.scope=singleton\n" +
+				"perThread.connection.wrapper=jdbcwrapper.test.TestConnectionWithListeners\n" + 
+				"perThread.connection.listeners=jdbcwrapper.test.TestConnectionListener1\n" +
+				"perThread.connection.listeners.scope=PER_THREAD\n" +
+				"perConnection.connection.wrapper=jdbcwrapper.test.TestConnectionWithListeners\n" + 
+				"perConnection.connection.listeners=jdbcwrapper.test.TestConnectionListener1\n" +
+				"perConnection.connection.listeners.scope=invalid";
+		InputStream inputStream = new ByteArrayInputStream(metadata.getBytes());
+		
+		Map<String, DriverMetadata> metadataMap = new DriverMetadataLoader().loadMetadata(inputStream);
+		
+		// Singleton listeners are shared across threads
+		ListenerFactory singletonFactory = metadataMap.get("singleton").connectionListenerFactories.get(0);
+		assertEquals(ListenerScope.SINGLETON, singletonFactory.getScope());
+		
+		Object singletonListener = singletonFactory.create();
+		assertSame(singletonListener, singletonFactory.create());
+		assertSame(singletonListener, createInOtherThread(singletonFactory));
+		
+		// Per-thread listeners are only shared within the same thread
+		ListenerFactory perThreadFactory = metadataMap.get("perThread").connectionListenerFactories.get(0);
+		assertEquals(ListenerScope.PER_THREAD, perThreadFactory.getScope());
+		
+		Object perThreadListener = perThreadFactory.create();
+		assertSame(perThreadListener, perThreadFactory.create());
+		assertNotSame(perThreadListener, createInOtherThread(perThreadFactory));
+		
+		// Invalid scopes fall back to per-connection listeners
+		ListenerFactory perConnectionFactory = metadataMap.get("perConnection").connectionListenerFactories.get(0);
+		assertEquals(ListenerScope.PER_CONNECTION, perConnectionFactory.getScope());
+		assertNotSame(perConnectionFactory.create(), perConnectionFactory.create());
+	}
+	
+	private static Object createInOtherThread(final ListenerFactory factory) throws InterruptedException {
+		AtomicReference<Object> listener = new AtomicReference<>();
+		
+		Thread thread = new Thread(() -> listener.set(factory.create()));
+		thread.start();
+		thread.join();
+		
+		return listener.get();
 	}
 	
 }
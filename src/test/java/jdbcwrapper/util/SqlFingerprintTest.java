@@ -0,0 +1,39 @@
+package jdbcwrapper.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+public class SqlFingerprintTest {
+	
+	@Test
+	public void testLiteralsAreReplaced() {
+		assertEquals("select * from customer where id = ? and name = ?", SqlFingerprint.of("select * from customer where id = 42 and name = 'O''Brien'"));
+		assertEquals("update t1 set price = ? where id = ?", SqlFingerprint.of("UPDATE t1 SET price = 1.5e3 WHERE id = $1"));
+	}
+	
+	@Test
+	public void testWhitespaceAndCommentsAreNormalized() {
+		assertEquals("select a, b from c where d = ?", SqlFingerprint.of("  SELECT a,  b\n\tFROM c -- comment\n WHERE /* block */ d = ?  "));
+	}
+	
+	@Test
+	public void testInListsAreCollapsed() {
+		assertEquals("select * from t where id in (?)", SqlFingerprint.of("select * from t where id in (1, 2, 3)"));
+		assertEquals("select * from t where id in (?) and x = ?", SqlFingerprint.of("select * from t where id IN (?,?,?,?) and x = 'y'"));
+		assertEquals("select * from t where id in (select id from u)", SqlFingerprint.of("select * from t where id in (select id from u)"));
+		assertEquals("insert into t values (?, ?)", SqlFingerprint.of("insert into t values (1, 'a')"));
+	}
+	
+	@Test
+	public void testQuotedIdentifiersAreKept() {
+		assertEquals("select \"Name\" from \"T1\"", SqlFingerprint.of("SELECT \"Name\" FROM \"T1\""));
+	}
+	
+	@Test
+	public void testNull() {
+		assertNull(SqlFingerprint.of(null));
+	}
+
+}
@@ -0,0 +1,99 @@
+package jdbcwrapper.watchdog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import jdbcwrapper.measurement.MetricsRegistry;
+import jdbcwrapper.test.ResetRegistries;
+import jdbcwrapper.test.TestMonitoringConnection;
+
+@ExtendWith(ResetRegistries.class)
+public class StatementWatchdogTest {
+	
+	private static final String URL = "jdbc:h2:mem:watchdog";
+	
+	// Runs for minutes unless cancelled
+	private static final String LONG_QUERY = "select count(*) from system_range(1, 1000000) a, system_range(1, ?) b";
+	
+	private static final String LONG_QUERY_LITERAL = LONG_QUERY.replace("?", "100000");
+	
+	@Test
+	public void testStatementExceedingTheTypeBudgetIsCancelled() throws SQLException {
+		Map<String, String> properties = new HashMap<>();
+		properties.put("statement.timeout.millis", "100");
+		
+		try (Connection connection = createConnection(properties);
+				Statement statement = connection.createStatement()) {
+			long startTime = System.nanoTime();
+			SQLException exception = assertThrows(SQLException.class, () -> statement.executeQuery(LONG_QUERY_LITERAL));
+			long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+			
+			assertEquals("57014", exception.getSQLState());
+			assertTrue(durationMillis < 5000, "Cancelled after " + durationMillis + " ms");
+			assertEquals(1, MetricsRegistry.getStatementMetrics(TestMonitoringConnection.TYPE).getCancelledStatementCount());
+			
+			// The statement remains usable and executions within the budget are not cancelled
+			for (int index = 0; index < 10; index++) {
+				try (ResultSet resultSet = statement.executeQuery("select 1")) {
+					assertTrue(resultSet.next());
+				}
+			}
+			assertEquals(1, MetricsRegistry.getStatementMetrics(TestMonitoringConnection.TYPE).getCancelledStatementCount());
+		}
+	}
+	
+	@Test
+	public void testFingerprintBudgetsOverrideTheTypeBudget() throws Exception {
+		Map<String, String> properties = new HashMap<>();
+		properties.put("statement.timeout.overrides", "100 : " + LONG_QUERY + "; 0:select 1; invalid");
+		
+		try (Connection connection = createConnection(properties)) {
+			try (PreparedStatement statement = connection.prepareStatement(LONG_QUERY)) {
+				statement.setInt(1, 100000);
+				
+				SQLException exception = assertThrows(SQLException.class, statement::executeQuery);
+				assertEquals("57014", exception.getSQLState());
+			}
+			
+			// Other statements have no budget
+			try (PreparedStatement statement = connection.prepareStatement("select count(*) from system_range(1, 10) where x > ?")) {
+				statement.setInt(1, 5);
+				
+				try (ResultSet resultSet = statement.executeQuery()) {
+					assertTrue(resultSet.next());
+					assertEquals(5, resultSet.getInt(1));
+				}
+			}
+		}
+		
+		assertEquals(1, MetricsRegistry.getStatementMetrics(TestMonitoringConnection.TYPE).getCancelledStatementCount());
+		assertEquals(0, StatementWatchdog.getWatchdog(TestMonitoringConnection.TYPE).getDefaultBudgetNanos());
+	}
+	
+	@Test
+	public void testNoWatchdogWithoutBudgets() throws SQLException {
+		try (Connection connection = createConnection(Collections.emptyMap())) {
+			assertNull(((TestMonitoringConnection) connection).getStatementWatchdog());
+		}
+	}
+	
+	private static Connection createConnection(final Map<String, String> properties) throws SQLException {
+		return TestMonitoringConnection.open(URL, properties);
+	}
+
+}